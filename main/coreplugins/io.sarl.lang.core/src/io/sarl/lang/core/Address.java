@@ -47,6 +47,10 @@ public class Address extends SRESpecificDataContainer implements Serializable, C
 
 	private final SpaceID spaceId;
 
+	/** Cached hash code, or {@code 0} if not yet computed.
+	 */
+	private transient int hash;
+
 	/**
 	 * Create an address based on the specified identifier.
 	 *
@@ -83,9 +87,13 @@ public class Address extends SRESpecificDataContainer implements Serializable, C
 	@Override
 	@Pure
 	public int hashCode() {
-		int result = 1;
-		result = 31 * result + ((this.agentId == null) ? 0 : this.agentId.hashCode());
-		result = 31 * result + ((this.spaceId == null) ? 0 : this.spaceId.hashCode());
+		int result = this.hash;
+		if (result == 0) {
+			result = 1;
+			result = 31 * result + ((this.agentId == null) ? 0 : this.agentId.hashCode());
+			result = 31 * result + ((this.spaceId == null) ? 0 : this.spaceId.hashCode());
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -115,6 +123,9 @@ public class Address extends SRESpecificDataContainer implements Serializable, C
 	 */
 	@Pure
 	public boolean equals(Address address) {
+		if (this == address) {
+			return true;
+		}
 		return address != null && this.agentId.equals(address.getUUID())
 				&& this.spaceId.equals(address.getSpaceID());
 	}
@@ -159,6 +170,9 @@ public class Address extends SRESpecificDataContainer implements Serializable, C
 		if (address == null) {
 			return 1;
 		}
+		if (this == address) {
+			return 0;
+		}
 		return this.agentId.compareTo(address.getUUID());
 	}
 
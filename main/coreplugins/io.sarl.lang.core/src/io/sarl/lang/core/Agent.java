@@ -22,6 +22,9 @@
 package io.sarl.lang.core;
 
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
@@ -55,6 +58,18 @@ import io.sarl.lang.util.ClearableReference;
 @SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
 public class Agent extends AgentProtectedAPIObject implements Identifiable {
 
+	/** Capacities that are implemented by the skill types.
+	 *
+	 * <p>Since the cache is associated to the types, it is specific to each class loader.
+	 */
+	private static final ClassValue<List<Class<? extends Capacity>>> IMPLEMENTED_CAPACITIES =
+			new ClassValue<List<Class<? extends Capacity>>>() {
+				@Override
+				protected List<Class<? extends Capacity>> computeValue(Class<?> skillType) {
+					return findImplementedCapacities(skillType);
+				}
+			};
+
 	private final UUID id;
 
 	private final UUID parentID;
@@ -253,12 +268,20 @@ public class Agent extends AgentProtectedAPIObject implements Identifiable {
 	}
 
 	private static void runOnImplementedCapacities(Skill skill, Procedure1<? super Class<? extends Capacity>> callback) {
-		TypeToken.of(skill.getClass()).getTypes().interfaces().stream().parallel().forEach(it -> {
+		for (final Class<? extends Capacity> capacity : IMPLEMENTED_CAPACITIES.get(skill.getClass())) {
+			callback.apply(capacity);
+		}
+	}
+
+	private static List<Class<? extends Capacity>> findImplementedCapacities(Class<?> skillType) {
+		final List<Class<? extends Capacity>> capacities = new ArrayList<>();
+		for (final TypeToken<?> it : TypeToken.of(skillType).getTypes().interfaces()) {
 			final Class<?> type = it.getRawType();
 			if (Capacity.class.isAssignableFrom(type) && !Capacity.class.equals(type)) {
-				callback.apply(type.asSubclass(Capacity.class));
+				capacities.add(type.asSubclass(Capacity.class));
 			}
-		});
+		}
+		return Collections.unmodifiableList(capacities);
 	}
 
 	@Override
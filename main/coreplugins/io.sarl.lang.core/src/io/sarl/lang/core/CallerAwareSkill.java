@@ -0,0 +1,56 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.sarl.lang.core;
+
+/** Skill that receives explicitly the caller of the capacity functions.
+ *
+ * <p>When a capacity function is invoked from a behavior, the skill is wrapped into an instance of
+ * {@link Capacity.ContextAwareCapacityWrapper}, which stores the caller into a local-thread variable
+ * before each invocation and removes it after. The skill retrieves the caller with
+ * {@link Capacities#getCaller()}.
+ *
+ * <p>A skill that implements this interface is asked by {@link Capacities#createSkillDelegator(Skill, Class, AgentTrait)}
+ * for an implementation of the capacity that is bound to the caller. This implementation is
+ * usually a small object that keeps the caller and invokes the caller-aware overloads of the skill's
+ * functions, e.g. {@code move(caller, direction)} for the capacity function {@code move(direction)}.
+ * In this case, the local-thread variable is not used.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public interface CallerAwareSkill {
+
+	/** Replies the implementation of the given capacity that is bound to the given caller.
+	 *
+	 * @param <C> the type of the capacity.
+	 * @param capacity the implemented capacity.
+	 * @param caller the caller of the capacity functions.
+	 * @return the implementation of the capacity, or {@code null} if the capacity must be invoked through
+	 *     its context-aware wrapper.
+	 */
+	<C extends Capacity> C bindCaller(Class<C> capacity, AgentTrait caller);
+
+}
@@ -21,7 +21,11 @@
 
 package io.sarl.lang.core;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.xtext.xbase.lib.Pure;
 
@@ -41,6 +45,19 @@ public final class Capacities {
 
 	private static final String CAPACITY_WRAPPER_NAME = "$" + Capacity.ContextAwareCapacityWrapper.class.getSimpleName(); //$NON-NLS-1$;
 
+	private static final MethodType DELEGATOR_FACTORY_TYPE = MethodType.methodType(Object.class, Skill.class, AgentTrait.class);
+
+	/** Factories of the skill delegators, associated to the capacity types.
+	 *
+	 * <p>Since the cache is associated to the types, it is specific to each class loader.
+	 */
+	private static final ClassValue<DelegatorFactory> DELEGATOR_FACTORIES = new ClassValue<DelegatorFactory>() {
+		@Override
+		protected DelegatorFactory computeValue(Class<?> capacity) {
+			return DelegatorFactory.create(capacity);
+		}
+	};
+
 	private Capacities() {
 		//
 	}
@@ -72,6 +89,9 @@ public final class Capacities {
 	 * all the super types of the {@code capacity}. The expected constructor for this inner type has the same
 	 * signature as the one of {@link Capacity.ContextAwareCapacityWrapper}.
 	 *
+	 * <p>If the original skill implements {@link CallerAwareSkill}, the implementation of the capacity that is
+	 * replied by {@link CallerAwareSkill#bindCaller(Class, AgentTrait)} is used in place of the delegator.
+	 *
 	 * <p>The function {@link #createSkillDelegatorIfPossible(Skill, Class, AgentTrait)} is a similar function than this
 	 * function, except that it does not fail when the delegator instance cannot be created. In this last case,
 	 * the function {@link #createSkillDelegatorIfPossible(Skill, Class, AgentTrait)} reply the original skill itself.
@@ -87,10 +107,13 @@ public final class Capacities {
 	@Pure
 	public static <C extends Capacity> C createSkillDelegator(Skill originalSkill, Class<C> capacity, AgentTrait capacityCaller)
 			throws Exception {
-		final String name = capacity.getName() + CAPACITY_WRAPPER_NAME;
-		final Class<?> type = Class.forName(name, true, capacity.getClassLoader());
-		final Constructor<?> cons = type.getDeclaredConstructor(capacity, AgentTrait.class);
-		return capacity.cast(cons.newInstance(originalSkill, capacityCaller));
+		if (originalSkill instanceof CallerAwareSkill) {
+			final C boundSkill = ((CallerAwareSkill) originalSkill).bindCaller(capacity, capacityCaller);
+			if (boundSkill != null) {
+				return boundSkill;
+			}
+		}
+		return capacity.cast(DELEGATOR_FACTORIES.get(capacity).newInstance(originalSkill, capacityCaller));
 	}
 
 	/** Create a delegator for the given skill when it is possible.
@@ -129,4 +152,64 @@ public final class Capacities {
 		}
 	}
 
+	/** Factory of the delegators for a capacity.
+	 *
+	 * <p>The constructor of the delegator is searched only once, when the factory is created.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class DelegatorFactory {
+
+		private final MethodHandle constructor;
+
+		private final ReflectiveOperationException error;
+
+		private DelegatorFactory(MethodHandle constructor, ReflectiveOperationException error) {
+			this.constructor = constructor;
+			this.error = error;
+		}
+
+		/** Create the factory for the given capacity.
+		 *
+		 * @param capacity the capacity that contains the definition of the delegator.
+		 * @return the factory.
+		 */
+		static DelegatorFactory create(Class<?> capacity) {
+			try {
+				final String name = capacity.getName() + CAPACITY_WRAPPER_NAME;
+				final Class<?> type = Class.forName(name, true, capacity.getClassLoader());
+				final Constructor<?> cons = type.getDeclaredConstructor(capacity, AgentTrait.class);
+				final MethodHandle handle = MethodHandles.lookup().unreflectConstructor(cons);
+				return new DelegatorFactory(handle.asType(DELEGATOR_FACTORY_TYPE), null);
+			} catch (ReflectiveOperationException exception) {
+				return new DelegatorFactory(null, exception);
+			} catch (RuntimeException exception) {
+				return new DelegatorFactory(null, new ReflectiveOperationException(exception));
+			}
+		}
+
+		/** Create a delegator.
+		 *
+		 * @param originalSkill the skill to delegate to.
+		 * @param capacityCaller the caller of the capacity functions.
+		 * @return the delegator.
+		 * @throws Exception if the delegator cannot be created.
+		 */
+		Object newInstance(Skill originalSkill, AgentTrait capacityCaller) throws Exception {
+			if (this.constructor == null) {
+				throw this.error;
+			}
+			try {
+				return this.constructor.invokeExact(originalSkill, capacityCaller);
+			} catch (Throwable exception) {
+				throw new InvocationTargetException(exception);
+			}
+		}
+
+	}
+
 }
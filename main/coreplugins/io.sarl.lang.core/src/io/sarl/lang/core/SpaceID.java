@@ -46,6 +46,10 @@ public class SpaceID extends SRESpecificDataContainer implements Serializable, C
 
 	private final transient Class<? extends SpaceSpecification<?>> spaceSpec;
 
+	/** Cached hash code, or {@code 0} if not yet computed.
+	 */
+	private transient int hash;
+
 	/** Constructs a space ID.
 	 *
 	 * @param contextID the unique ID of the context that contains the space (cannot be <code>null</code>).
@@ -94,9 +98,13 @@ public class SpaceID extends SRESpecificDataContainer implements Serializable, C
 	@Override
 	@Pure
 	public int hashCode() {
-		int result = 1;
-		result = 31 * result + (this.contextID == null ? 0 : this.contextID.hashCode());
-		result = 31 * result + (this.id == null ? 0 : this.id.hashCode());
+		int result = this.hash;
+		if (result == 0) {
+			result = 1;
+			result = 31 * result + (this.contextID == null ? 0 : this.contextID.hashCode());
+			result = 31 * result + (this.id == null ? 0 : this.id.hashCode());
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -150,6 +158,9 @@ public class SpaceID extends SRESpecificDataContainer implements Serializable, C
 	@Override
 	@Pure
 	public int compareTo(SpaceID otherID) {
+		if (this == otherID) {
+			return 0;
+		}
 		final int cmp = this.contextID.compareTo(otherID.contextID);
 		if (cmp != 0) {
 			return cmp;
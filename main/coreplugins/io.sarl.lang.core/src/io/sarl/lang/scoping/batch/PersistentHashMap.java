@@ -0,0 +1,726 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.scoping.batch;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.xtext.xbase.lib.Pure;
+
+/** Immutable map that is implemented with a persistent hash array mapped trie.
+ *
+ * <p>The addition and the removal of a key create a new map that is sharing the most part
+ * of its structure with the original map. They are running in {@code O(log32 n)}.
+ * The size of the map is replied in {@code O(1)}.
+ *
+ * <p>In opposite to the views that are replied by {@link SARLMapExtensions}, the map is
+ * not changed when the map from which it was built is changed.
+ *
+ * <p>The keys and the values may be {@code null}.
+ * The functions that are changing the map in place throw {@link UnsupportedOperationException}.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values in the map.
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+	private static final long serialVersionUID = -3287440237096612544L;
+
+	private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(0, null, false, null);
+
+	private static final Object NOT_FOUND = new Object();
+
+	private static final int BITS = 5;
+
+	private static final int MASK = 0x1f;
+
+	private final int size;
+
+	private final Node root;
+
+	private final boolean hasNull;
+
+	private final V nullValue;
+
+	private transient Set<Entry<K, V>> entries;
+
+	private PersistentHashMap(int size, Node root, boolean hasNull, V nullValue) {
+		this.size = size;
+		this.root = root;
+		this.hasNull = hasNull;
+		this.nullValue = nullValue;
+	}
+
+	/** Replies the empty map.
+	 *
+	 * @param <K> the type of the keys.
+	 * @param <V> the type of the values.
+	 * @return the empty map.
+	 */
+	@Pure
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) EMPTY;
+	}
+
+	/** Replies a persistent map with the content of the given map.
+	 *
+	 * <p>If the given map is already a persistent map, it is replied without copy.
+	 *
+	 * @param <K> the type of the keys.
+	 * @param <V> the type of the values.
+	 * @param map the map to copy.
+	 * @return the persistent map.
+	 */
+	@Pure
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+		if (map instanceof PersistentHashMap) {
+			// The map is immutable, so it may be safely seen with the super types of its parameters.
+			return (PersistentHashMap<K, V>) map;
+		}
+		return PersistentHashMap.<K, V>empty().plusAll(map);
+	}
+
+	private static int hash(Object key) {
+		final int hash = key.hashCode();
+		return hash ^ (hash >>> 16);
+	}
+
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	/** Replies the map with the given entry.
+	 * If the key is already in this map, its value is replaced in the replied map.
+	 *
+	 * @param key the key.
+	 * @param value the value.
+	 * @return the map with the entry; or this map if it contains already the entry.
+	 */
+	@Pure
+	public PersistentHashMap<K, V> plus(K key, V value) {
+		if (key == null) {
+			if (this.hasNull && this.nullValue == value) {
+				return this;
+			}
+			return new PersistentHashMap<>(this.hasNull ? this.size : this.size + 1, this.root, true, value);
+		}
+		final Node currentRoot = this.root == null ? BitmapIndexedNode.EMPTY : this.root;
+		final boolean[] addedLeaf = new boolean[1];
+		final Node newRoot = currentRoot.plus(0, hash(key), key, value, addedLeaf);
+		if (newRoot == this.root) {
+			return this;
+		}
+		return new PersistentHashMap<>(addedLeaf[0] ? this.size + 1 : this.size, newRoot, this.hasNull, this.nullValue);
+	}
+
+	/** Replies the map with the entries of this map and of the given map.
+	 * If a key is in the two maps, the value of the given map is retained.
+	 *
+	 * @param map the entries to add.
+	 * @return the map with the entries.
+	 */
+	@Pure
+	@SuppressWarnings("unchecked")
+	public PersistentHashMap<K, V> plusAll(Map<? extends K, ? extends V> map) {
+		if (map.isEmpty()) {
+			return this;
+		}
+		if (isEmpty() && map instanceof PersistentHashMap) {
+			return (PersistentHashMap<K, V>) map;
+		}
+		PersistentHashMap<K, V> result = this;
+		for (final Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			result = result.plus(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	/** Replies the map without the given key.
+	 *
+	 * @param key the key.
+	 * @return the map without the key; or this map if the key is not inside.
+	 */
+	@Pure
+	public PersistentHashMap<K, V> minus(Object key) {
+		if (key == null) {
+			if (!this.hasNull) {
+				return this;
+			}
+			return new PersistentHashMap<>(this.size - 1, this.root, false, null);
+		}
+		if (this.root == null) {
+			return this;
+		}
+		final Node newRoot = this.root.minus(0, hash(key), key);
+		if (newRoot == this.root) {
+			return this;
+		}
+		return new PersistentHashMap<>(this.size - 1, newRoot, this.hasNull, this.nullValue);
+	}
+
+	/** Replies the map without the given keys.
+	 *
+	 * @param keys the keys.
+	 * @return the map without the keys.
+	 */
+	@Pure
+	public PersistentHashMap<K, V> minusAll(Iterable<?> keys) {
+		PersistentHashMap<K, V> result = this;
+		for (final Object key : keys) {
+			result = result.minus(key);
+		}
+		return result;
+	}
+
+	@Override
+	@Pure
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	@Pure
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	@Override
+	@Pure
+	public boolean containsKey(Object key) {
+		return find(key) != NOT_FOUND;
+	}
+
+	@Override
+	@Pure
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		final Object value = find(key);
+		return value == NOT_FOUND ? null : (V) value;
+	}
+
+	@Override
+	@Pure
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(Object key, V defaultValue) {
+		final Object value = find(key);
+		return value == NOT_FOUND ? defaultValue : (V) value;
+	}
+
+	private Object find(Object key) {
+		if (key == null) {
+			return this.hasNull ? this.nullValue : NOT_FOUND;
+		}
+		if (this.root == null) {
+			return NOT_FOUND;
+		}
+		return this.root.find(0, hash(key), key);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> map) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public V remove(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	@Pure
+	public Set<Entry<K, V>> entrySet() {
+		Set<Entry<K, V>> set = this.entries;
+		if (set == null) {
+			set = new EntrySet();
+			this.entries = set;
+		}
+		return set;
+	}
+
+	private Object writeReplace() {
+		return new SerializedForm(this);
+	}
+
+	private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+		throw new InvalidObjectException("SerializedForm is expected"); //$NON-NLS-1$
+	}
+
+	/** Set of the entries.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		EntrySet() {
+			//
+		}
+
+		@Override
+		public int size() {
+			return PersistentHashMap.this.size;
+		}
+
+		@Override
+		public boolean contains(Object obj) {
+			if (obj instanceof Entry) {
+				final Entry<?, ?> entry = (Entry<?, ?>) obj;
+				final Object value = find(entry.getKey());
+				return value != NOT_FOUND && Objects.equals(value, entry.getValue());
+			}
+			return false;
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new EntryIterator<>(PersistentHashMap.this.root, PersistentHashMap.this.hasNull,
+					PersistentHashMap.this.nullValue);
+		}
+
+	}
+
+	/** Iterator on the entries of the trie.
+	 *
+	 * <p>The iterator is a depth-first traversal of the trie. The depth of the trie is at most 8.
+	 *
+	 * @param <K> the type of the keys.
+	 * @param <V> the type of the values in the map.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+		private static final int MAX_DEPTH = 8;
+
+		private final Object[][] arrays = new Object[MAX_DEPTH][];
+
+		private final int[] positions = new int[MAX_DEPTH];
+
+		private int depth = -1;
+
+		private boolean hasNull;
+
+		private final V nullValue;
+
+		private Entry<K, V> next;
+
+		EntryIterator(Node root, boolean hasNull, V nullValue) {
+			this.hasNull = hasNull;
+			this.nullValue = nullValue;
+			if (root != null) {
+				push(root);
+			}
+			this.next = searchNext();
+		}
+
+		private void push(Node node) {
+			++this.depth;
+			this.arrays[this.depth] = node.array;
+			this.positions[this.depth] = 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		private Entry<K, V> searchNext() {
+			if (this.hasNull) {
+				this.hasNull = false;
+				return new SimpleImmutableEntry<>(null, this.nullValue);
+			}
+			while (this.depth >= 0) {
+				final Object[] array = this.arrays[this.depth];
+				final int position = this.positions[this.depth];
+				if (position >= array.length) {
+					this.arrays[this.depth] = null;
+					--this.depth;
+				} else {
+					this.positions[this.depth] = position + 2;
+					final Object key = array[position];
+					final Object value = array[position + 1];
+					if (key == null) {
+						push((Node) value);
+					} else {
+						return new SimpleImmutableEntry<>((K) key, (V) value);
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.next != null;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			final Entry<K, V> entry = this.next;
+			if (entry == null) {
+				throw new NoSuchElementException();
+			}
+			this.next = searchNext();
+			return entry;
+		}
+
+	}
+
+	/** Node of the trie.
+	 *
+	 * <p>The array of the node contains pairs of elements. The first element of a pair is the key
+	 * and the second element is the value. If the key is {@code null}, the second element is a sub-node.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private abstract static class Node {
+
+		final Object[] array;
+
+		Node(Object[] array) {
+			this.array = array;
+		}
+
+		/** Replies the value for the given key.
+		 *
+		 * @param shift the shift of the hash code for the level of this node.
+		 * @param hash the hash code of the key.
+		 * @param key the key.
+		 * @return the value, or {@link PersistentHashMap#NOT_FOUND}.
+		 */
+		abstract Object find(int shift, int hash, Object key);
+
+		/** Replies the node with the given entry.
+		 *
+		 * @param shift the shift of the hash code for the level of this node.
+		 * @param hash the hash code of the key.
+		 * @param key the key.
+		 * @param value the value.
+		 * @param addedLeaf set to {@code true} if a new entry was added.
+		 * @return the node, or this node if it contains already the entry.
+		 */
+		abstract Node plus(int shift, int hash, Object key, Object value, boolean[] addedLeaf);
+
+		/** Replies the node without the given key.
+		 *
+		 * @param shift the shift of the hash code for the level of this node.
+		 * @param hash the hash code of the key.
+		 * @param key the key.
+		 * @return the node, this node if the key is not inside, or {@code null} if the node becomes empty.
+		 */
+		abstract Node minus(int shift, int hash, Object key);
+
+		/** Replace an element in a copy of the given array.
+		 *
+		 * @param array the array.
+		 * @param index the index of the element to replace.
+		 * @param element the new element.
+		 * @return the copy.
+		 */
+		static Object[] cloneAndSet(Object[] array, int index, Object element) {
+			final Object[] copy = array.clone();
+			copy[index] = element;
+			return copy;
+		}
+
+		/** Remove a pair from a copy of the given array.
+		 *
+		 * @param array the array.
+		 * @param index the index of the pair.
+		 * @return the copy.
+		 */
+		static Object[] removePair(Object[] array, int index) {
+			final Object[] copy = new Object[array.length - 2];
+			System.arraycopy(array, 0, copy, 0, 2 * index);
+			System.arraycopy(array, 2 * (index + 1), copy, 2 * index, copy.length - 2 * index);
+			return copy;
+		}
+
+	}
+
+	/** Node of the trie that is indexed by the bits of the hash codes.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class BitmapIndexedNode extends Node {
+
+		static final BitmapIndexedNode EMPTY = new BitmapIndexedNode(0, new Object[0]);
+
+		private final int bitmap;
+
+		BitmapIndexedNode(int bitmap, Object[] array) {
+			super(array);
+			this.bitmap = bitmap;
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(this.bitmap & (bit - 1));
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		Object find(int shift, int hash, Object key) {
+			final int bit = bit(hash, shift);
+			if ((this.bitmap & bit) == 0) {
+				return NOT_FOUND;
+			}
+			final int idx = 2 * index(bit);
+			final Object keyOrNull = this.array[idx];
+			final Object valueOrNode = this.array[idx + 1];
+			if (keyOrNull == null) {
+				return ((Node) valueOrNode).find(shift + BITS, hash, key);
+			}
+			if (key.equals(keyOrNull)) {
+				return valueOrNode;
+			}
+			return NOT_FOUND;
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		Node plus(int shift, int hash, Object key, Object value, boolean[] addedLeaf) {
+			final int bit = bit(hash, shift);
+			final int index = index(bit);
+			final int idx = 2 * index;
+			if ((this.bitmap & bit) != 0) {
+				final Object keyOrNull = this.array[idx];
+				final Object valueOrNode = this.array[idx + 1];
+				if (keyOrNull == null) {
+					final Node node = ((Node) valueOrNode).plus(shift + BITS, hash, key, value, addedLeaf);
+					if (node == valueOrNode) {
+						return this;
+					}
+					return new BitmapIndexedNode(this.bitmap, cloneAndSet(this.array, idx + 1, node));
+				}
+				if (key.equals(keyOrNull)) {
+					if (value == valueOrNode) {
+						return this;
+					}
+					return new BitmapIndexedNode(this.bitmap, cloneAndSet(this.array, idx + 1, value));
+				}
+				addedLeaf[0] = true;
+				final Object[] newArray = cloneAndSet(this.array, idx + 1,
+						createNode(shift + BITS, keyOrNull, valueOrNode, hash, key, value));
+				newArray[idx] = null;
+				return new BitmapIndexedNode(this.bitmap, newArray);
+			}
+			final Object[] newArray = new Object[this.array.length + 2];
+			System.arraycopy(this.array, 0, newArray, 0, idx);
+			newArray[idx] = key;
+			newArray[idx + 1] = value;
+			System.arraycopy(this.array, idx, newArray, idx + 2, this.array.length - idx);
+			addedLeaf[0] = true;
+			return new BitmapIndexedNode(this.bitmap | bit, newArray);
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		Node minus(int shift, int hash, Object key) {
+			final int bit = bit(hash, shift);
+			if ((this.bitmap & bit) == 0) {
+				return this;
+			}
+			final int index = index(bit);
+			final int idx = 2 * index;
+			final Object keyOrNull = this.array[idx];
+			final Object valueOrNode = this.array[idx + 1];
+			if (keyOrNull == null) {
+				final Node node = ((Node) valueOrNode).minus(shift + BITS, hash, key);
+				if (node == valueOrNode) {
+					return this;
+				}
+				if (node != null) {
+					return new BitmapIndexedNode(this.bitmap, cloneAndSet(this.array, idx + 1, node));
+				}
+			} else if (!key.equals(keyOrNull)) {
+				return this;
+			}
+			if (this.bitmap == bit) {
+				return null;
+			}
+			return new BitmapIndexedNode(this.bitmap ^ bit, removePair(this.array, index));
+		}
+
+		@SuppressWarnings("synthetic-access")
+		private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+			final int hash1 = hash(key1);
+			if (hash1 == hash2) {
+				return new HashCollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+			}
+			final boolean[] addedLeaf = new boolean[1];
+			return EMPTY.plus(shift, hash1, key1, value1, addedLeaf).plus(shift, hash2, key2, value2, addedLeaf);
+		}
+
+	}
+
+	/** Node of the trie that contains the keys with the same hash code.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class HashCollisionNode extends Node {
+
+		private final int hash;
+
+		HashCollisionNode(int hash, Object[] array) {
+			super(array);
+			this.hash = hash;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < this.array.length; i += 2) {
+				if (key.equals(this.array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		Object find(int shift, int hash, Object key) {
+			if (hash == this.hash) {
+				final int idx = indexOf(key);
+				if (idx >= 0) {
+					return this.array[idx + 1];
+				}
+			}
+			return NOT_FOUND;
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		Node plus(int shift, int hash, Object key, Object value, boolean[] addedLeaf) {
+			if (hash == this.hash) {
+				final int idx = indexOf(key);
+				if (idx >= 0) {
+					if (this.array[idx + 1] == value) {
+						return this;
+					}
+					return new HashCollisionNode(hash, cloneAndSet(this.array, idx + 1, value));
+				}
+				final Object[] newArray = new Object[this.array.length + 2];
+				System.arraycopy(this.array, 0, newArray, 0, this.array.length);
+				newArray[this.array.length] = key;
+				newArray[this.array.length + 1] = value;
+				addedLeaf[0] = true;
+				return new HashCollisionNode(hash, newArray);
+			}
+			// Nest this node into a bitmap node, which is able to separate the two hash codes.
+			return new BitmapIndexedNode(bit(this.hash, shift), new Object[] {null, this})
+					.plus(shift, hash, key, value, addedLeaf);
+		}
+
+		@Override
+		Node minus(int shift, int hash, Object key) {
+			if (hash != this.hash) {
+				return this;
+			}
+			final int idx = indexOf(key);
+			if (idx < 0) {
+				return this;
+			}
+			if (this.array.length == 2) {
+				return null;
+			}
+			return new HashCollisionNode(hash, removePair(this.array, idx / 2));
+		}
+
+	}
+
+	/** Serialized form of the persistent map.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class SerializedForm implements Serializable {
+
+		private static final long serialVersionUID = 5516412624437829375L;
+
+		private final Object[] keys;
+
+		private final Object[] values;
+
+		SerializedForm(Map<?, ?> map) {
+			this.keys = new Object[map.size()];
+			this.values = new Object[map.size()];
+			int i = 0;
+			for (final Entry<?, ?> entry : map.entrySet()) {
+				this.keys[i] = entry.getKey();
+				this.values[i] = entry.getValue();
+				++i;
+			}
+		}
+
+		private Object readResolve() {
+			PersistentHashMap<Object, Object> map = empty();
+			for (int i = 0; i < this.keys.length; ++i) {
+				map = map.plus(this.keys[i], this.values[i]);
+			}
+			return map;
+		}
+
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.scoping.batch;
+
+import java.util.Map;
+
+import com.google.common.base.Objects;
+import org.eclipse.xtext.xbase.lib.Inline;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.eclipse.xtext.xbase.lib.Pure;
+
+
+/** This is an extension library for {@link Map maps} in the SARL language that is based
+ * on {@link PersistentHashMap persistent maps}.
+ *
+ * <p>This extension has the same functions as {@link SARLMapExtensions}. The functions that are changing
+ * the map in place have the same behavior. The functions that are creating a new map reply a
+ * {@link PersistentHashMap} in place of a view on the operands. The cost of a chain of operations,
+ * e.g. {@code m = m + (k -> v)} within a loop, does not depend on the length of the chain.
+ * The replied maps are snapshots of the operands: they are not changed when the operands are changed.
+ *
+ * <p>This extension replaces {@link SARLMapExtensions} when the option of the SARL compiler for using
+ * the persistent maps is enabled.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class SARLPersistentMapExtensions {
+
+	private SARLPersistentMapExtensions() {
+		//
+	}
+
+	/** Add the given pair into the map.
+	 *
+	 * <p>If the pair key already exists in the map, its value is replaced
+	 * by the value in the pair, and the old value in the map is returned.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param map the map to update.
+	 * @param entry the entry (key, value) to add into the map.
+	 * @return the value previously associated to the key, or <code>null</code>
+	 *     if the key was not present in the map before the addition.
+	 * @see SARLMapExtensions#operator_add(Map, Pair)
+	 */
+	@Inline(value = "$1.put($2.getKey(), $2.getValue())", statementExpression = true)
+	public static <K, V> V operator_add(Map<K, V> map, Pair<? extends K, ? extends V> entry) {
+		return SARLMapExtensions.operator_add(map, entry);
+	}
+
+	/** Add the given entries of the input map into the output map.
+	 *
+	 * <p>If a key in the inputMap already exists in the outputMap, its value is
+	 * replaced in the outputMap by the value from the inputMap.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param outputMap the map to update.
+	 * @param inputMap the entries to add.
+	 * @see SARLMapExtensions#operator_add(Map, Map)
+	 */
+	@Inline(value = "$1.putAll($2)", statementExpression = true)
+	public static <K, V> void operator_add(Map<K, V> outputMap, Map<? extends K, ? extends V> inputMap) {
+		SARLMapExtensions.operator_add(outputMap, inputMap);
+	}
+
+	/** Add the given pair to a given map for obtaining a new map.
+	 *
+	 * <p>Even if the key of the right operand exists in the left operand, the value in the right operand is preferred.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param left the map to consider.
+	 * @param right the entry (key, value) to add into the map.
+	 * @return an immutable map with the content of the map and with the given entry.
+	 */
+	@Pure
+	public static <K, V> Map<K, V> operator_plus(Map<K, V> left, final Pair<? extends K, ? extends V> right) {
+		return PersistentHashMap.copyOf(left).plus(right.getKey(), right.getValue());
+	}
+
+	/** Merge the two maps.
+	 *
+	 * <p>If a key exists in the left and right operands, the value in the right operand is preferred.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param left the left map.
+	 * @param right the right map.
+	 * @return an immutable map with the merged contents from the two maps.
+	 */
+	@Pure
+	@Inline(value = "$3.union($1, $2)", imported = SARLPersistentMapExtensions.class)
+	public static <K, V> Map<K, V> operator_plus(Map<K, V> left, Map<? extends K, ? extends V> right) {
+		return union(left, right);
+	}
+
+	/** Remove a key from the given map.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param map the map to update.
+	 * @param key the key to remove.
+	 * @return the removed value, or <code>null</code> if the key was not
+	 *     present in the map.
+	 * @see SARLMapExtensions#operator_remove(Map, Object)
+	 */
+	@Inline(value = "$1.remove($2)", statementExpression = true)
+	public static <K, V> V operator_remove(Map<K, V> map, K key) {
+		return SARLMapExtensions.operator_remove(map, key);
+	}
+
+	/** Remove the given pair into the map.
+	 *
+	 * <p>If the given key is inside the map, but is not mapped to the given value, the
+	 * map will not be changed.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param map the map to update.
+	 * @param entry the entry (key, value) to remove from the map.
+	 * @return {@code true} if the pair was removed.
+	 * @see SARLMapExtensions#operator_remove(Map, Pair)
+	 */
+	@Inline(value = "$1.remove($2.getKey(), $2.getValue())", statementExpression = true)
+	public static <K, V> boolean operator_remove(Map<K, V> map, Pair<? extends K, ? extends V> entry) {
+		return SARLMapExtensions.operator_remove(map, entry);
+	}
+
+	/** Remove pairs with the given keys from the map.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param map the map to update.
+	 * @param keysToRemove the keys of the pairs to remove.
+	 * @see SARLMapExtensions#operator_remove(Map, Iterable)
+	 */
+	public static <K, V> void operator_remove(Map<K, V> map, Iterable<? super K> keysToRemove) {
+		SARLMapExtensions.operator_remove(map, keysToRemove);
+	}
+
+	/** Remove the given pair from a given map for obtaining a new map.
+	 *
+	 * <p>If the given key is inside the map, but is not mapped to the given value, the
+	 * map will not be changed.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param left the map to consider.
+	 * @param right the entry (key, value) to remove from the map.
+	 * @return an immutable map with the content of the map and without the given entry.
+	 */
+	@Pure
+	public static <K, V> Map<K, V> operator_minus(Map<K, V> left, final Pair<? extends K, ? extends V> right) {
+		final PersistentHashMap<K, V> map = PersistentHashMap.copyOf(left);
+		final Object key = right.getKey();
+		if (map.containsKey(key) && Objects.equal(map.get(key), right.getValue())) {
+			return map.minus(key);
+		}
+		return map;
+	}
+
+	/** Replies the elements of the given map except the pair with the given key.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param map the map to update.
+	 * @param key the key to remove.
+	 * @return an immutable map with the content of the map except the key.
+	 */
+	@Pure
+	public static <K, V> Map<K, V> operator_minus(Map<K, V> map, final K key) {
+		return PersistentHashMap.copyOf(map).minus(key);
+	}
+
+	/** Replies the elements of the left map without the pairs in the right map.
+	 * If the pair's values differ from
+	 * the value within the map, the map entry is not removed.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param left the map to update.
+	 * @param right the pairs to remove.
+	 * @return an immutable map with the content of the left map except the pairs of the right map.
+	 */
+	@Pure
+	public static <K, V> Map<K, V> operator_minus(Map<K, V> left, Map<? extends K, ? extends V> right) {
+		PersistentHashMap<K, V> map = PersistentHashMap.copyOf(left);
+		for (final Map.Entry<? extends K, ? extends V> entry : right.entrySet()) {
+			final V value = entry.getValue();
+			if (value != null && Objects.equal(map.get(entry.getKey()), value)) {
+				map = map.minus(entry.getKey());
+			}
+		}
+		return map;
+	}
+
+	/** Replies the elements of the given map except the pairs with the given keys.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param map the map to update.
+	 * @param keys the keys of the pairs to remove.
+	 * @return an immutable map with the content of the map except the pairs.
+	 */
+	@Pure
+	public static <K, V> Map<K, V> operator_minus(Map<K, V> map, final Iterable<?> keys) {
+		return PersistentHashMap.copyOf(map).minusAll(keys);
+	}
+
+	/** Merge the given maps.
+	 *
+	 * <p>If a key exists in the two maps, the replied value is the value of the right operand.
+	 *
+	 * @param <K> - type of the map keys.
+	 * @param <V> - type of the map values.
+	 * @param left the left map.
+	 * @param right the right map.
+	 * @return an immutable map with the merged contents from the two maps.
+	 */
+	@Pure
+	public static <K, V> Map<K, V> union(Map<? extends K, ? extends V> left, Map<? extends K, ? extends V> right) {
+		return PersistentHashMap.<K, V>copyOf(left).plusAll(right);
+	}
+
+}
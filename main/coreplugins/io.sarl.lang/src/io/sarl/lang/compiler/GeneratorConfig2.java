@@ -53,6 +53,12 @@ public class GeneratorConfig2 {
 	 */
 	public static final boolean DEFAULT_GENERATE_PURE_ANNOTATION = true;
 
+	/** Default value for the flag that indicates if the map operators create persistent maps.
+	 *
+	 * @since 0.8
+	 */
+	public static final boolean DEFAULT_USE_PERSISTENT_MAP_OPERATORS = false;
+
 	/**
 	 * Whether <code>@Inline</code> shall be generated.
 	 */
@@ -68,6 +74,11 @@ public class GeneratorConfig2 {
 	 */
 	private boolean generatePureAnnotation = DEFAULT_GENERATE_PURE_ANNOTATION;
 
+	/**
+	 * Whether the map operators create persistent maps.
+	 */
+	private boolean usePersistentMapOperators = DEFAULT_USE_PERSISTENT_MAP_OPERATORS;
+
 	/** Replies if the <code>@Inline</code> shall be generated.
 	 *
 	 * @return <code>true</code> if annotation shall be generated.
@@ -119,4 +130,25 @@ public class GeneratorConfig2 {
 		this.generatePureAnnotation = generatePureAnnotation;
 	}
 
+	/** Replies if the map operators, e.g. {@code +} and {@code -}, create persistent maps
+	 * in place of views on their operands.
+	 *
+	 * @return <code>true</code> if the persistent maps are used.
+	 * @since 0.8
+	 */
+	@Pure
+	public boolean isUsePersistentMapOperators() {
+		return this.usePersistentMapOperators;
+	}
+
+	/** Set if the map operators, e.g. {@code +} and {@code -}, create persistent maps
+	 * in place of views on their operands.
+	 *
+	 * @param usePersistentMapOperators <code>true</code> if the persistent maps are used.
+	 * @since 0.8
+	 */
+	public void setUsePersistentMapOperators(final boolean usePersistentMapOperators) {
+		this.usePersistentMapOperators = usePersistentMapOperators;
+	}
+
 }
@@ -0,0 +1,358 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/** Index of the build that is persisted between two runs of the batch compiler.
+ *
+ * <p>For each SARL file, the index contains the hash of its content, the names of the elements that
+ * are exported by the file, the names of the elements that are referenced by the file, and the
+ * Java files that were generated from it. The dependency graph between the files is deduced from
+ * the exported and imported names. The index is used by the batch compiler for determining the
+ * files to recompile: the files that have changed since the last successful compilation, and all
+ * the files that depend on them, transitively.
+ *
+ * <p>The index is associated to a configuration key that is a fingerprint of the compiler configuration.
+ * When the configuration of the compiler changes, the index is not used.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public class BuildIndex {
+
+	/** Default name of the file that contains the build index.
+	 */
+	public static final String DEFAULT_FILENAME = ".sarl-build.index"; //$NON-NLS-1$
+
+	/** Hash of a file whose content is unknown, e.g. because it cannot be read. Such a file is always recompiled.
+	 */
+	public static final String UNKNOWN_HASH = ""; //$NON-NLS-1$
+
+	private static final String FORMAT_HEADER = "# SARL build index v1"; //$NON-NLS-1$
+
+	private static final String CONFIGURATION_KEY = "configuration "; //$NON-NLS-1$
+
+	private static final String FILE_KEY = "file "; //$NON-NLS-1$
+
+	private static final String HASH_KEY = "hash "; //$NON-NLS-1$
+
+	private static final String EXPORT_KEY = "export "; //$NON-NLS-1$
+
+	private static final String IMPORT_KEY = "import "; //$NON-NLS-1$
+
+	private static final String GENERATED_KEY = "generated "; //$NON-NLS-1$
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private final String configurationKey;
+
+	private final Map<String, Entry> entries = new TreeMap<>();
+
+	/** Constructor.
+	 *
+	 * @param configurationKey the fingerprint of the compiler configuration.
+	 */
+	public BuildIndex(String configurationKey) {
+		this.configurationKey = configurationKey;
+	}
+
+	/** Replies the fingerprint of the compiler configuration for which this index was built.
+	 *
+	 * @return the configuration key.
+	 */
+	public String getConfigurationKey() {
+		return this.configurationKey;
+	}
+
+	/** Replies the indexed files.
+	 *
+	 * @return the unmodifiable set of the file identifiers.
+	 */
+	public Set<String> getFiles() {
+		return Collections.unmodifiableSet(this.entries.keySet());
+	}
+
+	/** Replies the index entry for the given file.
+	 *
+	 * @param file the identifier of the file.
+	 * @return the entry, or {@code null} if the file is not indexed.
+	 */
+	public Entry get(String file) {
+		return this.entries.get(file);
+	}
+
+	/** Change the index entry for the given file.
+	 *
+	 * @param file the identifier of the file.
+	 * @param entry the entry.
+	 */
+	public void put(String file, Entry entry) {
+		assert file != null;
+		assert entry != null;
+		this.entries.put(file, entry);
+	}
+
+	/** Remove the index entry for the given file.
+	 *
+	 * @param file the identifier of the file.
+	 * @return the removed entry, or {@code null} if the file was not indexed.
+	 */
+	public Entry remove(String file) {
+		return this.entries.remove(file);
+	}
+
+	/** Replies the files that must be recompiled.
+	 *
+	 * <p>A file must be recompiled if it is not indexed, if its hash has changed or is {@link #UNKNOWN_HASH},
+	 * or if it references an element that is exported by a recompiled or a removed file.
+	 *
+	 * @param hashes the hashes of the current source files.
+	 * @param exportedNames the names that are currently exported by the source files. A file that is not
+	 *     inside this map is assumed to export the same names as the ones that are indexed.
+	 * @return the identifiers of the files to recompile.
+	 */
+	public Set<String> getAffectedFiles(Map<String, String> hashes, Map<String, ? extends Collection<String>> exportedNames) {
+		final Set<String> affected = new TreeSet<>();
+		final Set<String> changedNames = new TreeSet<>();
+		for (final Map.Entry<String, String> hash : hashes.entrySet()) {
+			final Entry entry = this.entries.get(hash.getKey());
+			if (entry == null || hash.getValue() == null || UNKNOWN_HASH.equals(hash.getValue())
+					|| !entry.getHash().equals(hash.getValue())) {
+				affected.add(hash.getKey());
+				if (entry != null) {
+					changedNames.addAll(entry.getExportedNames());
+				}
+				final Collection<String> names = exportedNames.get(hash.getKey());
+				if (names != null) {
+					changedNames.addAll(names);
+				}
+			}
+		}
+		for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+			if (!hashes.containsKey(entry.getKey())) {
+				changedNames.addAll(entry.getValue().getExportedNames());
+			}
+		}
+		boolean changed = !changedNames.isEmpty();
+		while (changed) {
+			changed = false;
+			for (final String file : hashes.keySet()) {
+				if (!affected.contains(file)) {
+					final Entry entry = this.entries.get(file);
+					if (entry != null && !Collections.disjoint(entry.getImportedNames(), changedNames)) {
+						affected.add(file);
+						changedNames.addAll(entry.getExportedNames());
+						changed = true;
+					}
+				}
+			}
+		}
+		return affected;
+	}
+
+	/** Read the index from the given file.
+	 *
+	 * @param file the file to read.
+	 * @return the index, or {@code null} if the file does not exist.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static BuildIndex read(File file) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (!FORMAT_HEADER.equals(line)) {
+				return null;
+			}
+			line = reader.readLine();
+			if (line == null || !line.startsWith(CONFIGURATION_KEY)) {
+				return null;
+			}
+			final BuildIndex index = new BuildIndex(line.substring(CONFIGURATION_KEY.length()));
+			Entry current = null;
+			line = reader.readLine();
+			while (line != null) {
+				if (line.startsWith(FILE_KEY)) {
+					current = new Entry();
+					index.put(line.substring(FILE_KEY.length()), current);
+				} else if (current != null) {
+					if (line.startsWith(HASH_KEY)) {
+						current.setHash(line.substring(HASH_KEY.length()));
+					} else if (line.startsWith(EXPORT_KEY)) {
+						current.getExportedNames().add(line.substring(EXPORT_KEY.length()));
+					} else if (line.startsWith(IMPORT_KEY)) {
+						current.getImportedNames().add(line.substring(IMPORT_KEY.length()));
+					} else if (line.startsWith(GENERATED_KEY)) {
+						current.getGeneratedFiles().add(line.substring(GENERATED_KEY.length()));
+					}
+				}
+				line = reader.readLine();
+			}
+			return index;
+		}
+	}
+
+	/** Write the index into the given file.
+	 *
+	 * @param file the file to write.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void write(File file) throws IOException {
+		final File parent = file.getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(FORMAT_HEADER);
+			writer.newLine();
+			writer.write(CONFIGURATION_KEY);
+			writer.write(this.configurationKey);
+			writer.newLine();
+			for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+				writer.write(FILE_KEY);
+				writer.write(entry.getKey());
+				writer.newLine();
+				writer.write(HASH_KEY);
+				writer.write(entry.getValue().getHash());
+				writer.newLine();
+				writeLines(writer, EXPORT_KEY, entry.getValue().getExportedNames());
+				writeLines(writer, IMPORT_KEY, entry.getValue().getImportedNames());
+				writeLines(writer, GENERATED_KEY, entry.getValue().getGeneratedFiles());
+			}
+		}
+	}
+
+	private static void writeLines(BufferedWriter writer, String key, Set<String> values) throws IOException {
+		for (final String value : values) {
+			writer.write(key);
+			writer.write(value);
+			writer.newLine();
+		}
+	}
+
+	/** Compute the hash of the given content.
+	 *
+	 * @param content the content.
+	 * @return the hexadecimal representation of the hash.
+	 */
+	public static String hash(byte[] content) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			return toHex(digest.digest(content));
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/** Replies the hexadecimal representation of the given bytes.
+	 *
+	 * @param bytes the bytes.
+	 * @return the hexadecimal representation.
+	 */
+	static String toHex(byte[] bytes) {
+		final char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; ++i) {
+			hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+		return new String(hex);
+	}
+
+	/** Entry of the build index.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static class Entry {
+
+		private String hash = UNKNOWN_HASH;
+
+		private final Set<String> exportedNames = new TreeSet<>();
+
+		private final Set<String> importedNames = new TreeSet<>();
+
+		private final Set<String> generatedFiles = new TreeSet<>();
+
+		/** Replies the hash of the content of the file.
+		 *
+		 * @return the hash.
+		 */
+		public String getHash() {
+			return this.hash;
+		}
+
+		/** Change the hash of the content of the file.
+		 *
+		 * @param hash the hash.
+		 */
+		public void setHash(String hash) {
+			this.hash = hash == null ? UNKNOWN_HASH : hash;
+		}
+
+		/** Replies the lower-case qualified names of the elements that are exported by the file.
+		 *
+		 * @return the modifiable set of names.
+		 */
+		public Set<String> getExportedNames() {
+			return this.exportedNames;
+		}
+
+		/** Replies the lower-case qualified names of the elements that are referenced by the file.
+		 *
+		 * @return the modifiable set of names.
+		 */
+		public Set<String> getImportedNames() {
+			return this.importedNames;
+		}
+
+		/** Replies the paths of the generated files, relatively to the output folder.
+		 *
+		 * @return the modifiable set of paths.
+		 */
+		public Set<String> getGeneratedFiles() {
+			return this.generatedFiles;
+		}
+
+	}
+
+}
@@ -0,0 +1,440 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/** Index of the types that are declared into a JAR file of the classpath.
+ *
+ * <p>The index is stored on the disk in a file whose name is the SHA-256 hash of the content
+ * of the JAR file. The same index is therefore shared by all the builds that have the JAR file
+ * on their classpath. The index file is memory-mapped when it is loaded.
+ *
+ * <p>The content of a JAR file is hashed only when its stamp (path, size and last modification date)
+ * is unknown. The hashes are cached in memory and in the file {@value #HASH_CACHE_FILENAME} of
+ * the index folder, so that the successive builds do not read the JAR files again.
+ * The in-memory caches are bounded, since they live as long as the compilation daemon.
+ *
+ * <p>The index file has the following binary format: the magic number, the number {@code n}
+ * of types, the {@code n + 1} offsets of the type names in the name section, and the name section,
+ * which contains the binary names of the types, encoded in UTF-8, and sorted by byte order.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class ClasspathTypeIndex {
+
+	/** Extension of the index files.
+	 */
+	public static final String INDEX_FILE_EXTENSION = ".typeindex"; //$NON-NLS-1$
+
+	/** Name of the file, in the index folder, that contains the hashes of the JAR files
+	 * indexed by their stamps.
+	 */
+	public static final String HASH_CACHE_FILENAME = "jarhashes.txt"; //$NON-NLS-1$
+
+	/** Maximal number of hashes that are cached in memory or on the disk.
+	 */
+	static final int MAX_CACHED_HASHES = 4096;
+
+	/** Maximal number of indexes that are kept in memory.
+	 */
+	static final int MAX_LOADED_INDEXES = 512;
+
+	private static final int MAGIC_NUMBER = 0x5341524C;
+
+	private static final int HEADER_SIZE = 8;
+
+	private static final String CLASS_FILE_EXTENSION = ".class"; //$NON-NLS-1$
+
+	private static final String META_INF_FOLDER = "META-INF/"; //$NON-NLS-1$
+
+	private static final int BUFFER_SIZE = 65536;
+
+	/** Hashes of the JAR files, indexed by their path, size and last modification date.
+	 * It avoids to read a JAR file again when it has not changed.
+	 */
+	private static final Map<String, String> JAR_HASHES = Collections.synchronizedMap(new LruMap<>(MAX_CACHED_HASHES));
+
+	/** The loaded indexes, indexed by the hash of the JAR files. The memory mapping of an index
+	 * is released when the index is evicted from this map and garbage collected.
+	 */
+	private static final Map<String, ClasspathTypeIndex> INDEXES = Collections.synchronizedMap(new LruMap<>(MAX_LOADED_INDEXES));
+
+	private final ByteBuffer buffer;
+
+	private final int size;
+
+	private ClasspathTypeIndex(ByteBuffer buffer) throws IOException {
+		if (buffer.getInt(0) != MAGIC_NUMBER) {
+			throw new IOException();
+		}
+		this.buffer = buffer;
+		this.size = buffer.getInt(Integer.BYTES);
+	}
+
+	/** Replies the index for the given JAR file. The index is created if it does not exist yet.
+	 *
+	 * @param jarFile the JAR file to index.
+	 * @param indexFolder the folder that contains the index files.
+	 * @return the index.
+	 * @throws IOException if the JAR file cannot be read, or the index cannot be written.
+	 */
+	public static ClasspathTypeIndex get(File jarFile, File indexFolder) throws IOException {
+		final String hash = hash(jarFile, indexFolder);
+		ClasspathTypeIndex index = INDEXES.get(hash);
+		if (index == null) {
+			final File indexFile = new File(indexFolder, hash + INDEX_FILE_EXTENSION);
+			if (!indexFile.isFile()) {
+				write(jarFile, indexFile);
+			}
+			index = read(indexFile);
+			final ClasspathTypeIndex previous = INDEXES.putIfAbsent(hash, index);
+			if (previous != null) {
+				index = previous;
+			}
+		}
+		return index;
+	}
+
+	/** Replies the SHA-256 hash of the content of the given JAR file.
+	 *
+	 * <p>The content of the JAR file is read only if its stamp (path, size and last modification
+	 * date) is neither in the memory cache nor in the hash cache file of the index folder.
+	 *
+	 * @param jarFile the JAR file.
+	 * @param indexFolder the folder that contains the index files and the hash cache file.
+	 * @return the hash in hexadecimal.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static String hash(File jarFile, File indexFolder) throws IOException {
+		final String stamp = stamp(jarFile);
+		String hash = JAR_HASHES.get(stamp);
+		if (hash == null) {
+			final File cacheFile = new File(indexFolder, HASH_CACHE_FILENAME);
+			synchronized (JAR_HASHES) {
+				final Map<String, String> persistedHashes = readHashCache(cacheFile);
+				hash = persistedHashes.get(stamp);
+				if (hash == null) {
+					hash = hash(jarFile);
+					persistedHashes.remove(stamp);
+					persistedHashes.put(stamp, hash);
+					writeHashCache(cacheFile, persistedHashes);
+				}
+				JAR_HASHES.put(stamp, hash);
+			}
+		}
+		return hash;
+	}
+
+	private static String stamp(File jarFile) {
+		return jarFile.getAbsolutePath() + File.pathSeparator + jarFile.length()
+			+ File.pathSeparator + jarFile.lastModified();
+	}
+
+	/** Read the hash cache file. Each line contains the hash and the stamp of a JAR file,
+	 * separated by a space character, from the oldest to the newest.
+	 *
+	 * @param cacheFile the cache file.
+	 * @return the hashes indexed by the stamps of the JAR files.
+	 */
+	private static Map<String, String> readHashCache(File cacheFile) {
+		final Map<String, String> hashes = new LinkedHashMap<>();
+		if (cacheFile.isFile()) {
+			try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+				String line = reader.readLine();
+				while (line != null) {
+					final int separator = line.indexOf(' ');
+					if (separator > 0) {
+						hashes.put(line.substring(separator + 1), line.substring(0, separator));
+					}
+					line = reader.readLine();
+				}
+			} catch (IOException exception) {
+				// The cache is rebuilt
+			}
+		}
+		return hashes;
+	}
+
+	/** Write the hash cache file, with the newest hashes only.
+	 *
+	 * <p>The cache is written into a temporary file that is moved to the cache file, in order to
+	 * support the concurrent builds. An entry that is lost by a concurrent build is computed again.
+	 *
+	 * @param cacheFile the cache file.
+	 * @param hashes the hashes indexed by the stamps of the JAR files, from the oldest to the newest.
+	 */
+	private static void writeHashCache(File cacheFile, Map<String, String> hashes) {
+		final File folder = cacheFile.getAbsoluteFile().getParentFile();
+		folder.mkdirs();
+		final Iterator<String> iterator = hashes.keySet().iterator();
+		int toRemove = hashes.size() - MAX_CACHED_HASHES;
+		while (toRemove > 0 && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			--toRemove;
+		}
+		try {
+			final File tmpFile = File.createTempFile(cacheFile.getName(), null, folder);
+			try {
+				try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+					for (final Map.Entry<String, String> entry : hashes.entrySet()) {
+						writer.write(entry.getValue());
+						writer.write(' ');
+						writer.write(entry.getKey());
+						writer.write('\n');
+					}
+				}
+				Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				tmpFile.delete();
+			}
+		} catch (IOException exception) {
+			// The cache is only an optimization
+		}
+	}
+
+	/** Load the index from the given file by mapping it in memory.
+	 *
+	 * @param indexFile the index file.
+	 * @return the index.
+	 * @throws IOException if the file cannot be read, or if it is not an index file.
+	 */
+	public static ClasspathTypeIndex read(File indexFile) throws IOException {
+		try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new ClasspathTypeIndex(buffer);
+		} catch (IndexOutOfBoundsException exception) {
+			throw new IOException(exception);
+		}
+	}
+
+	/** Create the index file for the given JAR file.
+	 *
+	 * <p>The index is written into a temporary file that is moved to the index file, in order to
+	 * support the concurrent creations of the same index.
+	 *
+	 * @param jarFile the JAR file to index.
+	 * @param indexFile the index file.
+	 * @throws IOException if the JAR file cannot be read, or the index cannot be written.
+	 */
+	public static void write(File jarFile, File indexFile) throws IOException {
+		final TreeSet<byte[]> names = new TreeSet<>(ClasspathTypeIndex::compare);
+		try (ZipFile zipFile = new ZipFile(jarFile)) {
+			final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				final String entryName = entries.nextElement().getName();
+				if (entryName.endsWith(CLASS_FILE_EXTENSION) && !entryName.startsWith(META_INF_FOLDER)) {
+					final String typeName = entryName.substring(0, entryName.length() - CLASS_FILE_EXTENSION.length())
+							.replace('/', '.');
+					names.add(typeName.getBytes(StandardCharsets.UTF_8));
+				}
+			}
+		}
+		final File folder = indexFile.getAbsoluteFile().getParentFile();
+		folder.mkdirs();
+		final File tmpFile = File.createTempFile(indexFile.getName(), null, folder);
+		try {
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				output.writeInt(MAGIC_NUMBER);
+				output.writeInt(names.size());
+				int offset = 0;
+				output.writeInt(offset);
+				for (final byte[] name : names) {
+					offset += name.length;
+					output.writeInt(offset);
+				}
+				for (final byte[] name : names) {
+					output.write(name);
+				}
+			}
+			Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tmpFile.delete();
+		}
+	}
+
+	/** Replies the SHA-256 hash of the content of the given JAR file. The content of the
+	 * file is always read.
+	 *
+	 * @param jarFile the JAR file.
+	 * @return the hash in hexadecimal.
+	 * @throws IOException if the file cannot be read.
+	 * @see #hash(File, File)
+	 */
+	public static String hash(File jarFile) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IOException(exception);
+		}
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream stream = Files.newInputStream(jarFile.toPath())) {
+			int len = stream.read(buffer);
+			while (len > 0) {
+				digest.update(buffer, 0, len);
+				len = stream.read(buffer);
+			}
+		}
+		return BuildIndex.toHex(digest.digest());
+	}
+
+	/** Replies the number of types in the index.
+	 *
+	 * @return the number of types.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/** Replies if the given type is declared into the indexed JAR file.
+	 *
+	 * @param binaryName the binary name of the type, e.g. {@code java.util.Map$Entry}.
+	 * @return {@code true} if the type is declared into the JAR file.
+	 */
+	public boolean contains(String binaryName) {
+		final byte[] key = binaryName.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = this.size - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int cmp = compareTo(mid, key);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Replies the types in the index.
+	 *
+	 * @return the binary names of the types, in byte order.
+	 */
+	public List<String> getTypes() {
+		final List<String> types = new ArrayList<>(this.size);
+		for (int i = 0; i < this.size; ++i) {
+			final int start = nameOffset(i);
+			final byte[] name = new byte[nameOffset(i + 1) - start];
+			for (int j = 0; j < name.length; ++j) {
+				name[j] = this.buffer.get(start + j);
+			}
+			types.add(new String(name, StandardCharsets.UTF_8));
+		}
+		return types;
+	}
+
+	private int nameOffset(int index) {
+		return HEADER_SIZE + (this.size + 1) * Integer.BYTES + this.buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+	}
+
+	private int compareTo(int index, byte[] key) {
+		final int start = nameOffset(index);
+		final int len = nameOffset(index + 1) - start;
+		final int min = Math.min(len, key.length);
+		for (int i = 0; i < min; ++i) {
+			final int cmp = Integer.compare(this.buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return Integer.compare(len, key.length);
+	}
+
+	private static int compare(byte[] first, byte[] second) {
+		final int min = Math.min(first.length, second.length);
+		for (int i = 0; i < min; ++i) {
+			final int cmp = Integer.compare(first[i] & 0xFF, second[i] & 0xFF);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return Integer.compare(first.length, second.length);
+	}
+
+	/** Map that is evicting its least recently used entry when it is full.
+	 *
+	 * @param <K> the type of the keys.
+	 * @param <V> the type of the values.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+		private static final long serialVersionUID = 4803195866406254787L;
+
+		private static final int INITIAL_SIZE = 16;
+
+		private static final float LOAD_FACTOR = .75f;
+
+		private final int capacity;
+
+		LruMap(int capacity) {
+			super(INITIAL_SIZE, LOAD_FACTOR, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > this.capacity;
+		}
+
+	}
+
+}
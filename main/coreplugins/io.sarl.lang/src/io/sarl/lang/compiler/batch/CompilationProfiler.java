@@ -0,0 +1,482 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.sarl.lang.validation.ValidationCheckProfiler.CheckStatistics;
+
+/** Profiler of the phases of the batch compiler.
+ *
+ * <p>For each phase and each resource, the profiler measures the wall time, the CPU time
+ * and the number of bytes that are allocated by the running thread.
+ * The CPU time and the allocated bytes are replied by the JVM when it supports them; otherwise,
+ * they are equal to {@code -1}. The measures of a phase include the measures of the resources
+ * that were processed by other threads during the phase.
+ *
+ * <p>The report is written in JSON. It contains the phases in their order of execution, the
+ * cumulated measures of each resource, the slowest resources and the slowest validation checks.
+ * All the times are in nanoseconds.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class CompilationProfiler {
+
+	/** Name of the phase of configuration of the compiler.
+	 */
+	static final String CONFIGURATION = "configuration"; //$NON-NLS-1$
+
+	/** Name of the phase of parsing of the SARL files.
+	 */
+	static final String PARSING = "parsing"; //$NON-NLS-1$
+
+	/** Name of the phase of generation of the stubs.
+	 */
+	static final String STUB_GENERATION = "stubGeneration"; //$NON-NLS-1$
+
+	/** Name of the phase of compilation of the stubs and of the Java files.
+	 */
+	static final String STUB_COMPILATION = "stubCompilation"; //$NON-NLS-1$
+
+	/** Name of the phase of inference of the JVM model.
+	 */
+	static final String JVM_MODEL_INFERENCE = "jvmModelInference"; //$NON-NLS-1$
+
+	/** Name of the phase of validation.
+	 */
+	static final String VALIDATION = "validation"; //$NON-NLS-1$
+
+	/** Name of the phase of generation of the Java files.
+	 */
+	static final String GENERATION = "generation"; //$NON-NLS-1$
+
+	/** Name of the phase of compilation of the generated Java files.
+	 */
+	static final String POST_COMPILATION = "postCompilation"; //$NON-NLS-1$
+
+	/** Default number of elements in the lists of the slowest resources and checks.
+	 */
+	static final int DEFAULT_TOP_SIZE = 10;
+
+	private static final String ALLOCATED_BYTES_METHOD = "getThreadAllocatedBytes"; //$NON-NLS-1$
+
+	private static final String ALLOCATION_MX_BEAN = "com.sun.management.ThreadMXBean"; //$NON-NLS-1$
+
+	private final ThreadMXBean threads;
+
+	private final Method allocatedBytes;
+
+	private final List<PhaseMeasure> phases = new ArrayList<>();
+
+	private final Queue<ResourceMeasure> resources = new ConcurrentLinkedQueue<>();
+
+	private final Measure start;
+
+	private PhaseMeasure currentPhase;
+
+	/** Constructor. The measure of the compilation starts.
+	 */
+	CompilationProfiler() {
+		this.threads = ManagementFactory.getThreadMXBean();
+		Method method = null;
+		try {
+			final Class<?> type = Class.forName(ALLOCATION_MX_BEAN);
+			if (type.isInstance(this.threads)) {
+				method = type.getMethod(ALLOCATED_BYTES_METHOD, long.class);
+			}
+		} catch (Exception exception) {
+			method = null;
+		}
+		this.allocatedBytes = method;
+		this.start = begin();
+	}
+
+	/** Start the measure of the current thread.
+	 *
+	 * @return the starting point of the measure.
+	 */
+	Measure begin() {
+		return new Measure(System.nanoTime(), getCpuTime(), getAllocatedBytes());
+	}
+
+	private long getCpuTime() {
+		if (this.threads.isCurrentThreadCpuTimeSupported()) {
+			return this.threads.getCurrentThreadCpuTime();
+		}
+		return -1;
+	}
+
+	private long getAllocatedBytes() {
+		if (this.allocatedBytes != null) {
+			try {
+				return ((Long) this.allocatedBytes.invoke(this.threads, Long.valueOf(Thread.currentThread().getId()))).longValue();
+			} catch (Exception exception) {
+				//
+			}
+		}
+		return -1;
+	}
+
+	/** Terminate the current phase, and start the measure of the given phase.
+	 *
+	 * @param name the name of the new phase.
+	 */
+	void enterPhase(String name) {
+		exitPhase();
+		this.currentPhase = new PhaseMeasure(name, begin());
+	}
+
+	/** Terminate the current phase.
+	 */
+	void exitPhase() {
+		if (this.currentPhase != null) {
+			final PhaseMeasure phase = this.currentPhase;
+			this.currentPhase = null;
+			phase.end(end(phase.start));
+			final long threadId = Thread.currentThread().getId();
+			for (final ResourceMeasure resource : this.resources) {
+				if (resource.threadId != threadId && phase.name.equals(resource.phase)) {
+					phase.addWorker(resource.measure);
+				}
+			}
+			this.phases.add(phase);
+		}
+	}
+
+	/** Terminate the measure of the current thread that was started with {@link #begin()}.
+	 *
+	 * @param begin the starting point of the measure.
+	 * @return the measure.
+	 */
+	Measure end(Measure begin) {
+		final Measure now = begin();
+		return new Measure(
+				now.wallTime - begin.wallTime,
+				difference(now.cpuTime, begin.cpuTime),
+				difference(now.allocatedBytes, begin.allocatedBytes));
+	}
+
+	private static long difference(long now, long begin) {
+		if (now < 0 || begin < 0) {
+			return -1;
+		}
+		return now - begin;
+	}
+
+	/** Terminate the measure of the given resource in the current thread.
+	 *
+	 * @param phase the name of the phase in which the resource is processed.
+	 * @param resource the name of the resource.
+	 * @param begin the starting point of the measure that is replied by {@link #begin()}.
+	 */
+	void endResource(String phase, String resource, Measure begin) {
+		this.resources.add(new ResourceMeasure(phase, resource, Thread.currentThread().getId(), end(begin)));
+	}
+
+	/** Write the report in JSON.
+	 *
+	 * @param output the file to write.
+	 * @param checks the measures of the validation checks, indexed by check name.
+	 * @param topSize the number of elements in the lists of the slowest resources and checks.
+	 * @throws IOException if the report cannot be written.
+	 */
+	void writeReport(File output, Map<String, CheckStatistics> checks, int topSize) throws IOException {
+		exitPhase();
+		final Measure total = end(this.start);
+		final Map<String, ResourceSummary> summaries = new TreeMap<>();
+		for (final ResourceMeasure resource : this.resources) {
+			summaries.computeIfAbsent(resource.resource, it -> new ResourceSummary(it)).add(resource);
+		}
+		final List<ResourceSummary> slowestResources = new ArrayList<>(summaries.values());
+		slowestResources.sort(Comparator.comparingLong((ResourceSummary it) -> it.measure.wallTime).reversed());
+		final List<Entry<String, CheckStatistics>> slowestChecks = new ArrayList<>(checks.entrySet());
+		slowestChecks.sort(Comparator.comparingLong((Entry<String, CheckStatistics> it) -> it.getValue().getDuration()).reversed());
+
+		final File folder = output.getAbsoluteFile().getParentFile();
+		if (folder != null) {
+			folder.mkdirs();
+		}
+		try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("{\n"); //$NON-NLS-1$
+			writer.write("  \"total\": "); //$NON-NLS-1$
+			writeMeasure(writer, total);
+			writer.write(",\n  \"phases\": ["); //$NON-NLS-1$
+			final Iterator<PhaseMeasure> phaseIterator = this.phases.iterator();
+			while (phaseIterator.hasNext()) {
+				final PhaseMeasure phase = phaseIterator.next();
+				writer.write("\n    {\"name\": "); //$NON-NLS-1$
+				writeString(writer, phase.name);
+				writer.write(", "); //$NON-NLS-1$
+				writeMeasureFields(writer, phase.measure);
+				writer.write(phaseIterator.hasNext() ? "}," : "}\n  "); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			writer.write("],\n  \"resources\": ["); //$NON-NLS-1$
+			final Iterator<ResourceSummary> resourceIterator = summaries.values().iterator();
+			while (resourceIterator.hasNext()) {
+				final ResourceSummary resource = resourceIterator.next();
+				writer.write("\n    {\"resource\": "); //$NON-NLS-1$
+				writeString(writer, resource.name);
+				writer.write(", "); //$NON-NLS-1$
+				writeMeasureFields(writer, resource.measure);
+				writer.write(", \"phases\": {"); //$NON-NLS-1$
+				final Iterator<Entry<String, Long>> phaseTimes = resource.phaseTimes.entrySet().iterator();
+				while (phaseTimes.hasNext()) {
+					final Entry<String, Long> phaseTime = phaseTimes.next();
+					writeString(writer, phaseTime.getKey());
+					writer.write(": "); //$NON-NLS-1$
+					writer.write(phaseTime.getValue().toString());
+					if (phaseTimes.hasNext()) {
+						writer.write(", "); //$NON-NLS-1$
+					}
+				}
+				writer.write(resourceIterator.hasNext() ? "}}," : "}}\n  "); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			writer.write("],\n  \"slowestResources\": ["); //$NON-NLS-1$
+			final int resourceCount = Math.min(topSize, slowestResources.size());
+			for (int i = 0; i < resourceCount; ++i) {
+				final ResourceSummary resource = slowestResources.get(i);
+				writer.write("\n    {\"resource\": "); //$NON-NLS-1$
+				writeString(writer, resource.name);
+				writer.write(", \"wallTime\": "); //$NON-NLS-1$
+				writer.write(Long.toString(resource.measure.wallTime));
+				writer.write(i < resourceCount - 1 ? "}," : "}\n  "); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			writer.write("],\n  \"slowestChecks\": ["); //$NON-NLS-1$
+			final int checkCount = Math.min(topSize, slowestChecks.size());
+			for (int i = 0; i < checkCount; ++i) {
+				final Entry<String, CheckStatistics> check = slowestChecks.get(i);
+				writer.write("\n    {\"check\": "); //$NON-NLS-1$
+				writeString(writer, check.getKey());
+				writer.write(", \"invocations\": "); //$NON-NLS-1$
+				writer.write(Long.toString(check.getValue().getInvocations()));
+				writer.write(", \"wallTime\": "); //$NON-NLS-1$
+				writer.write(Long.toString(check.getValue().getDuration()));
+				writer.write(i < checkCount - 1 ? "}," : "}\n  "); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			writer.write("]\n}\n"); //$NON-NLS-1$
+		}
+	}
+
+	private static void writeMeasure(Writer writer, Measure measure) throws IOException {
+		writer.write("{"); //$NON-NLS-1$
+		writeMeasureFields(writer, measure);
+		writer.write("}"); //$NON-NLS-1$
+	}
+
+	private static void writeMeasureFields(Writer writer, Measure measure) throws IOException {
+		writer.write("\"wallTime\": "); //$NON-NLS-1$
+		writer.write(Long.toString(measure.wallTime));
+		writer.write(", \"cpuTime\": "); //$NON-NLS-1$
+		writer.write(Long.toString(measure.cpuTime));
+		writer.write(", \"allocatedBytes\": "); //$NON-NLS-1$
+		writer.write(Long.toString(measure.allocatedBytes));
+	}
+
+	private static void writeString(Writer writer, String value) throws IOException {
+		writer.write('"');
+		for (final char character : value.toCharArray()) {
+			switch (character) {
+			case '"':
+			case '\\':
+				writer.write('\\');
+				writer.write(character);
+				break;
+			case '\n':
+				writer.write("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				writer.write("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				writer.write("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				if (character < ' ') {
+					writer.write(String.format("\\u%04x", Integer.valueOf(character))); //$NON-NLS-1$
+				} else {
+					writer.write(character);
+				}
+			}
+		}
+		writer.write('"');
+	}
+
+	/** Measure of an activity.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static final class Measure {
+
+		/** The wall time in nanoseconds.
+		 */
+		final long wallTime;
+
+		/** The CPU time in nanoseconds, or {@code -1} if unknown.
+		 */
+		final long cpuTime;
+
+		/** The allocated bytes, or {@code -1} if unknown.
+		 */
+		final long allocatedBytes;
+
+		/** Constructor.
+		 *
+		 * @param wallTime the wall time in nanoseconds.
+		 * @param cpuTime the CPU time in nanoseconds, or {@code -1} if unknown.
+		 * @param allocatedBytes the allocated bytes, or {@code -1} if unknown.
+		 */
+		Measure(long wallTime, long cpuTime, long allocatedBytes) {
+			this.wallTime = wallTime;
+			this.cpuTime = cpuTime;
+			this.allocatedBytes = allocatedBytes;
+		}
+
+		/** Replies the sum of this measure and the given measure.
+		 *
+		 * @param other the measure to add.
+		 * @param addWallTime indicates if the wall times are added.
+		 * @return the sum.
+		 */
+		Measure add(Measure other, boolean addWallTime) {
+			return new Measure(
+					addWallTime ? this.wallTime + other.wallTime : this.wallTime,
+					this.cpuTime < 0 || other.cpuTime < 0 ? -1 : this.cpuTime + other.cpuTime,
+					this.allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : this.allocatedBytes + other.allocatedBytes);
+		}
+
+	}
+
+	/** Measure of a phase.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class PhaseMeasure {
+
+		final String name;
+
+		final Measure start;
+
+		Measure measure;
+
+		PhaseMeasure(String name, Measure start) {
+			this.name = name;
+			this.start = start;
+		}
+
+		void end(Measure measure) {
+			this.measure = measure;
+		}
+
+		void addWorker(Measure worker) {
+			// The wall time of the workers is included into the wall time of the phase.
+			this.measure = this.measure.add(worker, false);
+		}
+
+	}
+
+	/** Measure of a resource in a phase.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class ResourceMeasure {
+
+		final String phase;
+
+		final String resource;
+
+		final long threadId;
+
+		final Measure measure;
+
+		ResourceMeasure(String phase, String resource, long threadId, Measure measure) {
+			this.phase = phase;
+			this.resource = resource;
+			this.threadId = threadId;
+			this.measure = measure;
+		}
+
+	}
+
+	/** Cumulated measures of a resource.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class ResourceSummary {
+
+		final String name;
+
+		final Map<String, Long> phaseTimes = new LinkedHashMap<>();
+
+		Measure measure = new Measure(0, 0, 0);
+
+		ResourceSummary(String name) {
+			this.name = name;
+		}
+
+		void add(ResourceMeasure resource) {
+			this.measure = this.measure.add(resource.measure, true);
+			final Long time = this.phaseTimes.get(resource.phase);
+			this.phaseTimes.put(resource.phase, Long.valueOf(
+					(time == null ? 0 : time.longValue()) + resource.measure.wallTime));
+		}
+
+	}
+
+}
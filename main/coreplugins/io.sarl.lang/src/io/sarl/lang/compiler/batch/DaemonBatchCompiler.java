@@ -0,0 +1,260 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.xtext.util.internal.AlternateJdkLoader;
+
+/** Batch compiler that is used by the compilation daemon.
+ *
+ * <p>The JAR files of the classpath are loaded by a class loader that is shared by the successive
+ * compilations, in order to keep the loaded types warm. The shared class loaders are indexed by the
+ * fingerprint of the JAR files (path, size and last modification date), and they are kept in a bounded
+ * least-recently-used cache. The folders of the classpath
+ * are always loaded by a fresh class loader, since their content is changing from one build to the other.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+class DaemonBatchCompiler extends SarlBatchCompiler {
+
+	private JarClassLoaderCache jarClassLoaderCache;
+
+	/** Change the cache of the class loaders for the JAR files.
+	 *
+	 * @param cache the cache, or {@code null} for disabling the caching.
+	 */
+	public void setJarClassLoaderCache(JarClassLoaderCache cache) {
+		this.jarClassLoaderCache = cache;
+	}
+
+	/** Replies the cache of the class loaders for the JAR files.
+	 *
+	 * @return the cache, or {@code null} if the caching is disabled.
+	 */
+	public JarClassLoaderCache getJarClassLoaderCache() {
+		return this.jarClassLoaderCache;
+	}
+
+	@Override
+	protected ClassLoader createClassLoader(Iterable<File> jarsAndFolders, ClassLoader parentClassLoader) {
+		final JarClassLoaderCache cache = getJarClassLoaderCache();
+		// The boot class path loader is created for each compilation. It cannot be the key of the cache.
+		if (cache == null || parentClassLoader instanceof AlternateJdkLoader) {
+			return super.createClassLoader(jarsAndFolders, parentClassLoader);
+		}
+		final List<File> jars = new ArrayList<>();
+		final List<File> folders = new ArrayList<>();
+		for (final File file : jarsAndFolders) {
+			if (file.isDirectory()) {
+				folders.add(file);
+			} else {
+				jars.add(file);
+			}
+		}
+		final ClassLoader jarClassLoader = cache.getClassLoader(jars, parentClassLoader, this);
+		return super.createClassLoader(folders, jarClassLoader);
+	}
+
+	/** Create the class loader for the JAR files.
+	 *
+	 * @param jars the JAR files.
+	 * @param parentClassLoader the parent class loader.
+	 * @return the class loader.
+	 */
+	ClassLoader createJarClassLoader(List<File> jars, ClassLoader parentClassLoader) {
+		return super.createClassLoader(jars, parentClassLoader);
+	}
+
+	/** Cache of the class loaders for the JAR files of the classpath.
+	 *
+	 * <p>The class loaders are indexed by the fingerprint of their JAR files (path, size and last
+	 * modification date of each file). The cache is bounded; the least recently used class loader
+	 * is closed when the bound is reached. A class loader is also closed as soon as one of its
+	 * JAR files has changed.
+	 *
+	 * <p>This cache is not thread-safe.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static class JarClassLoaderCache {
+
+		/** Default maximal number of class loaders in the cache.
+		 */
+		static final int DEFAULT_CAPACITY = 8;
+
+		private static final int INITIAL_SIZE = 16;
+
+		private static final float LOAD_FACTOR = .75f;
+
+		private final int capacity;
+
+		private final Map<String, CachedClassLoader> loaders;
+
+		/** Constructor with the default capacity.
+		 */
+		JarClassLoaderCache() {
+			this(DEFAULT_CAPACITY);
+		}
+
+		/** Constructor.
+		 *
+		 * @param capacity the maximal number of class loaders in the cache.
+		 */
+		JarClassLoaderCache(int capacity) {
+			this.capacity = Math.max(1, capacity);
+			this.loaders = new LinkedHashMap<String, CachedClassLoader>(INITIAL_SIZE, LOAD_FACTOR, true) {
+				private static final long serialVersionUID = -2536718049612935401L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, CachedClassLoader> eldest) {
+					if (size() > JarClassLoaderCache.this.capacity) {
+						close(eldest.getValue().classLoader, null);
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+
+		/** Replies the number of class loaders in the cache.
+		 *
+		 * @return the number of class loaders.
+		 */
+		int size() {
+			return this.loaders.size();
+		}
+
+		/** Replies the class loader for the given JAR files.
+		 *
+		 * @param jars the JAR files.
+		 * @param parentClassLoader the parent class loader.
+		 * @param compiler the compiler that is asking for the class loader.
+		 * @return the class loader.
+		 */
+		ClassLoader getClassLoader(List<File> jars, ClassLoader parentClassLoader, DaemonBatchCompiler compiler) {
+			final String paths = paths(jars);
+			final String fingerprint = fingerprint(jars);
+			final CachedClassLoader cached = this.loaders.get(fingerprint);
+			if (cached != null && cached.parentClassLoader == parentClassLoader) {
+				return cached.classLoader;
+			}
+			// Close the class loaders that are using an older version of the same JAR files.
+			final Iterator<CachedClassLoader> iterator = this.loaders.values().iterator();
+			while (iterator.hasNext()) {
+				final CachedClassLoader candidate = iterator.next();
+				if (candidate == cached || (candidate.paths.equals(paths)
+						&& candidate.parentClassLoader == parentClassLoader)) {
+					if (candidate != cached) {
+						compiler.getLogger().info(Messages.DaemonBatchCompiler_0);
+					}
+					close(candidate.classLoader, compiler);
+					iterator.remove();
+				}
+			}
+			final CachedClassLoader newCached = new CachedClassLoader(paths, parentClassLoader,
+					compiler.createJarClassLoader(jars, parentClassLoader));
+			this.loaders.put(fingerprint, newCached);
+			return newCached.classLoader;
+		}
+
+		/** Close all the cached class loaders.
+		 */
+		void clear() {
+			for (final CachedClassLoader cached : this.loaders.values()) {
+				close(cached.classLoader, null);
+			}
+			this.loaders.clear();
+		}
+
+		private static void close(ClassLoader classLoader, SarlBatchCompiler compiler) {
+			if (classLoader instanceof URLClassLoader) {
+				try {
+					((URLClassLoader) classLoader).close();
+				} catch (IOException exception) {
+					if (compiler != null) {
+						compiler.getLogger().warn(Messages.SarlBatchCompiler_18, exception);
+					}
+				}
+			}
+		}
+
+		private static String paths(List<File> jars) {
+			final StringBuilder paths = new StringBuilder();
+			for (final File jar : jars) {
+				paths.append(jar.getAbsolutePath()).append(File.pathSeparatorChar);
+			}
+			return paths.toString();
+		}
+
+		private static String fingerprint(List<File> jars) {
+			final StringBuilder fingerprint = new StringBuilder();
+			for (final File jar : jars) {
+				fingerprint.append(jar.getAbsolutePath()).append('|');
+				fingerprint.append(jar.length()).append('|');
+				fingerprint.append(jar.lastModified()).append(File.pathSeparatorChar);
+			}
+			return fingerprint.toString();
+		}
+
+		/** Description of a cached class loader.
+		 *
+		 * @author $Author: sgalland$
+		 * @version $FullVersion$
+		 * @mavengroupid $GroupId$
+		 * @mavenartifactid $ArtifactId$
+		 * @since 0.8
+		 */
+		private static class CachedClassLoader {
+
+			final String paths;
+
+			final ClassLoader parentClassLoader;
+
+			final ClassLoader classLoader;
+
+			CachedClassLoader(String paths, ClassLoader parentClassLoader, ClassLoader classLoader) {
+				this.paths = paths;
+				this.parentClassLoader = parentClassLoader;
+				this.classLoader = classLoader;
+			}
+
+		}
+
+	}
+
+}
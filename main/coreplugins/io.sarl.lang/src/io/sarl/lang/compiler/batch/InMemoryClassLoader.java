@@ -0,0 +1,126 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Map;
+
+/** Class loader for the classes that are compiled in memory.
+ *
+ * <p>The class files are also replied as resources, since the JVM type provider may read
+ * the byte code of the types.
+ *
+ * <p>The parent class loader is owned by this class loader: it is closed when this class loader is closed.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ * @see InMemoryJavaCompiler
+ */
+class InMemoryClassLoader extends ClassLoader implements Closeable {
+
+	private static final String CLASS_FILE_EXTENSION = ".class"; //$NON-NLS-1$
+
+	private static final String URL_PROTOCOL = "memory"; //$NON-NLS-1$
+
+	private final Map<String, byte[]> classes;
+
+	private final URLStreamHandler handler = new URLStreamHandler() {
+		@SuppressWarnings("synthetic-access")
+		@Override
+		protected URLConnection openConnection(URL url) throws IOException {
+			final byte[] bytes = getClassBytes(url.getPath().substring(1));
+			if (bytes == null) {
+				throw new IOException(url.toString());
+			}
+			return new URLConnection(url) {
+				@Override
+				public void connect() {
+					//
+				}
+
+				@Override
+				public InputStream getInputStream() {
+					return new ByteArrayInputStream(bytes);
+				}
+			};
+		}
+	};
+
+	/** Constructor.
+	 *
+	 * @param classes the byte codes of the classes, indexed by the binary names of the classes.
+	 * @param parent the parent class loader.
+	 */
+	InMemoryClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+		super(parent);
+		this.classes = classes;
+	}
+
+	private byte[] getClassBytes(String resourceName) {
+		if (resourceName.endsWith(CLASS_FILE_EXTENSION)) {
+			final String binaryName = resourceName.substring(0, resourceName.length() - CLASS_FILE_EXTENSION.length())
+					.replace('/', '.');
+			return this.classes.get(binaryName);
+		}
+		return null;
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		final byte[] bytes = this.classes.get(name);
+		if (bytes == null) {
+			throw new ClassNotFoundException(name);
+		}
+		return defineClass(name, bytes, 0, bytes.length);
+	}
+
+	@Override
+	protected URL findResource(String name) {
+		if (getClassBytes(name) != null) {
+			try {
+				return new URL(URL_PROTOCOL, null, -1, "/" + name, this.handler); //$NON-NLS-1$
+			} catch (MalformedURLException exception) {
+				//
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		final ClassLoader parent = getParent();
+		if (parent instanceof Closeable) {
+			((Closeable) parent).close();
+		}
+	}
+
+}
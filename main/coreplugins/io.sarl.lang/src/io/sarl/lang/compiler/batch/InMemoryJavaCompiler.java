@@ -0,0 +1,234 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+import org.eclipse.xtext.generator.IFileSystemAccess;
+
+/** Compiler of Java sources that are stored in memory, into class files that are stored in memory.
+ *
+ * <p>The compilation is done through the JSR-199 API, which is implemented by ECJ.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+class InMemoryJavaCompiler {
+
+	private final JavaCompiler compiler;
+
+	private final Map<String, byte[]> classes = new TreeMap<>();
+
+	/** Constructor.
+	 *
+	 * @param compiler the JSR-199 Java compiler.
+	 */
+	InMemoryJavaCompiler(JavaCompiler compiler) {
+		this.compiler = compiler;
+	}
+
+	/** Replies the compiled classes.
+	 *
+	 * @return the byte codes of the classes, indexed by the binary names of the classes.
+	 */
+	Map<String, byte[]> getClasses() {
+		return this.classes;
+	}
+
+	/** Compile the given sources.
+	 *
+	 * <p>The compiled classes are added to {@link #getClasses()}.
+	 *
+	 * @param sources the sources in memory, indexed by their relative paths, e.g. {@code a/b/C.java}.
+	 * @param javaFiles the Java files on the disk to compile with the sources in memory.
+	 * @param encoding the encoding of the Java files on the disk, or {@code null} for the default encoding.
+	 * @param options the options of the compiler.
+	 * @param output the writer for the messages of the compiler.
+	 * @return the success status.
+	 * @throws IOException if the Java files cannot be read.
+	 */
+	boolean compile(Map<String, ? extends CharSequence> sources, Iterable<File> javaFiles, String encoding,
+			List<String> options, Writer output) throws IOException {
+		final StandardJavaFileManager standardFileManager = this.compiler.getStandardFileManager(null, null,
+				encoding == null ? null : Charset.forName(encoding));
+		try (JavaFileManager fileManager = new OutputFileManager(standardFileManager, this.classes)) {
+			final List<JavaFileObject> units = new ArrayList<>();
+			for (final Map.Entry<String, ? extends CharSequence> source : sources.entrySet()) {
+				units.add(new SourceFile(source.getKey(), source.getValue()));
+			}
+			for (final JavaFileObject file : standardFileManager.getJavaFileObjectsFromFiles(javaFiles)) {
+				units.add(file);
+			}
+			if (units.isEmpty()) {
+				return true;
+			}
+			final Boolean success = this.compiler.getTask(output, fileManager, null, options, null, units).call();
+			return success != null && success.booleanValue();
+		}
+	}
+
+	/** File system access that is storing the generated Java sources in memory.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static class SourceFileSystemAccess implements IFileSystemAccess {
+
+		private final Map<String, CharSequence> sources = new TreeMap<>();
+
+		/** Replies the generated sources.
+		 *
+		 * @return the sources, indexed by their relative paths.
+		 */
+		Map<String, CharSequence> getSources() {
+			return this.sources;
+		}
+
+		@Override
+		public void generateFile(String fileName, CharSequence contents) {
+			this.sources.put(fileName, contents);
+		}
+
+		@Override
+		public void generateFile(String fileName, String outputConfigurationName, CharSequence contents) {
+			this.sources.put(fileName, contents);
+		}
+
+		@Override
+		public void deleteFile(String fileName) {
+			this.sources.remove(fileName);
+		}
+
+	}
+
+	/** Java source file in memory.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class SourceFile extends SimpleJavaFileObject {
+
+		private final CharSequence content;
+
+		SourceFile(String path, CharSequence content) {
+			super(URI.create("string:///" + path), Kind.SOURCE); //$NON-NLS-1$
+			this.content = content;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return this.content;
+		}
+
+	}
+
+	/** Java class file in memory.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class ClassFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		private final Map<String, byte[]> classes;
+
+		ClassFile(String className, Map<String, byte[]> classes) {
+			super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS); //$NON-NLS-1$
+			this.className = className;
+			this.classes = classes;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return new ByteArrayOutputStream() {
+				@SuppressWarnings("synthetic-access")
+				@Override
+				public void close() throws IOException {
+					super.close();
+					ClassFile.this.classes.put(ClassFile.this.className, toByteArray());
+				}
+			};
+		}
+
+	}
+
+	/** File manager that is writing the class files in memory.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class OutputFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, byte[]> classes;
+
+		OutputFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classes) {
+			super(fileManager);
+			this.classes = classes;
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling)
+				throws IOException {
+			if (kind == Kind.CLASS) {
+				return new ClassFile(className, this.classes);
+			}
+			return super.getJavaFileForOutput(location, className, kind, sibling);
+		}
+
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+/** Class loader that uses the indexes of the JAR files for answering quickly when a type is
+ * not on the classpath.
+ *
+ * <p>The JVM type provider of the compiler is trying to load many types that do not exist, e.g.
+ * when it resolves the imports and the nested types. Without index, each of these misses is
+ * searched in all the JAR files of the classpath. With the indexes, a type is searched in the JAR files
+ * only if one of the indexes contains it, or if its class file exists in one of the folders of the classpath.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ * @see ClasspathTypeIndex
+ */
+class IndexedClassLoader extends URLClassLoader {
+
+	private static final String CLASS_FILE_EXTENSION = ".class"; //$NON-NLS-1$
+
+	static {
+		registerAsParallelCapable();
+	}
+
+	private final List<ClasspathTypeIndex> indexes;
+
+	private final List<File> folders;
+
+	/** Constructor.
+	 *
+	 * @param urls the URLs of the classpath.
+	 * @param parent the parent class loader.
+	 * @param indexes the indexes of all the JAR files in the classpath.
+	 * @param folders the folders in the classpath.
+	 */
+	IndexedClassLoader(URL[] urls, ClassLoader parent, List<ClasspathTypeIndex> indexes, List<File> folders) {
+		super(urls, parent);
+		this.indexes = indexes;
+		this.folders = folders;
+	}
+
+	private boolean isOnClasspath(String binaryName) {
+		for (final ClasspathTypeIndex index : this.indexes) {
+			if (index.contains(binaryName)) {
+				return true;
+			}
+		}
+		if (!this.folders.isEmpty()) {
+			final String filename = binaryName.replace('.', File.separatorChar) + CLASS_FILE_EXTENSION;
+			for (final File folder : this.folders) {
+				if (new File(folder, filename).isFile()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		if (!isOnClasspath(name)) {
+			throw new ClassNotFoundException(name);
+		}
+		return super.findClass(name);
+	}
+
+	@Override
+	public URL findResource(String name) {
+		if (name.endsWith(CLASS_FILE_EXTENSION)) {
+			final String binaryName = name.substring(0, name.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.');
+			if (!isOnClasspath(binaryName)) {
+				return null;
+			}
+		}
+		return super.findResource(name);
+	}
+
+}
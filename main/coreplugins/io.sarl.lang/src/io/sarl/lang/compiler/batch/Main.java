@@ -21,9 +21,14 @@
 
 package io.sarl.lang.compiler.batch;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
 
 import com.google.inject.Injector;
 import org.apache.commons.cli.CommandLine;
@@ -117,9 +122,37 @@ public final class Main {
 
 	private static final String CLI_OPTION_WARNING_LEVEL_LONG = "warn"; //$NON-NLS-1$
 
-	private static final int SUCCESS_CODE = 0;
+	private static final String CLI_OPTION_INCREMENTAL = "incremental"; //$NON-NLS-1$
 
-	private static final int ERROR_CODE = 255;
+	private static final String CLI_OPTION_BUILD_INDEX = "buildindex"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_PARALLEL = "parallel"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_CLASS_DIRECTORY = "classdir"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_CLASSPATH_INDEX = "cpindex"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_IN_MEMORY_STUBS = "inmemorystubs"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_PROFILE = "profile"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_LOW_MEMORY = "lowmemory"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_PERSISTENT_MAPS = "persistentmaps"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_DAEMON = "daemon"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_DAEMON_SERVER = "daemonserver"; //$NON-NLS-1$
+
+	private static final String CLI_OPTION_STOP_DAEMON = "stopdaemon"; //$NON-NLS-1$
+
+	/** Exit code on success.
+	 */
+	static final int SUCCESS_CODE = 0;
+
+	/** Exit code on error.
+	 */
+	static final int ERROR_CODE = 255;
 
 	private static final String SARL_COMPILER_NAME = "sarlc"; //$NON-NLS-1$
 
@@ -152,6 +185,35 @@ public final class Main {
 	 */
 	public static int runCompiler(String... args) {
 		configureLogger();
+		final CommandLine cmd = parseOptions(args);
+		if (cmd.hasOption(CLI_OPTION_STOP_DAEMON)) {
+			try {
+				return SarlcDaemonClient.stopDaemon() ? SUCCESS_CODE : ERROR_CODE;
+			} catch (IOException exception) {
+				showError(exception);
+			}
+		}
+		if (cmd.hasOption(CLI_OPTION_DAEMON_SERVER)) {
+			try {
+				new SarlcDaemon(SARLStandaloneSetup.doSetup()).run();
+			} catch (IOException exception) {
+				showError(exception);
+			}
+			return SUCCESS_CODE;
+		}
+		if (cmd.hasOption(CLI_OPTION_DAEMON)) {
+			if (cmd.hasOption(CLI_OPTION_HELP) || cmd.getArgs().length == 0) {
+				printUsage();
+			}
+			if (cmd.hasOption(CLI_OPTION_VERSION)) {
+				printVersion();
+			}
+			try {
+				return SarlcDaemonClient.compile(toAbsoluteArguments(cmd), System.out::println);
+			} catch (IOException exception) {
+				showError(exception);
+			}
+		}
 		final Injector injector = SARLStandaloneSetup.doSetup();
 		assert injector != null;
 		final SarlBatchCompiler compiler = injector.getInstance(SarlBatchCompiler.class);
@@ -180,127 +242,250 @@ public final class Main {
 	 * @param args the CLI arguments given to the program.
 	 * @param compiler the compiler to configure.
 	 */
-	@SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity"})
 	public static void parseCommandLine(String[] args, SarlBatchCompiler compiler) {
+		final CommandLine cmd = parseOptions(args);
+		switch (configureCompiler(cmd, compiler)) {
+		case USAGE:
+			printUsage();
+			break;
+		case VERSION:
+			printVersion();
+			break;
+		case COMPILE:
+		default:
+		}
+	}
+
+	private static CommandLine parseOptions(String[] args) {
 		final CommandLineParser parser = createCommandLineParser();
 		try {
-			final CommandLine cmd = parser.parse(getOptions(), args);
-
-			final Iterator<Option> optIterator = cmd.iterator();
-			while (optIterator.hasNext()) {
-				final Option opt = optIterator.next();
-				String optLabel = opt.getLongOpt();
-				if (optLabel == null) {
-					optLabel = opt.getOpt();
+			return parser.parse(getOptions(), args);
+		} catch (ParseException e) {
+			showError(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Configure the compiler with the given command line.
+	 *
+	 * <p>This function never stops the JVM. It is used by the compilation daemon.
+	 *
+	 * @param cmd the parsed command line.
+	 * @param compiler the compiler to configure.
+	 * @return the action to be done.
+	 * @since 0.8
+	 */
+	@SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity", "checkstyle:returncount"})
+	static CommandLineStatus configureCompiler(CommandLine cmd, SarlBatchCompiler compiler) {
+		final Iterator<Option> optIterator = cmd.iterator();
+		while (optIterator.hasNext()) {
+			final Option opt = optIterator.next();
+			String optLabel = opt.getLongOpt();
+			if (optLabel == null) {
+				optLabel = opt.getOpt();
+			}
+			final String strvalue;
+			switch (optLabel) {
+			case CLI_OPTION_HELP:
+				return CommandLineStatus.USAGE;
+			case CLI_OPTION_VERSION:
+				return CommandLineStatus.VERSION;
+			case CLI_OPTION_VERBOSE_LONG:
+				compiler.getLogger().setLevel(Level.toLevel(
+						compiler.getLogger().getLevel().toInt() + 1));
+				break;
+			case CLI_OPTION_QUIET_LONG:
+				compiler.getLogger().setLevel(Level.ERROR);
+				break;
+			case CLI_OPTION_DEBUG_LONG:
+				compiler.setJavaCompilerVerbose(true);
+				compiler.getLogger().setLevel(Level.DEBUG);
+				break;
+			case CLI_OPTION_OUTPUT_DIRECTORY_LONG:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setOutputPath(strvalue);
+				break;
+			case CLI_OPTION_CLASS_DIRECTORY:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setClassOutputPath(normalizeFile(strvalue));
+				break;
+			case CLI_OPTION_TEMP_DIRECTORY_LONG:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setTempDirectory(strvalue);
+				break;
+			case CLI_OPTION_CLASSPATH_LONG:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setClassPath(strvalue);
+				break;
+			case CLI_OPTION_BOOTCLASSPATH_LONG:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setBootClassPath(strvalue);
+				break;
+			case CLI_OPTION_ENCODING_LONG:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setFileEncoding(strvalue);
+				break;
+			case CLI_OPTION_JAVA_SOURCE_VERSION_LONG:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setJavaSourceVersion(strvalue);
+				break;
+			case CLI_OPTION_JAVA_COMPILER_LONG:
+				compiler.setJavaPostCompilationEnable(getBooleanValue(opt));
+				break;
+			case CLI_OPTION_WRITE_TRACES:
+				compiler.setWriteTraceFiles(getBooleanValue(opt));
+				break;
+			case CLI_OPTION_WRITE_STORAGES:
+				compiler.setWriteStorageFiles(getBooleanValue(opt));
+				break;
+			case CLI_OPTION_GENERATE_INLINES:
+				compiler.setGenerateInlineAnnotation(getBooleanValue(opt));
+				break;
+			case CLI_OPTION_GENERATE_PURES:
+				compiler.setGeneratePureAnnotation(getBooleanValue(opt));
+				break;
+			case CLI_OPTION_NOWARNING:
+				compiler.setAllWarningSeverities(Severity.IGNORE);
+				break;
+			case CLI_OPTION_WARNINGISERROR:
+				compiler.setAllWarningSeverities(Severity.ERROR);
+				break;
+			case CLI_OPTION_INCREMENTAL:
+				compiler.setIncrementalCompilation(true);
+				break;
+			case CLI_OPTION_BUILD_INDEX:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setBuildIndexFile(strvalue);
+				break;
+			case CLI_OPTION_PARALLEL:
+				compiler.setParallelCompilation(true);
+				break;
+			case CLI_OPTION_IN_MEMORY_STUBS:
+				compiler.setInMemoryStubCompilation(true);
+				break;
+			case CLI_OPTION_CLASSPATH_INDEX:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
+				}
+				compiler.setClasspathIndexFolder(strvalue);
+				break;
+			case CLI_OPTION_PROFILE:
+				strvalue = getStringValue(opt);
+				if (strvalue == null) {
+					return CommandLineStatus.USAGE;
 				}
-				final String strvalue;
+				compiler.setProfilingReportFile(strvalue);
+				break;
+			case CLI_OPTION_LOW_MEMORY:
+				compiler.setLowMemoryCompilation(true);
+				break;
+			case CLI_OPTION_PERSISTENT_MAPS:
+				compiler.setUsePersistentMapOperators(getBooleanValue(opt));
+				break;
+			case CLI_OPTION_WARNING_LEVEL_LONG:
+				compiler.setWarningSeverity(opt.getValue(0),
+						parseWarningSeverity(opt.getValue(1)));
+				break;
+			default:
+			}
+		}
+
+		// Show the help when there is no argument.
+		if (cmd.getArgs().length == 0) {
+			return CommandLineStatus.USAGE;
+		}
+
+		for (final String cliArg : cmd.getArgs()) {
+			compiler.addSourcePath(cliArg);
+		}
+		return CommandLineStatus.COMPILE;
+	}
+
+	/** Replies the command line arguments in which all the paths are absolute.
+	 *
+	 * <p>The paths are made absolute against the current directory, since the arguments
+	 * are sent to the compilation daemon that may have another current directory.
+	 * The options that are related to the daemon are removed.
+	 *
+	 * @param cmd the parsed command line.
+	 * @return the arguments.
+	 * @since 0.8
+	 */
+	static String[] toAbsoluteArguments(CommandLine cmd) {
+		final List<String> arguments = new ArrayList<>();
+		for (final Option opt : cmd.getOptions()) {
+			final String optLabel = opt.getLongOpt() == null ? opt.getOpt() : opt.getLongOpt();
+			switch (optLabel) {
+			case CLI_OPTION_DAEMON:
+			case CLI_OPTION_DAEMON_SERVER:
+			case CLI_OPTION_STOP_DAEMON:
+				continue;
+			default:
+			}
+			arguments.add("-" + opt.getOpt()); //$NON-NLS-1$
+			if (opt.hasArg()) {
 				switch (optLabel) {
-				case CLI_OPTION_HELP:
-					printUsage();
-					return;
-				case CLI_OPTION_VERSION:
-					printVersion();
-					return;
-				case CLI_OPTION_VERBOSE_LONG:
-					compiler.getLogger().setLevel(Level.toLevel(
-							compiler.getLogger().getLevel().toInt() + 1));
-					break;
-				case CLI_OPTION_QUIET_LONG:
-					compiler.getLogger().setLevel(Level.ERROR);
-					break;
-				case CLI_OPTION_DEBUG_LONG:
-					compiler.setJavaCompilerVerbose(true);
-					compiler.getLogger().setLevel(Level.DEBUG);
-					break;
 				case CLI_OPTION_OUTPUT_DIRECTORY_LONG:
-					strvalue = getStringValue(opt);
-					if (strvalue == null) {
-						printUsage();
-						return;
-					}
-					compiler.setOutputPath(strvalue);
-					break;
+				case CLI_OPTION_CLASS_DIRECTORY:
 				case CLI_OPTION_TEMP_DIRECTORY_LONG:
-					strvalue = getStringValue(opt);
-					if (strvalue == null) {
-						printUsage();
-						return;
-					}
-					compiler.setTempDirectory(strvalue);
+				case CLI_OPTION_BUILD_INDEX:
+				case CLI_OPTION_CLASSPATH_INDEX:
+				case CLI_OPTION_PROFILE:
+					arguments.add(normalizeFile(opt.getValue()).getPath());
 					break;
 				case CLI_OPTION_CLASSPATH_LONG:
-					strvalue = getStringValue(opt);
-					if (strvalue == null) {
-						printUsage();
-						return;
-					}
-					compiler.setClassPath(strvalue);
-					break;
 				case CLI_OPTION_BOOTCLASSPATH_LONG:
-					strvalue = getStringValue(opt);
-					if (strvalue == null) {
-						printUsage();
-						return;
-					}
-					compiler.setBootClassPath(strvalue);
-					break;
-				case CLI_OPTION_ENCODING_LONG:
-					strvalue = getStringValue(opt);
-					if (strvalue == null) {
-						printUsage();
-						return;
+					final StringBuilder path = new StringBuilder();
+					for (final String element : opt.getValue().split(Pattern.quote(File.pathSeparator))) {
+						if (path.length() > 0) {
+							path.append(File.pathSeparator);
+						}
+						path.append(normalizeFile(element).getPath());
 					}
-					compiler.setFileEncoding(strvalue);
-					break;
-				case CLI_OPTION_JAVA_SOURCE_VERSION_LONG:
-					strvalue = getStringValue(opt);
-					if (strvalue == null) {
-						printUsage();
-						return;
-					}
-					compiler.setJavaSourceVersion(strvalue);
-					break;
-				case CLI_OPTION_JAVA_COMPILER_LONG:
-					compiler.setJavaPostCompilationEnable(getBooleanValue(opt));
-					break;
-				case CLI_OPTION_WRITE_TRACES:
-					compiler.setWriteTraceFiles(getBooleanValue(opt));
-					break;
-				case CLI_OPTION_WRITE_STORAGES:
-					compiler.setWriteStorageFiles(getBooleanValue(opt));
-					break;
-				case CLI_OPTION_GENERATE_INLINES:
-					compiler.setGenerateInlineAnnotation(getBooleanValue(opt));
-					break;
-				case CLI_OPTION_GENERATE_PURES:
-					compiler.setGeneratePureAnnotation(getBooleanValue(opt));
-					break;
-				case CLI_OPTION_NOWARNING:
-					compiler.setAllWarningSeverities(Severity.IGNORE);
-					break;
-				case CLI_OPTION_WARNINGISERROR:
-					compiler.setAllWarningSeverities(Severity.ERROR);
+					arguments.add(path.toString());
 					break;
 				case CLI_OPTION_WARNING_LEVEL_LONG:
-					compiler.setWarningSeverity(opt.getValue(0),
-							parseWarningSeverity(opt.getValue(1)));
+					arguments.add(opt.getValue(0) + "=" + opt.getValue(1)); //$NON-NLS-1$
 					break;
 				default:
+					arguments.add(opt.getValue());
 				}
 			}
-
-			// Show the help when there is no argument.
-			if (cmd.getArgs().length == 0) {
-				printUsage();
-				return;
-			}
-
-			for (final String cliArg : cmd.getArgs()) {
-				compiler.addSourcePath(cliArg);
-			}
-		} catch (ParseException e) {
-			showError(e);
 		}
+		for (final String cliArg : cmd.getArgs()) {
+			arguments.add(normalizeFile(cliArg).getPath());
+		}
+		return arguments.toArray(new String[arguments.size()]);
+	}
+
+	private static File normalizeFile(String file) {
+		return new File(new File(file).getAbsoluteFile().toURI().normalize());
 	}
 
 	private static Severity parseWarningSeverity(String code) {
@@ -383,6 +568,32 @@ public final class Main {
 				Messages.Main_19);
 		options.addOption(CLI_OPTION_WARNINGISERROR, false,
 				Messages.Main_20);
+		options.addOption(CLI_OPTION_INCREMENTAL, false,
+				Messages.Main_22);
+		options.addOption(CLI_OPTION_BUILD_INDEX, true,
+				Messages.Main_23);
+		options.addOption(CLI_OPTION_PARALLEL, false,
+				Messages.Main_24);
+		options.addOption(CLI_OPTION_CLASS_DIRECTORY, true,
+				Messages.Main_25);
+		options.addOption(CLI_OPTION_GENERATE_PURES, true,
+				Messages.Main_26);
+		options.addOption(CLI_OPTION_CLASSPATH_INDEX, true,
+				Messages.Main_30);
+		options.addOption(CLI_OPTION_IN_MEMORY_STUBS, false,
+				Messages.Main_31);
+		options.addOption(CLI_OPTION_PROFILE, true,
+				Messages.Main_32);
+		options.addOption(CLI_OPTION_LOW_MEMORY, false,
+				Messages.Main_33);
+		options.addOption(CLI_OPTION_PERSISTENT_MAPS, true,
+				Messages.Main_34);
+		options.addOption(CLI_OPTION_DAEMON, false,
+				Messages.Main_27);
+		options.addOption(CLI_OPTION_DAEMON_SERVER, false,
+				Messages.Main_28);
+		options.addOption(CLI_OPTION_STOP_DAEMON, false,
+				Messages.Main_29);
 		final Option wloption = new Option(CLI_OPTION_WARNING_LEVEL_SHORT, CLI_OPTION_WARNING_LEVEL_LONG, true,
 				Messages.Main_21);
 		wloption.setArgs(2);
@@ -456,4 +667,24 @@ public final class Main {
 		System.exit(SUCCESS_CODE);
 	}
 
+	/** Status of the command line.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	enum CommandLineStatus {
+		/** The compiler must be run.
+		 */
+		COMPILE,
+		/** The usage must be displayed.
+		 */
+		USAGE,
+		/** The version must be displayed.
+		 */
+		VERSION,
+	}
+
 }
@@ -34,6 +34,7 @@ import org.eclipse.osgi.util.NLS;
 @SuppressWarnings("all")
 public class Messages extends NLS {
 	private static final String BUNDLE_NAME = Messages.class.getPackage().getName() + ".messages"; //$NON-NLS-1$
+	public static String DaemonBatchCompiler_0;
 	public static String Main_0;
 	public static String Main_1;
 	public static String Main_10;
@@ -49,7 +50,20 @@ public class Messages extends NLS {
 	public static String Main_2;
 	public static String Main_20;
 	public static String Main_21;
+	public static String Main_22;
+	public static String Main_23;
+	public static String Main_24;
+	public static String Main_25;
+	public static String Main_26;
+	public static String Main_27;
+	public static String Main_28;
+	public static String Main_29;
 	public static String Main_3;
+	public static String Main_30;
+	public static String Main_31;
+	public static String Main_32;
+	public static String Main_33;
+	public static String Main_34;
 	public static String Main_4;
 	public static String Main_5;
 	public static String Main_6;
@@ -92,11 +106,31 @@ public class Messages extends NLS {
 	public static String SarlBatchCompiler_39;
 	public static String SarlBatchCompiler_4;
 	public static String SarlBatchCompiler_40;
+	public static String SarlBatchCompiler_41;
+	public static String SarlBatchCompiler_42;
+	public static String SarlBatchCompiler_43;
+	public static String SarlBatchCompiler_44;
+	public static String SarlBatchCompiler_45;
+	public static String SarlBatchCompiler_46;
+	public static String SarlBatchCompiler_47;
+	public static String SarlBatchCompiler_48;
+	public static String SarlBatchCompiler_49;
 	public static String SarlBatchCompiler_5;
+	public static String SarlBatchCompiler_50;
+	public static String SarlBatchCompiler_51;
+	public static String SarlBatchCompiler_52;
+	public static String SarlBatchCompiler_53;
+	public static String SarlBatchCompiler_54;
 	public static String SarlBatchCompiler_6;
 	public static String SarlBatchCompiler_7;
 	public static String SarlBatchCompiler_8;
 	public static String SarlBatchCompiler_9;
+	public static String SarlcDaemonClient_0;
+	public static String SarlcDaemon_0;
+	public static String SarlcDaemon_1;
+	public static String SarlcDaemon_2;
+	public static String SarlcDaemon_3;
+	public static String SarlcDaemon_4;
 	static {
 		// initialize resource bundle
 		NLS.initializeMessages(BUNDLE_NAME, Messages.class);
@@ -0,0 +1,152 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+
+/** Plan of the generation of the resources when they are unloaded as soon as possible.
+ *
+ * <p>The resources are generated cluster by cluster, where a cluster is a set of resources
+ * that are connected by their references. A resource is unloadable when it was generated
+ * and when all the resources to generate that are referencing it were generated.
+ * In this way, the number of resources that are loaded at the same time depends on the size
+ * of the clusters rather than on the size of the project.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class ResourceUnloadingPlan {
+
+	private final Map<URI, Set<URI>> dependencies;
+
+	private final Map<URI, Integer> remainingUsers = new HashMap<>();
+
+	private final Set<URI> generated = new HashSet<>();
+
+	private final List<URI> order;
+
+	/** Constructor.
+	 *
+	 * @param dependencies the resources to generate, in their original order, with the resources they are referencing.
+	 */
+	ResourceUnloadingPlan(Map<URI, ? extends Collection<URI>> dependencies) {
+		this.dependencies = new LinkedHashMap<>();
+		for (final Entry<URI, ? extends Collection<URI>> entry : dependencies.entrySet()) {
+			final Set<URI> internalDependencies = new HashSet<>();
+			for (final URI dependency : entry.getValue()) {
+				if (!dependency.equals(entry.getKey()) && dependencies.containsKey(dependency)) {
+					internalDependencies.add(dependency);
+				}
+			}
+			this.dependencies.put(entry.getKey(), internalDependencies);
+		}
+		final Map<URI, URI> clusters = new HashMap<>();
+		for (final Entry<URI, Set<URI>> entry : this.dependencies.entrySet()) {
+			this.remainingUsers.putIfAbsent(entry.getKey(), Integer.valueOf(0));
+			for (final URI dependency : entry.getValue()) {
+				this.remainingUsers.merge(dependency, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+				union(clusters, entry.getKey(), dependency);
+			}
+		}
+		final Map<URI, List<URI>> members = new LinkedHashMap<>();
+		for (final URI resource : this.dependencies.keySet()) {
+			members.computeIfAbsent(find(clusters, resource), it -> new ArrayList<>()).add(resource);
+		}
+		final List<URI> ordered = new ArrayList<>(this.dependencies.size());
+		for (final List<URI> cluster : members.values()) {
+			ordered.addAll(cluster);
+		}
+		this.order = Collections.unmodifiableList(ordered);
+	}
+
+	private static URI find(Map<URI, URI> parents, URI element) {
+		URI root = element;
+		URI parent = parents.get(root);
+		while (parent != null && !parent.equals(root)) {
+			root = parent;
+			parent = parents.get(root);
+		}
+		// Path compression
+		URI current = element;
+		while (!current.equals(root)) {
+			final URI next = parents.get(current);
+			parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+	private static void union(Map<URI, URI> parents, URI element1, URI element2) {
+		final URI root1 = find(parents, element1);
+		final URI root2 = find(parents, element2);
+		if (!root1.equals(root2)) {
+			parents.put(root2, root1);
+		}
+	}
+
+	/** Replies the order in which the resources should be generated.
+	 *
+	 * @return the resources, grouped by cluster.
+	 */
+	public List<URI> getGenerationOrder() {
+		return this.order;
+	}
+
+	/** Mark the given resource as generated, and reply the resources that could be unloaded.
+	 *
+	 * @param resource the generated resource.
+	 * @return the resources that are not needed anymore for generating the other resources.
+	 */
+	public List<URI> generated(URI resource) {
+		final Set<URI> resourceDependencies = this.dependencies.get(resource);
+		if (resourceDependencies == null || !this.generated.add(resource)) {
+			return Collections.emptyList();
+		}
+		final List<URI> unloadable = new ArrayList<>();
+		for (final URI dependency : resourceDependencies) {
+			final int users = this.remainingUsers.get(dependency).intValue() - 1;
+			this.remainingUsers.put(dependency, Integer.valueOf(users));
+			if (users <= 0 && this.generated.contains(dependency)) {
+				unloadable.add(dependency);
+			}
+		}
+		if (this.remainingUsers.get(resource).intValue() <= 0) {
+			unloadable.add(resource);
+		}
+		return unloadable;
+	}
+
+}
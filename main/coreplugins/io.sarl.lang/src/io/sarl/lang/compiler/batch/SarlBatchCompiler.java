@@ -33,22 +33,35 @@ import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import javax.inject.Provider;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
 
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
@@ -59,13 +72,17 @@ import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import org.apache.log4j.Logger;
 import org.apache.log4j.spi.LoggerFactory;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.jdt.core.compiler.CompilationProgress;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 import org.eclipse.xtend.core.macro.ProcessorInstanceForJvmTypeProvider;
 import org.eclipse.xtext.Constants;
 import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
 import org.eclipse.xtext.common.types.descriptions.IStubGenerator;
@@ -73,17 +90,24 @@ import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.generator.GeneratorContext;
 import org.eclipse.xtext.generator.GeneratorDelegate;
 import org.eclipse.xtext.generator.IOutputConfigurationProvider;
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess;
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
 import org.eclipse.xtext.generator.OutputConfiguration;
 import org.eclipse.xtext.generator.OutputConfigurationAdapter;
 import org.eclipse.xtext.mwe.NameBasedFilter;
 import org.eclipse.xtext.mwe.PathTraverser;
+import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.resource.CompilerPhases;
 import org.eclipse.xtext.resource.FileExtensionProvider;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
 import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.Files;
@@ -103,14 +127,17 @@ import org.eclipse.xtext.xbase.lib.Inline;
 import org.eclipse.xtext.xbase.lib.Pure;
 import org.eclipse.xtext.xbase.resource.BatchLinkableResource;
 import org.eclipse.xtext.xbase.resource.BatchLinkableResourceStorageWritable;
+import org.eclipse.xtext.xbase.typesystem.IBatchTypeResolver;
 
 import io.sarl.lang.SARLConfig;
+import io.sarl.lang.SARLVersion;
 import io.sarl.lang.compiler.GeneratorConfig2;
 import io.sarl.lang.compiler.GeneratorConfigProvider2;
 import io.sarl.lang.compiler.IGeneratorConfigProvider2;
 import io.sarl.lang.compiler.batch.InternalLogger.InternalLoggerFactory;
 import io.sarl.lang.util.Utils;
 import io.sarl.lang.validation.IConfigurableIssueSeveritiesProvider;
+import io.sarl.lang.validation.ValidationCheckProfiler;
 
 /** The compiler from SARL that could be used for batch tasks (Maven, CLI).
  *
@@ -129,6 +156,17 @@ public class SarlBatchCompiler {
 
 	private static final String STUB_FOLDER_PREFIX = "stubs"; //$NON-NLS-1$
 
+	private static final String JAVA_FILE_EXTENSION = ".java"; //$NON-NLS-1$
+
+	private static final String TRACE_FILE_EXTENSION = "._trace"; //$NON-NLS-1$
+
+	private static final String ECLIPSE_COMPILER_CLASSNAME = "org.eclipse.jdt.internal.compiler.tool.EclipseCompiler"; //$NON-NLS-1$
+
+	private static final FileFilter JAVA_FILE_FILTER = it -> it.getName().endsWith(JAVA_FILE_EXTENSION);
+
+	private static final FileFilter BINARY_FILE_FILTER = it -> it.getName().endsWith(".class") //$NON-NLS-1$
+			|| it.getName().endsWith(".jar"); //$NON-NLS-1$
+
 	private static final FileFilter ACCEPT_ALL_FILTER = new FileFilter() {
 		@Override
 		public boolean accept(File pathname) {
@@ -140,6 +178,8 @@ public class SarlBatchCompiler {
 	 */
 	protected Provider<ResourceSet> resourceSetProvider;
 
+	private Provider<SynchronizedXtextResourceSet> synchronizedResourceSetProvider;
+
 	private File outputPath;
 
 	private File classOutputPath;
@@ -214,6 +254,12 @@ public class SarlBatchCompiler {
 	@Inject
 	private IConfigurableIssueSeveritiesProvider issueSeverityProvider;
 
+	@Inject
+	private ValidationCheckProfiler checkProfiler;
+
+	@Inject
+	private IBatchTypeResolver batchTypeResolver;
+
 	@Inject
 	@Named(Constants.LANGUAGE_NAME)
 	private String languageName;
@@ -234,6 +280,32 @@ public class SarlBatchCompiler {
 
 	private GeneratorConfig2 currentGeneratorConfiguration2;
 
+	private boolean incrementalCompilation;
+
+	private File buildIndexFile;
+
+	private BuildIndex buildIndex;
+
+	private Map<String, String> sourceHashes;
+
+	private Set<org.eclipse.emf.common.util.URI> resourcesToCompile;
+
+	private boolean parallelCompilation;
+
+	private ExecutorService parallelExecutor;
+
+	private File classpathIndexFolder;
+
+	private boolean inMemoryStubCompilation;
+
+	private Map<String, byte[]> inMemoryStubClasses;
+
+	private File profilingReportFile;
+
+	private CompilationProfiler profiler;
+
+	private boolean lowMemoryCompilation;
+
 	/** Constructor the batch compiler.
 	 */
 	public SarlBatchCompiler() {
@@ -367,14 +439,29 @@ public class SarlBatchCompiler {
 	}
 
 	/** Set the provider of resource sets.
+	 *
+	 * <p>The parallel compilation is enabled only if the provided resource sets are
+	 * {@link SynchronizedXtextResourceSet synchronized}.
 	 *
 	 * @param resourceSetProvider the provider.
 	 */
-	@Inject
 	public void setResourceSetProvider(Provider<ResourceSet> resourceSetProvider) {
 		this.resourceSetProvider = resourceSetProvider;
 	}
 
+	/** Set the default provider of resource sets.
+	 *
+	 * <p>The default resource sets are synchronized in order to be usable by the parallel compilation.
+	 *
+	 * @param resourceSetProvider the provider.
+	 * @since 0.8
+	 */
+	@Inject
+	void setDefaultResourceSetProvider(Provider<SynchronizedXtextResourceSet> resourceSetProvider) {
+		this.synchronizedResourceSetProvider = resourceSetProvider;
+		this.resourceSetProvider = () -> resourceSetProvider.get();
+	}
+
 	private static File normalizeFile(String file) {
 		return new File(new File(file).getAbsoluteFile().toURI().normalize());
 	}
@@ -679,6 +766,212 @@ public class SarlBatchCompiler {
 		this.deleteTempPath = delete;
 	}
 
+	/** Replies if the compilation is incremental.
+	 *
+	 * <p>When the compilation is incremental, the compiler persists a build index between
+	 * two runs, and only the files that have changed since the last successful compilation, and the files
+	 * that depend on them, are validated and generated.
+	 *
+	 * @return <code>true</code> if the compilation is incremental.
+	 * @since 0.8
+	 * @see #getBuildIndexFile()
+	 */
+	@Pure
+	public boolean isIncrementalCompilation() {
+		return this.incrementalCompilation;
+	}
+
+	/** Set if the compilation is incremental.
+	 *
+	 * @param incremental <code>true</code> if the compilation is incremental.
+	 * @since 0.8
+	 * @see #setBuildIndexFile(File)
+	 */
+	public void setIncrementalCompilation(boolean incremental) {
+		this.incrementalCompilation = incremental;
+	}
+
+	/** Replies if the validation and the generation of the resources are run in parallel.
+	 *
+	 * <p>When the compilation is parallel, the resources are linked sequentially, and then they are
+	 * validated and generated concurrently on a fork-join pool. The issues are reported and the
+	 * generated resources are notified in the same order as for a sequential compilation; and
+	 * the generated files are the same.
+	 *
+	 * @return <code>true</code> if the compilation is parallel.
+	 * @since 0.8
+	 */
+	@Pure
+	public boolean isParallelCompilation() {
+		return this.parallelCompilation;
+	}
+
+	/** Set if the validation and the generation of the resources are run in parallel.
+	 *
+	 * @param parallel <code>true</code> if the compilation is parallel.
+	 * @since 0.8
+	 */
+	public void setParallelCompilation(boolean parallel) {
+		this.parallelCompilation = parallel;
+	}
+
+	/** Replies if the stubs are generated and compiled in memory.
+	 *
+	 * @return <code>true</code> if the stubs are not written on the disk.
+	 * @since 0.8
+	 */
+	@Pure
+	public boolean isInMemoryStubCompilation() {
+		return this.inMemoryStubCompilation;
+	}
+
+	/** Change if the stubs are generated and compiled in memory.
+	 *
+	 * <p>If the stubs are compiled in memory, the stubs and their class files are not written
+	 * on the disk. They are compiled with the JSR-199 API of the Java compiler, and the byte
+	 * codes are provided to the JVM type provider directly.
+	 *
+	 * @param inMemory <code>true</code> if the stubs are not written on the disk.
+	 * @since 0.8
+	 */
+	public void setInMemoryStubCompilation(boolean inMemory) {
+		this.inMemoryStubCompilation = inMemory;
+	}
+
+	/** Replies the folder in which the indexes of the types in the classpath JAR files are stored.
+	 *
+	 * @return the folder, or <code>null</code> if the classpath is not indexed.
+	 * @since 0.8
+	 * @see ClasspathTypeIndex
+	 */
+	@Pure
+	public File getClasspathIndexFolder() {
+		return this.classpathIndexFolder;
+	}
+
+	/** Change the folder in which the indexes of the types in the classpath JAR files are stored.
+	 *
+	 * <p>The indexes are named according to the hash of the JAR files. The same folder may be shared
+	 * by several projects.
+	 *
+	 * @param folder the folder, or <code>null</code> for not indexing the classpath.
+	 * @since 0.8
+	 */
+	public void setClasspathIndexFolder(File folder) {
+		this.classpathIndexFolder = folder;
+	}
+
+	/** Change the folder in which the indexes of the types in the classpath JAR files are stored.
+	 *
+	 * @param folder the folder, or <code>null</code> for not indexing the classpath.
+	 * @since 0.8
+	 */
+	public void setClasspathIndexFolder(String folder) {
+		setClasspathIndexFolder(Strings.isEmpty(folder) ? null : normalizeFile(folder));
+	}
+
+	/** Replies the file in which the build index is stored for incremental compilation.
+	 *
+	 * <p>By default, the index is stored beside the output folder, e.g. {@code <output>/../.sarl-build.index},
+	 * in order to be found again by the next runs of the compiler. If there is no output folder, the index
+	 * is stored inside the temp directory.
+	 *
+	 * @return the file.
+	 * @since 0.8
+	 * @see #getOutputPath()
+	 * @see #getTempDirectory()
+	 */
+	@Pure
+	public File getBuildIndexFile() {
+		if (this.buildIndexFile == null) {
+			final File outputPath = getOutputPath();
+			if (outputPath != null) {
+				final File parent = outputPath.getAbsoluteFile().getParentFile();
+				if (parent != null) {
+					return new File(parent, BuildIndex.DEFAULT_FILENAME);
+				}
+			}
+			return new File(getTempDirectory(), BuildIndex.DEFAULT_FILENAME);
+		}
+		return this.buildIndexFile;
+	}
+
+	/** Change the file in which the build index is stored for incremental compilation.
+	 *
+	 * @param file the file, or <code>null</code> for using the default file.
+	 * @since 0.8
+	 */
+	public void setBuildIndexFile(File file) {
+		this.buildIndexFile = file;
+	}
+
+	/** Change the file in which the build index is stored for incremental compilation.
+	 *
+	 * @param file the file, or <code>null</code> for using the default file.
+	 * @since 0.8
+	 */
+	public void setBuildIndexFile(String file) {
+		setBuildIndexFile(Strings.isEmpty(file) ? null : normalizeFile(file));
+	}
+
+	/** Replies the file in which the profiling report of the compilation is written.
+	 *
+	 * @return the file, or <code>null</code> if the compilation is not profiled.
+	 * @since 0.8
+	 */
+	@Pure
+	public File getProfilingReportFile() {
+		return this.profilingReportFile;
+	}
+
+	/** Change the file in which the profiling report of the compilation is written.
+	 *
+	 * <p>The report is written in JSON. It contains the wall time, the CPU time and the allocated
+	 * bytes of each phase of the compiler and of each compiled resource, the slowest resources and
+	 * the slowest validation checks.
+	 *
+	 * @param file the file, or <code>null</code> for not profiling the compilation.
+	 * @since 0.8
+	 */
+	public void setProfilingReportFile(File file) {
+		this.profilingReportFile = file;
+	}
+
+	/** Change the file in which the profiling report of the compilation is written.
+	 *
+	 * @param file the file, or <code>null</code> for not profiling the compilation.
+	 * @since 0.8
+	 */
+	public void setProfilingReportFile(String file) {
+		setProfilingReportFile(Strings.isEmpty(file) ? null : normalizeFile(file));
+	}
+
+	/** Replies if the resources are unloaded as soon as their Java files are generated.
+	 *
+	 * @return <code>true</code> if the resources are unloaded during the generation.
+	 * @since 0.8
+	 */
+	@Pure
+	public boolean isLowMemoryCompilation() {
+		return this.lowMemoryCompilation;
+	}
+
+	/** Change if the resources are unloaded as soon as their Java files are generated.
+	 *
+	 * <p>In the low-memory mode, the Java files are generated cluster of resources per cluster of
+	 * resources, where a cluster contains the resources that are referencing each other.
+	 * Each resource is unloaded when it and the resources that are referencing it were generated.
+	 * Its description stays in the index of the resource set for the cross-references.
+	 * The peak of memory depends on the size of the largest cluster rather than on the size
+	 * of the project. The Java files are generated sequentially in this mode.
+	 *
+	 * @param lowMemory <code>true</code> if the resources are unloaded during the generation.
+	 * @since 0.8
+	 */
+	public void setLowMemoryCompilation(boolean lowMemory) {
+		this.lowMemoryCompilation = lowMemory;
+	}
+
 	/** Change the file encoding.
 	 *
 	 * @param encoding the encoding, usually <code>UTF-8</code>.
@@ -881,6 +1174,25 @@ public class SarlBatchCompiler {
 		getGeneratorConfig2().setGeneratePureAnnotation(generatePureAnnotation);
 	}
 
+	/** Replies if the map operators create persistent maps in place of views on their operands.
+	 *
+	 * @return <code>true</code> if the persistent maps are used.
+	 * @since 0.8
+	 */
+	@Pure
+	public boolean isUsePersistentMapOperators() {
+		return getGeneratorConfig2().isUsePersistentMapOperators();
+	}
+
+	/** Set if the map operators create persistent maps in place of views on their operands.
+	 *
+	 * @param usePersistentMapOperators <code>true</code> if the persistent maps are used.
+	 * @since 0.8
+	 */
+	public void setUsePersistentMapOperators(final boolean usePersistentMapOperators) {
+		getGeneratorConfig2().setUsePersistentMapOperators(usePersistentMapOperators);
+	}
+
 	/** Change the source path.
 	 *
 	 * <p>The source path is a list the names of folders that are separated by {@link File#pathSeparator}.
@@ -964,6 +1276,12 @@ public class SarlBatchCompiler {
 	@SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:cyclomaticcomplexity", "checkstyle:returncount"})
 	public boolean compile(CancelIndicator cancelIndicator) {
 		final CancelIndicator cancel = cancelIndicator == null ? CancelIndicator.NullImpl : cancelIndicator;
+		if (getProfilingReportFile() != null) {
+			this.profiler = new CompilationProfiler();
+			this.checkProfiler.reset();
+			this.checkProfiler.setEnabled(true);
+			this.profiler.enterPhase(CompilationProfiler.CONFIGURATION);
+		}
 		try {
 			if (!checkConfiguration(cancel)) {
 				return false;
@@ -990,7 +1308,7 @@ public class SarlBatchCompiler {
 			if (cancel.isCanceled()) {
 				return false;
 			}
-			final File stubClassDirectory = createTempDir(BINCLASS_FOLDER_PREFIX);
+			File stubClassDirectory = isInMemoryStubCompilation() ? null : createTempDir(BINCLASS_FOLDER_PREFIX);
 			if (cancel.isCanceled()) {
 				return false;
 			}
@@ -1004,21 +1322,63 @@ public class SarlBatchCompiler {
 				if (cancel.isCanceled()) {
 					return false;
 				}
+				enterPhase(CompilationProfiler.PARSING);
 				loadSARLFiles(resourceSet, cancel);
 				if (cancel.isCanceled()) {
 					return false;
 				}
-				final File stubSourceDirectory = createStubs(resourceSet, cancel);
+				enterPhase(CompilationProfiler.STUB_GENERATION);
+				File stubSourceDirectory;
+				Map<String, CharSequence> stubSources;
+				if (isInMemoryStubCompilation()) {
+					stubSourceDirectory = null;
+					stubSources = createInMemoryStubs(resourceSet, cancel);
+				} else {
+					stubSourceDirectory = createStubs(resourceSet, cancel);
+					stubSources = null;
+				}
 				if (cancel.isCanceled()) {
 					return false;
 				}
-				if (!preCompileStubs(stubSourceDirectory, stubClassDirectory, cancel)) {
+				if (isIncrementalCompilation()) {
+					this.resourcesToCompile = computeResourcesToCompile(resourceSet, cancel);
+					if (cancel.isCanceled()) {
+						return false;
+					}
+				}
+				enterPhase(CompilationProfiler.STUB_COMPILATION);
+				boolean stubsCompiled;
+				if (stubSources != null) {
+					stubsCompiled = preCompileStubsInMemory(stubSources, cancel);
+					if (!stubsCompiled && !cancel.isCanceled()
+							&& (this.inMemoryStubClasses == null || this.inMemoryStubClasses.isEmpty())) {
+						// No stub was compiled in memory: fall back to the compilation of the stubs on the disk.
+						this.logger.warn(Messages.SarlBatchCompiler_53);
+						this.inMemoryStubClasses = null;
+						stubSources = null;
+						stubClassDirectory = createTempDir(BINCLASS_FOLDER_PREFIX);
+						stubSourceDirectory = createStubs(resourceSet, cancel);
+						if (cancel.isCanceled()) {
+							return false;
+						}
+						stubsCompiled = preCompileStubs(stubSourceDirectory, stubClassDirectory, cancel);
+					}
+				} else {
+					stubsCompiled = preCompileStubs(stubSourceDirectory, stubClassDirectory, cancel);
+				}
+				if (!stubsCompiled) {
 					if (cancel.isCanceled()) {
 						return false;
 					}
 					this.logger.warn(Messages.SarlBatchCompiler_2);
 				}
-				if (!preCompileJava(stubSourceDirectory, stubClassDirectory, cancel)) {
+				final boolean javaCompiled;
+				if (stubSources != null) {
+					javaCompiled = preCompileJavaInMemory(stubSources, cancel);
+				} else {
+					javaCompiled = preCompileJava(stubSourceDirectory, stubClassDirectory, cancel);
+				}
+				if (!javaCompiled) {
 					if (cancel.isCanceled()) {
 						return false;
 					}
@@ -1030,6 +1390,7 @@ public class SarlBatchCompiler {
 					return false;
 				}
 			}
+			enterPhase(CompilationProfiler.JVM_MODEL_INFERENCE);
 			// install a fresh type provider for the second phase, so we clear all previously cached classes and misses.
 			installJvmTypeProvider(resourceSet, stubClassDirectory, false, cancel);
 			if (cancel.isCanceled()) {
@@ -1039,23 +1400,54 @@ public class SarlBatchCompiler {
 			if (cancel.isCanceled()) {
 				return false;
 			}
+			if (isParallelCompilation()) {
+				if (resourceSet instanceof SynchronizedXtextResourceSet) {
+					final int parallelism = Runtime.getRuntime().availableProcessors();
+					this.logger.info(MessageFormat.format(Messages.SarlBatchCompiler_46, Integer.valueOf(parallelism)));
+					this.parallelExecutor = new ForkJoinPool(parallelism);
+				} else {
+					this.logger.warn(Messages.SarlBatchCompiler_52);
+				}
+			}
+			enterPhase(CompilationProfiler.VALIDATION);
 			final List<Resource> validatedResources = new ArrayList<>();
 			final boolean hasError = validate(resourceSet, validatedResources, cancel);
 			if (hasError || cancel.isCanceled()) {
 				return false;
 			}
+			enterPhase(CompilationProfiler.GENERATION);
 			overrideXtextInternalLoggers();
-			generateJavaFiles(validatedResources, cancel);
+			if (isLowMemoryCompilation()) {
+				// The unloaded resources are removed from the list of the validated resources
+				generateJavaFilesAndUnloadResources(resourceSet, validatedResources, cancel);
+			} else {
+				generateJavaFiles(validatedResources, cancel);
+			}
 			if (cancel.isCanceled()) {
 				return false;
 			}
+			if (isIncrementalCompilation()) {
+				updateBuildIndex(validatedResources, cancel);
+				if (cancel.isCanceled()) {
+					return false;
+				}
+			}
 			if (isJavaPostCompilationEnable()) {
+				enterPhase(CompilationProfiler.POST_COMPILATION);
 				postCompileJava(cancel);
 				if (cancel.isCanceled()) {
 					return false;
 				}
 			}
 		} finally {
+			if (this.parallelExecutor != null) {
+				this.parallelExecutor.shutdownNow();
+				this.parallelExecutor = null;
+			}
+			this.buildIndex = null;
+			this.sourceHashes = null;
+			this.resourcesToCompile = null;
+			this.inMemoryStubClasses = null;
 			destroyClassLoader(this.jvmTypesClassLoader);
 			destroyClassLoader(this.annotationProcessingClassLoader);
 			if (isDeleteTempDirectory()) {
@@ -1063,10 +1455,59 @@ public class SarlBatchCompiler {
 					cleanFolder(file, ACCEPT_ALL_FILTER, true, true);
 				}
 			}
+			if (this.profiler != null) {
+				writeProfilingReport();
+			}
 		}
 		return true;
 	}
 
+	/** Terminate the current phase of the profiler, and start the given phase.
+	 *
+	 * @param phase the name of the phase.
+	 */
+	private void enterPhase(String phase) {
+		if (this.profiler != null) {
+			this.profiler.enterPhase(phase);
+		}
+	}
+
+	/** Start the measure of the processing of a resource by the current thread.
+	 *
+	 * @return the starting point of the measure, or <code>null</code> if the compilation is not profiled.
+	 */
+	private CompilationProfiler.Measure beginResourceMeasure() {
+		final CompilationProfiler prof = this.profiler;
+		return prof == null ? null : prof.begin();
+	}
+
+	/** Terminate the measure of the processing of a resource by the current thread.
+	 *
+	 * @param phase the name of the phase.
+	 * @param resource the processed resource.
+	 * @param begin the starting point of the measure that is replied by {@link #beginResourceMeasure()}.
+	 */
+	private void endResourceMeasure(String phase, org.eclipse.emf.common.util.URI resource, CompilationProfiler.Measure begin) {
+		final CompilationProfiler prof = this.profiler;
+		if (prof != null && begin != null) {
+			prof.endResource(phase, resource.toString(), begin);
+		}
+	}
+
+	private void writeProfilingReport() {
+		final File reportFile = getProfilingReportFile();
+		try {
+			this.profiler.writeReport(reportFile, this.checkProfiler.getStatistics(), CompilationProfiler.DEFAULT_TOP_SIZE);
+			this.logger.info(MessageFormat.format(Messages.SarlBatchCompiler_49, reportFile));
+		} catch (IOException exception) {
+			this.logger.warn(MessageFormat.format(Messages.SarlBatchCompiler_50, reportFile, exception.getLocalizedMessage()));
+		} finally {
+			this.checkProfiler.setEnabled(false);
+			this.checkProfiler.reset();
+			this.profiler = null;
+		}
+	}
+
 	/** Change the loggers that are internally used by Xtext.
 	 */
 	protected void overrideXtextInternalLoggers() {
@@ -1149,9 +1590,30 @@ public class SarlBatchCompiler {
 	protected void generateJavaFiles(Iterable<Resource> validatedResources, CancelIndicator cancelIndicator) {
 		assert cancelIndicator != null;
 		this.logger.info(MessageFormat.format(Messages.SarlBatchCompiler_28, getOutputPath()));
-		final JavaIoFileSystemAccess javaIoFileSystemAccess = this.javaIoFileSystemAccessProvider.get();
-		javaIoFileSystemAccess.setOutputPath(getOutputPath().getAbsolutePath());
-		javaIoFileSystemAccess.setWriteTrace(isWriteTraceFiles());
+		if (this.parallelExecutor != null) {
+			final List<Resource> resources = Lists.newArrayList(validatedResources);
+			createOutputFolders(resources);
+			final List<Boolean> generated = runInParallel(resources, resource -> {
+				if (cancelIndicator.isCanceled()) {
+					return Boolean.FALSE;
+				}
+				final GeneratorContext context = new GeneratorContext();
+				context.setCancelIndicator(cancelIndicator);
+				return Boolean.valueOf(generateJavaFile(resource, createJavaIoFileSystemAccess(), context, cancelIndicator));
+			});
+			if (cancelIndicator.isCanceled()) {
+				return;
+			}
+			// Notify in the same order as the sequential generation
+			final Iterator<Boolean> status = generated.iterator();
+			for (final Resource resource : resources) {
+				if (status.next().booleanValue()) {
+					notifiesCompiledResourceReceiver(resource);
+				}
+			}
+			return;
+		}
+		final JavaIoFileSystemAccess javaIoFileSystemAccess = createJavaIoFileSystemAccess();
 		if (cancelIndicator.isCanceled()) {
 			return;
 		}
@@ -1162,16 +1624,144 @@ public class SarlBatchCompiler {
 			if (cancelIndicator.isCanceled()) {
 				return;
 			}
-			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_23, resource.getURI().lastSegment()));
-			if (isWriteStorageFiles() && resource instanceof StorageAwareResource) {
-				final StorageAwareResource storageAwareResource = (StorageAwareResource) resource;
-				storageAwareResource.getResourceStorageFacade().saveResource(storageAwareResource, javaIoFileSystemAccess);
+			if (generateJavaFile(resource, javaIoFileSystemAccess, context, cancelIndicator)) {
+				notifiesCompiledResourceReceiver(resource);
+			}
+		}
+	}
+
+	/** Generate the Java files from the SARL scripts, and unload each resource as soon as it is not
+	 * needed anymore for generating the other resources.
+	 *
+	 * <p>The descriptions of the SARL resources are copied into the index of the resource set before
+	 * the generation, in order to keep the cross-references to the unloaded resources resolvable.
+	 * An unloaded resource that is needed again is loaded again on demand.
+	 * The storage file and the build index entry of a resource are written before it is unloaded.
+	 *
+	 * @param resourceSet the resource set that contains the resources.
+	 * @param validatedResources the validatedResources for which the Java files could be generated.
+	 *     This list is cleared in order to release the references to the resources.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @since 0.8
+	 * @see ResourceUnloadingPlan
+	 */
+	protected void generateJavaFilesAndUnloadResources(ResourceSet resourceSet, List<Resource> validatedResources,
+			CancelIndicator cancelIndicator) {
+		assert cancelIndicator != null;
+		this.logger.info(MessageFormat.format(Messages.SarlBatchCompiler_28, getOutputPath()));
+		final ResourceDescriptionsData index = installResourceDescriptionsIndex(resourceSet, cancelIndicator);
+		if (cancelIndicator.isCanceled()) {
+			return;
+		}
+		final Map<org.eclipse.emf.common.util.URI, Resource> resources = new HashMap<>();
+		final Map<org.eclipse.emf.common.util.URI, Set<org.eclipse.emf.common.util.URI>> dependencies = new LinkedHashMap<>();
+		for (final Resource resource : validatedResources) {
+			final org.eclipse.emf.common.util.URI uri = resource.getURI();
+			final Set<org.eclipse.emf.common.util.URI> references = new HashSet<>();
+			final IResourceDescription description = index.getResourceDescription(uri);
+			if (description != null) {
+				for (final IReferenceDescription reference : description.getReferenceDescriptions()) {
+					references.add(reference.getTargetEObjectUri().trimFragment());
+				}
 			}
+			resources.put(uri, resource);
+			dependencies.put(uri, references);
+		}
+		validatedResources.clear();
+		final ResourceUnloadingPlan plan = new ResourceUnloadingPlan(dependencies);
+		final JavaIoFileSystemAccess javaIoFileSystemAccess = createJavaIoFileSystemAccess();
+		final GeneratorContext context = new GeneratorContext();
+		context.setCancelIndicator(cancelIndicator);
+		for (final org.eclipse.emf.common.util.URI uri : plan.getGenerationOrder()) {
 			if (cancelIndicator.isCanceled()) {
 				return;
 			}
-			this.generator.generate(resource, javaIoFileSystemAccess, context);
-			notifiesCompiledResourceReceiver(resource);
+			final Resource resource = resources.get(uri);
+			if (generateJavaFile(resource, javaIoFileSystemAccess, context, cancelIndicator)) {
+				notifiesCompiledResourceReceiver(resource);
+			}
+			for (final org.eclipse.emf.common.util.URI unloadable : plan.generated(uri)) {
+				unloadResource(resourceSet, resources.remove(unloadable));
+			}
+		}
+	}
+
+	/** Copy the descriptions of the SARL resources into the index of the resource set.
+	 *
+	 * @param resourceSet the resource set.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @return the index.
+	 */
+	private ResourceDescriptionsData installResourceDescriptionsIndex(ResourceSet resourceSet, CancelIndicator cancelIndicator) {
+		ResourceDescriptionsData index = ResourceDescriptionsData.ResourceSetAdapter.findResourceDescriptionsData(resourceSet);
+		if (index == null) {
+			index = new ResourceDescriptionsData(Collections.emptyList());
+			ResourceDescriptionsData.ResourceSetAdapter.installResourceDescriptionsData(resourceSet, index);
+		}
+		for (final Resource resource : new ArrayList<>(resourceSet.getResources())) {
+			if (cancelIndicator.isCanceled()) {
+				return index;
+			}
+			if (this.fileExtensionProvider.isValid(resource.getURI().fileExtension())) {
+				final IResourceDescription description = this.resourceDescriptionManager.getResourceDescription(resource);
+				index.addDescription(resource.getURI(), SerializableResourceDescription.createCopy(description));
+			}
+		}
+		return index;
+	}
+
+	private void unloadResource(ResourceSet resourceSet, Resource resource) {
+		this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_51, resource.getURI().lastSegment()));
+		final BuildIndex index = this.buildIndex;
+		if (index != null) {
+			updateBuildIndexEntry(index, resource);
+		}
+		resource.unload();
+		resourceSet.getResources().remove(resource);
+	}
+
+	private JavaIoFileSystemAccess createJavaIoFileSystemAccess() {
+		final JavaIoFileSystemAccess javaIoFileSystemAccess = this.javaIoFileSystemAccessProvider.get();
+		javaIoFileSystemAccess.setOutputPath(getOutputPath().getAbsolutePath());
+		javaIoFileSystemAccess.setWriteTrace(isWriteTraceFiles());
+		return javaIoFileSystemAccess;
+	}
+
+	private boolean generateJavaFile(Resource resource, JavaIoFileSystemAccess javaIoFileSystemAccess,
+			GeneratorContext context, CancelIndicator cancelIndicator) {
+		this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_23, resource.getURI().lastSegment()));
+		if (isWriteStorageFiles() && resource instanceof StorageAwareResource) {
+			final StorageAwareResource storageAwareResource = (StorageAwareResource) resource;
+			storageAwareResource.getResourceStorageFacade().saveResource(storageAwareResource, javaIoFileSystemAccess);
+		}
+		if (cancelIndicator.isCanceled()) {
+			return false;
+		}
+		final CompilationProfiler.Measure measure = beginResourceMeasure();
+		this.generator.generate(resource, javaIoFileSystemAccess, context);
+		endResourceMeasure(CompilationProfiler.GENERATION, resource.getURI(), measure);
+		return true;
+	}
+
+	/** Create the package folders of the generated types before the parallel generation,
+	 * for avoiding concurrent creations of the same folder.
+	 *
+	 * @param resources the resources to generate.
+	 */
+	private void createOutputFolders(Iterable<Resource> resources) {
+		final Set<String> packageNames = new TreeSet<>();
+		for (final Resource resource : resources) {
+			for (final EObject root : resource.getContents()) {
+				if (root instanceof JvmDeclaredType) {
+					final String packageName = ((JvmDeclaredType) root).getPackageName();
+					if (!Strings.isEmpty(packageName)) {
+						packageNames.add(packageName);
+					}
+				}
+			}
+		}
+		for (final String packageName : packageNames) {
+			new File(getOutputPath(), packageName.replace('.', File.separatorChar)).mkdirs();
 		}
 	}
 
@@ -1183,20 +1773,25 @@ public class SarlBatchCompiler {
 	protected void generateJvmElements(ResourceSet resourceSet, CancelIndicator cancelIndicator) {
 		assert cancelIndicator != null;
 		this.logger.info(Messages.SarlBatchCompiler_21);
-		final List<Resource> resources = new LinkedList<>(resourceSet.getResources());
+		final List<Resource> resources = Lists.newLinkedList(Iterables.filter(resourceSet.getResources(),
+			it -> isResourceToCompile(it)));
 		for (final Resource resource : resources) {
 			if (cancelIndicator.isCanceled()) {
 				return;
 			}
 			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_26, resource.getURI().lastSegment()));
+			final CompilationProfiler.Measure measure = beginResourceMeasure();
 			resource.getContents();
+			endResourceMeasure(CompilationProfiler.JVM_MODEL_INFERENCE, resource.getURI(), measure);
 		}
 		for (final Resource resource : resources) {
 			if (cancelIndicator.isCanceled()) {
 				return;
 			}
 			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_27, resource.getURI().lastSegment()));
+			final CompilationProfiler.Measure measure = beginResourceMeasure();
 			EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+			endResourceMeasure(CompilationProfiler.JVM_MODEL_INFERENCE, resource.getURI(), measure);
 		}
 	}
 
@@ -1213,49 +1808,402 @@ public class SarlBatchCompiler {
 		boolean hasError = false;
 		final List<Resource> resources = new LinkedList<>(resourceSet.getResources());
 		this.logger.info(Messages.SarlBatchCompiler_38);
-		for (final Resource resource : resources) {
+		if (this.parallelExecutor != null) {
+			final List<Resource> toValidate = Lists.newArrayList(Iterables.filter(resources,
+				it -> isSourceFile(it) && isResourceToCompile(it)));
+			resolveBeforeParallelCompilation(toValidate, cancelIndicator);
 			if (cancelIndicator.isCanceled()) {
 				return false;
 			}
-			if (isSourceFile(resource)) {
-				this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_22, resource.getURI().lastSegment()));
-				final IResourceServiceProvider resourceServiceProvider = IResourceServiceProvider.Registry.INSTANCE
-						.getResourceServiceProvider(resource.getURI());
-				if (resourceServiceProvider != null) {
-					final IResourceValidator resourceValidator = resourceServiceProvider.getResourceValidator();
-					final List<Issue> result = resourceValidator.validate(resource, CheckMode.ALL, null);
-					if (cancelIndicator.isCanceled()) {
-						return false;
-					}
-					final SortedSet<Issue> issues = new TreeSet<>(getIssueComparator());
-					boolean hasValidationError = false;
-					for (final Issue issue : result) {
-						if (cancelIndicator.isCanceled()) {
-							return false;
-						}
-						if (issue.isSyntaxError() || issue.getSeverity() == Severity.ERROR) {
-							hasValidationError = true;
-						}
-						issues.add(issue);
-					}
-					hasError |= hasValidationError;
-					if (!hasValidationError) {
-						if (!issues.isEmpty()) {
-							this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_39, resource.getURI().lastSegment()));
-							reportIssues(issues);
-						}
-						validResources.add(resource);
-					} else {
-						this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_39, resource.getURI().lastSegment()));
-						reportIssues(issues);
-					}
-				}
+			final List<SortedSet<Issue>> results = runInParallel(toValidate, it -> validate(it, cancelIndicator));
+			if (cancelIndicator.isCanceled()) {
+				return false;
+			}
+			// Report the issues in the same order as the sequential validation
+			final Iterator<SortedSet<Issue>> issues = results.iterator();
+			for (final Resource resource : toValidate) {
+				hasError |= reportValidationIssues(resource, issues.next(), validResources);
 			}
+			return hasError;
 		}
-		return hasError;
-	}
-
-	/** Replies if the given resource is a script.
+		for (final Resource resource : resources) {
+			if (cancelIndicator.isCanceled()) {
+				return false;
+			}
+			if (isSourceFile(resource) && isResourceToCompile(resource)) {
+				final SortedSet<Issue> issues = validate(resource, cancelIndicator);
+				if (cancelIndicator.isCanceled()) {
+					return false;
+				}
+				hasError |= reportValidationIssues(resource, issues, validResources);
+			}
+		}
+		return hasError;
+	}
+
+	/** Resolve, on the current thread, the elements of the given resources that are computed on demand.
+	 *
+	 * <p>The resources of a resource set are not thread-safe. The parallel tasks may read each other's
+	 * resources, e.g. a super type, a capacity or a skill that is declared in another file. Before the
+	 * parallel validation and generation, all the cross-references of the resources are resolved and the
+	 * types of their expressions are computed, in order to let the parallel tasks only read the shared
+	 * elements. The resources of the Java types that are still loaded on demand are synchronized
+	 * by the {@link SynchronizedXtextResourceSet}.
+	 *
+	 * @param resources the resources to compile in parallel.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @since 0.8
+	 */
+	protected void resolveBeforeParallelCompilation(List<Resource> resources, CancelIndicator cancelIndicator) {
+		for (final Resource resource : resources) {
+			if (cancelIndicator.isCanceled()) {
+				return;
+			}
+			final CompilationProfiler.Measure measure = beginResourceMeasure();
+			// Install the derived state, and resolve the proxies
+			EcoreUtil.resolveAll(resource);
+			endResourceMeasure(CompilationProfiler.JVM_MODEL_INFERENCE, resource.getURI(), measure);
+		}
+		for (final Resource resource : resources) {
+			if (cancelIndicator.isCanceled()) {
+				return;
+			}
+			final CompilationProfiler.Measure measure = beginResourceMeasure();
+			for (final EObject root : resource.getContents()) {
+				this.batchTypeResolver.resolveTypes(root);
+			}
+			endResourceMeasure(CompilationProfiler.VALIDATION, resource.getURI(), measure);
+		}
+	}
+
+	/** Validate the given resource.
+	 *
+	 * @param resource the resource to validate.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @return the sorted issues, or <code>null</code> if the resource cannot be validated or if the activity is canceled.
+	 */
+	SortedSet<Issue> validate(Resource resource, CancelIndicator cancelIndicator) {
+		this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_22, resource.getURI().lastSegment()));
+		final IResourceServiceProvider resourceServiceProvider = IResourceServiceProvider.Registry.INSTANCE
+				.getResourceServiceProvider(resource.getURI());
+		if (resourceServiceProvider != null) {
+			final IResourceValidator resourceValidator = resourceServiceProvider.getResourceValidator();
+			final CompilationProfiler.Measure measure = beginResourceMeasure();
+			final List<Issue> result = resourceValidator.validate(resource, CheckMode.ALL, null);
+			endResourceMeasure(CompilationProfiler.VALIDATION, resource.getURI(), measure);
+			if (cancelIndicator.isCanceled()) {
+				return null;
+			}
+			final SortedSet<Issue> issues = new TreeSet<>(getIssueComparator());
+			issues.addAll(result);
+			return issues;
+		}
+		return null;
+	}
+
+	/** Report the issues of the validation of the given resource.
+	 *
+	 * @param resource the validated resource.
+	 * @param issues the sorted issues, or <code>null</code> if the resource was not validated.
+	 * @param validResources will be filled by this function if the resource has no error.
+	 * @return <code>true</code> if an error exists in the issues.
+	 */
+	private boolean reportValidationIssues(Resource resource, SortedSet<Issue> issues, Collection<Resource> validResources) {
+		if (issues == null) {
+			return false;
+		}
+		boolean hasValidationError = false;
+		for (final Issue issue : issues) {
+			if (issue.isSyntaxError() || issue.getSeverity() == Severity.ERROR) {
+				hasValidationError = true;
+				break;
+			}
+		}
+		if (!hasValidationError) {
+			if (!issues.isEmpty()) {
+				this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_39, resource.getURI().lastSegment()));
+				reportIssues(issues);
+			}
+			validResources.add(resource);
+		} else {
+			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_39, resource.getURI().lastSegment()));
+			reportIssues(issues);
+		}
+		return hasValidationError;
+	}
+
+	/** Run the given task on each resource with the parallel executor, and reply the results
+	 * in the order of the resources.
+	 *
+	 * @param <T> the type of the results.
+	 * @param resources the resources to process.
+	 * @param task the task to run on each resource.
+	 * @return the results, in the same order as the resources.
+	 */
+	private <T> List<T> runInParallel(List<Resource> resources, Function<Resource, T> task) {
+		final List<Callable<T>> tasks = new ArrayList<>(resources.size());
+		for (final Resource resource : resources) {
+			tasks.add(() -> task.apply(resource));
+		}
+		final List<T> results = new ArrayList<>(resources.size());
+		try {
+			for (final Future<T> future : this.parallelExecutor.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (ExecutionException exception) {
+			final Throwable cause = exception.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(exception);
+		}
+		return results;
+	}
+
+	/** Replies if the given resource must be validated and generated.
+	 *
+	 * <p>All the resources are compiled, except when the compilation is incremental. In this case,
+	 * only the resources that are affected by the changes since the last compilation are compiled.
+	 *
+	 * @param resource the resource to test.
+	 * @return <code>true</code> if the given resource must be compiled.
+	 * @since 0.8
+	 */
+	protected boolean isResourceToCompile(Resource resource) {
+		return this.resourcesToCompile == null || this.resourcesToCompile.contains(resource.getURI());
+	}
+
+	/** Determine the resources that must be compiled by an incremental compilation.
+	 *
+	 * <p>The build index of the previous compilation is read. If it does not exist, or if it was built
+	 * with another configuration of the compiler, all the resources must be compiled.
+	 * The generated files of the source files that were removed since the previous compilation are deleted.
+	 *
+	 * @param resourceSet the container of the scripts.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @return the URIs of the resources to compile, or <code>null</code> if all the resources must be compiled.
+	 * @since 0.8
+	 */
+	protected Set<org.eclipse.emf.common.util.URI> computeResourcesToCompile(ResourceSet resourceSet,
+			CancelIndicator cancelIndicator) {
+		assert cancelIndicator != null;
+		final String configurationKey = computeBuildConfigurationKey();
+		final File indexFile = getBuildIndexFile();
+		BuildIndex index = null;
+		try {
+			index = BuildIndex.read(indexFile);
+		} catch (IOException exception) {
+			this.logger.warn(MessageFormat.format(Messages.SarlBatchCompiler_41, indexFile, exception.getLocalizedMessage()));
+		}
+		if (index != null && !configurationKey.equals(index.getConfigurationKey())) {
+			this.logger.info(Messages.SarlBatchCompiler_42);
+			index = null;
+		}
+		final Map<String, org.eclipse.emf.common.util.URI> uris = new TreeMap<>();
+		final Map<String, String> hashes = new TreeMap<>();
+		final Map<String, Set<String>> exportedNames = new TreeMap<>();
+		for (final Resource resource : resourceSet.getResources()) {
+			if (cancelIndicator.isCanceled()) {
+				return null;
+			}
+			if (isSourceFile(resource)) {
+				final String key = resource.getURI().toString();
+				uris.put(key, resource.getURI());
+				hashes.put(key, hashSourceFile(resource));
+				exportedNames.put(key, getExportedNames(resource));
+			}
+		}
+		this.sourceHashes = new TreeMap<>(hashes);
+		if (index == null) {
+			this.buildIndex = new BuildIndex(configurationKey);
+			return null;
+		}
+		this.buildIndex = index;
+		for (final String file : new ArrayList<>(index.getFiles())) {
+			if (!hashes.containsKey(file)) {
+				deleteGeneratedFiles(index.get(file).getGeneratedFiles());
+			} else if (hasMissingGeneratedFile(index.get(file))) {
+				// Force the generation of the file
+				hashes.put(file, BuildIndex.UNKNOWN_HASH);
+			}
+		}
+		final Set<String> affectedFiles = index.getAffectedFiles(hashes, exportedNames);
+		for (final String file : new ArrayList<>(index.getFiles())) {
+			if (!hashes.containsKey(file)) {
+				index.remove(file);
+			}
+		}
+		this.logger.info(MessageFormat.format(Messages.SarlBatchCompiler_43,
+				Integer.valueOf(affectedFiles.size()), Integer.valueOf(hashes.size())));
+		final Set<org.eclipse.emf.common.util.URI> affectedResources = new HashSet<>();
+		for (final String file : affectedFiles) {
+			affectedResources.add(uris.get(file));
+		}
+		return affectedResources;
+	}
+
+	/** Update and save the build index with the given compiled resources.
+	 *
+	 * @param compiledResources the resources that were compiled.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @since 0.8
+	 */
+	protected void updateBuildIndex(Iterable<Resource> compiledResources, CancelIndicator cancelIndicator) {
+		assert cancelIndicator != null;
+		final BuildIndex index = this.buildIndex;
+		if (index == null) {
+			return;
+		}
+		for (final Resource resource : compiledResources) {
+			if (cancelIndicator.isCanceled()) {
+				return;
+			}
+			updateBuildIndexEntry(index, resource);
+		}
+		final File indexFile = getBuildIndexFile();
+		try {
+			index.write(indexFile);
+		} catch (IOException exception) {
+			this.logger.warn(MessageFormat.format(Messages.SarlBatchCompiler_44, indexFile, exception.getLocalizedMessage()));
+		}
+	}
+
+	/** Update the entry of the given compiled resource in the build index.
+	 *
+	 * @param index the build index.
+	 * @param resource the compiled resource.
+	 */
+	private void updateBuildIndexEntry(BuildIndex index, Resource resource) {
+		final String key = resource.getURI().toString();
+		final BuildIndex.Entry entry = new BuildIndex.Entry();
+		final String hash = this.sourceHashes == null ? null : this.sourceHashes.get(key);
+		entry.setHash(hash == null || BuildIndex.UNKNOWN_HASH.equals(hash) ? hashSourceFile(resource) : hash);
+		entry.getExportedNames().addAll(getExportedNames(resource));
+		final IResourceDescription description = this.resourceDescriptionManager.getResourceDescription(resource);
+		for (final QualifiedName name : description.getImportedNames()) {
+			entry.getImportedNames().add(name.toLowerCase().toString());
+		}
+		for (final EObject root : resource.getContents()) {
+			if (root instanceof JvmDeclaredType) {
+				final String qualifiedName = ((JvmDeclaredType) root).getQualifiedName('.');
+				entry.getGeneratedFiles().add(qualifiedName.replace('.', '/') + JAVA_FILE_EXTENSION);
+			}
+		}
+		final BuildIndex.Entry previousEntry = index.get(key);
+		if (previousEntry != null) {
+			final Set<String> removedFiles = new TreeSet<>(previousEntry.getGeneratedFiles());
+			removedFiles.removeAll(entry.getGeneratedFiles());
+			deleteGeneratedFiles(removedFiles);
+		}
+		index.put(key, entry);
+	}
+
+	/** Compute the fingerprint of the compiler configuration.
+	 *
+	 * <p>The build index cannot be reused when this fingerprint changes. It depends on the
+	 * generation options, on the class files and the jar files of the class path, and on the Java files
+	 * that are inside the source folders. The source folders and the output folders are not considered
+	 * as parts of the class path, since their content is changed by the compilation itself.
+	 *
+	 * @return the fingerprint.
+	 * @since 0.8
+	 */
+	protected String computeBuildConfigurationKey() {
+		final StringBuilder key = new StringBuilder();
+		key.append(SARLVersion.SARL_RELEASE_VERSION).append('\n');
+		key.append(getOutputPath()).append('\n');
+		key.append(getFileEncoding()).append('\n');
+		key.append(getJavaSourceVersion()).append('\n');
+		key.append(isGenerateExpressions()).append(isGenerateSyntheticSuppressWarnings());
+		key.append(isGenerateGeneratedAnnotation()).append(isIncludeDateInGeneratedAnnotation());
+		key.append(isGenerateInlineAnnotation()).append(isUseExpressionInterpreterForInlineAnnotation());
+		key.append(isGeneratePureAnnotation()).append(isWriteTraceFiles()).append(isWriteStorageFiles());
+		key.append(isUsePersistentMapOperators());
+		key.append(getGeneratedAnnotationComment()).append('\n');
+		final Set<File> outputFolders = new HashSet<>();
+		for (final File folder : Arrays.asList(getOutputPath(), getClassOutputPath(), this.tempPath)) {
+			if (folder != null) {
+				outputFolders.add(folder.getAbsoluteFile());
+			}
+		}
+		final Set<File> excludedFolders = new HashSet<>(outputFolders);
+		for (final File folder : getSourcePaths()) {
+			excludedFolders.add(folder.getAbsoluteFile());
+		}
+		for (final File file : Iterables.concat(getBootClassPath(), getClassPath())) {
+			appendFingerprint(key, file, BINARY_FILE_FILTER, excludedFolders);
+		}
+		for (final File folder : getSourcePaths()) {
+			appendFingerprint(key, folder, JAVA_FILE_FILTER, outputFolders);
+		}
+		return BuildIndex.hash(key.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void appendFingerprint(StringBuilder key, File file, FileFilter filter, Set<File> excludedFolders) {
+		if (file.isDirectory()) {
+			if (excludedFolders.contains(file.getAbsoluteFile())) {
+				return;
+			}
+			final File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (final File child : children) {
+					appendFingerprint(key, child, filter, excludedFolders);
+				}
+			}
+		} else if (filter.accept(file)) {
+			key.append(file.getAbsolutePath()).append(':').append(file.lastModified())
+				.append(':').append(file.length()).append('\n');
+		}
+	}
+
+	private String hashSourceFile(Resource resource) {
+		final org.eclipse.emf.common.util.URI uri = resource.getURI();
+		try {
+			if (uri.isFile()) {
+				return BuildIndex.hash(java.nio.file.Files.readAllBytes(new File(uri.toFileString()).toPath()));
+			}
+		} catch (IOException exception) {
+			this.logger.debug(exception.getLocalizedMessage(), exception);
+		}
+		// The file is always recompiled
+		return BuildIndex.UNKNOWN_HASH;
+	}
+
+	private Set<String> getExportedNames(Resource resource) {
+		final Set<String> names = new TreeSet<>();
+		final IResourceDescription description = this.resourceDescriptionManager.getResourceDescription(resource);
+		for (final IEObjectDescription object : description.getExportedObjects()) {
+			names.add(object.getQualifiedName().toLowerCase().toString());
+		}
+		return names;
+	}
+
+	private boolean hasMissingGeneratedFile(BuildIndex.Entry entry) {
+		for (final String generatedFile : entry.getGeneratedFiles()) {
+			if (!new File(getOutputPath(), generatedFile).isFile()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void deleteGeneratedFiles(Iterable<String> generatedFiles) {
+		for (final String generatedFile : generatedFiles) {
+			final File javaFile = new File(getOutputPath(), generatedFile);
+			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_45, javaFile));
+			javaFile.delete();
+			new File(javaFile.getParentFile(), "." + javaFile.getName() + TRACE_FILE_EXTENSION).delete(); //$NON-NLS-1$
+		}
+	}
+
+	/** Replies if the given resource is a script.
 	 *
 	 * @param resource the resource to test.
 	 * @return <code>true</code> if the given resource is a script.
@@ -1295,6 +2243,144 @@ public class SarlBatchCompiler {
 				false, cancelIndicator);
 	}
 
+	/** Compile in memory the stub files before the compilation of the project's files.
+	 *
+	 * <p>The byte codes of the stubs are provided to the JVM type provider.
+	 *
+	 * @param stubs the sources of the stubs, indexed by their relative paths.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @return the success status. Replies <code>false</code> if the activity is canceled.
+	 * @since 0.8
+	 */
+	protected boolean preCompileStubsInMemory(Map<String, CharSequence> stubs, CancelIndicator cancelIndicator) {
+		assert cancelIndicator != null;
+		return runInMemoryJavaCompiler(stubs, Collections.emptyList(), getClassPath(), cancelIndicator);
+	}
+
+	/** Compile in memory the java files before the compilation of the project's files.
+	 *
+	 * <p>The Java files are compiled with the stubs, and their byte codes are provided to the JVM type provider.
+	 *
+	 * @param stubs the sources of the stubs, indexed by their relative paths.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @return the success status. Replies <code>false</code> if the activity is canceled.
+	 * @since 0.8
+	 */
+	protected boolean preCompileJavaInMemory(Map<String, CharSequence> stubs, CancelIndicator cancelIndicator) {
+		assert cancelIndicator != null;
+		final List<File> javaFiles = new ArrayList<>();
+		for (final File folder : getSourcePaths()) {
+			collectFiles(folder, JAVA_FILE_FILTER, javaFiles);
+		}
+		if (javaFiles.isEmpty()) {
+			return true;
+		}
+		return runInMemoryJavaCompiler(stubs, javaFiles, getClassPath(), cancelIndicator);
+	}
+
+	private static void collectFiles(File file, FileFilter filter, List<File> files) {
+		if (file.isDirectory()) {
+			final File[] children = file.listFiles();
+			if (children != null) {
+				for (final File child : children) {
+					collectFiles(child, filter, files);
+				}
+			}
+		} else if (filter.accept(file)) {
+			files.add(file);
+		}
+	}
+
+	/** Run the Java compiler in memory.
+	 *
+	 * <p>The compiled classes are stored in memory, and provided to the JVM type provider.
+	 *
+	 * @param sources the sources in memory, indexed by their relative paths.
+	 * @param javaFiles the Java files on the disk that must be compiled with the sources.
+	 * @param classPathEntries classpath entries.
+	 * @param cancelIndicator monitor for canceling the compilation.
+	 * @return the success status. Replies <code>false</code> if the activity is canceled.
+	 * @since 0.8
+	 */
+	protected boolean runInMemoryJavaCompiler(Map<String, CharSequence> sources, Iterable<File> javaFiles,
+			Iterable<File> classPathEntries, CancelIndicator cancelIndicator) {
+		assert cancelIndicator != null;
+		final JavaCompiler javaCompiler = createJavaCompiler();
+		if (javaCompiler == null) {
+			this.logger.warn(Messages.SarlBatchCompiler_48);
+			return false;
+		}
+		final List<String> options = Lists.newArrayList();
+		options.add("-nowarn"); //$NON-NLS-1$
+		if (javaCompiler.getClass().getName().equals(ECLIPSE_COMPILER_CLASSNAME)) {
+			options.add("-proceedOnError"); //$NON-NLS-1$
+		}
+		options.add("-source"); //$NON-NLS-1$
+		options.add(getJavaSourceVersion());
+		options.add("-target"); //$NON-NLS-1$
+		options.add(getJavaSourceVersion());
+		final String bootClassPath = toExistingPathString(getBootClassPath());
+		if (!bootClassPath.isEmpty()) {
+			options.add("-bootclasspath"); //$NON-NLS-1$
+			options.add(bootClassPath);
+		}
+		final String classPath = toExistingPathString(classPathEntries);
+		if (!classPath.isEmpty()) {
+			options.add("-classpath"); //$NON-NLS-1$
+			options.add(classPath);
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_6, Strings.concat("\n", options))); //$NON-NLS-1$
+		}
+		if (cancelIndicator.isCanceled()) {
+			return false;
+		}
+		final InMemoryJavaCompiler compiler = new InMemoryJavaCompiler(javaCompiler);
+		try {
+			final boolean success = compiler.compile(sources, javaFiles, this.encodingProvider.getDefaultEncoding(),
+					options, getStubCompilerOutputWriter());
+			if (this.inMemoryStubClasses == null) {
+				this.inMemoryStubClasses = new HashMap<>();
+			}
+			this.inMemoryStubClasses.putAll(compiler.getClasses());
+			return success && !cancelIndicator.isCanceled();
+		} catch (IOException | RuntimeException exception) {
+			this.logger.error(MessageFormat.format(Messages.SarlBatchCompiler_54, exception.getLocalizedMessage()), exception);
+			return false;
+		}
+	}
+
+	private static String toExistingPathString(Iterable<File> files) {
+		final StringBuilder result = new StringBuilder();
+		for (final File file : files) {
+			if (file.exists()) {
+				if (result.length() > 0) {
+					result.append(File.pathSeparator);
+				}
+				result.append(file.getAbsolutePath());
+			}
+		}
+		return result.toString();
+	}
+
+	/** Create the Java compiler that is used for compiling in memory.
+	 *
+	 * <p>The JSR-199 implementation of the Eclipse compiler is used, as for the compilation on the disk.
+	 * If it is not on the classpath, the Java compiler of the JDK is used.
+	 *
+	 * @return the JSR-199 Java compiler, or <code>null</code> if there is no compiler.
+	 * @since 0.8
+	 */
+	@SuppressWarnings("static-method")
+	protected JavaCompiler createJavaCompiler() {
+		try {
+			return (JavaCompiler) Class.forName(ECLIPSE_COMPILER_CLASSNAME, true, BatchCompiler.class.getClassLoader())
+					.newInstance();
+		} catch (Exception | LinkageError exception) {
+			return ToolProvider.getSystemJavaCompiler();
+		}
+	}
+
 	/** Compile the java files after the compilation of the project's files.
 	 *
 	 * @param cancelIndicator monitor for cancelling the compilation.
@@ -1524,12 +2610,38 @@ public class SarlBatchCompiler {
 				return null;
 			}
 			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_20, resource.getURI()));
+			final CompilationProfiler.Measure measure = beginResourceMeasure();
 			final IResourceDescription description = this.resourceDescriptionManager.getResourceDescription(resource);
 			this.stubGenerator.doGenerateStubs(fileSystemAccess, description);
+			endResourceMeasure(CompilationProfiler.STUB_GENERATION, resource.getURI(), measure);
 		}
 		return outputDirectory;
 	}
 
+	/** Create the stubs in memory.
+	 *
+	 * @param resourceSet the input resource set.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @return the sources of the stubs, indexed by their relative paths. Replies <code>null</code>
+	 *     if the activity is canceled.
+	 * @since 0.8
+	 */
+	protected Map<String, CharSequence> createInMemoryStubs(ResourceSet resourceSet, CancelIndicator cancelIndicator) {
+		final InMemoryJavaCompiler.SourceFileSystemAccess fileSystemAccess = new InMemoryJavaCompiler.SourceFileSystemAccess();
+		final List<Resource> resources = new ArrayList<>(resourceSet.getResources());
+		for (final Resource resource : resources) {
+			if (cancelIndicator.isCanceled()) {
+				return null;
+			}
+			this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_20, resource.getURI()));
+			final CompilationProfiler.Measure measure = beginResourceMeasure();
+			final IResourceDescription description = this.resourceDescriptionManager.getResourceDescription(resource);
+			this.stubGenerator.doGenerateStubs(fileSystemAccess, description);
+			endResourceMeasure(CompilationProfiler.STUB_GENERATION, resource.getURI(), measure);
+		}
+		return fileSystemAccess.getSources();
+	}
+
 	/** Load the SARL files in the given resource set.
 	 *
 	 * @param cancelIndicator monitor for cancelling the compilation.
@@ -1558,7 +2670,9 @@ public class SarlBatchCompiler {
 				if (this.logger.isDebugEnabled()) {
 					this.logger.debug(MessageFormat.format(Messages.SarlBatchCompiler_7, uri));
 				}
+				final CompilationProfiler.Measure measure = beginResourceMeasure();
 				resourceSet.getResource(uri, true);
+				endResourceMeasure(CompilationProfiler.PARSING, uri, measure);
 			}
 		}
 	}
@@ -1769,16 +2883,25 @@ public class SarlBatchCompiler {
 			}
 			this.projectConfig.addSourceFolder(slash.trimTrailingFrom(relSource.getPath()));
 		}
-		final Map<String, Set<OutputConfiguration>> outputConfigurations = new HashMap<>();
-		outputConfigurations.put(this.languageName, Collections.singleton(this.outputConfiguration));
-		ProjectConfigAdapter.install(resourceSet, this.projectConfig);
-		resourceSet.eAdapters().add(new OutputConfigurationAdapter(outputConfigurations));
+		installWorkspace(resourceSet);
 		if (cancelIndicator.isCanceled()) {
 			return false;
 		}
 		return true;
 	}
 
+	/** Install the configuration of the workspace, which was computed by
+	 * {@link #configureWorkspace(ResourceSet, CancelIndicator)}, into the given resource set.
+	 *
+	 * @param resourceSet the resource set to configure.
+	 */
+	private void installWorkspace(ResourceSet resourceSet) {
+		final Map<String, Set<OutputConfiguration>> outputConfigurations = new HashMap<>();
+		outputConfigurations.put(this.languageName, Collections.singleton(this.outputConfiguration));
+		ProjectConfigAdapter.install(resourceSet, this.projectConfig);
+		resourceSet.eAdapters().add(new OutputConfigurationAdapter(outputConfigurations));
+	}
+
 	/**
 	 * Installs the JvmTypeProvider optionally including index access into the {@link ResourceSet}. The lookup classpath
 	 * is enhanced with the given tmp directory.
@@ -1805,18 +2928,11 @@ public class SarlBatchCompiler {
 		if (cancelIndicator.isCanceled()) {
 			return;
 		}
-		final ClassLoader parentClassLoader;
-		if (isUseCurrentClassLoaderAsParent()) {
-			parentClassLoader = getClass().getClassLoader();
-		} else if (getBootClassPath().isEmpty()) {
-			parentClassLoader = getCurrentClassLoader();
-		} else {
-			parentClassLoader = new AlternateJdkLoader(getBootClassPath());
-		}
+		final ClassLoader parentClassLoader = getJvmTypesParentClassLoader();
 		if (cancelIndicator.isCanceled()) {
 			return;
 		}
-		this.jvmTypesClassLoader = createClassLoader(classpath, parentClassLoader);
+		this.jvmTypesClassLoader = createClassLoaderWithInMemoryClasses(classpath, parentClassLoader);
 		if (cancelIndicator.isCanceled()) {
 			return;
 		}
@@ -1830,22 +2946,43 @@ public class SarlBatchCompiler {
 		}
 
 		// for annotation processing we need to have the compiler's classpath as a parent.
-		this.annotationProcessingClassLoader = createClassLoader(classpath, getCurrentClassLoader());
+		this.annotationProcessingClassLoader = createClassLoaderWithInMemoryClasses(classpath, getCurrentClassLoader());
 		if (cancelIndicator.isCanceled()) {
 			return;
 		}
 		resourceSet.eAdapters().add(new ProcessorInstanceForJvmTypeProvider.ProcessorClassloaderAdapter(this.annotationProcessingClassLoader));
 	}
 
+	private ClassLoader getJvmTypesParentClassLoader() {
+		if (isUseCurrentClassLoaderAsParent()) {
+			return getClass().getClassLoader();
+		}
+		if (getBootClassPath().isEmpty()) {
+			return getCurrentClassLoader();
+		}
+		return new AlternateJdkLoader(getBootClassPath());
+	}
+
+	private ClassLoader createClassLoaderWithInMemoryClasses(Iterable<File> jarsAndFolders, ClassLoader parentClassLoader) {
+		final ClassLoader classLoader = createClassLoader(jarsAndFolders, parentClassLoader);
+		if (this.inMemoryStubClasses != null) {
+			return new InMemoryClassLoader(this.inMemoryStubClasses, classLoader);
+		}
+		return classLoader;
+	}
+
 	/** Create the project class loader.
+	 *
+	 * <p>If the classpath index folder is set, the replied class loader uses the indexes of the JAR files
+	 * for answering quickly when a type is not on the classpath.
 	 *
 	 * @param jarsAndFolders the project class path.
 	 * @param parentClassLoader the parent class loader.
 	 * @return the class loader for the project.
+	 * @see #getClasspathIndexFolder()
 	 */
-	@SuppressWarnings("static-method")
 	protected ClassLoader createClassLoader(Iterable<File> jarsAndFolders, ClassLoader parentClassLoader) {
-		return new URLClassLoader(Iterables.toArray(Iterables.transform(jarsAndFolders, from -> {
+		final URL[] urls = Iterables.toArray(Iterables.transform(jarsAndFolders, from -> {
 			try {
 				final URL url = from.toURI().toURL();
 				assert url != null;
@@ -1853,7 +2990,25 @@ public class SarlBatchCompiler {
 			} catch (Exception e) {
 				throw new RuntimeException(e);
 			}
-		}), URL.class), parentClassLoader);
+		}), URL.class);
+		final File indexFolder = getClasspathIndexFolder();
+		if (indexFolder != null) {
+			final List<ClasspathTypeIndex> indexes = new ArrayList<>();
+			final List<File> folders = new ArrayList<>();
+			try {
+				for (final File file : jarsAndFolders) {
+					if (file.isDirectory()) {
+						folders.add(file);
+					} else if (file.isFile()) {
+						indexes.add(ClasspathTypeIndex.get(file, indexFolder));
+					}
+				}
+				return new IndexedClassLoader(urls, parentClassLoader, indexes, folders);
+			} catch (IOException exception) {
+				this.logger.warn(MessageFormat.format(Messages.SarlBatchCompiler_47, exception.getLocalizedMessage()), exception);
+			}
+		}
+		return new URLClassLoader(urls, parentClassLoader);
 	}
 
 	/** Null-safe destruction of the given class loaders.
@@ -1870,6 +3025,101 @@ public class SarlBatchCompiler {
 		}
 	}
 
+	/** Open a session for compiling code snippets with the configuration of this compiler.
+	 *
+	 * <p>The session keeps the class loaders of the classpath, the JVM types of the classpath, and
+	 * the configuration of the workspace from one snippet to another. Each snippet is compiled in memory
+	 * within its own resource set, without stubs and without writing files on the disk.
+	 *
+	 * @return the session, or <code>null</code> if the configuration of the compiler is invalid.
+	 * @since 0.8
+	 * @see SnippetCompilationSession
+	 */
+	public SnippetCompilationSession openSnippetSession() {
+		final CancelIndicator cancelIndicator = CancelIndicator.NullImpl;
+		if (!checkConfiguration(cancelIndicator) || !configureWorkspace(this.resourceSetProvider.get(), cancelIndicator)) {
+			return null;
+		}
+		this.encodingProvider.setDefaultEncoding(getFileEncoding());
+		final List<File> classpath = getClassPath();
+		final ClassLoader jvmTypesClassLoader = createClassLoader(classpath, getJvmTypesParentClassLoader());
+		return new SnippetCompilationSession(this,
+				jvmTypesClassLoader,
+				createClassLoader(classpath, getCurrentClassLoader()),
+				createSnippetTypeResourceSet(jvmTypesClassLoader));
+	}
+
+	/** Create the resource set that contains the JVM types of the classpath, and that is shared
+	 * by the code snippets of a session.
+	 *
+	 * <p>The resource set is synchronized, since the snippets may be compiled in parallel.
+	 *
+	 * @param jvmTypesClassLoader the class loader for the JVM types.
+	 * @return the resource set.
+	 * @see #openSnippetSession()
+	 */
+	ResourceSet createSnippetTypeResourceSet(ClassLoader jvmTypesClassLoader) {
+		final XtextResourceSet resourceSet = this.synchronizedResourceSetProvider != null
+				? this.synchronizedResourceSetProvider.get() : new SynchronizedXtextResourceSet();
+		new ClasspathTypeProvider(jvmTypesClassLoader, resourceSet, this.indexedJvmTypeAccess, null);
+		resourceSet.setClasspathURIContext(jvmTypesClassLoader);
+		return resourceSet;
+	}
+
+	/** Create a resource set for compiling a code snippet.
+	 *
+	 * <p>The JVM type resources are loaded into the given shared resource set, in order to not
+	 * create again the JVM types of the classpath for each snippet.
+	 *
+	 * @param jvmTypesClassLoader the class loader for the JVM types.
+	 * @param annotationProcessingClassLoader the class loader for the annotation processors.
+	 * @param typeResourceSet the resource set that contains the shared JVM type resources.
+	 * @return the resource set.
+	 * @see #openSnippetSession()
+	 */
+	ResourceSet createSnippetResourceSet(ClassLoader jvmTypesClassLoader, ClassLoader annotationProcessingClassLoader,
+			ResourceSet typeResourceSet) {
+		final ResourceSet resourceSet = this.resourceSetProvider.get();
+		installWorkspace(resourceSet);
+		if (this.generatorConfigProvider instanceof GeneratorConfigProvider) {
+			((GeneratorConfigProvider) this.generatorConfigProvider).install(resourceSet, getGeneratorConfig());
+		}
+		if (this.generatorConfigProvider2 instanceof GeneratorConfigProvider2) {
+			((GeneratorConfigProvider2) this.generatorConfigProvider2).install(resourceSet, getGeneratorConfig2());
+		}
+		new ClasspathTypeProvider(jvmTypesClassLoader, resourceSet, this.indexedJvmTypeAccess, null);
+		((XtextResourceSet) resourceSet).setClasspathURIContext(jvmTypesClassLoader);
+		resourceSet.eAdapters().add(new ProcessorInstanceForJvmTypeProvider.ProcessorClassloaderAdapter(annotationProcessingClassLoader));
+		if (resourceSet instanceof ResourceSetImpl) {
+			new SharedTypeResourceLocator((ResourceSetImpl) resourceSet, typeResourceSet);
+		}
+		return resourceSet;
+	}
+
+	/** Replies the file extension of the code snippets.
+	 *
+	 * @return the file extension.
+	 */
+	String getSnippetFileExtension() {
+		return this.fileExtensionProvider.getPrimaryFileExtension();
+	}
+
+	/** Generate the Java files of the given code snippet in memory.
+	 *
+	 * @param resource the resource of the code snippet.
+	 * @param cancelIndicator monitor for cancelling the compilation.
+	 * @return the generated files, indexed by their relative paths.
+	 */
+	Map<String, CharSequence> generateSnippet(Resource resource, CancelIndicator cancelIndicator) {
+		final InMemoryFileSystemAccess fileSystemAccess = new InMemoryFileSystemAccess();
+		fileSystemAccess.setOutputConfigurations(Collections.singletonMap(
+				this.outputConfiguration.getName(), this.outputConfiguration));
+		final GeneratorContext context = new GeneratorContext();
+		context.setCancelIndicator(cancelIndicator);
+		this.generator.generate(resource, fileSystemAccess, context);
+		return fileSystemAccess.getTextFiles();
+	}
+
 	/** Change the severity level of a warning.
 	 *
 	 * @param warningId the identifier of the warning. If {@code null} or empty, this function does nothing.
@@ -0,0 +1,426 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.text.MessageFormat;
+import java.util.EnumSet;
+import java.util.Properties;
+
+import com.google.inject.Injector;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.ParseException;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.WriterAppender;
+import org.eclipse.xtext.util.Strings;
+
+import io.sarl.lang.SARLVersion;
+import io.sarl.lang.sarl.actionprototype.IActionPrototypeProvider;
+import io.sarl.lang.validation.IConfigurableIssueSeveritiesProvider;
+
+/** Long-running compilation daemon for the SARL batch compiler.
+ *
+ * <p>The daemon keeps the injector of the SARL compiler, and the class loaders of the classpath JAR files,
+ * warm across the compilations. It is listening on the loopback interface only. The port and the
+ * access token of the daemon are written in a file that is readable by the owner only
+ * (see {@link #getDefaultDaemonFile()}). The name of this file and the protocol handshake contain the
+ * version of SARL, in order to never compile with a daemon of another version of SARL.
+ * The compilations are run one after the other.
+ * The daemon stops when it has not received any request during the idle timeout.
+ *
+ * <p>The daemon is launched with the command line {@code sarlc -daemonserver}, and it is used
+ * with {@link SarlcDaemonClient}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ * @see SarlcDaemonClient
+ */
+public class SarlcDaemon {
+
+	/** Name of the file in which the port and the token of the daemon are stored.
+	 * This name contains the version of SARL.
+	 */
+	public static final String DAEMON_FILENAME = "sarlc-daemon-" + SARLVersion.SARL_RELEASE_VERSION //$NON-NLS-1$
+			+ ".properties"; //$NON-NLS-1$
+
+	/** Name of the system property that contains the path to the file in which the port and the token
+	 * of the daemon are written.
+	 */
+	public static final String DAEMON_FILE_PROPERTY_NAME = "sarlc.daemonFile"; //$NON-NLS-1$
+
+	/** Default idle timeout of the daemon in milliseconds.
+	 */
+	public static final int DEFAULT_IDLE_TIMEOUT = 3600000;
+
+	/** Default timeout for reading a request from a client in milliseconds.
+	 */
+	public static final int DEFAULT_REQUEST_TIMEOUT = 30000;
+
+	/** Name of the property that contains the port of the daemon.
+	 */
+	static final String PORT_PROPERTY = "port"; //$NON-NLS-1$
+
+	/** Name of the property that contains the access token of the daemon.
+	 */
+	static final String TOKEN_PROPERTY = "token"; //$NON-NLS-1$
+
+	private static final String POSIX_ATTRIBUTE_VIEW = "posix"; //$NON-NLS-1$
+
+	/** Name of the property that contains the SARL version of the daemon.
+	 */
+	static final String VERSION_PROPERTY = "version"; //$NON-NLS-1$
+
+	/** Command for compiling.
+	 */
+	static final String COMPILE_COMMAND = "compile"; //$NON-NLS-1$
+
+	/** Command for stopping the daemon.
+	 */
+	static final String STOP_COMMAND = "stop"; //$NON-NLS-1$
+
+	private static final String USER_FOLDER = ".sarl"; //$NON-NLS-1$
+
+	private static final String COMPILER_LOGGER_NAME = SarlcDaemon.class.getName() + ".compiler"; //$NON-NLS-1$
+
+	private static final int TOKEN_BITS = 130;
+
+	private static final int TOKEN_RADIX = 32;
+
+	private final Injector injector;
+
+	private final File daemonFile;
+
+	private final DaemonBatchCompiler.JarClassLoaderCache jarClassLoaderCache = new DaemonBatchCompiler.JarClassLoaderCache();
+
+	private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+	private int requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+	/** Constructor.
+	 *
+	 * @param injector the injector of the SARL compiler.
+	 */
+	public SarlcDaemon(Injector injector) {
+		this(injector, getDefaultDaemonFile());
+	}
+
+	/** Constructor.
+	 *
+	 * @param injector the injector of the SARL compiler.
+	 * @param daemonFile the file in which the port and the token of the daemon are written.
+	 */
+	public SarlcDaemon(Injector injector, File daemonFile) {
+		this.injector = injector;
+		this.daemonFile = daemonFile;
+	}
+
+	/** Replies the default file in which the port and the token of the daemon are written.
+	 *
+	 * <p>The file is given by the system property {@value #DAEMON_FILE_PROPERTY_NAME}, or
+	 * it is located in the {@code .sarl} folder of the user's home.
+	 *
+	 * @return the file.
+	 */
+	public static File getDefaultDaemonFile() {
+		final String path = System.getProperty(DAEMON_FILE_PROPERTY_NAME, null);
+		if (!Strings.isEmpty(path)) {
+			return new File(path);
+		}
+		return new File(new File(System.getProperty("user.home"), USER_FOLDER), DAEMON_FILENAME); //$NON-NLS-1$
+	}
+
+	/** Replies the file in which the port and the token of the daemon are written.
+	 *
+	 * @return the file.
+	 */
+	public File getDaemonFile() {
+		return this.daemonFile;
+	}
+
+	/** Replies the idle timeout of the daemon.
+	 *
+	 * @return the timeout in milliseconds.
+	 */
+	public int getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	/** Change the idle timeout of the daemon.
+	 *
+	 * @param timeout the timeout in milliseconds. Zero means infinite.
+	 */
+	public void setIdleTimeout(int timeout) {
+		this.idleTimeout = Math.max(0, timeout);
+	}
+
+	/** Replies the timeout for reading a request from a client.
+	 *
+	 * @return the timeout in milliseconds.
+	 */
+	public int getRequestTimeout() {
+		return this.requestTimeout;
+	}
+
+	/** Change the timeout for reading a request from a client. A client that is not sending its
+	 * request within this timeout is disconnected, in order to not block the daemon.
+	 *
+	 * @param timeout the timeout in milliseconds. Zero means infinite.
+	 */
+	public void setRequestTimeout(int timeout) {
+		this.requestTimeout = Math.max(0, timeout);
+	}
+
+	/** Run the daemon. This function returns when the daemon is stopped.
+	 *
+	 * @throws IOException if the daemon cannot be started.
+	 */
+	public void run() throws IOException {
+		final String token = new BigInteger(TOKEN_BITS, new SecureRandom()).toString(TOKEN_RADIX);
+		try (ServerSocket server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+			server.setSoTimeout(getIdleTimeout());
+			writeDaemonFile(server.getLocalPort(), token);
+			final Logger logger = Logger.getLogger(getClass());
+			logger.info(MessageFormat.format(Messages.SarlcDaemon_0, Integer.toString(server.getLocalPort())));
+			try {
+				boolean running = true;
+				while (running) {
+					final Socket socket;
+					try {
+						socket = server.accept();
+					} catch (SocketTimeoutException exception) {
+						running = false;
+						continue;
+					}
+					try {
+						socket.setSoTimeout(getRequestTimeout());
+						running = serve(socket, token);
+					} catch (IOException exception) {
+						logger.error(exception.getLocalizedMessage(), exception);
+					} finally {
+						socket.close();
+					}
+				}
+				logger.info(Messages.SarlcDaemon_2);
+			} finally {
+				this.jarClassLoaderCache.clear();
+				this.daemonFile.delete();
+			}
+		}
+	}
+
+	private void writeDaemonFile(int port, String token) throws IOException {
+		final File folder = this.daemonFile.getAbsoluteFile().getParentFile();
+		folder.mkdirs();
+		final Path tmpFile;
+		if (folder.toPath().getFileSystem().supportedFileAttributeViews().contains(POSIX_ATTRIBUTE_VIEW)) {
+			// The file is readable by the owner only from its creation, before the token is written.
+			tmpFile = Files.createTempFile(folder.toPath(), DAEMON_FILENAME, null,
+					PosixFilePermissions.asFileAttribute(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+		} else {
+			tmpFile = Files.createTempFile(folder.toPath(), DAEMON_FILENAME, null);
+			final File file = tmpFile.toFile();
+			file.setReadable(false, false);
+			file.setReadable(true, true);
+			file.setWritable(false, false);
+			file.setWritable(true, true);
+		}
+		final Properties properties = new Properties();
+		properties.setProperty(PORT_PROPERTY, Integer.toString(port));
+		properties.setProperty(TOKEN_PROPERTY, token);
+		properties.setProperty(VERSION_PROPERTY, SARLVersion.SARL_RELEASE_VERSION);
+		try {
+			try (OutputStream stream = Files.newOutputStream(tmpFile)) {
+				properties.store(stream, null);
+			}
+			Files.move(tmpFile, this.daemonFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException exception) {
+			Files.deleteIfExists(tmpFile);
+			throw exception;
+		}
+	}
+
+	/** Serve the request that is received from the given socket.
+	 *
+	 * <p>The request starts with the access token and the SARL version of the client.
+	 *
+	 * @param socket the socket.
+	 * @param token the access token of the daemon.
+	 * @return {@code true} if the daemon must continue to run; {@code false} if it must stop.
+	 * @throws IOException if the socket cannot be read or written.
+	 */
+	protected boolean serve(Socket socket, String token) throws IOException {
+		final DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		// Constant-time comparison for not leaking the token through the response time.
+		if (!MessageDigest.isEqual(
+				token.getBytes(StandardCharsets.UTF_8),
+				input.readUTF().getBytes(StandardCharsets.UTF_8))) {
+			sendError(output, Messages.SarlcDaemon_1);
+			return true;
+		}
+		final String version = input.readUTF();
+		if (!SARLVersion.SARL_RELEASE_VERSION.equals(version)) {
+			sendError(output, MessageFormat.format(Messages.SarlcDaemon_4, version, SARLVersion.SARL_RELEASE_VERSION));
+			return true;
+		}
+		final String command = input.readUTF();
+		if (STOP_COMMAND.equals(command)) {
+			output.writeBoolean(false);
+			output.writeInt(Main.SUCCESS_CODE);
+			output.flush();
+			return false;
+		}
+		final String[] args = new String[input.readInt()];
+		for (int i = 0; i < args.length; ++i) {
+			args[i] = input.readUTF();
+		}
+		final int exitCode;
+		try (Writer writer = new LineWriter(output)) {
+			exitCode = compile(args, writer);
+		}
+		output.writeBoolean(false);
+		output.writeInt(exitCode);
+		output.flush();
+		return true;
+	}
+
+	private static void sendError(DataOutputStream output, String message) throws IOException {
+		output.writeBoolean(true);
+		output.writeUTF(message);
+		output.writeBoolean(false);
+		output.writeInt(Main.ERROR_CODE);
+		output.flush();
+	}
+
+	/** Run the compiler with the given arguments.
+	 *
+	 * @param args the command line arguments of the compiler.
+	 * @param output the writer in which the messages of the compiler are written.
+	 * @return the exit code.
+	 */
+	protected int compile(String[] args, Writer output) {
+		final Logger logger = Logger.getLogger(COMPILER_LOGGER_NAME);
+		logger.removeAllAppenders();
+		logger.setAdditivity(false);
+		logger.setLevel(Logger.getRootLogger().getLevel());
+		final WriterAppender appender = new WriterAppender(new PatternLayout(Main.LOGGER_PATTERN), output);
+		appender.setImmediateFlush(true);
+		logger.addAppender(appender);
+		try {
+			final DaemonBatchCompiler compiler = new DaemonBatchCompiler();
+			this.injector.injectMembers(compiler);
+			compiler.setLogger(logger);
+			compiler.setJarClassLoaderCache(this.jarClassLoaderCache);
+			final CommandLine cmd = new DefaultParser().parse(Main.getOptions(), args);
+			if (Main.configureCompiler(cmd, compiler) != Main.CommandLineStatus.COMPILE) {
+				logger.error(MessageFormat.format(Messages.SarlcDaemon_3, Main.getCompilerProgramName()));
+				return Main.ERROR_CODE;
+			}
+			return compiler.compile() ? Main.SUCCESS_CODE : Main.ERROR_CODE;
+		} catch (ParseException | RuntimeException exception) {
+			logger.error(exception.getLocalizedMessage(), exception);
+			return Main.ERROR_CODE;
+		} finally {
+			// Reset the singletons that are keeping the state of the previous compilation.
+			this.injector.getInstance(IActionPrototypeProvider.class).clear();
+			this.injector.getInstance(IConfigurableIssueSeveritiesProvider.class).setAllSeverities(null);
+			logger.removeAllAppenders();
+		}
+	}
+
+	/** Writer that sends each line to the client of the daemon.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class LineWriter extends Writer {
+
+		private final DataOutputStream output;
+
+		private final StringBuilder line = new StringBuilder();
+
+		LineWriter(DataOutputStream output) {
+			this.output = output;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			for (int i = off; i < off + len; ++i) {
+				final char character = cbuf[i];
+				if (character == '\n') {
+					sendLine();
+				} else if (character != '\r') {
+					this.line.append(character);
+				}
+			}
+		}
+
+		private void sendLine() throws IOException {
+			this.output.writeBoolean(true);
+			this.output.writeUTF(this.line.toString());
+			this.line.setLength(0);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.output.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.line.length() > 0) {
+				sendLine();
+			}
+			flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.text.MessageFormat;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import io.sarl.lang.SARLVersion;
+
+/** Client of the SARL compilation daemon.
+ *
+ * <p>If the daemon is not running, it is launched in a separate JVM with the same classpath as the
+ * one of the SARL compiler. A daemon that is running another version of SARL is never used.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ * @see SarlcDaemon
+ */
+public final class SarlcDaemonClient {
+
+	/** Maximal duration for launching the daemon, in milliseconds.
+	 */
+	private static final long LAUNCH_TIMEOUT = 30000;
+
+	private static final long LAUNCH_POLLING_DELAY = 200;
+
+	private static final String LOG_FILENAME = "sarlc-daemon.log"; //$NON-NLS-1$
+
+	private SarlcDaemonClient() {
+		//
+	}
+
+	/** Compile with the daemon. The daemon is launched if it is not running.
+	 *
+	 * <p>The paths in the arguments must be absolute, since the daemon may have
+	 * another current directory than the caller.
+	 *
+	 * @param args the command line arguments of the compiler.
+	 * @param output the receiver of the messages of the compiler, one line at a time.
+	 * @return the exit code of the compiler.
+	 * @throws IOException if the daemon cannot be reached.
+	 */
+	public static int compile(String[] args, Consumer<String> output) throws IOException {
+		return compile(SarlcDaemon.getDefaultDaemonFile(), args, output);
+	}
+
+	/** Compile with the daemon. The daemon is launched if it is not running.
+	 *
+	 * <p>The paths in the arguments must be absolute, since the daemon may have
+	 * another current directory than the caller.
+	 *
+	 * @param daemonFile the file in which the port and the token of the daemon are written.
+	 * @param args the command line arguments of the compiler.
+	 * @param output the receiver of the messages of the compiler, one line at a time.
+	 * @return the exit code of the compiler.
+	 * @throws IOException if the daemon cannot be reached.
+	 */
+	public static int compile(File daemonFile, String[] args, Consumer<String> output) throws IOException {
+		Properties properties = readDaemonFile(daemonFile);
+		Socket socket = connect(properties);
+		if (socket == null) {
+			launchDaemon(daemonFile);
+			final long timeout = System.currentTimeMillis() + LAUNCH_TIMEOUT;
+			while (socket == null && System.currentTimeMillis() < timeout) {
+				try {
+					Thread.sleep(LAUNCH_POLLING_DELAY);
+				} catch (InterruptedException exception) {
+					throw new IOException(exception);
+				}
+				final Properties newProperties = readDaemonFile(daemonFile);
+				if (newProperties != null && !newProperties.equals(properties)) {
+					properties = newProperties;
+					socket = connect(properties);
+				}
+			}
+			if (socket == null) {
+				throw new IOException(MessageFormat.format(Messages.SarlcDaemonClient_0, daemonFile));
+			}
+		}
+		try {
+			final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			outputStream.writeUTF(properties.getProperty(SarlcDaemon.TOKEN_PROPERTY));
+			outputStream.writeUTF(SARLVersion.SARL_RELEASE_VERSION);
+			outputStream.writeUTF(SarlcDaemon.COMPILE_COMMAND);
+			outputStream.writeInt(args.length);
+			for (final String arg : args) {
+				outputStream.writeUTF(arg);
+			}
+			outputStream.flush();
+			return readResponse(socket, output);
+		} finally {
+			socket.close();
+		}
+	}
+
+	/** Stop the daemon if it is running.
+	 *
+	 * @return {@code true} if the daemon was stopped; {@code false} if it is not running.
+	 * @throws IOException if the daemon cannot be reached.
+	 */
+	public static boolean stopDaemon() throws IOException {
+		return stopDaemon(SarlcDaemon.getDefaultDaemonFile());
+	}
+
+	/** Stop the daemon if it is running.
+	 *
+	 * @param daemonFile the file in which the port and the token of the daemon are written.
+	 * @return {@code true} if the daemon was stopped; {@code false} if it is not running.
+	 * @throws IOException if the daemon cannot be reached.
+	 */
+	public static boolean stopDaemon(File daemonFile) throws IOException {
+		final Properties properties = readDaemonFile(daemonFile);
+		try (Socket socket = connect(properties)) {
+			if (socket == null) {
+				return false;
+			}
+			final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			outputStream.writeUTF(properties.getProperty(SarlcDaemon.TOKEN_PROPERTY));
+			outputStream.writeUTF(SARLVersion.SARL_RELEASE_VERSION);
+			outputStream.writeUTF(SarlcDaemon.STOP_COMMAND);
+			outputStream.flush();
+			return readResponse(socket, null) == Main.SUCCESS_CODE;
+		}
+	}
+
+	private static int readResponse(Socket socket, Consumer<String> output) throws IOException {
+		final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		while (inputStream.readBoolean()) {
+			final String line = inputStream.readUTF();
+			if (output != null) {
+				output.accept(line);
+			}
+		}
+		return inputStream.readInt();
+	}
+
+	private static Properties readDaemonFile(File daemonFile) {
+		if (daemonFile.isFile()) {
+			final Properties properties = new Properties();
+			try (InputStream stream = new FileInputStream(daemonFile)) {
+				properties.load(stream);
+				return properties;
+			} catch (IOException exception) {
+				// The file is not fully written yet
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("resource")
+	private static Socket connect(Properties properties) {
+		if (properties != null
+				&& SARLVersion.SARL_RELEASE_VERSION.equals(properties.getProperty(SarlcDaemon.VERSION_PROPERTY))) {
+			try {
+				final int port = Integer.parseInt(properties.getProperty(SarlcDaemon.PORT_PROPERTY));
+				return new Socket(InetAddress.getLoopbackAddress(), port);
+			} catch (IOException | NumberFormatException exception) {
+				// The daemon is not running
+			}
+		}
+		return null;
+	}
+
+	private static void launchDaemon(File daemonFile) throws IOException {
+		final File folder = daemonFile.getAbsoluteFile().getParentFile();
+		folder.mkdirs();
+		final File java = new File(new File(System.getProperty("java.home"), "bin"), "java"); //$NON-NLS-1$ //$NON-NLS-2$
+		final ProcessBuilder builder = new ProcessBuilder(
+				java.getAbsolutePath(),
+				"-D" + SarlcDaemon.DAEMON_FILE_PROPERTY_NAME + "=" + daemonFile.getAbsolutePath(), //$NON-NLS-1$ //$NON-NLS-2$
+				"-cp", getCompilerClassPath(), //$NON-NLS-1$
+				Main.class.getName(),
+				"-daemonserver"); //$NON-NLS-1$
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(ProcessBuilder.Redirect.appendTo(new File(folder, LOG_FILENAME)));
+		builder.start();
+	}
+
+	private static String getCompilerClassPath() {
+		final ClassLoader loader = Main.class.getClassLoader();
+		if (loader instanceof URLClassLoader) {
+			final StringBuilder classpath = new StringBuilder();
+			for (final URL url : ((URLClassLoader) loader).getURLs()) {
+				if ("file".equals(url.getProtocol())) { //$NON-NLS-1$
+					if (classpath.length() > 0) {
+						classpath.append(File.pathSeparator);
+					}
+					try {
+						classpath.append(new File(url.toURI()).getAbsolutePath());
+					} catch (URISyntaxException exception) {
+						classpath.append(new File(url.getPath()).getAbsolutePath());
+					}
+				}
+			}
+			if (classpath.length() > 0) {
+				return classpath.toString();
+			}
+		}
+		return System.getProperty("java.class.path"); //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.xtext.common.types.access.impl.URIHelperConstants;
+
+/** Locator of resources that is delegating the loading of the JVM type resources ({@code java:/} URIs)
+ * to a shared resource set.
+ *
+ * <p>The JVM types of the classpath are therefore loaded once, and shared by all the resource sets
+ * in which this locator is installed. The other resources are located by the resource set itself.
+ * The shared resource set must be synchronized if it is used by several threads.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ * @see SnippetCompilationSession
+ */
+class SharedTypeResourceLocator extends ResourceSetImpl.ResourceLocator {
+
+	private final ResourceSet typeResourceSet;
+
+	/** Constructor. The locator is installed in the given resource set.
+	 *
+	 * @param resourceSet the resource set in which the locator is installed.
+	 * @param typeResourceSet the shared resource set that contains the JVM type resources.
+	 */
+	SharedTypeResourceLocator(ResourceSetImpl resourceSet, ResourceSet typeResourceSet) {
+		super(resourceSet);
+		this.typeResourceSet = typeResourceSet;
+	}
+
+	@Override
+	public Resource getResource(URI uri, boolean loadOnDemand) {
+		if (URIHelperConstants.PROTOCOL.equals(uri.scheme())) {
+			return this.typeResourceSet.getResource(uri, loadOnDemand);
+		}
+		return basicGetResource(uri, loadOnDemand);
+	}
+
+}
@@ -0,0 +1,253 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.sarl.lang.compiler.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.LazyStringInputStream;
+import org.eclipse.xtext.validation.Issue;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.eclipse.xtext.xbase.lib.Pure;
+
+/** Session for compiling code snippets with the same configuration of the batch compiler.
+ *
+ * <p>The session keeps the class loaders of the classpath and the configuration of the
+ * workspace from one snippet to another. Each snippet is loaded from memory into its own resource set,
+ * so that several snippets may declare the same types. The JVM types of the classpath are loaded into
+ * a resource set that is shared by all the snippets of the session, so that they are created once. The JVM model of a snippet is inferred, validated
+ * and, when there is no error, the Java files are generated in memory. No stub is generated, since
+ * the snippets are not used by Java files.
+ *
+ * <p>The snippets may be compiled in parallel if the parallel compilation is enabled in the batch
+ * compiler. The session must be closed for releasing the class loaders.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ * @see SarlBatchCompiler#openSnippetSession()
+ */
+public class SnippetCompilationSession implements AutoCloseable {
+
+	private static final String SNIPPET_BASENAME = "snippet"; //$NON-NLS-1$
+
+	private final SarlBatchCompiler compiler;
+
+	private final ClassLoader jvmTypesClassLoader;
+
+	private final ClassLoader annotationProcessingClassLoader;
+
+	private final ResourceSet typeResourceSet;
+
+	private final File sourceFolder;
+
+	private final AtomicInteger snippetCount = new AtomicInteger();
+
+	/** Constructor.
+	 *
+	 * @param compiler the configured compiler.
+	 * @param jvmTypesClassLoader the class loader for the JVM types.
+	 * @param annotationProcessingClassLoader the class loader for the annotation processors.
+	 * @param typeResourceSet the resource set that contains the JVM types shared by the snippets.
+	 */
+	SnippetCompilationSession(SarlBatchCompiler compiler, ClassLoader jvmTypesClassLoader,
+			ClassLoader annotationProcessingClassLoader, ResourceSet typeResourceSet) {
+		this.compiler = compiler;
+		this.jvmTypesClassLoader = jvmTypesClassLoader;
+		this.annotationProcessingClassLoader = annotationProcessingClassLoader;
+		this.typeResourceSet = typeResourceSet;
+		this.sourceFolder = compiler.getSourcePaths().get(0);
+	}
+
+	@Override
+	public void close() {
+		this.typeResourceSet.getResources().clear();
+		this.compiler.destroyClassLoader(this.jvmTypesClassLoader);
+		this.compiler.destroyClassLoader(this.annotationProcessingClassLoader);
+	}
+
+	/** Compile the given code snippet.
+	 *
+	 * @param code the SARL code.
+	 * @return the result of the compilation.
+	 * @throws IOException if the code cannot be loaded.
+	 */
+	public CompiledSnippet compile(String code) throws IOException {
+		return compile(0, code);
+	}
+
+	/** Compile the given code snippet.
+	 *
+	 * @param lineOffset the number of the line that precedes the code snippet in its enclosing document.
+	 *     It is added to the line numbers of the issues.
+	 * @param code the SARL code.
+	 * @return the result of the compilation.
+	 * @throws IOException if the code cannot be loaded.
+	 */
+	public CompiledSnippet compile(int lineOffset, String code) throws IOException {
+		final CancelIndicator cancelIndicator = CancelIndicator.NullImpl;
+		final ResourceSet resourceSet = this.compiler.createSnippetResourceSet(
+				this.jvmTypesClassLoader, this.annotationProcessingClassLoader, this.typeResourceSet);
+		final URI uri = URI.createFileURI(new File(this.sourceFolder,
+				SNIPPET_BASENAME + this.snippetCount.incrementAndGet()
+				+ "." + this.compiler.getSnippetFileExtension()).getAbsolutePath()); //$NON-NLS-1$
+		final Resource resource = resourceSet.createResource(uri);
+		resource.load(new LazyStringInputStream(code, this.compiler.getFileEncoding()), null);
+		this.compiler.generateJvmElements(resourceSet, cancelIndicator);
+		final SortedSet<Issue> issues = this.compiler.validate(resource, cancelIndicator);
+		final List<Issue> issueList = issues == null ? Collections.emptyList()
+				: Collections.unmodifiableList(new ArrayList<>(issues));
+		final CompiledSnippet snippet = new CompiledSnippet(lineOffset, resource, issueList);
+		if (!snippet.hasError()) {
+			snippet.generatedFiles = Collections.unmodifiableMap(this.compiler.generateSnippet(resource, cancelIndicator));
+		}
+		return snippet;
+	}
+
+	/** Compile the given code snippets. The snippets are compiled in parallel if the parallel
+	 * compilation is enabled in the batch compiler.
+	 *
+	 * @param snippets the code snippets, with the line numbers that precede them in their enclosing documents.
+	 * @return the results of the compilation, in the order of the snippets.
+	 */
+	public List<CompiledSnippet> compileAll(List<Pair<Integer, String>> snippets) {
+		final Stream<Pair<Integer, String>> stream = this.compiler.isParallelCompilation()
+				? snippets.parallelStream() : snippets.stream();
+		return stream.map(it -> {
+			try {
+				return compile(it.getKey().intValue(), it.getValue());
+			} catch (IOException exception) {
+				throw new RuntimeException(exception);
+			}
+		}).collect(Collectors.toList());
+	}
+
+	/** Replies the message of the given issue, formatted by the batch compiler.
+	 *
+	 * @param issue the issue.
+	 * @return the message.
+	 */
+	@Pure
+	public String getIssueMessage(Issue issue) {
+		return this.compiler.createIssueMessage(issue);
+	}
+
+	/** Result of the compilation of a code snippet.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static final class CompiledSnippet {
+
+		private final int lineOffset;
+
+		private final Resource resource;
+
+		private final List<Issue> issues;
+
+		private Map<String, CharSequence> generatedFiles = Collections.emptyMap();
+
+		/** Constructor.
+		 *
+		 * @param lineOffset the number of the line that precedes the code snippet.
+		 * @param resource the resource of the snippet.
+		 * @param issues the sorted issues.
+		 */
+		CompiledSnippet(int lineOffset, Resource resource, List<Issue> issues) {
+			this.lineOffset = lineOffset;
+			this.resource = resource;
+			this.issues = issues;
+		}
+
+		/** Replies the resource of the code snippet.
+		 *
+		 * @return the resource.
+		 */
+		@Pure
+		public Resource getResource() {
+			return this.resource;
+		}
+
+		/** Replies the issues of the code snippet.
+		 *
+		 * @return the issues, sorted by position.
+		 */
+		@Pure
+		public List<Issue> getIssues() {
+			return this.issues;
+		}
+
+		/** Replies if the code snippet has a syntax error or an error.
+		 *
+		 * @return <code>true</code> if the code snippet has an error.
+		 */
+		@Pure
+		public boolean hasError() {
+			for (final Issue issue : this.issues) {
+				if (issue.isSyntaxError() || issue.getSeverity() == Severity.ERROR) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/** Replies the number of the line of the given issue in the document that encloses the code snippet.
+		 *
+		 * @param issue the issue.
+		 * @return the line number.
+		 */
+		@Pure
+		public int getLineNumber(Issue issue) {
+			final Integer line = issue.getLineNumber();
+			return (line == null ? 0 : line.intValue()) + this.lineOffset;
+		}
+
+		/** Replies the Java files that were generated from the code snippet.
+		 *
+		 * @return the generated files, indexed by their names; or an empty map if the snippet has an error.
+		 */
+		@Pure
+		public Map<String, CharSequence> getGeneratedFiles() {
+			return this.generatedFiles;
+		}
+
+	}
+
+}
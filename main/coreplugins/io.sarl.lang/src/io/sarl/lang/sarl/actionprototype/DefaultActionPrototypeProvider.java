@@ -27,6 +27,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Strings;
@@ -56,6 +58,9 @@ import io.sarl.lang.util.Utils;
  * Provides additional function signatures according the semantic
  * associated to the parameter's default values.
  *
+ * <p>This provider is thread-safe, since the resources may be validated and generated in parallel
+ * by the batch compiler.
+ *
  * @author $Author: sgalland$
  * @version $FullVersion$
  * @mavengroupid $GroupId$
@@ -70,9 +75,10 @@ public class DefaultActionPrototypeProvider implements IActionPrototypeProvider
 	@Inject
 	private SARLGrammarKeywordAccess grammarAccess;
 
-	private final Map<String, Map<String, Map<ActionParameterTypes, InferredPrototype>>> prototypes = new TreeMap<>();
+	private final ConcurrentMap<String, ConcurrentMap<String, Map<ActionParameterTypes, InferredPrototype>>> prototypes =
+			new ConcurrentSkipListMap<>();
 
-	private final Map<String, Map<String, Integer>> defaultValueIDPrefixes = new TreeMap<>();
+	private final ConcurrentMap<String, Map<String, Integer>> defaultValueIDPrefixes = new ConcurrentSkipListMap<>();
 
 	@Inject
 	private AnnotationLookup annotationFinder;
@@ -157,38 +163,38 @@ public class DefaultActionPrototypeProvider implements IActionPrototypeProvider
 			final int lastParamIndex = params.getFormalParameterCount() - 1;
 
 			final String containerFullyQualifiedName = createQualifiedActionName(container, null).getContainerID();
-			Map<String, Integer> indexes = this.defaultValueIDPrefixes.get(containerFullyQualifiedName);
-			if (indexes == null) {
-				indexes = new TreeMap<>();
-				this.defaultValueIDPrefixes.put(containerFullyQualifiedName, indexes);
-			}
-			final Integer lastIndex = indexes.get(actionId);
-			int defaultValueIndex;
-			if (lastIndex == null) {
-				defaultValueIndex = 0;
-			} else {
-				defaultValueIndex = lastIndex.intValue();
-			}
+			final Map<String, Integer> indexes = this.defaultValueIDPrefixes.computeIfAbsent(
+					containerFullyQualifiedName, it -> new TreeMap<>());
 
 			final String[] annotationValues = new String[params.getFormalParameterCount()];
 			final String prefix = container.getQualifiedName() + "#" //$NON-NLS-1$
 					+ actionId.toUpperCase() + "_"; //$NON-NLS-1$
-			for (int i = 0; i <= lastParamIndex; ++i) {
-				final Pair<Map<ActionParameterTypes, List<InferredStandardParameter>>, Boolean> pair = buildParameter(
-						i,
-						lastParamIndex,
-						prefix + defaultValueIndex,
-						params,
-						signatures,
-						fillSignatureKeyOutputParameter);
-				signatures = pair.getKey();
-				if (pair.getValue()) {
-					annotationValues[i] = prefix + defaultValueIndex;
-					++defaultValueIndex;
+			synchronized (indexes) {
+				final Integer lastIndex = indexes.get(actionId);
+				int defaultValueIndex;
+				if (lastIndex == null) {
+					defaultValueIndex = 0;
+				} else {
+					defaultValueIndex = lastIndex.intValue();
 				}
-			}
 
-			indexes.put(actionId, defaultValueIndex);
+				for (int i = 0; i <= lastParamIndex; ++i) {
+					final Pair<Map<ActionParameterTypes, List<InferredStandardParameter>>, Boolean> pair = buildParameter(
+							i,
+							lastParamIndex,
+							prefix + defaultValueIndex,
+							params,
+							signatures,
+							fillSignatureKeyOutputParameter);
+					signatures = pair.getKey();
+					if (pair.getValue()) {
+						annotationValues[i] = prefix + defaultValueIndex;
+						++defaultValueIndex;
+					}
+				}
+
+				indexes.put(actionId, defaultValueIndex);
+			}
 
 			final List<InferredStandardParameter> parameters = signatures.get(fillSignatureKeyOutputParameter);
 			if (parameters != null) {
@@ -252,16 +258,10 @@ public class DefaultActionPrototypeProvider implements IActionPrototypeProvider
 				op,
 				ip);
 		final String containerID = id.getContainerID();
-		Map<String, Map<ActionParameterTypes, InferredPrototype>> c = this.prototypes.get(containerID);
-		if (c == null) {
-			c = new TreeMap<>();
-			this.prototypes.put(containerID, c);
-		}
-		Map<ActionParameterTypes, InferredPrototype> list = c.get(id.getActionName());
-		if (list == null) {
-			list = new TreeMap<>();
-			c.put(id.getActionName(), list);
-		}
+		final ConcurrentMap<String, Map<ActionParameterTypes, InferredPrototype>> c = this.prototypes.computeIfAbsent(
+				containerID, it -> new ConcurrentSkipListMap<>());
+		final Map<ActionParameterTypes, InferredPrototype> list = c.computeIfAbsent(
+				id.getActionName(), it -> new ConcurrentSkipListMap<>());
 		list.put(key, proto);
 		return proto;
 	}
@@ -21,14 +21,20 @@
 
 package io.sarl.lang.scoping;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
 
 import com.google.inject.Singleton;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.util.TypeReferences;
 import org.eclipse.xtext.xbase.scoping.batch.ImplicitlyImportedFeatures;
 
+import io.sarl.lang.compiler.IGeneratorConfigProvider2;
 import io.sarl.lang.scoping.batch.SARLMapExtensions;
+import io.sarl.lang.scoping.batch.SARLPersistentMapExtensions;
 import io.sarl.lang.scoping.batch.SARLTimeExtensions;
 import io.sarl.lang.scoping.numbers.NumberCastImplicitlyImportedFeatures;
 import io.sarl.lang.scoping.numbers.NumberOperatorImplicitlyImportedFeatures;
@@ -50,6 +56,12 @@ public class SARLImplicitlyImportedFeatures extends ImplicitlyImportedFeatures {
 	@Inject
 	private NumberCastImplicitlyImportedFeatures numberCastFeatures;
 
+	@Inject
+	private IGeneratorConfigProvider2 generatorConfigProvider;
+
+	@Inject
+	private TypeReferences typeReferences;
+
 	/** Construct the provider.
 	 */
 	public SARLImplicitlyImportedFeatures() {
@@ -70,5 +82,35 @@ public class SARLImplicitlyImportedFeatures extends ImplicitlyImportedFeatures {
 		return xtextList;
 	}
 
+	/** {@inheritDoc}
+	 *
+	 * <p>If the generator configuration of the resource enables the persistent maps,
+	 * {@link SARLMapExtensions} is replaced by {@link SARLPersistentMapExtensions}.
+	 *
+	 * @since 0.8
+	 */
+	@Override
+	public List<JvmType> getExtensionClasses(Resource context) {
+		final List<JvmType> types = super.getExtensionClasses(context);
+		if (context != null && !context.getContents().isEmpty()
+				&& this.generatorConfigProvider.get(context.getContents().get(0)).isUsePersistentMapOperators()) {
+			final JvmType persistentExtensions = this.typeReferences.findDeclaredType(
+					SARLPersistentMapExtensions.class, context);
+			if (persistentExtensions != null) {
+				final String replacedType = SARLMapExtensions.class.getName();
+				final List<JvmType> replacedTypes = new ArrayList<>(types.size());
+				for (final JvmType type : types) {
+					if (replacedType.equals(type.getIdentifier())) {
+						replacedTypes.add(persistentExtensions);
+					} else {
+						replacedTypes.add(type);
+					}
+				}
+				return replacedTypes;
+			}
+		}
+		return types;
+	}
+
 }
 
@@ -38,7 +38,6 @@ import java.util.TreeMap;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import com.google.common.collect.Iterables;
 import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -131,6 +130,8 @@ public class SARLOperationHelper implements IOperationHelper {
 
 	private final PolymorphicDispatcher<Boolean> hasSideEffectsDispatcher;
 
+	private final ThreadLocal<Deque<PureStateFrame>> pureStateFrames = ThreadLocal.withInitial(LinkedList::new);
+
 	/** Constructor.
 	 */
 	public SARLOperationHelper() {
@@ -673,15 +674,17 @@ public class SARLOperationHelper implements IOperationHelper {
 		}
 		if (feature instanceof JvmOperation) {
 			final JvmOperation operation = (JvmOperation) feature;
-			if (isCalledOperation(operation, context.getCalledOperations())) {
+			final int callIndex = indexOfCalledOperation(operation, context);
+			if (callIndex >= 0) {
 				// Recursive call detected.
 				// We assume no border effect in order to let the other expressions in the operation
 				// to influence the pure state of the operation.
+				// The operations that are evaluated above the called operation in the call stack are
+				// members of the same recursive group; their pure states cannot be memorized yet.
+				markRecursiveCall(callIndex);
 				return false;
 			}
-			final ISideEffectContext ctx = new SideEffectContext(
-					Iterables.concat(context.getCalledOperations(),
-							Collections.singleton(getInferredPrototype(operation))));
+			final ISideEffectContext ctx = new SideEffectContext(getInferredPrototype(operation), context);
 			if (this.annotations.findAnnotation(operation, Pure.class) != null
 					|| evaluatePureAnnotationAdapters(operation, ctx)) {
 				return false;
@@ -707,26 +710,59 @@ public class SARLOperationHelper implements IOperationHelper {
 		return false;
 	}
 
-	private static boolean isCalledOperation(JvmOperation operation, List<InferredPrototype> prototypes) {
+	/** Replies the position of the given operation in the call stack of the given context.
+	 *
+	 * @param operation the operation to search for.
+	 * @param context the context.
+	 * @return the index of the operation in the call stack, or {@code -1} if the operation is not called.
+	 */
+	private static int indexOfCalledOperation(JvmOperation operation, ISideEffectContext context) {
+		if (context instanceof SideEffectContext) {
+			return ((SideEffectContext) context).indexOfCalledOperation(operation.getIdentifier());
+		}
 		final String container = operation.getDeclaringType().getQualifiedName();
-		for (final InferredPrototype prototype : prototypes) {
+		final String operationId = operation.getIdentifier();
+		int index = 0;
+		for (final InferredPrototype prototype : context.getCalledOperations()) {
 			if (Strings.equal(container, prototype.getActionName().getDeclaringType().getIdentifier())
 					&& Strings.equal(operation.getSimpleName(), prototype.getActionName().getActionName())) {
-				final String prefix = container + "."; //$NON-NLS-1$
-				final String operationId = operation.getIdentifier();
-				for (final ActionParameterTypes types : prototype.getParameterTypeAlternatives()) {
-					String name = prefix + types.toActionPrototype(operation.getSimpleName()).toString();
+				for (final String name : getOperationIdentifiers(prototype)) {
 					if (Strings.equal(operationId, name)) {
-						return true;
-					}
-					name = prefix + types.toRawActionPrototype(operation.getSimpleName()).toString();
-					if (Strings.equal(operationId, name)) {
-						return true;
+						return index;
 					}
 				}
 			}
+			++index;
+		}
+		return -1;
+	}
+
+	/** Replies the JVM identifiers that may be associated to the operations that are matching the given prototype.
+	 *
+	 * @param prototype the prototype.
+	 * @return the identifiers of the operations.
+	 */
+	static List<String> getOperationIdentifiers(InferredPrototype prototype) {
+		final String prefix = prototype.getActionName().getDeclaringType().getIdentifier() + "."; //$NON-NLS-1$
+		final String actionName = prototype.getActionName().getActionName();
+		final List<String> identifiers = new ArrayList<>();
+		for (final ActionParameterTypes types : prototype.getParameterTypeAlternatives()) {
+			identifiers.add(prefix + types.toActionPrototype(actionName).toString());
+			identifiers.add(prefix + types.toRawActionPrototype(actionName).toString());
+		}
+		return identifiers;
+	}
+
+	/** Notify the pure state analysis that a recursive call to the operation at the given position in the call stack
+	 * was assumed to have no side effect.
+	 *
+	 * @param callIndex the position of the called operation in the call stack.
+	 */
+	private void markRecursiveCall(int callIndex) {
+		final PureStateFrame frame = this.pureStateFrames.get().peekLast();
+		if (frame != null && callIndex < frame.lowLink) {
+			frame.lowLink = callIndex;
 		}
-		return false;
 	}
 
 	private static boolean isExternalFeature(JvmIdentifiableElement feature) {
@@ -803,7 +839,44 @@ public class SARLOperationHelper implements IOperationHelper {
 		if (index >= 0) {
 			final AnnotationJavaGenerationAdapter annotationAdapter = (AnnotationJavaGenerationAdapter) operation.eAdapters().get(index);
 			assert annotationAdapter != null;
-			return annotationAdapter.applyAdaptations(this, operation, context);
+			final Boolean cachedState = annotationAdapter.getCachedPureState();
+			if (cachedState != null) {
+				return cachedState.booleanValue();
+			}
+			// The operation is evaluated at the given position of the call stack.
+			// When the context is null, the predicates are starting from a call stack that contains only
+			// the operation.
+			int depth = 0;
+			if (context != null) {
+				depth = indexOfCalledOperation(operation, context);
+				if (depth < 0) {
+					depth = context.getCalledOperations().size();
+				}
+			}
+			final Deque<PureStateFrame> frames = this.pureStateFrames.get();
+			final PureStateFrame frame = new PureStateFrame(depth);
+			frames.addLast(frame);
+			final boolean isPure;
+			try {
+				isPure = annotationAdapter.applyAdaptations(this, operation, context);
+			} finally {
+				frames.removeLast();
+				if (frames.isEmpty()) {
+					this.pureStateFrames.remove();
+				}
+			}
+			if (frame.isRecursiveGroupRoot()) {
+				// The pure state does not depend on an operation that is still evaluated.
+				annotationAdapter.setCachedPureState(Boolean.valueOf(isPure));
+			} else {
+				// The operation is a member of a recursive group that is rooted below in the call stack.
+				// The pure state is known only when the root of the group is evaluated.
+				final PureStateFrame parent = frames.peekLast();
+				if (parent != null && frame.lowLink < parent.lowLink) {
+					parent.lowLink = frame.lowLink;
+				}
+			}
+			return isPure;
 		}
 		return false;
 	}
@@ -843,6 +916,8 @@ public class SARLOperationHelper implements IOperationHelper {
 
 		private final List<InferredPrototype> calledOperations = new ArrayList<>();
 
+		private final Map<String, Integer> calledOperationIdentifiers = new HashMap<>();
+
 		private final Deque<InternalContext> contextStack;
 
 		private final boolean isBranchContext;
@@ -855,23 +930,7 @@ public class SARLOperationHelper implements IOperationHelper {
 		 */
 		SideEffectContext(InferredPrototype calledOperation) {
 			if (calledOperation != null) {
-				this.calledOperations.add(calledOperation);
-			}
-			this.variableAssignmentBuffer = null;
-			this.isBranchContext = false;
-			this.contextStack = new LinkedList<>();
-			this.contextStack.addLast(new InternalContext(null));
-		}
-
-		/** Constructor.
-		 *
-		 * @param calledOperations the operations that are called before the called operation in the call stack.
-		 */
-		SideEffectContext(Iterable<InferredPrototype> calledOperations) {
-			if (calledOperations != null) {
-				for (final InferredPrototype proto : calledOperations) {
-					this.calledOperations.add(proto);
-				}
+				addCalledOperation(calledOperation);
 			}
 			this.variableAssignmentBuffer = null;
 			this.isBranchContext = false;
@@ -885,9 +944,17 @@ public class SARLOperationHelper implements IOperationHelper {
 		 * @param context the context to be copied.
 		 */
 		SideEffectContext(InferredPrototype calledOperation, ISideEffectContext context) {
-			this.calledOperations.addAll(context.getCalledOperations());
+			if (context instanceof SideEffectContext) {
+				final SideEffectContext ctx = (SideEffectContext) context;
+				this.calledOperations.addAll(ctx.calledOperations);
+				this.calledOperationIdentifiers.putAll(ctx.calledOperationIdentifiers);
+			} else {
+				for (final InferredPrototype proto : context.getCalledOperations()) {
+					addCalledOperation(proto);
+				}
+			}
 			if (calledOperation != null) {
-				this.calledOperations.add(calledOperation);
+				addCalledOperation(calledOperation);
 			}
 			this.variableAssignmentBuffer = null;
 			this.isBranchContext = false;
@@ -895,16 +962,33 @@ public class SARLOperationHelper implements IOperationHelper {
 			this.contextStack.addLast(new InternalContext(null));
 		}
 
-		private SideEffectContext(List<InferredPrototype> calledOperations, Deque<InternalContext> contextStack,
+		private SideEffectContext(SideEffectContext context, Deque<InternalContext> contextStack,
 				Map<String, List<XExpression>> buffer) {
-			if (calledOperations != null) {
-				this.calledOperations.addAll(calledOperations);
-			}
+			this.calledOperations.addAll(context.calledOperations);
+			this.calledOperationIdentifiers.putAll(context.calledOperationIdentifiers);
 			this.variableAssignmentBuffer = buffer;
 			this.isBranchContext = true;
 			this.contextStack = contextStack;
 		}
 
+		private void addCalledOperation(InferredPrototype calledOperation) {
+			final Integer index = Integer.valueOf(this.calledOperations.size());
+			this.calledOperations.add(calledOperation);
+			for (final String identifier : getOperationIdentifiers(calledOperation)) {
+				this.calledOperationIdentifiers.putIfAbsent(identifier, index);
+			}
+		}
+
+		/** Replies the position of the operation with the given identifier in the call stack.
+		 *
+		 * @param operationIdentifier the JVM identifier of the operation.
+		 * @return the index of the operation in the call stack, or {@code -1} if the operation is not called.
+		 */
+		int indexOfCalledOperation(String operationIdentifier) {
+			final Integer index = this.calledOperationIdentifiers.get(operationIdentifier);
+			return index == null ? -1 : index.intValue();
+		}
+
 		@Override
 		public List<InferredPrototype> getCalledOperations() {
 			return Collections.unmodifiableList(this.calledOperations);
@@ -967,7 +1051,7 @@ public class SARLOperationHelper implements IOperationHelper {
 
 		@Override
 		public ISideEffectContext branch(Map<String, List<XExpression>> buffer) {
-			return new SideEffectContext(getCalledOperations(), this.contextStack, buffer);
+			return new SideEffectContext(this, this.contextStack, buffer);
 		}
 
 		@Override
@@ -1136,6 +1220,8 @@ public class SARLOperationHelper implements IOperationHelper {
 
 		private Collection<Function2<? super JvmOperation, ? super IOperationHelper, ? extends Boolean>> predicates;
 
+		private Boolean cachedPureState;
+
 		/** Add a predicate.
 		 *
 		 * @param predicate the predicate.
@@ -1147,6 +1233,7 @@ public class SARLOperationHelper implements IOperationHelper {
 						this.predicates = new ArrayList<>();
 					}
 					this.predicates.add(predicate);
+					this.cachedPureState = null;
 				}
 			}
 		}
@@ -1156,6 +1243,30 @@ public class SARLOperationHelper implements IOperationHelper {
 		public void removeAllPredicates() {
 			synchronized (this) {
 				this.predicates = null;
+				this.cachedPureState = null;
+			}
+		}
+
+		/** Replies the pure state that was computed for the adapted operation by a previous evaluation
+		 * of the predicates.
+		 *
+		 * @return the pure state, or {@code null} if the pure state was not computed yet.
+		 * @since 0.8
+		 */
+		public Boolean getCachedPureState() {
+			synchronized (this) {
+				return this.cachedPureState;
+			}
+		}
+
+		/** Change the pure state that was computed for the adapted operation.
+		 *
+		 * @param pureState the pure state, or {@code null} for forgetting the computed state.
+		 * @since 0.8
+		 */
+		public void setCachedPureState(Boolean pureState) {
+			synchronized (this) {
+				this.cachedPureState = pureState;
 			}
 		}
 
@@ -1193,6 +1304,49 @@ public class SARLOperationHelper implements IOperationHelper {
 
 	}
 
+	/** Evaluation of the pure state of an operation that is not yet terminated.
+	 *
+	 * <p>The frames are stacked in the same order as the operations in the call stack of the
+	 * side effect contexts. An operation and the operations that are recursively calling it are
+	 * forming a recursive group (a strongly connected component of the call graph). The pure
+	 * state of a member of the group is assumed during the evaluation of the group. Only the
+	 * pure state of the root of the group is independent of these assumptions.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class PureStateFrame {
+
+		/** Position of the evaluated operation in the call stack.
+		 */
+		final int depth;
+
+		/** Lowest position in the call stack of the operations that are recursively called
+		 * during the evaluation.
+		 */
+		int lowLink = Integer.MAX_VALUE;
+
+		/** Constructor.
+		 *
+		 * @param depth the position of the evaluated operation in the call stack.
+		 */
+		PureStateFrame(int depth) {
+			this.depth = depth;
+		}
+
+		/** Replies if the evaluated operation is the root of its recursive group, or is not recursive.
+		 *
+		 * @return {@code true} if the computed pure state does not depend on an assumption.
+		 */
+		boolean isRecursiveGroupRoot() {
+			return this.lowLink >= this.depth;
+		}
+
+	}
+
 	/** Internal sub helper. This helper forces the use of a specific side effect context.
 	 *
 	 * @author $Author: sgalland$
@@ -79,6 +79,7 @@ import static org.eclipse.xtext.xbase.validation.IssueCodes.VARIABLE_NAME_SHADOW
 
 import java.lang.annotation.ElementType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -148,6 +149,7 @@ import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.util.JavaVersion;
 import org.eclipse.xtext.util.Strings;
 import org.eclipse.xtext.util.XtextVersion;
+import org.eclipse.xtext.validation.AbstractDeclarativeValidator;
 import org.eclipse.xtext.validation.Check;
 import org.eclipse.xtext.validation.CheckType;
 import org.eclipse.xtext.validation.IssueSeverities;
@@ -384,6 +386,9 @@ public class SARLValidator extends AbstractSARLValidator {
 	@Inject
 	private SARLReadAndWriteTracking readAndWriteTracking;
 
+	@Inject
+	private ValidationCheckProfiler checkProfiler;
+
 	// Update the annotation target information
 	{
 		final ImmutableMultimap.Builder<Class<?>, ElementType> result = ImmutableMultimap.builder();
@@ -461,6 +466,11 @@ public class SARLValidator extends AbstractSARLValidator {
 		return this.warningSuppressor.getIssueSeverities(context, eObject, severities);
 	}
 
+	@Override
+	protected MethodWrapper createMethodWrapper(AbstractDeclarativeValidator instanceToUse, Method method) {
+		return new ProfiledMethodWrapper(instanceToUse, method);
+	}
+
 	/** Replies if the given issue is ignored for the given object.
 	 *
 	 * @param issueCode the code if the issue.
@@ -2830,4 +2840,57 @@ public class SARLValidator extends AbstractSARLValidator {
 
 	}
 
+	/** Wrapper of a check function that measures the time spent in the function
+	 * when the {@link ValidationCheckProfiler} is enabled.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private final class ProfiledMethodWrapper extends MethodWrapper {
+
+		private final String checkName;
+
+		/** Constructor.
+		 *
+		 * @param instance the validator that contains the check function.
+		 * @param method the check function.
+		 */
+		ProfiledMethodWrapper(AbstractDeclarativeValidator instance, Method method) {
+			super(instance, method);
+			final StringBuilder name = new StringBuilder();
+			name.append(method.getDeclaringClass().getSimpleName()).append('.').append(method.getName()).append('(');
+			boolean first = true;
+			for (final Class<?> parameterType : method.getParameterTypes()) {
+				if (first) {
+					first = false;
+				} else {
+					name.append(',');
+				}
+				name.append(parameterType.getSimpleName());
+			}
+			name.append(')');
+			this.checkName = name.toString();
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void invoke(State state) {
+			final ValidationCheckProfiler profiler = SARLValidator.this.checkProfiler;
+			if (profiler == null || !profiler.isEnabled()) {
+				super.invoke(state);
+				return;
+			}
+			final long start = System.nanoTime();
+			try {
+				super.invoke(state);
+			} finally {
+				profiler.record(this.checkName, System.nanoTime() - start);
+			}
+		}
+
+	}
+
 }
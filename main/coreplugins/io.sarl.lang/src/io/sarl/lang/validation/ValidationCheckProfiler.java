@@ -0,0 +1,137 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.sarl.lang.validation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Singleton;
+
+/** Measures the time spent in the check functions of the validators.
+ *
+ * <p>The profiler is disabled by default. When it is enabled, each invocation of a check
+ * function of the {@link SARLValidator} is timed, and the durations are accumulated per check function.
+ * The profiler may be used concurrently by several validation threads.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@Singleton
+public class ValidationCheckProfiler {
+
+	private final Map<String, CheckStatistics> statistics = new ConcurrentHashMap<>();
+
+	private volatile boolean enabled;
+
+	/** Replies if the check functions are timed.
+	 *
+	 * @return <code>true</code> if the profiler is enabled.
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/** Change if the check functions are timed.
+	 *
+	 * @param enabled <code>true</code> if the profiler is enabled.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/** Forget all the measures.
+	 */
+	public void reset() {
+		this.statistics.clear();
+	}
+
+	/** Add a measure for the given check function.
+	 *
+	 * @param check the name of the check function.
+	 * @param duration the duration of the invocation of the check function, in nanoseconds.
+	 */
+	public void record(String check, long duration) {
+		this.statistics.computeIfAbsent(check, it -> new CheckStatistics()).add(duration);
+	}
+
+	/** Replies the measures of the check functions.
+	 *
+	 * @return the measures, indexed by the names of the check functions.
+	 */
+	public Map<String, CheckStatistics> getStatistics() {
+		return Collections.unmodifiableMap(this.statistics);
+	}
+
+	/** Statistics on the invocations of a check function.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static final class CheckStatistics {
+
+		private final LongAdder invocations = new LongAdder();
+
+		private final LongAdder duration = new LongAdder();
+
+		/** Constructor.
+		 */
+		CheckStatistics() {
+			//
+		}
+
+		/** Add an invocation.
+		 *
+		 * @param time the duration of the invocation, in nanoseconds.
+		 */
+		void add(long time) {
+			this.invocations.increment();
+			this.duration.add(time);
+		}
+
+		/** Replies the number of invocations of the check function.
+		 *
+		 * @return the number of invocations.
+		 */
+		public long getInvocations() {
+			return this.invocations.sum();
+		}
+
+		/** Replies the cumulated duration of the invocations of the check function.
+		 *
+		 * @return the duration in nanoseconds.
+		 */
+		public long getDuration() {
+			return this.duration.sum();
+		}
+
+	}
+
+}
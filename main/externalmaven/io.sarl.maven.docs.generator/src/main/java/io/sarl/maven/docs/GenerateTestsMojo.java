@@ -373,7 +373,8 @@ public class GenerateTestsMojo extends AbstractDocumentationMojo {
 		it.append("private static ").append(Injector.class).append(" injector = "); //$NON-NLS-1$ //$NON-NLS-2$
 		it.append(DocumentationSetup.class).append(".doSetup();"); //$NON-NLS-1$
 		it.newLine().newLine();
-		it.append("private ").append(ScriptExecutor.class).append(" scriptExecutor;"); //$NON-NLS-1$ //$NON-NLS-2$
+		// The executor is shared by the tests in order to reuse its compilation session
+		it.append("private static ").append(ScriptExecutor.class).append(" scriptExecutor;"); //$NON-NLS-1$ //$NON-NLS-2$
 		it.newLine().newLine();
 		it.append("protected ").append(ScriptExecutor.class).append(" getScriptExecutor() {"); //$NON-NLS-1$ //$NON-NLS-2$
 		it.increaseIndentation().newLine();
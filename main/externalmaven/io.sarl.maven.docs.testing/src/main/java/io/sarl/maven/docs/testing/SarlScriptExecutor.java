@@ -30,7 +30,6 @@ import java.util.List;
 
 import javax.inject.Inject;
 
-import com.google.common.io.Files;
 import com.google.inject.Injector;
 import com.google.inject.Provider;
 import org.apache.log4j.Level;
@@ -38,6 +37,7 @@ import org.arakhne.afc.vmutil.FileSystem;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.util.Strings;
+import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.XExpression;
 import org.eclipse.xtext.xbase.interpreter.IEvaluationResult;
 import org.eclipse.xtext.xbase.interpreter.IExpressionInterpreter;
@@ -46,11 +46,16 @@ import org.junit.ComparisonFailure;
 
 import io.sarl.lang.compiler.batch.ICompilatedResourceReceiver;
 import io.sarl.lang.compiler.batch.SarlBatchCompiler;
+import io.sarl.lang.compiler.batch.SnippetCompilationSession;
+import io.sarl.lang.compiler.batch.SnippetCompilationSession.CompiledSnippet;
 import io.sarl.lang.sarl.SarlClass;
 import io.sarl.lang.sarl.SarlField;
 import io.sarl.lang.sarl.SarlScript;
 
 /** Sarl script executor.
+ *
+ * <p>The snippets are compiled within a snippet compilation session of the batch compiler, which
+ * is shared by all the snippets until the configuration of the executor is changed.
  *
  * @author $Author: sgalland$
  * @version $FullVersion$
@@ -72,6 +77,10 @@ public class SarlScriptExecutor implements ScriptExecutor {
 
 	private Provider<IExpressionInterpreter> interpreterProvider;
 
+	private SnippetCompilationSession session;
+
+	private File sessionFolder;
+
 	/** Change the injector.
 	 *
 	 * @param injector the new injector.
@@ -85,21 +94,54 @@ public class SarlScriptExecutor implements ScriptExecutor {
 	@Override
 	public void setTempFolder(File dirname) {
 		this.tmpFolder = dirname;
+		closeSession();
 	}
 
 	@Override
 	public void setClassPath(String classpath) {
 		this.classpath = Strings.emptyIfNull(classpath);
+		closeSession();
 	}
 
 	@Override
 	public void setBootClassPath(String classpath) {
 		this.bootClasspath = Strings.emptyIfNull(classpath);
+		closeSession();
 	}
 
 	@Override
 	public void setJavaSourceVersion(String version) {
 		this.sourceVersion = Strings.emptyIfNull(version);
+		closeSession();
+	}
+
+	/** Close the current snippet compilation session, if any.
+	 *
+	 * @since 0.8
+	 */
+	public synchronized void closeSession() {
+		if (this.session != null) {
+			this.session.close();
+			this.session = null;
+		}
+		if (this.sessionFolder != null) {
+			FileSystem.delete(this.sessionFolder);
+			this.sessionFolder = null;
+		}
+	}
+
+	private synchronized SnippetCompilationSession getSession() throws IOException {
+		if (this.session == null) {
+			final File rootFolder = createRootFolder();
+			final SarlBatchCompiler compiler = createCompiler(rootFolder);
+			this.session = compiler.openSnippetSession();
+			if (this.session == null) {
+				FileSystem.delete(rootFolder);
+				throw new IllegalStateException("Invalid configuration of the SARL compiler"); //$NON-NLS-1$
+			}
+			this.sessionFolder = rootFolder;
+		}
+		return this.session;
 	}
 
 	private File createRootFolder() throws IOException {
@@ -118,24 +160,12 @@ public class SarlScriptExecutor implements ScriptExecutor {
 		return new File(root, "bin"); //$NON-NLS-1$
 	}
 
-	private static File createFile(File sourceFolder, String content) throws IOException {
-		File file = new File(sourceFolder, "test.sarl"); //$NON-NLS-1$
-		file.getParentFile().mkdirs();
-		Files.write(content.getBytes(), file);
-		return file;
-	}
-
-	@Override
-	public CompiledFile compile(int lineno, String code, List<String> issues, ICompilatedResourceReceiver receiver) throws Exception {
-		File rootFolder = createRootFolder();
-		File sourceFolder = createSourceFolder(rootFolder);
-		File genFolder = createGenFolder(rootFolder);
-		File binFolder = createBinFolder(rootFolder);
+	private SarlBatchCompiler createCompiler(File rootFolder) {
 		final SarlBatchCompiler compiler = this.compilerProvider.get();
 		compiler.setBasePath(rootFolder.getAbsolutePath());
-		compiler.addSourcePath(sourceFolder);
-		compiler.setClassOutputPath(binFolder);
-		compiler.setOutputPath(genFolder);
+		compiler.addSourcePath(createSourceFolder(rootFolder));
+		compiler.setClassOutputPath(createBinFolder(rootFolder));
+		compiler.setOutputPath(createGenFolder(rootFolder));
 		compiler.setGenerateGeneratedAnnotation(false);
 		compiler.setGenerateInlineAnnotation(false);
 		compiler.setGenerateSyntheticSuppressWarnings(true);
@@ -147,21 +177,26 @@ public class SarlScriptExecutor implements ScriptExecutor {
 		compiler.setWarningSeverity(IssueCodes.DEPRECATED_MEMBER_REFERENCE, Severity.ERROR);
 		compiler.setJavaCompilerVerbose(false);
 		compiler.getLogger().setLevel(Level.OFF);
+		return compiler;
+	}
+
+	@Override
+	public CompiledFile compile(int lineno, String code, List<String> issues, ICompilatedResourceReceiver receiver) throws Exception {
+		final SnippetCompilationSession currentSession = getSession();
+		final CompiledSnippet snippet = currentSession.compile(lineno, code);
 		if (issues != null) {
-			compiler.addIssueMessageListener((issue, uri, message) -> {
+			for (final Issue issue : snippet.getIssues()) {
 				if (issue.isSyntaxError() || issue.getSeverity() == Severity.ERROR) {
-					final Integer line = issue.getLineNumber();
-					final int issueLine = (line == null ? 0 : line.intValue()) + lineno;
-					issues.add(message + "(line " + issueLine + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+					issues.add(currentSession.getIssueMessage(issue)
+							+ "(line " + snippet.getLineNumber(issue) + ")"); //$NON-NLS-1$ //$NON-NLS-2$
 				}
-			});
+			}
 		}
-		if (receiver != null) {
-			compiler.addCompiledResourceReceiver(receiver);
+		if (receiver != null && !snippet.hasError()) {
+			receiver.receiveCompiledResource(snippet.getResource());
 		}
-		File file = createFile(sourceFolder, code);
-		compiler.compile();
-		return new CompiledFile(rootFolder, file);
+		// The snippet is compiled in memory: there is no file to delete
+		return new CompiledFile(null, null);
 	}
 
 	@Override
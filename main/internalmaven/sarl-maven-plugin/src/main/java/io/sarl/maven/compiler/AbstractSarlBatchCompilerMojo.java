@@ -36,9 +36,11 @@ import java.util.Set;
 
 import javax.inject.Provider;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.inject.Injector;
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
@@ -57,6 +59,7 @@ import org.eclipse.xtext.xbase.lib.util.ReflectExtensions;
 
 import io.sarl.lang.SARLStandaloneSetup;
 import io.sarl.lang.compiler.batch.SarlBatchCompiler;
+import io.sarl.lang.compiler.batch.SarlcDaemonClient;
 import io.sarl.maven.compiler.MavenLogger.MavenLoggerFactory;
 
 /** Abstract mojo that is able to use the SARL batch compiler.
@@ -154,6 +157,62 @@ public abstract class AbstractSarlBatchCompilerMojo extends AbstractSarlMojo {
 	 */
 	protected abstract boolean getGenerateStorageFiles();
 
+	/** Replies if the compilation is incremental.
+	 *
+	 * @return <code>true</code> for compiling only the changed files and the files that depend on them.
+	 * @since 0.8
+	 */
+	protected abstract boolean getIncrementalCompilation();
+
+	/** Replies if the SARL files are validated and generated in parallel.
+	 *
+	 * @return <code>true</code> for a parallel compilation.
+	 * @since 0.8
+	 */
+	protected abstract boolean getParallelCompilation();
+
+	/** Replies if the compilation is delegated to the SARL compilation daemon.
+	 *
+	 * @return <code>true</code> for compiling with the daemon.
+	 * @since 0.8
+	 */
+	protected abstract boolean getDaemonCompilation();
+
+	/** Replies the folder in which the indexes of the types in the classpath JAR files are stored.
+	 *
+	 * @return the folder, or <code>null</code> if the classpath is not indexed.
+	 * @since 0.8
+	 */
+	protected abstract File getClasspathIndexFolder();
+
+	/** Replies if the stubs are generated and compiled in memory.
+	 *
+	 * @return <code>true</code> for not writing the stubs on the disk.
+	 * @since 0.8
+	 */
+	protected abstract boolean getInMemoryStubCompilation();
+
+	/** Replies the file in which the profiling report of the compilation is written.
+	 *
+	 * @return the file, or <code>null</code> if the compilation is not profiled.
+	 * @since 0.8
+	 */
+	protected abstract File getProfilingReport();
+
+	/** Replies if the resources are unloaded as soon as their Java files are generated.
+	 *
+	 * @return <code>true</code> for reducing the memory footprint of the compiler.
+	 * @since 0.8
+	 */
+	protected abstract boolean getLowMemoryCompilation();
+
+	/** Replies if the map operators create persistent maps in place of views on their operands.
+	 *
+	 * @return <code>true</code> for using the persistent maps.
+	 * @since 0.8
+	 */
+	protected abstract boolean getPersistentMapOperators();
+
 	/** Run compilation.
 	 *
 	 * @param classPath the classpath
@@ -163,15 +222,19 @@ public abstract class AbstractSarlBatchCompilerMojo extends AbstractSarlMojo {
 	 * @throws MojoFailureException if failure.
 	 */
 	protected void compile(List<File> classPath, List<File> sourcePaths, File outputPath) throws MojoExecutionException, MojoFailureException {
-		final SarlBatchCompiler compiler = getBatchCompiler();
 		final MavenProject project = getProject();
-		compiler.setResourceSetProvider(new MavenProjectResourceSetProvider(project));
 		final Iterable<File> filtered = Iterables.filter(sourcePaths, input -> input.isDirectory());
 		if (Iterables.isEmpty(filtered)) {
 			final String dir = Iterables.toString(sourcePaths);
 			getLog().info(MessageFormat.format(Messages.AbstractSarlBatchCompilerMojo_1, dir));
 			return;
 		}
+		if (getDaemonCompilation()) {
+			compileWithDaemon(classPath, Lists.newArrayList(filtered), outputPath);
+			return;
+		}
+		final SarlBatchCompiler compiler = getBatchCompiler();
+		compiler.setResourceSetProvider(new MavenProjectResourceSetProvider(project));
 		final String baseDir = project.getBasedir().getAbsolutePath();
 		compiler.setJavaPostCompilationEnable(getPostRunningOfJavaCompiler());
 		compiler.setClassOutputPath(makeAbsolute(new File(getProject().getBuild().getOutputDirectory())));
@@ -190,6 +253,13 @@ public abstract class AbstractSarlBatchCompilerMojo extends AbstractSarlMojo {
 		compiler.setWriteStorageFiles(getGenerateStorageFiles());
 		compiler.setGenerateInlineAnnotation(getGenerateInlines());
 		compiler.setGeneratePureAnnotation(getGeneratePures());
+		compiler.setIncrementalCompilation(getIncrementalCompilation());
+		compiler.setParallelCompilation(getParallelCompilation());
+		compiler.setClasspathIndexFolder(getClasspathIndexFolder());
+		compiler.setInMemoryStubCompilation(getInMemoryStubCompilation());
+		compiler.setProfilingReportFile(getProfilingReport());
+		compiler.setLowMemoryCompilation(getLowMemoryCompilation());
+		compiler.setUsePersistentMapOperators(getPersistentMapOperators());
 		final Logger logger = Logger.getLogger(getClass().getName(), new MavenLoggerFactory(getLog()));
 		compiler.setLogger(logger);
 		compiler.setIssueMessageFormatter((issue, uriToProblem) -> {
@@ -215,6 +285,117 @@ public abstract class AbstractSarlBatchCompilerMojo extends AbstractSarlMojo {
 		}
 	}
 
+	/** Run the compilation with the SARL compilation daemon.
+	 *
+	 * <p>The daemon is launched if it is not running. It keeps the SARL compiler warm
+	 * between the builds.
+	 *
+	 * @param classPath the classpath
+	 * @param sourcePaths the source paths.
+	 * @param outputPath the output path.
+	 * @throws MojoExecutionException if error.
+	 * @throws MojoFailureException if failure.
+	 */
+	protected void compileWithDaemon(List<File> classPath, List<File> sourcePaths, File outputPath)
+			throws MojoExecutionException, MojoFailureException {
+		getLog().info(Messages.AbstractSarlBatchCompilerMojo_11);
+		final List<String> args = new ArrayList<>();
+		args.add("-dir"); //$NON-NLS-1$
+		args.add(makeAbsolute(outputPath).getAbsolutePath());
+		args.add("-classdir"); //$NON-NLS-1$
+		args.add(makeAbsolute(new File(getProject().getBuild().getOutputDirectory())).getAbsolutePath());
+		args.add("-tempdir"); //$NON-NLS-1$
+		args.add(makeAbsolute(getTempDirectory()).getAbsolutePath());
+		args.add("-cp"); //$NON-NLS-1$
+		args.add(toPath(Iterables.transform(classPath, it -> makeAbsolute(it))));
+		final String bootClassPath = getBootClassPath();
+		if (!Strings.isNullOrEmpty(bootClassPath)) {
+			args.add("-bootclasspath"); //$NON-NLS-1$
+			args.add(bootClassPath);
+		}
+		if (!Strings.isNullOrEmpty(getEncoding())) {
+			args.add("-encoding"); //$NON-NLS-1$
+			args.add(getEncoding());
+		}
+		if (!Strings.isNullOrEmpty(getSourceVersion())) {
+			args.add("-javaSourceVersion"); //$NON-NLS-1$
+			args.add(getSourceVersion());
+		}
+		args.add("-javac"); //$NON-NLS-1$
+		args.add(Boolean.toString(getPostRunningOfJavaCompiler()));
+		args.add("-writetraces"); //$NON-NLS-1$
+		args.add(Boolean.toString(getGenerateTraceFiles()));
+		args.add("-writestorages"); //$NON-NLS-1$
+		args.add(Boolean.toString(getGenerateStorageFiles()));
+		args.add("-inlines"); //$NON-NLS-1$
+		args.add(Boolean.toString(getGenerateInlines()));
+		args.add("-pures"); //$NON-NLS-1$
+		args.add(Boolean.toString(getGeneratePures()));
+		if (getIncrementalCompilation()) {
+			args.add("-incremental"); //$NON-NLS-1$
+		}
+		if (getParallelCompilation()) {
+			args.add("-parallel"); //$NON-NLS-1$
+		}
+		if (getInMemoryStubCompilation()) {
+			args.add("-inmemorystubs"); //$NON-NLS-1$
+		}
+		final File classpathIndexFolder = getClasspathIndexFolder();
+		if (classpathIndexFolder != null) {
+			args.add("-cpindex"); //$NON-NLS-1$
+			args.add(classpathIndexFolder.getAbsolutePath());
+		}
+		final File profilingReport = getProfilingReport();
+		if (profilingReport != null) {
+			args.add("-profile"); //$NON-NLS-1$
+			args.add(profilingReport.getAbsolutePath());
+		}
+		if (getLowMemoryCompilation()) {
+			args.add("-lowmemory"); //$NON-NLS-1$
+		}
+		args.add("-persistentmaps"); //$NON-NLS-1$
+		args.add(Boolean.toString(getPersistentMapOperators()));
+		for (final File sourcePath : sourcePaths) {
+			args.add(makeAbsolute(sourcePath).getAbsolutePath());
+		}
+		final int exitCode;
+		try {
+			exitCode = SarlcDaemonClient.compile(args.toArray(new String[args.size()]), this::logDaemonOutput);
+		} catch (IOException exception) {
+			throw new MojoExecutionException(MessageFormat.format(Messages.AbstractSarlBatchCompilerMojo_12,
+					exception.getLocalizedMessage()), exception);
+		}
+		if (exitCode != 0) {
+			throw new MojoFailureException(Messages.AbstractSarlBatchCompilerMojo_4);
+		}
+	}
+
+	private static String toPath(Iterable<File> files) {
+		final StringBuilder path = new StringBuilder();
+		for (final File file : files) {
+			if (path.length() > 0) {
+				path.append(File.pathSeparator);
+			}
+			path.append(file.getAbsolutePath());
+		}
+		return path.toString();
+	}
+
+	private void logDaemonOutput(String line) {
+		// The lines are formatted with the pattern of the sarlc logger: the level, and the message.
+		if (line.startsWith(Level.ERROR.toString()) || line.startsWith(Level.FATAL.toString())) {
+			getLog().error(line.substring(Level.ERROR.toString().length()).trim());
+		} else if (line.startsWith(Level.WARN.toString())) {
+			getLog().warn(line.substring(Level.WARN.toString().length()).trim());
+		} else if (line.startsWith(Level.DEBUG.toString())) {
+			getLog().debug(line.substring(Level.DEBUG.toString().length()).trim());
+		} else if (line.startsWith(Level.INFO.toString())) {
+			getLog().info(line.substring(Level.INFO.toString().length()).trim());
+		} else {
+			getLog().info(line);
+		}
+	}
+
 	private String getBootClassPath() throws MojoExecutionException {
 		final Toolchain toolchain = this.toolchainManager.getToolchainFromBuildContext("jdk", this.mavenHelper.getSession()); //$NON-NLS-1$
 		if (toolchain instanceof JavaToolchain && toolchain instanceof ToolchainPrivate) {
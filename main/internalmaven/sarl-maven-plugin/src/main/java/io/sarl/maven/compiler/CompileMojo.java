@@ -103,6 +103,58 @@ public class CompileMojo extends AbstractSarlBatchCompilerMojo {
 	@Parameter(defaultValue = "true", required = false)
 	private boolean generateStorageFiles;
 
+	/** Indicates if the compilation is incremental. If it is, only the SARL files that have changed since
+	 * the last compilation, and the files that depend on them, are compiled. The build index is stored
+	 * in the temporary directory.
+	 */
+	@Parameter(defaultValue = "false", required = false)
+	private boolean incremental;
+
+	/** Indicates if the SARL files are validated and generated in parallel, on all the available processors.
+	 */
+	@Parameter(defaultValue = "false", required = false)
+	private boolean parallel;
+
+	/** Indicates if the compilation is delegated to the SARL compilation daemon. The daemon is launched
+	 * if it is not running, and it keeps the SARL compiler warm between the builds.
+	 */
+	@Parameter(defaultValue = "false", required = false)
+	private boolean daemon;
+
+	/** Folder in which the indexes of the types in the classpath JAR files are stored. The indexes are
+	 * used for resolving the types quickly. Since the indexes are named according to the hash of the JAR
+	 * files, the folder may be shared by all the modules of a build, e.g. {@code ${user.home}/.sarl/typeindex}.
+	 * If it is not set, the classpath is not indexed.
+	 */
+	@Parameter(required = false)
+	private File classpathIndexFolder;
+
+	/** Indicates if the stubs are generated and compiled in memory, instead of being written on the disk.
+	 */
+	@Parameter(defaultValue = "false", required = false)
+	private boolean inMemoryStubs;
+
+	/** File in which a profiling report of the compilation is written in JSON, e.g.
+	 * {@code ${project.build.directory}/sarl-profile.json}. The report contains the wall time, the CPU time and
+	 * the allocated bytes of each phase of the compiler and of each file, the slowest files and the slowest
+	 * validation checks. If it is not set, the compilation is not profiled.
+	 */
+	@Parameter(required = false)
+	private File profilingReport;
+
+	/** Indicates if the files are unloaded as soon as their Java files are generated, in order to reduce
+	 * the memory footprint of the compiler on large projects.
+	 */
+	@Parameter(defaultValue = "false", required = false)
+	private boolean lowMemory;
+
+	/** Indicates if the map operators {@code +} and {@code -} create persistent maps, in place of
+	 * views on their operands. The cost of the persistent maps does not depend on the number of
+	 * chained operations.
+	 */
+	@Parameter(defaultValue = "false", required = false)
+	private boolean persistentMaps;
+
 	/** Indicates if the classpath is provided by Tycho.
 	 */
 	@Parameter(defaultValue = "false", required = false)
@@ -152,6 +204,46 @@ public class CompileMojo extends AbstractSarlBatchCompilerMojo {
 		return this.generateStorageFiles;
 	}
 
+	@Override
+	protected boolean getIncrementalCompilation() {
+		return this.incremental;
+	}
+
+	@Override
+	protected boolean getParallelCompilation() {
+		return this.parallel;
+	}
+
+	@Override
+	protected boolean getDaemonCompilation() {
+		return this.daemon;
+	}
+
+	@Override
+	protected boolean getInMemoryStubCompilation() {
+		return this.inMemoryStubs;
+	}
+
+	@Override
+	protected File getClasspathIndexFolder() {
+		return this.classpathIndexFolder == null ? null : makeAbsolute(this.classpathIndexFolder);
+	}
+
+	@Override
+	protected File getProfilingReport() {
+		return this.profilingReport == null ? null : makeAbsolute(this.profilingReport);
+	}
+
+	@Override
+	protected boolean getLowMemoryCompilation() {
+		return this.lowMemory;
+	}
+
+	@Override
+	protected boolean getPersistentMapOperators() {
+		return this.persistentMaps;
+	}
+
 	@Override
 	protected void buildPropertyString(StringBuilder buffer) {
 		super.buildPropertyString(buffer);
@@ -162,6 +254,14 @@ public class CompileMojo extends AbstractSarlBatchCompilerMojo {
 		buffer.append("generateInlines = ").append(this.generateInlines).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
 		buffer.append("generateTraceFiles = ").append(this.generateTraceFiles).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
 		buffer.append("generateStorageFiles = ").append(this.generateStorageFiles).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("incremental = ").append(this.incremental).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("parallel = ").append(this.parallel).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("daemon = ").append(this.daemon).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("classpathIndexFolder = ").append(this.classpathIndexFolder).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("inMemoryStubs = ").append(this.inMemoryStubs).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("profilingReport = ").append(this.profilingReport).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("lowMemory = ").append(this.lowMemory).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
+		buffer.append("persistentMaps = ").append(this.persistentMaps).append("\n"); //$NON-NLS-1$//$NON-NLS-2$
 	}
 
 	@Override
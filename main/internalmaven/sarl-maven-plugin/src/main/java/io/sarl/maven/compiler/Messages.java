@@ -65,6 +65,8 @@ public class Messages extends NLS {
 	public static String AbstractSarlBatchCompilerMojo_8;
 	public static String AbstractSarlBatchCompilerMojo_9;
 	public static String AbstractSarlBatchCompilerMojo_10;
+	public static String AbstractSarlBatchCompilerMojo_11;
+	public static String AbstractSarlBatchCompilerMojo_12;
 	public static String AbstractSarlMojo_0;
 	public static String AbstractSarlMojo_1;
 	public static String AbstractSarlMojo_2;
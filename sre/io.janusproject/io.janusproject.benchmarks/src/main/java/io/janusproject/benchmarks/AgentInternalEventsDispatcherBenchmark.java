@@ -0,0 +1,145 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.janusproject.kernel.bic.internaleventdispatching.AgentInternalEventsDispatcher;
+import io.janusproject.services.executor.ExecutorService;
+
+import io.sarl.lang.annotation.PerceptGuardEvaluator;
+
+/**
+ * Benchmark of the dispatching of the events within an agent ({@code AgentInternalEventsDispatcher}),
+ * for different numbers of behaviors that are listening on the dispatched event.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgentInternalEventsDispatcherBenchmark {
+
+	/** Number of behaviors that are registered into the dispatcher.
+	 */
+	@Param({"1", "10", "100"})
+	public int behaviors;
+
+	private BenchmarkKernel kernel;
+
+	private AgentInternalEventsDispatcher dispatcher;
+
+	private final AtomicLong handledEvents = new AtomicLong();
+
+	/** Start the kernel and create the dispatcher with its behaviors.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.kernel = BenchmarkKernel.start();
+		this.dispatcher = new AgentInternalEventsDispatcher(this.kernel.getKernel().getService(ExecutorService.class));
+		for (int i = 0; i < this.behaviors; ++i) {
+			this.dispatcher.register(new BenchmarkBehavior(this.handledEvents), null, null);
+		}
+	}
+
+	/** Stop the kernel.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.dispatcher.unregisterAll(null);
+		this.kernel.stop();
+	}
+
+	/** Dispatch an event and wait for the termination of the event handlers.
+	 */
+	@Benchmark
+	public void immediateDispatch() {
+		this.dispatcher.immediateDispatch(new BenchmarkEvent(null, null));
+	}
+
+	/** Dispatch an event asynchronously and wait for the termination of the event handlers.
+	 */
+	@Benchmark
+	public void asyncDispatch() {
+		final long expected = this.handledEvents.get() + this.behaviors;
+		this.dispatcher.asyncDispatch(new BenchmarkEvent(null, null));
+		while (this.handledEvents.get() < expected) {
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Behavior-like object with the same structure as the code that is generated by the SARL compiler.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static class BenchmarkBehavior {
+
+		private final AtomicLong counter;
+
+		/** Constructor.
+		 *
+		 * @param counter the counter of the handled events.
+		 */
+		BenchmarkBehavior(AtomicLong counter) {
+			this.counter = counter;
+		}
+
+		private void $behaviorUnit$BenchmarkEvent$0(BenchmarkEvent occurrence) {
+			this.counter.incrementAndGet();
+		}
+
+		@PerceptGuardEvaluator
+		private void $guardEvaluator$BenchmarkEvent(BenchmarkEvent occurrence, Collection<Runnable> runnables) {
+			runnables.add(() -> $behaviorUnit$BenchmarkEvent$0(occurrence));
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compare the results of a run of the benchmarks with a baseline.
+ *
+ * <p>Both files are the JSON reports that are generated by JMH with the option {@code -rf json}.
+ * A benchmark is considered as regressing when its score is worse than the score of the baseline
+ * by more than the given threshold (in percent, 10 by default). For the throughput mode,
+ * the higher the score the better; for the other modes, the lower the score the better.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar io.janusproject.benchmarks.BaselineComparator
+ * baseline.json result.json [threshold]}
+ *
+ * <p>The process exits with the code {@code 1} if at least one benchmark is regressing.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class BaselineComparator {
+
+	/** Default threshold, in percent.
+	 */
+	public static final double DEFAULT_THRESHOLD = 10.;
+
+	private static final String THROUGHPUT_MODE = "thrpt"; //$NON-NLS-1$
+
+	private BaselineComparator() {
+		//
+	}
+
+	/** Main program.
+	 *
+	 * @param args the path to the baseline, the path to the results, and the optional threshold.
+	 * @throws IOException if a file cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [threshold]"); //$NON-NLS-1$
+			System.exit(2);
+			return;
+		}
+		final double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+		final Map<String, JsonObject> baseline = read(args[0]);
+		final Map<String, JsonObject> results = read(args[1]);
+		int regressions = 0;
+		for (final Entry<String, JsonObject> entry : results.entrySet()) {
+			final JsonObject reference = baseline.get(entry.getKey());
+			if (reference == null) {
+				System.out.println(String.format("NEW        %s", entry.getKey())); //$NON-NLS-1$
+				continue;
+			}
+			final double change = change(reference, entry.getValue());
+			final boolean regressing = change < -threshold;
+			if (regressing) {
+				++regressions;
+			}
+			System.out.println(String.format("%s %+8.2f%% %s", //$NON-NLS-1$
+					regressing ? "REGRESSION" : "OK        ", //$NON-NLS-1$ //$NON-NLS-2$
+					change, entry.getKey()));
+		}
+		if (regressions > 0) {
+			System.err.println(String.format("%d benchmark(s) regressing by more than %.2f%%", //$NON-NLS-1$
+					regressions, threshold));
+			System.exit(1);
+		}
+	}
+
+	/** Replies the relative change of the score, in percent. A positive value is an improvement.
+	 *
+	 * @param reference the baseline benchmark.
+	 * @param current the current benchmark.
+	 * @return the change in percent.
+	 */
+	static double change(JsonObject reference, JsonObject current) {
+		final double ref = score(reference);
+		final double cur = score(current);
+		if (ref == 0.) {
+			return 0.;
+		}
+		final double delta = (cur - ref) / ref * 100.;
+		if (THROUGHPUT_MODE.equals(current.get("mode").getAsString())) { //$NON-NLS-1$
+			return delta;
+		}
+		return -delta;
+	}
+
+	private static double score(JsonObject benchmark) {
+		return benchmark.getAsJsonObject("primaryMetric").get("score").getAsDouble(); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Read the JMH report and index the benchmarks by name, mode and parameters.
+	 *
+	 * @param filename the name of the JSON file.
+	 * @return the benchmarks.
+	 * @throws IOException if the file cannot be read.
+	 */
+	static Map<String, JsonObject> read(String filename) throws IOException {
+		final Map<String, JsonObject> benchmarks = new TreeMap<>();
+		try (Reader reader = Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8)) {
+			final JsonArray array = new JsonParser().parse(reader).getAsJsonArray();
+			for (final JsonElement element : array) {
+				final JsonObject benchmark = element.getAsJsonObject();
+				benchmarks.put(key(benchmark), benchmark);
+			}
+		}
+		return benchmarks;
+	}
+
+	private static String key(JsonObject benchmark) {
+		final StringBuilder key = new StringBuilder();
+		key.append(benchmark.get("benchmark").getAsString()); //$NON-NLS-1$
+		key.append(" [").append(benchmark.get("mode").getAsString()).append("]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		final JsonObject params = benchmark.getAsJsonObject("params"); //$NON-NLS-1$
+		if (params != null) {
+			final Map<String, String> sorted = new TreeMap<>();
+			for (final Entry<String, JsonElement> param : params.entrySet()) {
+				sorted.put(param.getKey(), param.getValue().getAsString());
+			}
+			key.append(" ").append(sorted); //$NON-NLS-1$
+		}
+		return key.toString();
+	}
+
+}
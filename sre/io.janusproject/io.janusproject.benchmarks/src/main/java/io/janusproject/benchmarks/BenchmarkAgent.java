@@ -0,0 +1,76 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.sarl.lang.SARLVersion;
+import io.sarl.lang.annotation.SarlSpecification;
+import io.sarl.lang.core.Agent;
+
+/**
+ * Agent without behavior that is spawned by the benchmarks.
+ *
+ * <p>The instances of this agent are stored in order to be retreived by the benchmarks that are
+ * invoking the built-in skills of the agents.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+public class BenchmarkAgent extends Agent {
+
+	private static final Map<UUID, BenchmarkAgent> INSTANCES = new ConcurrentHashMap<>();
+
+	/** Constructor.
+	 *
+	 * @param parentID the identifier of the parent.
+	 * @param agentID the identifier of the agent.
+	 */
+	public BenchmarkAgent(UUID parentID, UUID agentID) {
+		super(parentID, agentID);
+		INSTANCES.put(getID(), this);
+	}
+
+	/** Replies the agent with the given identifier.
+	 *
+	 * @param id the identifier of the agent.
+	 * @return the agent, or {@code null} if it was not created.
+	 */
+	public static BenchmarkAgent getInstance(UUID id) {
+		return INSTANCES.get(id);
+	}
+
+	/** Forget the agent with the given identifier.
+	 *
+	 * @param id the identifier of the agent.
+	 */
+	public static void removeInstance(UUID id) {
+		INSTANCES.remove(id);
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import io.sarl.lang.core.Address;
+import io.sarl.lang.core.Event;
+
+/**
+ * Event that is used by the benchmarks.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public class BenchmarkEvent extends Event {
+
+	private static final long serialVersionUID = -4279374512768358817L;
+
+	/** A payload that is serialized with the event.
+	 */
+	public final String payload;
+
+	/** Constructor.
+	 *
+	 * @param source the source of the event.
+	 * @param payload a payload that is serialized with the event.
+	 */
+	public BenchmarkEvent(Address source, String payload) {
+		super(source);
+		this.payload = payload;
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import io.janusproject.Boot;
+import io.janusproject.kernel.Kernel;
+import io.janusproject.modules.StandardJanusPlatformModule;
+import io.janusproject.services.spawn.SpawnService;
+
+/**
+ * Janus kernel that is launched offline for the benchmarks.
+ *
+ * <p>A resident agent is spawned in order to keep the kernel alive while the benchmarked agents are
+ * spawned and killed. The kernel is stopped when the resident agent is killed.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class BenchmarkKernel {
+
+	private final Kernel kernel;
+
+	private final UUID residentAgent;
+
+	private BenchmarkKernel(Kernel kernel, UUID residentAgent) {
+		this.kernel = kernel;
+		this.residentAgent = residentAgent;
+	}
+
+	/** Start an offline kernel with a resident agent.
+	 *
+	 * @return the kernel.
+	 */
+	public static BenchmarkKernel start() {
+		Boot.setOffline(true);
+		Boot.setVerboseLevel(0);
+		final Kernel kernel = Boot.startWithoutAgent(new StandardJanusPlatformModule());
+		final UUID resident = kernel.spawn(BenchmarkAgent.class);
+		return new BenchmarkKernel(kernel, resident);
+	}
+
+	/** Replies the Janus kernel.
+	 *
+	 * @return the kernel.
+	 */
+	public Kernel getKernel() {
+		return this.kernel;
+	}
+
+	/** Replies the resident agent.
+	 *
+	 * @return the agent.
+	 */
+	public BenchmarkAgent getResidentAgent() {
+		return BenchmarkAgent.getInstance(this.residentAgent);
+	}
+
+	/** Kill the given agents.
+	 *
+	 * @param agents the identifiers of the agents to kill.
+	 */
+	public void kill(Collection<UUID> agents) {
+		final SpawnService spawnService = this.kernel.getService(SpawnService.class);
+		for (final UUID agent : agents) {
+			spawnService.killAgent(agent);
+			BenchmarkAgent.removeInstance(agent);
+		}
+	}
+
+	/** Stop the kernel by killing the resident agent.
+	 */
+	public void stop() {
+		final SpawnService spawnService = this.kernel.getService(SpawnService.class);
+		if (spawnService != null) {
+			spawnService.killAgent(this.residentAgent);
+		}
+		BenchmarkAgent.removeInstance(this.residentAgent);
+	}
+
+}
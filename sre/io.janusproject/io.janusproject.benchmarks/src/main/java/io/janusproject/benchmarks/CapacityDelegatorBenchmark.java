@@ -0,0 +1,276 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sarl.lang.SARLVersion;
+import io.sarl.lang.annotation.SarlSpecification;
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.AgentTrait;
+import io.sarl.lang.core.Behavior;
+import io.sarl.lang.core.CallerAwareSkill;
+import io.sarl.lang.core.Capacities;
+import io.sarl.lang.core.Capacity;
+import io.sarl.lang.core.Skill;
+
+/**
+ * Benchmark of the invocation of a capacity function from an agent, which is directly calling the skill,
+ * and from a behavior, which is calling the skill through a delegator ({@code ContextAwareCapacityWrapper})
+ * that is created at each invocation.
+ *
+ * <p>The skill is either a standard skill, which retrieves the caller from a local-thread variable, or
+ * a {@link CallerAwareSkill}, which receives the caller as argument.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapacityDelegatorBenchmark {
+
+	/** Indicates if the skill receives the caller as argument.
+	 */
+	@Param({"false", "true"})
+	public boolean callerAware;
+
+	private CapacityAgent agent;
+
+	private CapacityBehavior behavior;
+
+	private int value;
+
+	/** Create the agent, its skill and its behavior.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.agent = new CapacityAgent(null, UUID.randomUUID(),
+				this.callerAware ? new CallerAwareBenchmarkSkill() : new BenchmarkSkill());
+		this.behavior = new CapacityBehavior(this.agent);
+	}
+
+	/** Invoke the capacity function from the agent.
+	 *
+	 * @return the result of the function.
+	 */
+	@Benchmark
+	public int callFromAgent() {
+		return this.agent.call(++this.value);
+	}
+
+	/** Invoke the capacity function from the behavior.
+	 *
+	 * @return the result of the function.
+	 */
+	@Benchmark
+	public int callFromBehavior() {
+		return this.behavior.call(++this.value);
+	}
+
+	/** Capacity with the same structure as the code that is generated by the SARL compiler.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public interface BenchmarkCapacity extends Capacity {
+
+		/** Capacity function.
+		 *
+		 * @param value the argument.
+		 * @return the result.
+		 */
+		int compute(int value);
+
+		/** Delegator with the same structure as the code that is generated by the SARL compiler.
+		 *
+		 * @param <C> the type of the wrapped capacity.
+		 * @author $Author: sgalland$
+		 * @version $FullVersion$
+		 * @mavengroupid $GroupId$
+		 * @mavenartifactid $ArtifactId$
+		 * @since 0.8
+		 */
+		class ContextAwareCapacityWrapper<C extends BenchmarkCapacity> extends Capacity.ContextAwareCapacityWrapper<C>
+				implements BenchmarkCapacity {
+
+			/** Constructor.
+			 *
+			 * @param capacity the wrapped capacity.
+			 * @param caller the caller of the capacity function.
+			 */
+			public ContextAwareCapacityWrapper(C capacity, AgentTrait caller) {
+				super(capacity, caller);
+			}
+
+			@Override
+			public int compute(int value) {
+				try {
+					ensureCallerInLocalThread();
+					return this.capacity.compute(value);
+				} finally {
+					resetCallerInLocalThread();
+				}
+			}
+
+		}
+
+	}
+
+	/** Skill that is implementing the benchmarked capacity.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static class BenchmarkSkill extends Skill implements BenchmarkCapacity {
+
+		@Override
+		public int compute(int value) {
+			return Capacities.getCaller() == null ? value : value + 1;
+		}
+
+	}
+
+	/** Skill that is implementing the benchmarked capacity with the caller given as argument.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static class CallerAwareBenchmarkSkill extends Skill implements BenchmarkCapacity, CallerAwareSkill {
+
+		@Override
+		public int compute(int value) {
+			return compute(null, value);
+		}
+
+		/** Caller-aware implementation of the capacity function.
+		 *
+		 * @param caller the caller of the function.
+		 * @param value the argument.
+		 * @return the result.
+		 */
+		int compute(AgentTrait caller, int value) {
+			return caller == null ? value : value + 1;
+		}
+
+		@Override
+		public <C extends Capacity> C bindCaller(Class<C> capacity, AgentTrait caller) {
+			if (capacity == BenchmarkCapacity.class) {
+				return capacity.cast((BenchmarkCapacity) value -> compute(caller, value));
+			}
+			return null;
+		}
+
+	}
+
+	/** Agent that owns the skill.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class CapacityAgent extends Agent {
+
+		/** Constructor.
+		 *
+		 * @param parentID the identifier of the parent.
+		 * @param agentID the identifier of the agent.
+		 * @param skill the skill to give to the agent.
+		 */
+		CapacityAgent(UUID parentID, UUID agentID, Skill skill) {
+			super(parentID, agentID);
+			setSkill(skill, BenchmarkCapacity.class);
+		}
+
+		/** Invoke the capacity function.
+		 *
+		 * @param value the argument.
+		 * @return the result.
+		 */
+		int call(int value) {
+			return getSkill(BenchmarkCapacity.class).compute(value);
+		}
+
+	}
+
+	/** Behavior that is invoking the capacity function.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static class CapacityBehavior extends Behavior {
+
+		/** Constructor.
+		 *
+		 * @param agent the owner of the behavior.
+		 */
+		CapacityBehavior(Agent agent) {
+			super(agent);
+		}
+
+		/** Invoke the capacity function.
+		 *
+		 * @param value the argument.
+		 * @return the result.
+		 */
+		int call(int value) {
+			return getSkill(BenchmarkCapacity.class).compute(value);
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.janusproject.kernel.services.gson.GsonEventSerializer;
+import io.janusproject.kernel.services.jdk.network.AESEventEncrypter;
+import io.janusproject.kernel.services.jdk.network.JavaBinaryEventSerializer;
+import io.janusproject.kernel.services.jdk.network.PlainTextEventEncrypter;
+import io.janusproject.services.network.EventDispatch;
+import io.janusproject.services.network.EventEncrypter;
+import io.janusproject.services.network.EventEnvelope;
+import io.janusproject.services.network.EventSerializer;
+
+import io.sarl.lang.core.Address;
+import io.sarl.lang.core.SpaceID;
+import io.sarl.util.OpenEventSpaceSpecification;
+import io.sarl.util.Scopes;
+
+/**
+ * Benchmark of the serialization and encryption round trip of the events that are sent over the network,
+ * for each {@code EventSerializer} and each {@code EventEncrypter}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializerBenchmark {
+
+	private static final String AES_KEY = "abcdefghijklmnop"; //$NON-NLS-1$
+
+	/** Type of serializer.
+	 */
+	@Param({"gson", "java"})
+	public String serializer;
+
+	/** Type of encrypter.
+	 */
+	@Param({"plain", "aes"})
+	public String encrypter;
+
+	private EventSerializer eventSerializer;
+
+	private EventDispatch dispatch;
+
+	/** Create the serializer and the event to serialize.
+	 *
+	 * @throws Exception if the encrypter cannot be created.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		final EventEncrypter eventEncrypter;
+		if ("aes".equals(this.encrypter)) { //$NON-NLS-1$
+			final AESEventEncrypter aes = new AESEventEncrypter();
+			aes.setKey(AES_KEY);
+			eventEncrypter = aes;
+		} else {
+			eventEncrypter = new PlainTextEventEncrypter();
+		}
+		if ("java".equals(this.serializer)) { //$NON-NLS-1$
+			this.eventSerializer = new JavaBinaryEventSerializer(eventEncrypter);
+		} else {
+			this.eventSerializer = new GsonEventSerializer(
+					new GsonBuilder().registerTypeAdapter(Class.class, new GsonEventSerializer.ClassTypeAdapter()).create(),
+					eventEncrypter);
+		}
+		final SpaceID spaceId = new SpaceID(UUID.randomUUID(), UUID.randomUUID(), OpenEventSpaceSpecification.class);
+		final BenchmarkEvent event = new BenchmarkEvent(new Address(spaceId, UUID.randomUUID()),
+				"The quick brown fox jumps over the lazy dog"); //$NON-NLS-1$
+		this.dispatch = new EventDispatch(spaceId, event, Scopes.allParticipants());
+	}
+
+	/** Serialize, encrypt, decrypt and deserialize the event.
+	 *
+	 * @return the deserialized event.
+	 * @throws Exception if the event cannot be serialized.
+	 */
+	@Benchmark
+	public EventDispatch roundTrip() throws Exception {
+		final EventEnvelope envelope = this.eventSerializer.serialize(this.dispatch);
+		return this.eventSerializer.deserialize(envelope);
+	}
+
+}
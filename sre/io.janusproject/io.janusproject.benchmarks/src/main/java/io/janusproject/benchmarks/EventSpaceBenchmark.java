@@ -0,0 +1,193 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.janusproject.JanusConfig;
+
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.EventListener;
+import io.sarl.util.OpenEventSpace;
+import io.sarl.util.OpenEventSpaceSpecification;
+
+/**
+ * Benchmark of the emission and the delivery of the events within an event space
+ * ({@code AbstractEventSpace}), for different numbers of participants, with and without the journal
+ * of the event deliveries.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSpaceBenchmark {
+
+	/** Number of participants in the space.
+	 */
+	@Param({"1", "10", "100", "1000"})
+	public int participants;
+
+	/** Indicates if the event deliveries are recorded into the journal.
+	 */
+	@Param({"false", "true"})
+	public boolean journal;
+
+	private Path journalFolder;
+
+	private BenchmarkKernel kernel;
+
+	private OpenEventSpace space;
+
+	private final List<EventListener> listeners = new ArrayList<>();
+
+	private final AtomicLong deliveredEvents = new AtomicLong();
+
+	private final UUID source = UUID.randomUUID();
+
+	/** Start the kernel and create the space with its participants.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		if (this.journal) {
+			this.journalFolder = Files.createTempDirectory("janus-journal"); //$NON-NLS-1$
+			System.setProperty(JanusConfig.JOURNAL_ENABLE_NAME, Boolean.TRUE.toString());
+			System.setProperty(JanusConfig.JOURNAL_FOLDER_NAME, this.journalFolder.toString());
+			// The emitters wait for the writer, so that the dropped deliveries do not hide its cost
+			System.setProperty(JanusConfig.JOURNAL_BLOCKING_NAME, Boolean.TRUE.toString());
+		}
+		try {
+			this.kernel = BenchmarkKernel.start();
+		} finally {
+			System.clearProperty(JanusConfig.JOURNAL_ENABLE_NAME);
+			System.clearProperty(JanusConfig.JOURNAL_FOLDER_NAME);
+			System.clearProperty(JanusConfig.JOURNAL_BLOCKING_NAME);
+		}
+		this.space = this.kernel.getKernel().getJanusContext().createSpace(
+				OpenEventSpaceSpecification.class, UUID.randomUUID());
+		for (int i = 0; i < this.participants; ++i) {
+			final EventListener listener = new CountingListener(this.deliveredEvents);
+			this.listeners.add(listener);
+			this.space.register(listener);
+		}
+	}
+
+	/** Stop the kernel.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (final EventListener listener : this.listeners) {
+			this.space.unregister(listener);
+		}
+		this.listeners.clear();
+		this.kernel.stop();
+		if (this.journalFolder != null) {
+			final File[] segments = this.journalFolder.toFile().listFiles();
+			if (segments != null) {
+				for (final File segment : segments) {
+					segment.delete();
+				}
+			}
+			this.journalFolder.toFile().delete();
+			this.journalFolder = null;
+		}
+	}
+
+	/** Emit an event in the space without waiting for its delivery.
+	 */
+	@Benchmark
+	public void emit() {
+		this.space.emit(this.source, new BenchmarkEvent(null, null));
+	}
+
+	/** Emit an event in the space and wait for its delivery to all the participants.
+	 */
+	@Benchmark
+	public void emitAndDeliver() {
+		final long expected = this.deliveredEvents.get() + this.participants;
+		this.space.emit(this.source, new BenchmarkEvent(null, null));
+		while (this.deliveredEvents.get() < expected) {
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Participant that is counting the received events.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class CountingListener implements EventListener {
+
+		private final UUID id = UUID.randomUUID();
+
+		private final AtomicLong counter;
+
+		CountingListener(AtomicLong counter) {
+			this.counter = counter;
+		}
+
+		@Override
+		public UUID getID() {
+			return this.id;
+		}
+
+		@Override
+		public void receiveEvent(Event event) {
+			this.counter.incrementAndGet();
+		}
+
+	}
+
+}
@@ -0,0 +1,213 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sarl.core.AgentTask;
+import io.sarl.core.Schedules;
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.AgentTrait;
+import io.sarl.lang.core.Behavior;
+import io.sarl.lang.core.Capacities;
+import io.sarl.lang.core.Capacity;
+import io.sarl.lang.core.SREutils;
+import io.sarl.lang.core.Skill;
+
+/**
+ * Benchmark of the scheduling of tasks with the {@code SchedulesSkill}: the {@code in}, {@code every}
+ * and {@code cancel} functions.
+ *
+ * <p>The tasks are scheduled far in the future and cancelled immediately, in order to measure the cost
+ * of the scheduling functions only.
+ *
+ * <p>The functions are also invoked from a behavior, either through a delegator that stores the caller
+ * in the local-thread variable, or through the implementation of the capacity that is bound to the caller
+ * by the {@code SchedulesSkill}, which is a {@link io.sarl.lang.core.CallerAwareSkill}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulesSkillBenchmark {
+
+	private static final long DELAY = TimeUnit.HOURS.toMillis(1);
+
+	private static final Procedure1<? super Agent> TASK = it -> {
+		//
+	};
+
+	private static final String TASK_NAME = "benchmark"; //$NON-NLS-1$
+
+	/** Indicates if the calls from the behavior are using the implementation of the capacity
+	 * that is bound to the caller, or the local-thread variable.
+	 */
+	@Param({"false", "true"})
+	public boolean callerAware;
+
+	private BenchmarkKernel kernel;
+
+	private Schedules schedules;
+
+	private Behavior behavior;
+
+	/** Start the kernel and retreive the skill of the resident agent.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.kernel = BenchmarkKernel.start();
+		this.schedules = SREutils.getInternalSkill(this.kernel.getResidentAgent(), Schedules.class);
+		this.behavior = new Behavior(this.kernel.getResidentAgent()) {
+			//
+		};
+	}
+
+	/** Replies the capacity that is bound to the behavior when the caller-aware calls are benchmarked.
+	 * A new instance is created at each invocation, as in {@code Behavior.$castSkill}.
+	 *
+	 * @return the capacity, or {@code null} if the local-thread variable is benchmarked.
+	 * @throws Exception if the capacity cannot be bound.
+	 */
+	private Schedules getSchedulesFromBehavior() throws Exception {
+		if (this.callerAware) {
+			return Capacities.createSkillDelegator((Skill) this.schedules, Schedules.class, this.behavior);
+		}
+		return null;
+	}
+
+	/** Stop the kernel.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.kernel.stop();
+	}
+
+	/** Schedule a task with {@code in} and cancel it.
+	 *
+	 * @return the cancellation status.
+	 */
+	@Benchmark
+	public boolean inAndCancel() {
+		final AgentTask task = this.schedules.in(DELAY, TASK);
+		return this.schedules.cancel(task);
+	}
+
+	/** Retreive a named task from a behavior.
+	 *
+	 * @return the task.
+	 * @throws Exception if the delegator cannot be created.
+	 */
+	@Benchmark
+	public AgentTask taskFromBehavior() throws Exception {
+		final Schedules capacity = getSchedulesFromBehavior();
+		if (capacity != null) {
+			return capacity.task(TASK_NAME);
+		}
+		return new LocalThreadDelegator(this.schedules, this.behavior).task(TASK_NAME);
+	}
+
+	/** Schedule a task with {@code in} from a behavior and cancel it.
+	 *
+	 * @return the cancellation status.
+	 * @throws Exception if the delegator cannot be created.
+	 */
+	@Benchmark
+	public boolean inAndCancelFromBehavior() throws Exception {
+		final Schedules capacity = getSchedulesFromBehavior();
+		final AgentTask task;
+		if (capacity != null) {
+			task = capacity.in(DELAY, TASK);
+		} else {
+			task = new LocalThreadDelegator(this.schedules, this.behavior).in(DELAY, TASK);
+		}
+		return this.schedules.cancel(task);
+	}
+
+	/** Schedule a periodic task with {@code every} and cancel it.
+	 *
+	 * @return the cancellation status.
+	 */
+	@Benchmark
+	public boolean everyAndCancel() {
+		final AgentTask task = this.schedules.every(DELAY, TASK);
+		return this.schedules.cancel(task);
+	}
+
+	/** Delegator that provides the caller to the skill with the local-thread variable,
+	 * with the same structure as the code that is generated by the SARL compiler.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class LocalThreadDelegator extends Capacity.ContextAwareCapacityWrapper<Schedules> {
+
+		LocalThreadDelegator(Schedules capacity, AgentTrait caller) {
+			super(capacity, caller);
+		}
+
+		AgentTask task(String name) {
+			try {
+				ensureCallerInLocalThread();
+				return this.capacity.task(name);
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+		AgentTask in(long delay, Procedure1<? super Agent> procedure) {
+			try {
+				ensureCallerInLocalThread();
+				return this.capacity.in(delay, procedure);
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the spawning of agents ({@code StandardSpawnService.spawn}), for different numbers of agents.
+ *
+ * <p>Each measurement is a single spawn call. The spawned agents are killed after each iteration.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SpawnServiceBenchmark {
+
+	/** Number of agents to spawn in a single call.
+	 */
+	@Param({"1", "1000", "100000"})
+	public int agents;
+
+	private BenchmarkKernel kernel;
+
+	private List<UUID> spawnedAgents = Collections.emptyList();
+
+	/** Start the kernel.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.kernel = BenchmarkKernel.start();
+	}
+
+	/** Stop the kernel.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.kernel.stop();
+	}
+
+	/** Kill the agents that were spawned during the last iteration.
+	 */
+	@TearDown(Level.Iteration)
+	public void killSpawnedAgents() {
+		this.kernel.kill(this.spawnedAgents);
+		this.spawnedAgents = Collections.emptyList();
+	}
+
+	/** Spawn the agents.
+	 *
+	 * @return the identifiers of the spawned agents.
+	 */
+	@Benchmark
+	public List<UUID> spawn() {
+		this.spawnedAgents = this.kernel.getKernel().spawn(this.agents, BenchmarkAgent.class);
+		return this.spawnedAgents;
+	}
+
+}
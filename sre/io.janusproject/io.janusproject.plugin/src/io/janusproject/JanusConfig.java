@@ -23,6 +23,8 @@ package io.janusproject;
 
 import java.util.Properties;
 
+import io.janusproject.services.InboxOverflowPolicy;
+import io.janusproject.services.profiler.ProfilerReportFormat;
 import io.janusproject.modules.StandardJanusPlatformModule;
 import io.janusproject.modules.hazelcast.HazelcastKernelLoggerFactory;
 
@@ -253,6 +255,256 @@ public final class JanusConfig {
      */
     public static final int KERNEL_THREAD_PURGE_DELAY_VALUE = 30;
 
+    /**
+     * Name of the property that indicates if the events of an agent are dispatched sequentially
+     * on a single worker thread at a time (agent-affine dispatching), or in parallel.
+     *
+     * @see #AGENT_AFFINE_DISPATCHING_VALUE
+     * @since 0.8
+     */
+    public static final String AGENT_AFFINE_DISPATCHING_NAME = "janus.dispatching.affinity"; //$NON-NLS-1$
+
+    /**
+     * Indicates if the events of an agent are dispatched sequentially on a single worker thread at a time.
+     *
+     * @see #AGENT_AFFINE_DISPATCHING_NAME
+     * @since 0.8
+     */
+    public static final Boolean AGENT_AFFINE_DISPATCHING_VALUE = Boolean.FALSE;
+
+    /**
+     * Name of the property that contains the maximal number of events that are treated in a row by
+     * the worker thread of an agent when agent-affine dispatching is enabled.
+     *
+     * @see #AGENT_AFFINE_DISPATCHING_BATCH_SIZE_VALUE
+     * @since 0.8
+     */
+    public static final String AGENT_AFFINE_DISPATCHING_BATCH_SIZE_NAME = "janus.dispatching.affinity.batch"; //$NON-NLS-1$
+
+    /**
+     * Indicates the maximal number of events that are treated in a row by the worker thread of an agent
+     * before the thread is given back to the pool.
+     *
+     * @see #AGENT_AFFINE_DISPATCHING_BATCH_SIZE_NAME
+     * @since 0.8
+     */
+    public static final int AGENT_AFFINE_DISPATCHING_BATCH_SIZE_VALUE = 32;
+
+    /**
+     * Name of the property that contains the maximal number of events that are waiting for being dispatched
+     * within an agent.
+     *
+     * @see #AGENT_INBOX_CAPACITY_VALUE
+     * @since 0.8
+     */
+    public static final String AGENT_INBOX_CAPACITY_NAME = "janus.agent.inbox.capacity"; //$NON-NLS-1$
+
+    /**
+     * Indicates the maximal number of events that are waiting for being dispatched within an agent.
+     * The zero value means that the inbox of the agents is unbounded.
+     *
+     * @see #AGENT_INBOX_CAPACITY_NAME
+     * @since 0.8
+     */
+    public static final int AGENT_INBOX_CAPACITY_VALUE = 0;
+
+    /**
+     * Name of the property that contains the policy to apply when an event is received by an agent with a full inbox.
+     *
+     * @see #AGENT_INBOX_OVERFLOW_POLICY_VALUE
+     * @since 0.8
+     */
+    public static final String AGENT_INBOX_OVERFLOW_POLICY_NAME = "janus.agent.inbox.overflow"; //$NON-NLS-1$
+
+    /**
+     * Indicates the policy to apply when an event is received by an agent with a full inbox.
+     *
+     * @see #AGENT_INBOX_OVERFLOW_POLICY_NAME
+     * @since 0.8
+     */
+    public static final InboxOverflowPolicy AGENT_INBOX_OVERFLOW_POLICY_VALUE = InboxOverflowPolicy.BLOCK;
+
+    /**
+     * Name of the property that indicates if the runtime metrics of the kernel are exported through JMX.
+     *
+     * @see #METRICS_JMX_ENABLE_VALUE
+     * @since 0.8
+     */
+    public static final String METRICS_JMX_ENABLE_NAME = "janus.metrics.jmx"; //$NON-NLS-1$
+
+    /**
+     * Indicates if the runtime metrics of the kernel are exported through JMX.
+     *
+     * @see #METRICS_JMX_ENABLE_NAME
+     * @since 0.8
+     */
+    public static final Boolean METRICS_JMX_ENABLE_VALUE = Boolean.FALSE;
+
+    /**
+     * Name of the property that indicates if the execution times of the event handlers of the agents are measured.
+     *
+     * @see #METRICS_HANDLERS_ENABLE_VALUE
+     * @since 0.8
+     */
+    public static final String METRICS_HANDLERS_ENABLE_NAME = "janus.metrics.handlers"; //$NON-NLS-1$
+
+    /**
+     * Indicates if the execution times of the event handlers of the agents are measured.
+     *
+     * @see #METRICS_HANDLERS_ENABLE_NAME
+     * @since 0.8
+     */
+    public static final Boolean METRICS_HANDLERS_ENABLE_VALUE = Boolean.FALSE;
+
+    /**
+     * Name of the property that indicates if the event handlers of the agents are profiled.
+     *
+     * @see #PROFILER_ENABLE_VALUE
+     * @since 0.8
+     */
+    public static final String PROFILER_ENABLE_NAME = "janus.profiler"; //$NON-NLS-1$
+
+    /**
+     * Indicates if the event handlers of the agents are profiled.
+     *
+     * @see #PROFILER_ENABLE_NAME
+     * @since 0.8
+     */
+    public static final Boolean PROFILER_ENABLE_VALUE = Boolean.FALSE;
+
+    /**
+     * Name of the property that contains the sampling rate of the profiler, i.e. one event over the given number
+     * of dispatched events is profiled.
+     *
+     * @see #PROFILER_SAMPLING_RATE_VALUE
+     * @since 0.8
+     */
+    public static final String PROFILER_SAMPLING_RATE_NAME = "janus.profiler.sampling"; //$NON-NLS-1$
+
+    /**
+     * Indicates the sampling rate of the profiler, i.e. one event over the given number of dispatched events is profiled.
+     *
+     * @see #PROFILER_SAMPLING_RATE_NAME
+     * @since 0.8
+     */
+    public static final int PROFILER_SAMPLING_RATE_VALUE = 1;
+
+    /**
+     * Name of the property that contains the path of the file in which the profiler report is written when the kernel
+     * is stopped. If empty, the report is written in the kernel log.
+     *
+     * @see #PROFILER_OUTPUT_VALUE
+     * @since 0.8
+     */
+    public static final String PROFILER_OUTPUT_NAME = "janus.profiler.output"; //$NON-NLS-1$
+
+    /**
+     * Indicates the path of the file in which the profiler report is written when the kernel is stopped.
+     *
+     * @see #PROFILER_OUTPUT_NAME
+     * @since 0.8
+     */
+    public static final String PROFILER_OUTPUT_VALUE = ""; //$NON-NLS-1$
+
+    /**
+     * Name of the property that contains the format of the profiler report.
+     *
+     * @see #PROFILER_FORMAT_VALUE
+     * @since 0.8
+     */
+    public static final String PROFILER_FORMAT_NAME = "janus.profiler.format"; //$NON-NLS-1$
+
+    /**
+     * Indicates the format of the profiler report.
+     *
+     * @see #PROFILER_FORMAT_NAME
+     * @since 0.8
+     */
+    public static final ProfilerReportFormat PROFILER_FORMAT_VALUE = ProfilerReportFormat.CSV;
+
+    /**
+     * Name of the property that indicates if the events that are delivered to the agents are recorded into the journal.
+     *
+     * @see #JOURNAL_ENABLE_VALUE
+     * @since 0.8
+     */
+    public static final String JOURNAL_ENABLE_NAME = "janus.journal"; //$NON-NLS-1$
+
+    /**
+     * Indicates if the events that are delivered to the agents are recorded into the journal.
+     *
+     * @see #JOURNAL_ENABLE_NAME
+     * @since 0.8
+     */
+    public static final Boolean JOURNAL_ENABLE_VALUE = Boolean.FALSE;
+
+    /**
+     * Name of the property that contains the path of the folder in which the segments of the journal are written.
+     *
+     * @see #JOURNAL_FOLDER_VALUE
+     * @since 0.8
+     */
+    public static final String JOURNAL_FOLDER_NAME = "janus.journal.folder"; //$NON-NLS-1$
+
+    /**
+     * Indicates the path of the folder in which the segments of the journal are written.
+     *
+     * @see #JOURNAL_FOLDER_NAME
+     * @since 0.8
+     */
+    public static final String JOURNAL_FOLDER_VALUE = "janus-journal"; //$NON-NLS-1$
+
+    /**
+     * Name of the property that contains the size in bytes of the segments of the journal.
+     *
+     * @see #JOURNAL_SEGMENT_SIZE_VALUE
+     * @since 0.8
+     */
+    public static final String JOURNAL_SEGMENT_SIZE_NAME = "janus.journal.segment"; //$NON-NLS-1$
+
+    /**
+     * Indicates the size in bytes of the segments of the journal.
+     *
+     * @see #JOURNAL_SEGMENT_SIZE_NAME
+     * @since 0.8
+     */
+    public static final int JOURNAL_SEGMENT_SIZE_VALUE = 64 * 1024 * 1024;
+
+    /**
+     * Name of the property that contains the maximum number of deliveries that are waiting for being written
+     * into the journal.
+     *
+     * @see #JOURNAL_CAPACITY_VALUE
+     * @since 0.8
+     */
+    public static final String JOURNAL_CAPACITY_NAME = "janus.journal.capacity"; //$NON-NLS-1$
+
+    /**
+     * Indicates the maximum number of deliveries that are waiting for being written into the journal.
+     *
+     * @see #JOURNAL_CAPACITY_NAME
+     * @since 0.8
+     */
+    public static final int JOURNAL_CAPACITY_VALUE = 64 * 1024;
+
+    /**
+     * Name of the property that indicates if the emitting threads are waiting when the queue of the journal is full.
+     * If they are not waiting, the deliveries are dropped.
+     *
+     * @see #JOURNAL_BLOCKING_VALUE
+     * @since 0.8
+     */
+    public static final String JOURNAL_BLOCKING_NAME = "janus.journal.blocking"; //$NON-NLS-1$
+
+    /**
+     * Indicates if the emitting threads are waiting when the queue of the journal is full.
+     * If they are not waiting, the deliveries are dropped, and the journal cannot be replayed faithfully.
+     *
+     * @see #JOURNAL_BLOCKING_NAME
+     * @since 0.8
+     */
+    public static final Boolean JOURNAL_BLOCKING_VALUE = Boolean.TRUE;
+
     /**
      * Name of the property that contains the name of the Janus main program from the external point of view.
      *
@@ -292,6 +544,21 @@ public final class JanusConfig {
         defaultValues.put(MAX_NUMBER_OF_THREADS_IN_EXECUTOR_NAME, Integer.toString(MAX_NUMBER_OF_THREADS_IN_EXECUTOR_VALUE));
         defaultValues.put(KERNEL_THREAD_TIMEOUT_NAME, Integer.toString(KERNEL_THREAD_TIMEOUT_VALUE));
         defaultValues.put(KERNEL_THREAD_PURGE_DELAY_NAME, Integer.toString(KERNEL_THREAD_PURGE_DELAY_VALUE));
+        defaultValues.put(AGENT_AFFINE_DISPATCHING_NAME, AGENT_AFFINE_DISPATCHING_VALUE.toString());
+        defaultValues.put(AGENT_AFFINE_DISPATCHING_BATCH_SIZE_NAME, Integer.toString(AGENT_AFFINE_DISPATCHING_BATCH_SIZE_VALUE));
+        defaultValues.put(AGENT_INBOX_CAPACITY_NAME, Integer.toString(AGENT_INBOX_CAPACITY_VALUE));
+        defaultValues.put(AGENT_INBOX_OVERFLOW_POLICY_NAME, AGENT_INBOX_OVERFLOW_POLICY_VALUE.name());
+        defaultValues.put(METRICS_JMX_ENABLE_NAME, METRICS_JMX_ENABLE_VALUE.toString());
+        defaultValues.put(METRICS_HANDLERS_ENABLE_NAME, METRICS_HANDLERS_ENABLE_VALUE.toString());
+        defaultValues.put(PROFILER_ENABLE_NAME, PROFILER_ENABLE_VALUE.toString());
+        defaultValues.put(PROFILER_SAMPLING_RATE_NAME, Integer.toString(PROFILER_SAMPLING_RATE_VALUE));
+        defaultValues.put(PROFILER_OUTPUT_NAME, PROFILER_OUTPUT_VALUE);
+        defaultValues.put(PROFILER_FORMAT_NAME, PROFILER_FORMAT_VALUE.name());
+        defaultValues.put(JOURNAL_ENABLE_NAME, JOURNAL_ENABLE_VALUE.toString());
+        defaultValues.put(JOURNAL_FOLDER_NAME, JOURNAL_FOLDER_VALUE);
+        defaultValues.put(JOURNAL_SEGMENT_SIZE_NAME, Integer.toString(JOURNAL_SEGMENT_SIZE_VALUE));
+        defaultValues.put(JOURNAL_CAPACITY_NAME, Integer.toString(JOURNAL_CAPACITY_VALUE));
+        defaultValues.put(JOURNAL_BLOCKING_NAME, JOURNAL_BLOCKING_VALUE.toString());
         defaultValues.put(INJECTION_MODULE_NAME, INJECTION_MODULE_NAME_VALUE);
         defaultValues.put(JANUS_LOGO_SHOW_NAME, JANUS_LOGO_SHOW.toString());
         defaultValues.put(JANUS_PROGRAM_NAME, JANUS_PROGRAM_NAME_VALUE);
@@ -33,6 +33,7 @@ import java.util.UUID;
 
 import org.arakhne.afc.util.ListUtil;
 import org.arakhne.afc.util.MultiCollection;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 
 import io.janusproject.services.spawn.SpawnService;
 import io.janusproject.services.spawn.SpawnServiceListener;
@@ -86,6 +87,18 @@ class AgentLifeCycleSupport implements SpawnServiceListener {
 		this.eventBusCapacity.selfEvent(init);
 	}
 
+	@Override
+	public void agentRestored(AgentContext parent, Agent restoredAgent, Procedure1<? super Agent> stateRestorer) {
+		this.eventBusCapacity.markAsRestoring();
+		// Install the skills
+		installSkills(restoredAgent);
+		// Restore the state of the agent instead of initializing it.
+		if (stateRestorer != null) {
+			stateRestorer.apply(restoredAgent);
+		}
+		this.eventBusCapacity.markAsRestored();
+	}
+
 	@Override
 	public void agentDestroy(Agent agent) {
 		final SpawnService service = this.spawnService.get();
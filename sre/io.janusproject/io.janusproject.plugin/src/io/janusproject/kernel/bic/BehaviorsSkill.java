@@ -126,7 +126,7 @@ public class BehaviorsSkill extends BuiltinSkill implements Behaviors {
 	}
 
 	@Override
-	public synchronized Behavior registerBehavior(Behavior attitude) {
+	public Behavior registerBehavior(Behavior attitude) {
 		return registerBehavior(attitude, null);
 	}
 
@@ -137,7 +137,7 @@ public class BehaviorsSkill extends BuiltinSkill implements Behaviors {
 	}
 
 	@Override
-	public synchronized Behavior unregisterBehavior(Behavior attitude) {
+	public Behavior unregisterBehavior(Behavior attitude) {
 		getSchedulesSkill().unregisterTasksForBehavior(attitude);
 		getInternalEventBusCapacitySkill().unregisterEventListener(attitude, true);
 		return attitude;
@@ -150,7 +150,7 @@ public class BehaviorsSkill extends BuiltinSkill implements Behaviors {
 	}
 
 	@Override
-	public synchronized void wake(Event evt, Scope<Address> scope) {
+	public void wake(Event evt, Scope<Address> scope) {
 		// Use the inner space so all behaviors (even agents inside the holon
 		// running in distant kernels) are notified. The event will return into
 		// the agent via the inner default space add call internalReceiveEvent
@@ -174,7 +174,13 @@ public class ExternalContextAccessSkill extends BuiltinSkill implements External
 
 		this.contexts.add(futureContext);
 
-		((OpenEventSpace) ac.getDefaultSpace()).register(getInternalEventBusCapacitySkill().asEventListener());
+		final InternalEventBusCapacity eventBus = getInternalEventBusCapacitySkill();
+		((OpenEventSpace) ac.getDefaultSpace()).register(eventBus.asEventListener());
+
+		if (eventBus.getOwnerState() == InternalEventBusCapacity.OwnerState.RESTORING) {
+			// The agent was already member of the context when the checkpoint was written.
+			return true;
+		}
 
 		fireContextJoined(futureContext, futureContextDefaultSpaceID);
 		fireMemberJoined(ac);
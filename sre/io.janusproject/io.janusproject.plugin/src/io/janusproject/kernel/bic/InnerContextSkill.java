@@ -21,14 +21,17 @@
 
 package io.janusproject.kernel.bic;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
 import java.util.UUID;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import org.eclipse.xtext.xbase.lib.Pure;
 import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
 
+import io.janusproject.kernel.space.AbstractEventSpace;
 import io.janusproject.services.contextspace.ContextSpaceService;
 
 import io.sarl.core.InnerContextAccess;
@@ -37,6 +40,7 @@ import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.AgentContext;
 import io.sarl.lang.core.Event;
 import io.sarl.lang.core.EventListener;
+import io.sarl.lang.core.EventSpace;
 import io.sarl.lang.core.Skill;
 import io.sarl.lang.core.Space;
 import io.sarl.lang.core.SpaceID;
@@ -66,8 +70,18 @@ public class InnerContextSkill extends BuiltinSkill implements InnerContextAcces
 
 	/**
 	 * Context inside the agent.
+	 *
+	 * <p>The context is created lazily by {@link #getInnerContext()}. Only its creation and its destruction
+	 * are synchronized. The other functions read the volatile reference without locking.
+	 */
+	private volatile AgentContext innerContext;
+
+	/**
+	 * Last immutable snapshot of the member agents.
+	 *
+	 * <p>It is replaced by a new snapshot when the participants of the inner default space have changed.
 	 */
-	private AgentContext innerContext;
+	private volatile MemberSnapshot members;
 
 	@Inject
 	private ContextSpaceService contextService;
@@ -105,7 +119,7 @@ public class InnerContextSkill extends BuiltinSkill implements InnerContextAcces
 	 *
 	 * @return <code>true</code> if an instance of inner context exists, otherwise <code>false</code>.
 	 */
-	public synchronized boolean hasInnerContext() {
+	public boolean hasInnerContext() {
 		return this.innerContext != null;
 	}
 
@@ -115,7 +129,7 @@ public class InnerContextSkill extends BuiltinSkill implements InnerContextAcces
 	 * <p>Do not call this function, exception if you are sure that the setting of the inner context to <code>null</code> only does
 	 * not introduce problems.
 	 */
-	synchronized void resetInnerContext() {
+	void resetInnerContext() {
 		this.innerContext = null;
 	}
 
@@ -129,8 +143,12 @@ public class InnerContextSkill extends BuiltinSkill implements InnerContextAcces
 	@Override
 	protected void uninstall(UninstallationStage stage) {
 		if (stage == UninstallationStage.POST_DESTROY_EVENT) {
-			final AgentContext context = this.innerContext;
-			this.innerContext = null;
+			final AgentContext context;
+			synchronized (this) {
+				context = this.innerContext;
+				this.innerContext = null;
+				this.members = null;
+			}
 			if (context != null) {
 				// Unregister the agent from the default space
 				final EventListener listener = getInternalEventBusCapacitySkill().asEventListener();
@@ -142,59 +160,92 @@ public class InnerContextSkill extends BuiltinSkill implements InnerContextAcces
 	}
 
 	@Override
-	public synchronized AgentContext getInnerContext() {
-		if (this.innerContext == null) {
-			// Create the inner context.
-			this.innerContext = this.contextService.createContext(
-					this.agentAddressInInnerDefaultSpace.getSpaceID().getContextID(),
-					this.agentAddressInInnerDefaultSpace.getSpaceID().getID());
-			// Register the agent in the default space
-			final EventListener listener = getInternalEventBusCapacitySkill().asEventListener();
-			final OpenEventSpace defSpace = (OpenEventSpace) this.innerContext.getDefaultSpace();
-			defSpace.register(listener);
+	public AgentContext getInnerContext() {
+		AgentContext context = this.innerContext;
+		if (context == null) {
+			synchronized (this) {
+				context = this.innerContext;
+				if (context == null) {
+					// Create the inner context.
+					context = this.contextService.createContext(
+							this.agentAddressInInnerDefaultSpace.getSpaceID().getContextID(),
+							this.agentAddressInInnerDefaultSpace.getSpaceID().getID());
+					// Register the agent in the default space before the context is published,
+					// so that the other threads never see a context without the agent inside.
+					final EventListener listener = getInternalEventBusCapacitySkill().asEventListener();
+					final OpenEventSpace defSpace = (OpenEventSpace) context.getDefaultSpace();
+					defSpace.register(listener);
+					this.innerContext = context;
+				}
+			}
 		}
-		return this.innerContext;
+		return context;
 	}
 
-	@Override
-	public synchronized boolean hasMemberAgent() {
-		if (this.innerContext != null) {
-			final Set<UUID> participants = this.innerContext.getDefaultSpace().getParticipants();
-			assert participants != null;
-			return (participants.size() > 1) || ((participants.size() == 1) && (!participants.contains(getOwner().getID())));
+	/** Replies an immutable snapshot of the identifiers of the participants to the given space.
+	 *
+	 * @param space the space.
+	 * @return the identifiers of the participants.
+	 */
+	private static Set<UUID> getParticipantSnapshot(EventSpace space) {
+		if (space instanceof AbstractEventSpace) {
+			return ((AbstractEventSpace) space).getParticipantSnapshot();
+		}
+		final SynchronizedSet<UUID> participants = space.getParticipants();
+		assert participants != null;
+		synchronized (participants.mutex()) {
+			return ImmutableSet.copyOf(participants);
 		}
-		return false;
 	}
 
-	@Override
-	public synchronized int getMemberAgentCount() {
-		if (this.innerContext != null) {
-			final SynchronizedSet<UUID> participants = this.innerContext.getDefaultSpace().getParticipants();
-			assert participants != null;
-			int count = participants.size();
-			if (participants.contains(getOwner().getID())) {
-				--count;
+	/** Replies the immutable snapshot of the member agents.
+	 *
+	 * <p>The snapshot is computed again only if the participants of the inner default space have changed
+	 * since the last call.
+	 *
+	 * @return the identifiers of the member agents.
+	 */
+	private Set<UUID> getMemberSnapshot() {
+		final AgentContext context = this.innerContext;
+		if (context == null) {
+			return Collections.emptySet();
+		}
+		final Set<UUID> participants = getParticipantSnapshot(context.getDefaultSpace());
+		MemberSnapshot snapshot = this.members;
+		if (snapshot == null || snapshot.participants != participants) {
+			final UUID myId = getOwner().getID();
+			final Set<UUID> memberIds;
+			if (participants.contains(myId)) {
+				memberIds = ImmutableSet.copyOf(Iterables.filter(participants, it -> !myId.equals(it)));
+			} else {
+				memberIds = participants;
 			}
-			return count;
+			snapshot = new MemberSnapshot(participants, memberIds);
+			this.members = snapshot;
 		}
-		return 0;
+		return snapshot.members;
 	}
 
 	@Override
-	public synchronized SynchronizedIterable<UUID> getMemberAgents() {
-		if (this.innerContext != null) {
-			final SynchronizedSet<UUID> participants = this.innerContext.getDefaultSpace().getParticipants();
-			assert participants != null;
-			final Set<UUID> members = new HashSet<>();
-			final UUID myId = getOwner().getID();
-			for (final UUID id : participants) {
-				if (!id.equals(myId)) {
-					members.add(id);
-				}
-			}
-			return Collections3.synchronizedSet(members, members);
-		}
-		return Collections3.emptySynchronizedSet();
+	public boolean hasMemberAgent() {
+		return !getMemberSnapshot().isEmpty();
+	}
+
+	@Override
+	public int getMemberAgentCount() {
+		return getMemberSnapshot().size();
+	}
+
+	/** {@inheritDoc}
+	 *
+	 * <p>The replied iterable is an immutable snapshot of the participants of the inner default space, without
+	 * the owner of this skill. It is not changed when agents are joining or leaving the inner context. It may be
+	 * iterated without synchronization.
+	 */
+	@Override
+	public SynchronizedIterable<UUID> getMemberAgents() {
+		final Set<UUID> memberIds = getMemberSnapshot();
+		return Collections3.unmodifiableSynchronizedSet(memberIds, memberIds);
 	}
 
 	@Override
@@ -225,4 +276,26 @@ public class InnerContextSkill extends BuiltinSkill implements InnerContextAcces
 		return false;
 	}
 
+	/**
+	 * Immutable snapshot of the member agents, and the participants from which it was computed.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class MemberSnapshot {
+
+		final Set<UUID> participants;
+
+		final Set<UUID> members;
+
+		MemberSnapshot(Set<UUID> participants, Set<UUID> members) {
+			this.participants = participants;
+			this.members = members;
+		}
+
+	}
+
 }
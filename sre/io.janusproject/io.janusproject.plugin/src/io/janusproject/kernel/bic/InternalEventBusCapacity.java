@@ -22,6 +22,7 @@
 package io.janusproject.kernel.bic;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 
@@ -111,6 +112,67 @@ public interface InternalEventBusCapacity extends Capacity {
 	 */
 	<T> int getRegisteredEventListeners(Class<T> type, Collection<? super T> collection);
 
+	/**
+	 * Replies the number of events that are received by the owner and not yet dispatched to its behaviors,
+	 * including the events that are buffered during the owner initialization.
+	 *
+	 * @return the depth of the owner's inbox.
+	 * @since 0.8
+	 */
+	int getInboxSize();
+
+	/**
+	 * Suspend the dispatching of the events to the owner and its behaviors. The received events are kept
+	 * in the inbox until the dispatching is resumed. The event handlers that are running are not interrupted.
+	 *
+	 * @since 0.8
+	 * @see #resumeEventDispatching()
+	 * @see #isEventDispatchingIdle()
+	 */
+	void pauseEventDispatching();
+
+	/**
+	 * Resume the dispatching of the events that was suspended by {@link #pauseEventDispatching()}.
+	 * The events that were received during the pause are dispatched.
+	 *
+	 * @since 0.8
+	 */
+	void resumeEventDispatching();
+
+	/**
+	 * Replies if the dispatching of the events is paused, and no event handler is running.
+	 *
+	 * @return {@code true} if the dispatching is paused and idle.
+	 * @since 0.8
+	 */
+	boolean isEventDispatchingIdle();
+
+	/**
+	 * Replies the events that are received by the owner and not yet dispatched. The replied list is
+	 * consistent only when the dispatching is paused and idle.
+	 *
+	 * @return the pending events, in the order of their reception.
+	 * @since 0.8
+	 */
+	List<Event> getPendingEvents();
+
+	/**
+	 * Mark the owner as under restoration from a checkpoint. The skills are installed without notifying the
+	 * other agents, and the received events are kept until {@link #markAsRestored()} is invoked.
+	 *
+	 * @since 0.8
+	 */
+	void markAsRestoring();
+
+	/**
+	 * Mark the owner as alive without firing the {@link Initialize} event, because its state was restored from a
+	 * checkpoint. The events that were received before are dispatched.
+	 *
+	 * @since 0.8
+	 * @see #markAsRestoring()
+	 */
+	void markAsRestored();
+
 	/**
 	 * Sends an event to itself using its defaultInnerAddress as source. Used for platform level event dispatching (i.e.
 	 * {@link Initialize} and {@link Destroy})
@@ -162,6 +224,18 @@ public interface InternalEventBusCapacity extends Capacity {
 			}
 		},
 
+		/**
+		 * The owner of the event bus is restored from a checkpoint.
+		 *
+		 * @since 0.8
+		 */
+		RESTORING {
+			@Override
+			public boolean isEventHandling() {
+				return true;
+			}
+		},
+
 		/**
 		 * The owner of the event bus is running.
 		 */
@@ -302,6 +376,76 @@ public interface InternalEventBusCapacity extends Capacity {
 			}
 		}
 
+		@Override
+		public int getInboxSize() {
+			try {
+				ensureCallerInLocalThread();
+				return this.capacity.getInboxSize();
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+		@Override
+		public void pauseEventDispatching() {
+			try {
+				ensureCallerInLocalThread();
+				this.capacity.pauseEventDispatching();
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+		@Override
+		public void resumeEventDispatching() {
+			try {
+				ensureCallerInLocalThread();
+				this.capacity.resumeEventDispatching();
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+		@Override
+		public boolean isEventDispatchingIdle() {
+			try {
+				ensureCallerInLocalThread();
+				return this.capacity.isEventDispatchingIdle();
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+		@Override
+		public List<Event> getPendingEvents() {
+			try {
+				ensureCallerInLocalThread();
+				return this.capacity.getPendingEvents();
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+		@Override
+		public void markAsRestoring() {
+			try {
+				ensureCallerInLocalThread();
+				this.capacity.markAsRestoring();
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
+		@Override
+		public void markAsRestored() {
+			try {
+				ensureCallerInLocalThread();
+				this.capacity.markAsRestored();
+			} finally {
+				resetCallerInLocalThread();
+			}
+		}
+
 		@Override
 		public void selfEvent(Event event) {
 			try {
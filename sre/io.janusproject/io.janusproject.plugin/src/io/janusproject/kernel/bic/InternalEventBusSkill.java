@@ -22,10 +22,13 @@
 package io.janusproject.kernel.bic;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -37,8 +40,13 @@ import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.Pure;
 import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
 
+import io.janusproject.JanusConfig;
 import io.janusproject.kernel.bic.internaleventdispatching.AgentInternalEventsDispatcher;
+import io.janusproject.services.InboxOverflowPolicy;
+import io.janusproject.services.journal.JournalService;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.MetricsService;
+import io.janusproject.services.profiler.ProfilerService;
 import io.janusproject.services.spawn.SpawnService;
 
 import io.sarl.core.AgentSpawned;
@@ -90,6 +98,15 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 	@Inject
 	private SpawnService spawnService;
 
+	@Inject(optional = true)
+	private MetricsService metrics;
+
+	@Inject(optional = true)
+	private ProfilerService profiler;
+
+	@Inject(optional = true)
+	private JournalService journal;
+
 	/**
 	 * Address of the agent in the inner space.
 	 */
@@ -97,6 +114,16 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 
 	private ClearableReference<Skill> skillBufferLogging;
 
+	/**
+	 * Capacity of the agent's inbox, or zero if unbounded.
+	 */
+	private int inboxCapacity;
+
+	/**
+	 * Policy to apply when the agent's inbox is full.
+	 */
+	private InboxOverflowPolicy inboxOverflowPolicy = InboxOverflowPolicy.BLOCK;
+
 	/** Constructor.
 	 * @param agent reference to the owner of this skill.
 	 * @param addressInInnerDefaultSpace address of the owner of this skill in its inner default space.
@@ -156,6 +183,19 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 
 	@Override
 	protected void install() {
+		this.inboxCapacity = this.eventDispatcher.getInboxCapacity();
+		final InboxOverflowPolicy policy = this.eventDispatcher.getInboxOverflowPolicy();
+		if (policy != null) {
+			this.inboxOverflowPolicy = policy;
+		}
+		if (this.metrics != null && JanusConfig.getSystemPropertyAsBoolean(JanusConfig.METRICS_HANDLERS_ENABLE_NAME,
+				JanusConfig.METRICS_HANDLERS_ENABLE_VALUE.booleanValue())) {
+			this.eventDispatcher.setHandlerExecutionTimeHistogram(
+					this.metrics.getHistogram(MetricsService.handlerExecutionTime(getOwner().getClass())));
+		}
+		if (this.profiler != null && this.profiler.isProfiling()) {
+			this.eventDispatcher.setProfiler(this.profiler, getOwner().getClass());
+		}
 		this.eventDispatcher.register(getOwner(), null, null);
 	}
 
@@ -294,6 +334,44 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 		return this.eventDispatcher.getRegisteredEventListeners(type, collection);
 	}
 
+	@Override
+	public int getInboxSize() {
+		return this.eventDispatcher.getInboxSize() + this.agentAsEventListener.getBufferSize();
+	}
+
+	@Override
+	public void pauseEventDispatching() {
+		this.eventDispatcher.pause();
+	}
+
+	@Override
+	public void resumeEventDispatching() {
+		this.eventDispatcher.resume();
+	}
+
+	@Override
+	public boolean isEventDispatchingIdle() {
+		return this.eventDispatcher.isIdle();
+	}
+
+	@Override
+	public List<Event> getPendingEvents() {
+		final List<Event> events = new ArrayList<>(this.eventDispatcher.getPendingEvents());
+		this.agentAsEventListener.getBufferedEvents(events);
+		return events;
+	}
+
+	@Override
+	public void markAsRestoring() {
+		setOwnerState(OwnerState.RESTORING);
+	}
+
+	@Override
+	public void markAsRestored() {
+		setOwnerState(OwnerState.ALIVE);
+		this.agentAsEventListener.fireEnqueuedEvents(this);
+	}
+
 	@Override
 	public void selfEvent(Event event) {
 		// If the event must be fired only by the
@@ -304,10 +382,12 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 		if (Initialize.class.equals(eventType)) {
 			// Ensure that the event source is the agent itself!
 			event.setSource(getInnerDefaultSpaceAddress());
+			recordSelfEvent(event);
 			runInitializationStage(event);
 		} else if (Destroy.class.equals(eventType)) {
 			// Ensure that the event source is the agent itself!
 			event.setSource(getInnerDefaultSpaceAddress());
+			recordSelfEvent(event);
 			runDestructionStage(event);
 		} else if (AsynchronousAgentKillingEvent.class.equals(eventType)) {
 			// Asynchronous kill of the event.
@@ -315,12 +395,26 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 		} else if (getOwnerState().isEventHandling()) {
 			// Ensure that the event source is the agent itself!
 			event.setSource(getInnerDefaultSpaceAddress());
+			recordSelfEvent(event);
 			// Asynchronous parallel dispatching of this event
 			this.agentAsEventListener.receiveEvent(event);
 		}
 		//this.logger.debug(Messages.InternalEventBusSkill_0, event);
 	}
 
+	/** Record into the journal the given event that is fired by the agent to itself.
+	 *
+	 * <p>The events that are received from the spaces are recorded by the spaces.
+	 *
+	 * @param event the event.
+	 */
+	private void recordSelfEvent(Event event) {
+		final JournalService journalService = this.journal;
+		if (journalService != null && journalService.isRecording()) {
+			journalService.record(getInnerDefaultSpaceAddress().getSpaceID(), getOwner().getID(), event);
+		}
+	}
+
 	@Override
 	public final EventListener asEventListener() {
 		return this.agentAsEventListener;
@@ -339,6 +433,8 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 
 		private Queue<Event> buffer = Queues.newConcurrentLinkedQueue();
 
+		private final AtomicInteger bufferSize = new AtomicInteger();
+
 		private final UUID aid;
 
 		private final AtomicBoolean isKilled = new AtomicBoolean(false);
@@ -353,6 +449,25 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 			return this.aid;
 		}
 
+		/** Replies the number of events that are buffered during the owner initialization.
+		 *
+		 * @return the number of buffered events.
+		 */
+		int getBufferSize() {
+			return this.buffer == null ? 0 : this.bufferSize.get();
+		}
+
+		/** Add the events that are buffered during the owner initialization into the given collection.
+		 *
+		 * @param events the collection to fill.
+		 */
+		void getBufferedEvents(Collection<? super Event> events) {
+			final Queue<Event> queue = this.buffer;
+			if (queue != null) {
+				events.addAll(queue);
+			}
+		}
+
 		@SuppressWarnings("synthetic-access")
 		@Override
 		public void receiveEvent(Event event) {
@@ -373,13 +488,16 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 			switch (getOwnerState()) {
 			case UNSTARTED:
 			case INITIALIZING:
+			case RESTORING:
 				assert getOwnerState().isEventHandling();
-				this.buffer.add(event);
+				bufferEvent(event);
 				break;
 			case ALIVE:
 				assert getOwnerState().isEventHandling();
 				fireEnqueuedEvents(InternalEventBusSkill.this);
-				InternalEventBusSkill.this.eventDispatcher.asyncDispatch(event);
+				if (!InternalEventBusSkill.this.eventDispatcher.asyncDispatch(event)) {
+					logDroppedEvent(event);
+				}
 				break;
 			case DYING:
 			case DEAD:
@@ -393,13 +511,55 @@ public class InternalEventBusSkill extends BuiltinSkill implements InternalEvent
 
 		}
 
+		/** Put the given event in the buffer of the events that are received during the agent initialization.
+		 *
+		 * <p>The buffer has the same capacity as the inbox of the agent. Because the emitters cannot be
+		 * blocked while the initialization handlers are running, the {@link InboxOverflowPolicy#BLOCK} policy
+		 * does not bound the buffer; {@link InboxOverflowPolicy#DROP_OLDEST} drops the oldest buffered event;
+		 * and the other policies drop the received event.
+		 *
+		 * @param event the received event.
+		 */
+		@SuppressWarnings("synthetic-access")
+		private void bufferEvent(Event event) {
+			final int capacity = InternalEventBusSkill.this.inboxCapacity;
+			final InboxOverflowPolicy policy = InternalEventBusSkill.this.inboxOverflowPolicy;
+			if (capacity > 0 && policy != InboxOverflowPolicy.BLOCK && this.bufferSize.get() >= capacity) {
+				final Event dropped;
+				if (policy == InboxOverflowPolicy.DROP_OLDEST) {
+					dropped = this.buffer.poll();
+					if (dropped != null) {
+						this.bufferSize.decrementAndGet();
+					}
+				} else {
+					dropped = event;
+				}
+				if (dropped != null) {
+					logDroppedEvent(dropped);
+					if (dropped == event) {
+						return;
+					}
+				}
+			}
+			this.buffer.add(event);
+			this.bufferSize.incrementAndGet();
+		}
+
+		@SuppressWarnings("synthetic-access")
+		private void logDroppedEvent(Event event) {
+			InternalEventBusSkill.this.logger.getKernelLogger().fine(MessageFormat.format(Messages.InternalEventBusSkill_5, event));
+		}
+
 		@SuppressWarnings("synthetic-access")
-		private void fireEnqueuedEvents(InternalEventBusSkill skill) {
+		void fireEnqueuedEvents(InternalEventBusSkill skill) {
 			final Queue<Event> queue = this.buffer;
 			if (queue != null && !queue.isEmpty()) {
 				this.buffer = null;
+				this.bufferSize.set(0);
 				for (final Event evt : queue) {
-					skill.eventDispatcher.asyncDispatch(evt);
+					if (!skill.eventDispatcher.asyncDispatch(evt)) {
+						logDroppedEvent(evt);
+					}
 				}
 			}
 		}
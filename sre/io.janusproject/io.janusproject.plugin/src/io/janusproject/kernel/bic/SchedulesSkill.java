@@ -22,7 +22,9 @@
 package io.janusproject.kernel.bic;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -31,6 +33,7 @@ import java.util.UUID;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
@@ -52,7 +55,9 @@ import io.sarl.core.Schedules;
 import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.AgentTrait;
 import io.sarl.lang.core.Behavior;
+import io.sarl.lang.core.CallerAwareSkill;
 import io.sarl.lang.core.Capacities;
+import io.sarl.lang.core.Capacity;
 import io.sarl.lang.core.SREutils;
 import io.sarl.lang.core.Skill;
 import io.sarl.lang.util.ClearableReference;
@@ -62,23 +67,71 @@ import io.sarl.util.Collections3;
 /**
  * Skill that permits to execute tasks with an executor service.
  *
+ * <p>This skill is {@link CallerAwareSkill caller-aware}: when it is used by a behavior, the behavior
+ * is given explicitly to the functions that are creating the tasks, without the local-thread variable
+ * that is provided by {@link Capacities#getCaller()}.
+ *
+ * <p>The tasks could be paused, e.g. for writing a checkpoint of the agent. The schedules of the tasks are
+ * described by {@link TaskSchedule}, from which the tasks could be restored.
+ *
  * @author $Author: srodriguez$
  * @author $Author: sgalland$
  * @version $FullVersion$
  * @mavengroupid $GroupId$
  * @mavenartifactid $ArtifactId$
  */
-public class SchedulesSkill extends BuiltinSkill implements Schedules {
+public class SchedulesSkill extends BuiltinSkill implements Schedules, CallerAwareSkill {
 
 	private static int installationOrder = -1;
 
+	/** Prefixes of the types that are ignored when searching for the creation site of a closure: the scheduling
+	 * types, the capacity delegators, the reflection and the proxies.
+	 */
+	private static final String[] IGNORED_SITE_PREFIXES = {
+		SchedulesSkill.class.getName(), Schedules.class.getName(), AgentTask.class.getName(),
+		"io.sarl.lang.core.", //$NON-NLS-1$
+		"java.", "javax.", "jdk.", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		"sun.", "com.sun.", //$NON-NLS-1$ //$NON-NLS-2$
+	};
+
+	/** The creation sites of the closures. The stack is walked once per type of closure.
+	 */
+	private static final ClassValue<StackTraceElement> CREATION_SITES = new ClassValue<StackTraceElement>() {
+		@Override
+		protected StackTraceElement computeValue(Class<?> type) {
+			for (final StackTraceElement element : new Throwable().getStackTrace()) {
+				if (!isIgnoredSite(element.getClassName())) {
+					return element;
+				}
+			}
+			return null;
+		}
+	};
+
 	@Inject
 	private ExecutorService executorService;
 
 	private final Map<String, TaskDescription> tasks = new TreeMap<>();
 
+	/** Indicates if the tasks are paused.
+	 */
+	private volatile boolean paused;
+
+	/** Number of tasks that are running.
+	 */
+	private final AtomicInteger runningTasks = new AtomicInteger();
+
 	private ClearableReference<Skill> skillBufferLogging;
 
+	private static boolean isIgnoredSite(String typeName) {
+		for (final String prefix : IGNORED_SITE_PREFIXES) {
+			if (typeName.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/** Constructor.
 	 * @param agent the owner of this skill.
 	 */
@@ -113,6 +166,14 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 		return installationOrder;
 	}
 
+	@Override
+	public <C extends Capacity> C bindCaller(Class<C> capacity, AgentTrait caller) {
+		if (capacity == Schedules.class) {
+			return capacity.cast(new CallerBoundSchedules(caller));
+		}
+		return null;
+	}
+
 	@Override
 	@Pure
 	public void toString(ToStringBuilder builder) {
@@ -218,25 +279,189 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 
 	@Override
 	public AgentTask in(AgentTask task, long delay, Procedure1<? super Agent> procedure) {
-		TaskDescription pair;
+		return in(Capacities.getCaller(), task, delay, procedure);
+	}
+
+	/** Schedule a given task to be executed after the specified delay, on behalf of the given caller.
+	 *
+	 * @param caller the caller of the capacity function, or {@code null} if it is the agent itself.
+	 * @param task the task to schedule, or {@code null} for creating a new task.
+	 * @param delay the time in milliseconds from now to delay execution.
+	 * @param procedure the closure to execute.
+	 * @return the task.
+	 * @since 0.8
+	 * @see #in(AgentTask, long, Procedure1)
+	 */
+	protected AgentTask in(AgentTrait caller, AgentTask task, long delay, Procedure1<? super Agent> procedure) {
+		return schedule(caller, task, TaskSchedule.Kind.IN, delay, 0, procedure);
+	}
+
+	/** Schedule the given task, on behalf of the given caller. The task is not run until the tasks are resumed
+	 * if they are paused.
+	 *
+	 * @param caller the caller of the capacity function, or {@code null} if it is the agent itself.
+	 * @param task the task to schedule, or {@code null} for creating a new task.
+	 * @param kind the kind of scheduling.
+	 * @param delay the delay before the first run, in milliseconds.
+	 * @param period the period or the fixed delay between two runs, in milliseconds.
+	 * @param procedure the procedure to launch.
+	 * @return the task.
+	 */
+	private AgentTask schedule(AgentTrait caller, AgentTask task, TaskSchedule.Kind kind, long delay, long period,
+			Procedure1<? super Agent> procedure) {
+		if (procedure != null) {
+			// Record the creation site of the closure while the stack contains the caller.
+			CREATION_SITES.get(procedure.getClass());
+		}
+		synchronized (getTaskListMutex()) {
+			TaskDescription description = preRunTask(task, procedure, caller);
+			description = postRunTask(description, task, null);
+			final Function1<? super Agent, ? extends Boolean> guard = description.getTask().getGuard();
+			if (guard != null && guard != AgentTask.TRUE_GUARD) {
+				CREATION_SITES.get(guard.getClass());
+			}
+			description.setSchedule(kind, delay, period);
+			if (!this.paused) {
+				arm(description);
+			}
+			return description.getTask();
+		}
+	}
+
+	/** Submit the task of the given description to the executor service, according to its schedule.
+	 *
+	 * <p>This function is not thread-safe.
+	 *
+	 * @param description the description of the task.
+	 */
+	private void arm(TaskDescription description) {
+		final AgentTask task = description.getTask();
+		final long delay = description.getDelay();
+		final long period = description.getPeriod();
+		final AgentTaskRunner runner;
+		final Future<?> future;
+		switch (description.getKind()) {
+		case IN:
+			runner = new AgentTaskRunner(task, false);
+			future = this.executorService.schedule(runner, delay, TimeUnit.MILLISECONDS);
+			break;
+		case EVERY:
+			runner = new AgentTaskRunner(task, true);
+			future = this.executorService.scheduleAtFixedRate(runner, delay, period, TimeUnit.MILLISECONDS);
+			break;
+		case AT_FIXED_DELAY:
+			if (period <= 0) {
+				runner = null;
+				future = this.executorService.submit(new AgentInfiniteLoopTask(task));
+			} else {
+				runner = new AgentTaskRunner(task, true);
+				future = this.executorService.scheduleWithFixedDelay(runner, delay, period, TimeUnit.MILLISECONDS);
+			}
+			break;
+		case EXECUTE:
+		default:
+			runner = new AgentTaskRunner(task, false);
+			future = this.executorService.submit(runner);
+			break;
+		}
+		if (runner != null) {
+			// A run that starts after the cancellation of the future is ignored
+			runner.setFuture(future);
+		}
+		description.setFuture(future);
+	}
+
+	/** Pause the tasks. The tasks that are running are not interrupted; the other tasks are not run until
+	 * {@link #resume()} is invoked. The delay before the next run of each task is kept.
+	 *
+	 * @since 0.8
+	 * @see #isIdle()
+	 */
+	public void pause() {
+		synchronized (getTaskListMutex()) {
+			this.paused = true;
+			for (final TaskDescription description : this.tasks.values()) {
+				description.suspend();
+			}
+		}
+	}
+
+	/** Resume the tasks that were paused by {@link #pause()}.
+	 *
+	 * @since 0.8
+	 */
+	public void resume() {
+		synchronized (getTaskListMutex()) {
+			this.paused = false;
+			for (final TaskDescription description : this.tasks.values()) {
+				if (description.isSuspended()) {
+					arm(description);
+				}
+			}
+		}
+	}
+
+	/** Replies if the tasks are paused, and none of them is running.
+	 *
+	 * @return {@code true} if the tasks are paused and idle.
+	 * @since 0.8
+	 */
+	public boolean isIdle() {
+		return this.paused && this.runningTasks.get() == 0;
+	}
+
+	/** Replies the schedules of the tasks. The delays are exact when the tasks are paused.
+	 *
+	 * <p>The named tasks that were never scheduled are ignored.
+	 *
+	 * @return the schedules.
+	 * @since 0.8
+	 */
+	public List<TaskSchedule> getTaskSchedules() {
 		synchronized (getTaskListMutex()) {
-			pair = preRunTask(task, procedure);
+			final List<TaskSchedule> schedules = new ArrayList<>(this.tasks.size());
+			for (final TaskDescription description : this.tasks.values()) {
+				if (description.getKind() != null) {
+					final AgentTask task = description.getTask();
+					final Function1<? super Agent, ? extends Boolean> guard = task.getGuard();
+					final Procedure1<? super Agent> procedure = task.getProcedure();
+					schedules.add(new TaskSchedule(task.getName(), description.getKind(), description.getRemainingDelay(),
+							description.getPeriod(), task.getInitiator(), guard, procedure,
+							guard == null ? null : CREATION_SITES.get(guard.getClass()),
+							procedure == null ? null : CREATION_SITES.get(procedure.getClass())));
+				}
+			}
+			return schedules;
 		}
-		final AgentTask runnableTask = pair != null ? pair.getTask() : task;
-		final ScheduledFuture<?> sf = this.executorService.schedule(
-				new AgentTaskRunner(runnableTask, false),
-				delay, TimeUnit.MILLISECONDS);
+	}
+
+	/** Restore a task from its schedule. The task is not run until the tasks are resumed if they are paused.
+	 *
+	 * @param schedule the schedule of the task.
+	 * @return the task.
+	 * @since 0.8
+	 */
+	public AgentTask restoreTask(TaskSchedule schedule) {
+		final Object initiator = schedule.getInitiator();
 		synchronized (getTaskListMutex()) {
-			pair = postRunTask(pair, task, sf);
+			final TaskDescription description = createTaskIfNecessary(schedule.getName(),
+					initiator instanceof AgentTrait ? (AgentTrait) initiator : null);
+			final AgentTask task = description.getTask();
+			task.setGuard(schedule.getGuard());
+			task.setProcedure(schedule.getProcedure());
+			description.setSchedule(schedule.getKind(), schedule.getDelay(), schedule.getPeriod());
+			if (!this.paused) {
+				arm(description);
+			}
+			return task;
 		}
-		return pair.getTask();
 	}
 
-	private TaskDescription preRunTask(AgentTask task, Procedure1<? super Agent> procedure) {
+	private TaskDescription preRunTask(AgentTask task, Procedure1<? super Agent> procedure, AgentTrait caller) {
 		final TaskDescription pair;
 		final AgentTask rtask;
 		if (task == null) {
-			pair = createTaskIfNecessary(null);
+			pair = createTaskIfNecessary(null, caller);
 			rtask = pair.getTask();
 		} else {
 			rtask = task;
@@ -261,7 +486,7 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 		return pair;
 	}
 
-	private TaskDescription createTaskIfNecessary(String name) {
+	private TaskDescription createTaskIfNecessary(String name, AgentTrait caller) {
 		TaskDescription pair = null;
 		final String realName;
 		if (Strings.isNullOrEmpty(name)) {
@@ -273,7 +498,6 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 			}
 		}
 		if (pair == null) {
-			final AgentTrait caller = Capacities.getCaller();
 			final AgentTask task = new AgentTask(caller);
 			task.setTaskName(realName);
 			task.setGuard(AgentTask.TRUE_GUARD);
@@ -295,7 +519,19 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 
 	@Override
 	public AgentTask task(String name) {
-		return createTaskIfNecessary(name).getTask();
+		return task(Capacities.getCaller(), name);
+	}
+
+	/** Create a named task that can be used for scheduling future tasks, on behalf of the given caller.
+	 *
+	 * @param caller the caller of the capacity function, or {@code null} if it is the agent itself.
+	 * @param name the name of the task.
+	 * @return the task.
+	 * @since 0.8
+	 * @see #task(String)
+	 */
+	protected AgentTask task(AgentTrait caller, String name) {
+		return createTaskIfNecessary(name, caller).getTask();
 	}
 
 	@Override
@@ -341,7 +577,8 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 				final TaskDescription pair = this.tasks.get(name);
 				if (pair != null) {
 					final Future<?> future = pair.getFuture();
-					if (future != null && !future.isDone() && !future.isCancelled() && future.cancel(mayInterruptIfRunning)) {
+					if (pair.isSuspended() || (future != null && !future.isDone() && !future.isCancelled()
+							&& future.cancel(mayInterruptIfRunning))) {
 						finishTask(task, true, updateAgentTraitReferences);
 						return true;
 					}
@@ -386,18 +623,21 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 
 	@Override
 	public AgentTask every(AgentTask task, long period, Procedure1<? super Agent> procedure) {
-		TaskDescription description;
-		synchronized (getTaskListMutex()) {
-			description = preRunTask(task, procedure);
-		}
-		final AgentTask runnableTask = description != null ? description.getTask() : task;
-		final ScheduledFuture<?> sf = this.executorService.scheduleAtFixedRate(
-				new AgentTaskRunner(runnableTask, true),
-				0, period, TimeUnit.MILLISECONDS);
-		synchronized (getTaskListMutex()) {
-			description = postRunTask(description, task, sf);
-		}
-		return description.getTask();
+		return every(Capacities.getCaller(), task, period, procedure);
+	}
+
+	/** Schedule a periodic execution of the given task, on behalf of the given caller.
+	 *
+	 * @param caller the caller of the capacity function, or {@code null} if it is the agent itself.
+	 * @param task the task to schedule, or {@code null} for creating a new task.
+	 * @param period the number of milliseconds between two launches of the given procedure.
+	 * @param procedure the procedure to launch.
+	 * @return the task.
+	 * @since 0.8
+	 * @see #every(AgentTask, long, Procedure1)
+	 */
+	protected AgentTask every(AgentTrait caller, AgentTask task, long period, Procedure1<? super Agent> procedure) {
+		return schedule(caller, task, TaskSchedule.Kind.EVERY, 0, period, procedure);
 	}
 
 	@Override
@@ -407,23 +647,22 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 
 	@Override
 	public AgentTask atFixedDelay(AgentTask task, long delay, Procedure1<? super Agent> procedure) {
-		TaskDescription description;
-		synchronized (getTaskListMutex()) {
-			description = preRunTask(task, procedure);
-		}
-		final AgentTask runnableTask = description != null ? description.getTask() : task;
-		final Future<?> future;
-		if (delay <= 0) {
-			future = this.executorService.submit(new AgentInfiniteLoopTask(runnableTask));
-		} else {
-			future = this.executorService.scheduleWithFixedDelay(
-					new AgentTaskRunner(runnableTask, true),
-					0, delay, TimeUnit.MILLISECONDS);
-		}
-		synchronized (getTaskListMutex()) {
-			description = postRunTask(description, task, future);
-		}
-		return description.getTask();
+		return atFixedDelay(Capacities.getCaller(), task, delay, procedure);
+	}
+
+	/** Schedule a single-execution task with a fixed delay between the end of the previous execution
+	 * and the start of the next one, on behalf of the given caller.
+	 *
+	 * @param caller the caller of the capacity function, or {@code null} if it is the agent itself.
+	 * @param task the task to schedule, or {@code null} for creating a new task.
+	 * @param delay the delay between the end of an execution and the start of the next one, in milliseconds.
+	 * @param procedure the procedure to launch.
+	 * @return the task.
+	 * @since 0.8
+	 * @see #atFixedDelay(AgentTask, long, Procedure1)
+	 */
+	protected AgentTask atFixedDelay(AgentTrait caller, AgentTask task, long delay, Procedure1<? super Agent> procedure) {
+		return schedule(caller, task, TaskSchedule.Kind.AT_FIXED_DELAY, 0, delay, procedure);
 	}
 
 	@Override
@@ -432,17 +671,111 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 	}
 
 	@Override
-	public synchronized AgentTask execute(AgentTask task, Procedure1<? super Agent> procedure) {
-		TaskDescription description;
-		synchronized (getTaskListMutex()) {
-			description = preRunTask(task, procedure);
+	public AgentTask execute(AgentTask task, Procedure1<? super Agent> procedure) {
+		return execute(Capacities.getCaller(), task, procedure);
+	}
+
+	/** Submit the given task for an immediate execution, on behalf of the given caller.
+	 *
+	 * @param caller the caller of the capacity function, or {@code null} if it is the agent itself.
+	 * @param task the task to submit, or {@code null} for creating a new task.
+	 * @param procedure the procedure to launch.
+	 * @return the task.
+	 * @since 0.8
+	 * @see #execute(AgentTask, Procedure1)
+	 */
+	protected synchronized AgentTask execute(AgentTrait caller, AgentTask task, Procedure1<? super Agent> procedure) {
+		return schedule(caller, task, TaskSchedule.Kind.EXECUTE, 0, 0, procedure);
+	}
+
+	/**
+	 * Implementation of the {@link Schedules} capacity that is bound to a caller.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	@SuppressWarnings("synthetic-access")
+	private class CallerBoundSchedules implements Schedules {
+
+		private final AgentTrait caller;
+
+		CallerBoundSchedules(AgentTrait caller) {
+			this.caller = caller;
 		}
-		final AgentTask runnableTask = description != null ? description.getTask() : task;
-		final Future<?> future = this.executorService.submit(new AgentTaskRunner(runnableTask, false));
-		synchronized (getTaskListMutex()) {
-			description = postRunTask(description, task, future);
+
+		@Override
+		public SynchronizedSet<String> getActiveTasks() {
+			return SchedulesSkill.this.getActiveTasks();
+		}
+
+		@Override
+		public AgentTask in(long delay, Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.in(this.caller, Schedules.$DEFAULT_VALUE$IN_0, delay, procedure);
+		}
+
+		@Override
+		public AgentTask in(AgentTask task, long delay, Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.in(this.caller, task, delay, procedure);
+		}
+
+		@Override
+		public AgentTask task(String name) {
+			return SchedulesSkill.this.task(this.caller, name);
 		}
-		return description.getTask();
+
+		@Override
+		public void setName(AgentTask task, String name) {
+			SchedulesSkill.this.setName(task, name);
+		}
+
+		@Override
+		public boolean cancel(AgentTask task) {
+			return SchedulesSkill.this.cancel(task);
+		}
+
+		@Override
+		public boolean cancel(AgentTask task, boolean mayInterruptIfRunning) {
+			return SchedulesSkill.this.cancel(task, mayInterruptIfRunning);
+		}
+
+		@Override
+		public boolean isCanceled(AgentTask task) {
+			return SchedulesSkill.this.isCanceled(task);
+		}
+
+		@Override
+		public AgentTask every(long period, Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.every(this.caller, Schedules.$DEFAULT_VALUE$EVERY_0, period, procedure);
+		}
+
+		@Override
+		public AgentTask every(AgentTask task, long period, Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.every(this.caller, task, period, procedure);
+		}
+
+		@Override
+		public AgentTask atFixedDelay(long delay, Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.atFixedDelay(this.caller, Schedules.$DEFAULT_VALUE$ATFIXEDDELAY_0, delay, procedure);
+		}
+
+		@Override
+		public AgentTask atFixedDelay(AgentTask task, long delay, Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.atFixedDelay(this.caller, task, delay, procedure);
+		}
+
+		@Override
+		public AgentTask execute(Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.execute(this.caller, Schedules.$DEFAULT_VALUE$EXECUTE_0, procedure);
+		}
+
+		@Override
+		public AgentTask execute(AgentTask task, Procedure1<? super Agent> procedure) {
+			return SchedulesSkill.this.execute(this.caller, task, procedure);
+		}
+
 	}
 
 	/**
@@ -490,6 +823,18 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 
 		@Override
 		public void run() {
+			SchedulesSkill.this.runningTasks.incrementAndGet();
+			try {
+				// A paused task is not finished; it is run again when the tasks are resumed.
+				if (!SchedulesSkill.this.paused) {
+					runTask();
+				}
+			} finally {
+				SchedulesSkill.this.runningTasks.decrementAndGet();
+			}
+		}
+
+		private void runTask() {
 			final AgentTask task = this.agentTaskRef.get();
 			if (task == null) {
 				throw new RuntimeException(Messages.SchedulesSkill_0);
@@ -545,15 +890,22 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 	private class AgentInfiniteLoopTask extends JanusRunnable {
 		private WeakReference<AgentTask> agentTaskRef;
 
+		/** The future of this loop. A loop that is replaced by a new one when the tasks are resumed must stop.
+		 */
+		private Future<?> loopFuture;
+
 		AgentInfiniteLoopTask(AgentTask task) {
 			this.agentTaskRef = new WeakReference<>(task);
 		}
 
 		private boolean canRun() {
 			final AgentTask task = this.agentTaskRef.get();
-			if (task != null) {
+			if (task != null && !SchedulesSkill.this.paused) {
 				final Future<?> future = getActiveFuture(task.getName());
-				return future != null && !future.isDone() && !future.isCancelled();
+				if (this.loopFuture == null) {
+					this.loopFuture = future;
+				}
+				return future != null && future == this.loopFuture && !future.isDone() && !future.isCancelled();
 			}
 			return false;
 		}
@@ -576,6 +928,7 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 
 		@Override
 		public void run() {
+			SchedulesSkill.this.runningTasks.incrementAndGet();
 			try {
 				final Agent owner = getOwner();
 				while (canRun()) {
@@ -597,11 +950,15 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 				getLoggingSkill().error(Messages.SchedulesSkill_1, ex, toString(), ex.getLocalizedMessage());
 			} finally {
 				final AgentTask task = this.agentTaskRef.get();
-				if (task != null) {
+				// A paused loop is not finished; it is run again when the tasks are resumed.
+				if (task != null && !SchedulesSkill.this.paused) {
 					synchronized (getTaskListMutex()) {
-						finishTask(task, true, true);
+						if (getActiveFuture(task.getName()) == this.loopFuture) {
+							finishTask(task, true, true);
+						}
 					}
 				}
+				SchedulesSkill.this.runningTasks.decrementAndGet();
 			}
 		}
 
@@ -632,6 +989,22 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 		 */
 		private Future<?> future;
 
+		/** The kind of scheduling, or {@code null} if the task was never scheduled.
+		 */
+		private TaskSchedule.Kind kind;
+
+		/** The delay before the next run when the task is armed.
+		 */
+		private long delay;
+
+		/** The period or the fixed delay between two runs.
+		 */
+		private long period;
+
+		/** Indicates if the task is suspended by a pause.
+		 */
+		private boolean suspended;
+
 		TaskDescription(AgentTask task) {
 			this.task = task;
 		}
@@ -660,6 +1033,68 @@ public class SchedulesSkill extends BuiltinSkill implements Schedules {
 
 		public void setFuture(Future<?> future) {
 			this.future = future;
+			this.suspended = false;
+		}
+
+		public TaskSchedule.Kind getKind() {
+			return this.kind;
+		}
+
+		public long getDelay() {
+			return this.delay;
+		}
+
+		public long getPeriod() {
+			return this.period;
+		}
+
+		/** Change the schedule of the task. The task is suspended until it is armed.
+		 *
+		 * @param kind the kind of scheduling.
+		 * @param delay the delay before the first run.
+		 * @param period the period or the fixed delay between two runs.
+		 */
+		public void setSchedule(TaskSchedule.Kind kind, long delay, long period) {
+			this.kind = kind;
+			this.delay = Math.max(0, delay);
+			this.period = period;
+			this.suspended = true;
+		}
+
+		public boolean isSuspended() {
+			return this.suspended;
+		}
+
+		/** Replies the delay before the next run of the task.
+		 *
+		 * @return the delay in milliseconds.
+		 */
+		public long getRemainingDelay() {
+			if (this.suspended) {
+				return this.delay;
+			}
+			return remainingDelay(this.future);
+		}
+
+		/** Cancel the future of the task, and keep the delay before its next run.
+		 */
+		public void suspend() {
+			if (this.kind != null && !this.suspended) {
+				final Future<?> current = this.future;
+				this.delay = remainingDelay(current);
+				if (current != null) {
+					current.cancel(false);
+				}
+				this.future = null;
+				this.suspended = true;
+			}
+		}
+
+		private static long remainingDelay(Future<?> future) {
+			if (future instanceof ScheduledFuture<?> && !future.isDone()) {
+				return Math.max(0, ((ScheduledFuture<?>) future).getDelay(TimeUnit.MILLISECONDS));
+			}
+			return 0;
 		}
 
 	}
@@ -0,0 +1,206 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.bic;
+
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Pure;
+
+import io.sarl.lang.core.Agent;
+
+/**
+ * Declarative description of a task that is scheduled by {@link SchedulesSkill}.
+ *
+ * <p>A schedule is described by the kind of scheduling function that was invoked, with its delay and period,
+ * and by the closures of the task. The creation site of each closure is the stack frame of the function that
+ * has scheduled the task, i.e. the function in which the closure is usually created. It permits to locate the
+ * code of the closure when several closures of the same type are created in the same type.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class TaskSchedule {
+
+	private final String name;
+
+	private final Kind kind;
+
+	private final long delay;
+
+	private final long period;
+
+	private final Object initiator;
+
+	private final Function1<? super Agent, ? extends Boolean> guard;
+
+	private final Procedure1<? super Agent> procedure;
+
+	private final StackTraceElement guardSite;
+
+	private final StackTraceElement procedureSite;
+
+	/** Constructor.
+	 *
+	 * @param name the name of the task.
+	 * @param kind the kind of scheduling.
+	 * @param delay the delay before the next run of the task, in milliseconds.
+	 * @param period the period or the fixed delay between two runs of the task, in milliseconds.
+	 * @param initiator the initiator of the task, or {@code null} if it is the agent.
+	 * @param guard the guard of the task, or {@code null}.
+	 * @param procedure the procedure of the task.
+	 * @param guardSite the creation site of the guard, or {@code null} if unknown.
+	 * @param procedureSite the creation site of the procedure, or {@code null} if unknown.
+	 */
+	public TaskSchedule(String name, Kind kind, long delay, long period, Object initiator,
+			Function1<? super Agent, ? extends Boolean> guard, Procedure1<? super Agent> procedure,
+			StackTraceElement guardSite, StackTraceElement procedureSite) {
+		assert name != null && kind != null;
+		this.name = name;
+		this.kind = kind;
+		this.delay = Math.max(0, delay);
+		this.period = period;
+		this.initiator = initiator;
+		this.guard = guard;
+		this.procedure = procedure;
+		this.guardSite = guardSite;
+		this.procedureSite = procedureSite;
+	}
+
+	@Override
+	@Pure
+	public String toString() {
+		return this.name + ':' + this.kind + '(' + this.delay + ',' + this.period + ')';
+	}
+
+	/** Replies the name of the task.
+	 *
+	 * @return the name.
+	 */
+	@Pure
+	public String getName() {
+		return this.name;
+	}
+
+	/** Replies the kind of scheduling.
+	 *
+	 * @return the kind.
+	 */
+	@Pure
+	public Kind getKind() {
+		return this.kind;
+	}
+
+	/** Replies the delay before the next run of the task.
+	 *
+	 * @return the delay in milliseconds.
+	 */
+	@Pure
+	public long getDelay() {
+		return this.delay;
+	}
+
+	/** Replies the period of the task for {@link Kind#EVERY}, or the fixed delay between two runs for
+	 * {@link Kind#AT_FIXED_DELAY}.
+	 *
+	 * @return the period in milliseconds.
+	 */
+	@Pure
+	public long getPeriod() {
+		return this.period;
+	}
+
+	/** Replies the initiator of the task.
+	 *
+	 * @return the initiator, or {@code null} if it is the agent.
+	 */
+	@Pure
+	public Object getInitiator() {
+		return this.initiator;
+	}
+
+	/** Replies the guard of the task.
+	 *
+	 * @return the guard, or {@code null}.
+	 */
+	@Pure
+	public Function1<? super Agent, ? extends Boolean> getGuard() {
+		return this.guard;
+	}
+
+	/** Replies the procedure of the task.
+	 *
+	 * @return the procedure.
+	 */
+	@Pure
+	public Procedure1<? super Agent> getProcedure() {
+		return this.procedure;
+	}
+
+	/** Replies the creation site of the guard.
+	 *
+	 * @return the site, or {@code null} if unknown.
+	 */
+	@Pure
+	public StackTraceElement getGuardSite() {
+		return this.guardSite;
+	}
+
+	/** Replies the creation site of the procedure.
+	 *
+	 * @return the site, or {@code null} if unknown.
+	 */
+	@Pure
+	public StackTraceElement getProcedureSite() {
+		return this.procedureSite;
+	}
+
+	/**
+	 * Kind of scheduling, i.e. the scheduling function of {@link io.sarl.core.Schedules} that was invoked.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public enum Kind {
+		/** Single run after a delay.
+		 */
+		IN,
+
+		/** Periodic runs at a fixed rate.
+		 */
+		EVERY,
+
+		/** Periodic runs with a fixed delay between the end of a run and the start of the next one.
+		 */
+		AT_FIXED_DELAY,
+
+		/** Single immediate run.
+		 */
+		EXECUTE;
+	}
+
+}
@@ -22,9 +22,18 @@
 package io.janusproject.kernel.bic.internaleventdispatching;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.StreamSupport;
 
 import com.google.common.collect.Lists;
@@ -34,12 +43,16 @@ import org.arakhne.afc.util.OutputParameter;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 
+import io.janusproject.services.InboxOverflowPolicy;
 import io.janusproject.services.executor.EarlyExitException;
 import io.janusproject.services.executor.ExecutorService;
 import io.janusproject.services.executor.JanusRunnable;
+import io.janusproject.services.metrics.LatencyHistogram;
+import io.janusproject.services.profiler.ProfilerService;
 
 import io.sarl.eventdispatching.BehaviorGuardEvaluator;
 import io.sarl.eventdispatching.BehaviorGuardEvaluatorRegistry;
+import io.sarl.lang.core.DeadEvent;
 import io.sarl.lang.core.Event;
 
 /**
@@ -55,6 +68,12 @@ import io.sarl.lang.core.Event;
  */
 public class AgentInternalEventsDispatcher {
 
+	/**
+	 * Marks the threads that are running the event handlers of the agents.
+	 * These threads are never blocked by a full inbox.
+	 */
+	private static final ThreadLocal<Boolean> DISPATCHING_THREAD = new ThreadLocal<>();
+
 	/**
 	 * The registry of all {@code BehaviorGuardEvaluator} classes containing a method to evaluate the guard of a given behavior
 	 * (on clause in SARL behavior). This class has been inspired by the com.google.common.eventbus.SuscriberRegistry class of
@@ -67,6 +86,102 @@ public class AgentInternalEventsDispatcher {
 	 */
 	private final ExecutorService executor;
 
+	/**
+	 * The events that are waiting for being dispatched. It is {@code null} when the events are
+	 * dispatched in parallel without limit on the number of pending events.
+	 */
+	private final Queue<Event> inbox;
+
+	/**
+	 * Number of pending events, i.e. the events that are received but not yet dispatched.
+	 */
+	private final AtomicInteger pendingEvents = new AtomicInteger();
+
+	/**
+	 * Number of events that were dropped because the inbox was full.
+	 */
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	/**
+	 * The places that are available in the inbox. It is {@code null} if the inbox is unbounded.
+	 */
+	private final Semaphore inboxPermits;
+
+	/**
+	 * Number of events that were put in the full inbox without reserving a place, i.e. the events
+	 * emitted from the threads that are running the event handlers, and the dead events.
+	 */
+	private final AtomicInteger inboxOverdraft = new AtomicInteger();
+
+	/**
+	 * Maximal number of pending events, or zero if unbounded.
+	 */
+	private final int inboxCapacity;
+
+	/**
+	 * The policy to apply when the inbox is full.
+	 */
+	private final InboxOverflowPolicy overflowPolicy;
+
+	/**
+	 * Indicates if the events are dispatched sequentially on a single worker thread at a time.
+	 */
+	private final boolean agentAffineDispatching;
+
+	/**
+	 * Indicates if a worker thread is currently treating the events of the {@link #inbox}
+	 * when the agent-affine dispatching is enabled.
+	 */
+	private final AtomicBoolean affineWorkerActive = new AtomicBoolean();
+
+	/**
+	 * The thread that is currently running the worker of the agent when the agent-affine dispatching is enabled.
+	 */
+	private volatile Thread affineWorkerThread;
+
+	/**
+	 * The synchronous dispatches that are waiting for being run by the worker of the agent when the
+	 * agent-affine dispatching is enabled. They are run before the pending events of the {@link #inbox}.
+	 */
+	private final Queue<Runnable> affineImmediateTasks;
+
+	/**
+	 * Maximal number of events that are treated by the worker thread of the agent before
+	 * giving back the thread to the pool.
+	 */
+	private final int affineBatchSize;
+
+	/**
+	 * Indicates if the dispatching of the events is suspended.
+	 */
+	private volatile boolean paused;
+
+	/**
+	 * The events that were received during a pause when the events are dispatched without inbox.
+	 * They are dispatched when the dispatching is resumed.
+	 */
+	private final Queue<Event> parkedEvents = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Number of tasks that are dispatching events or running behavior units.
+	 */
+	private final AtomicInteger activeDispatches = new AtomicInteger();
+
+	/**
+	 * Histogram of the execution times of the behavior units, or {@code null} if they are not measured.
+	 */
+	private volatile LatencyHistogram handlerExecutionTimes;
+
+	/**
+	 * Profiler of the event handlers, or {@code null} if they are not profiled.
+	 */
+	private volatile ProfilerService profiler;
+
+	/**
+	 * Type of the agent that is given to the profiler.
+	 */
+	private Class<?> profiledAgentType;
+
 	/**
 	 * Instantiates a dispatcher.
 	 *
@@ -74,8 +189,205 @@ public class AgentInternalEventsDispatcher {
 	 */
 	@Inject
 	public AgentInternalEventsDispatcher(ExecutorService executor) {
+		this(executor, false, 1, 0, InboxOverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Instantiates a dispatcher.
+	 *
+	 * @param executor the executor service.
+	 * @param agentAffineDispatching indicates if the events are dispatched sequentially on a single worker
+	 *     thread at a time ({@code true}), or in parallel ({@code false}).
+	 * @param batchSize the maximal number of events that are treated in a row by the worker thread of the
+	 *     agent when the agent-affine dispatching is enabled.
+	 * @since 0.8
+	 */
+	public AgentInternalEventsDispatcher(ExecutorService executor, boolean agentAffineDispatching, int batchSize) {
+		this(executor, agentAffineDispatching, batchSize, 0, InboxOverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Instantiates a dispatcher.
+	 *
+	 * <p>When the agent-affine dispatching is enabled, the events are dispatched one after the other
+	 * by a single worker thread at a time. The guards and the behavior units that are triggered by
+	 * an event are run on this worker thread, before the next event is considered. The agent's
+	 * handlers are then sequentially consistent without additional synchronization, and the agent's
+	 * state stays on the same core for the duration of a batch of events.
+	 * When the agent has no more pending event, the worker thread is given back to the pool, where it
+	 * could be used by any other agent.
+	 *
+	 * <p>When the inbox capacity is strictly positive, the number of events that are received by
+	 * {@link #asyncDispatch(Event)} and not yet dispatched is bounded. The given overflow policy is
+	 * applied when an event is received while the inbox is full.
+	 *
+	 * @param executor the executor service.
+	 * @param agentAffineDispatching indicates if the events are dispatched sequentially on a single worker
+	 *     thread at a time ({@code true}), or in parallel ({@code false}).
+	 * @param batchSize the maximal number of events that are treated in a row by the worker thread of the
+	 *     agent when the agent-affine dispatching is enabled.
+	 * @param inboxCapacity the maximal number of pending events, or zero for an unbounded inbox.
+	 * @param overflowPolicy the policy to apply when the inbox is full.
+	 * @since 0.8
+	 */
+	public AgentInternalEventsDispatcher(ExecutorService executor, boolean agentAffineDispatching, int batchSize,
+			int inboxCapacity, InboxOverflowPolicy overflowPolicy) {
+		assert overflowPolicy != null;
 		this.executor = executor;
 		this.behaviorGuardEvaluatorRegistry = new BehaviorGuardEvaluatorRegistry();
+		this.agentAffineDispatching = agentAffineDispatching;
+		this.affineBatchSize = Math.max(1, batchSize);
+		this.inboxCapacity = Math.max(0, inboxCapacity);
+		this.overflowPolicy = overflowPolicy;
+		if (this.inboxCapacity > 0) {
+			this.inboxPermits = new Semaphore(this.inboxCapacity);
+		} else {
+			this.inboxPermits = null;
+		}
+		if (agentAffineDispatching || this.inboxPermits != null) {
+			this.inbox = new ConcurrentLinkedQueue<>();
+		} else {
+			this.inbox = null;
+		}
+		if (agentAffineDispatching) {
+			this.affineImmediateTasks = new ConcurrentLinkedQueue<>();
+		} else {
+			this.affineImmediateTasks = null;
+		}
+	}
+
+	/** Replies if the events are dispatched sequentially on a single worker thread at a time.
+	 *
+	 * @return {@code true} if the agent-affine dispatching is enabled.
+	 * @since 0.8
+	 */
+	public boolean isAgentAffineDispatching() {
+		return this.agentAffineDispatching;
+	}
+
+	/** Replies the maximal number of events that are waiting for their dispatching.
+	 *
+	 * @return the capacity of the inbox, or zero if the inbox is unbounded.
+	 * @since 0.8
+	 */
+	public int getInboxCapacity() {
+		return this.inboxCapacity;
+	}
+
+	/** Replies the policy that is applied when the inbox is full.
+	 *
+	 * @return the policy.
+	 * @since 0.8
+	 */
+	public InboxOverflowPolicy getInboxOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	/** Replies the number of events that are received by {@link #asyncDispatch(Event)} and not yet dispatched.
+	 *
+	 * @return the depth of the inbox.
+	 * @since 0.8
+	 */
+	public int getInboxSize() {
+		return this.pendingEvents.get();
+	}
+
+	/** Replies the number of events that were dropped because the inbox was full.
+	 *
+	 * @return the number of dropped events.
+	 * @since 0.8
+	 */
+	public long getDroppedEventCount() {
+		return this.droppedEvents.get();
+	}
+
+	/** Suspend the dispatching of the events that are received by {@link #asyncDispatch(Event)}.
+	 *
+	 * <p>The received events are kept until the dispatching is resumed. The dispatches and the behavior
+	 * units that are running are not interrupted. The synchronous dispatches are not suspended.
+	 *
+	 * @since 0.8
+	 * @see #resume()
+	 * @see #isIdle()
+	 */
+	public void pause() {
+		this.paused = true;
+	}
+
+	/** Resume the dispatching of the events that was suspended by {@link #pause()}.
+	 *
+	 * @since 0.8
+	 */
+	public void resume() {
+		this.paused = false;
+		if (this.inbox == null) {
+			dispatchParkedEvents();
+		} else if (!this.inbox.isEmpty()) {
+			if (isAgentAffineDispatching()) {
+				scheduleAffineWorker();
+			} else {
+				// The polling tasks that were run during the pause have left their events in the inbox.
+				for (int i = this.inbox.size(); i > 0; --i) {
+					this.executor.execute(this::pollAndDispatchInParallel);
+				}
+			}
+		}
+	}
+
+	/** Replies if the dispatching is paused, and no event is dispatched and no behavior unit is running
+	 * asynchronously.
+	 *
+	 * @return {@code true} if the dispatching is paused and idle.
+	 * @since 0.8
+	 */
+	public boolean isIdle() {
+		if (!this.paused || this.activeDispatches.get() > 0) {
+			return false;
+		}
+		if (this.inbox == null) {
+			// The events that are received before the pause are parked by their dispatching tasks.
+			return this.parkedEvents.size() >= this.pendingEvents.get();
+		}
+		return !isAgentAffineDispatching() || !this.affineWorkerActive.get();
+	}
+
+	/** Replies the events that are received by {@link #asyncDispatch(Event)} and not yet dispatched.
+	 * The replied list is consistent only when the dispatching is paused and idle.
+	 *
+	 * @return the pending events, in the order of their reception.
+	 * @since 0.8
+	 */
+	public List<Event> getPendingEvents() {
+		return new ArrayList<>(this.inbox == null ? this.parkedEvents : this.inbox);
+	}
+
+	/** Change the histogram in which the execution times of the behavior units are recorded.
+	 *
+	 * @param histogram the histogram, or {@code null} for disabling the measurement.
+	 * @since 0.8
+	 */
+	public void setHandlerExecutionTimeHistogram(LatencyHistogram histogram) {
+		this.handlerExecutionTimes = histogram;
+	}
+
+	/** Replies the histogram in which the execution times of the behavior units are recorded.
+	 *
+	 * @return the histogram, or {@code null} if the execution times are not measured.
+	 * @since 0.8
+	 */
+	public LatencyHistogram getHandlerExecutionTimeHistogram() {
+		return this.handlerExecutionTimes;
+	}
+
+	/** Change the profiler of the event handlers.
+	 *
+	 * @param profiler the profiler, or {@code null} for disabling the profiling.
+	 * @param agentType the type of the agent that owns this dispatcher.
+	 * @since 0.8
+	 */
+	public void setProfiler(ProfilerService profiler, Class<?> agentType) {
+		this.profiledAgentType = agentType;
+		this.profiler = profiler;
 	}
 
 	/** Replies if a listener with the given type is registered.
@@ -152,10 +464,19 @@ public class AgentInternalEventsDispatcher {
 	 * This method will return successfully after the event has been posted to all {@code BehaviorGuardEvaluator}, and regardless
 	 * of any exceptions thrown by {@code BehaviorGuardEvaluator}.
 	 *
+	 * <p>When the agent-affine dispatching is enabled, the event is dispatched by the worker thread of the agent,
+	 * and the caller waits for the end of the dispatching. A caller that is running event handlers never waits:
+	 * it dispatches the event itself if the agent has no active worker; otherwise the event is dispatched
+	 * asynchronously by the active worker.
+	 *
 	 * @param event an event to dispatch synchronously.
 	 */
 	public void immediateDispatch(Event event) {
 		assert event != null;
+		if (isAgentAffineDispatching() && this.affineWorkerThread != Thread.currentThread()) {
+			runOnAffineWorker(() -> immediateDispatch(event));
+			return;
+		}
 		Iterable<BehaviorGuardEvaluator> behaviorGuardEvaluators = null;
 		synchronized (this.behaviorGuardEvaluatorRegistry) {
 			behaviorGuardEvaluators = AgentInternalEventsDispatcher.this.behaviorGuardEvaluatorRegistry
@@ -164,8 +485,12 @@ public class AgentInternalEventsDispatcher {
 		if (behaviorGuardEvaluators != null) {
 			final Collection<Runnable> behaviorsMethodsToExecute;
 			try {
-				behaviorsMethodsToExecute = evaluateGuards(event, behaviorGuardEvaluators);
-				executeBehaviorMethodsInParalellWithSynchroAtTheEnd(behaviorsMethodsToExecute);
+				behaviorsMethodsToExecute = evaluateGuards(event, behaviorGuardEvaluators, !isAgentAffineDispatching());
+				if (isAgentAffineDispatching()) {
+					executeSequentiallyBehaviorMethods(behaviorsMethodsToExecute);
+				} else {
+					executeBehaviorMethodsInParalellWithSynchroAtTheEnd(behaviorsMethodsToExecute);
+				}
 			} catch (RuntimeException exception) {
 				throw exception;
 			} catch (InterruptedException | ExecutionException | InvocationTargetException e) {
@@ -181,11 +506,20 @@ public class AgentInternalEventsDispatcher {
 	 * This method will return successfully after the event has been posted to all {@code BehaviorGuardEvaluator}, and regardless
 	 * of any exceptions thrown by {@code BehaviorGuardEvaluator}.
 	 *
+	 * <p>When the agent-affine dispatching is enabled, the event is dispatched by the worker thread of the agent,
+	 * and the caller waits for the end of the dispatching. A caller that is running event handlers never waits:
+	 * it dispatches the event itself if the agent has no active worker; otherwise the event is dispatched
+	 * asynchronously by the active worker.
+	 *
 	 * @param listener the listener to dispatch to.
 	 * @param event an event to dispatch synchronously.
 	 */
 	public void immediateDispatchTo(Object listener, Event event) {
 		assert event != null;
+		if (isAgentAffineDispatching() && this.affineWorkerThread != Thread.currentThread()) {
+			runOnAffineWorker(() -> immediateDispatchTo(listener, event));
+			return;
+		}
 		Iterable<BehaviorGuardEvaluator> behaviorGuardEvaluators = null;
 		synchronized (this.behaviorGuardEvaluatorRegistry) {
 			behaviorGuardEvaluators = AgentInternalEventsDispatcher.this.behaviorGuardEvaluatorRegistry
@@ -194,8 +528,12 @@ public class AgentInternalEventsDispatcher {
 		if (behaviorGuardEvaluators != null) {
 			final Collection<Runnable> behaviorsMethodsToExecute;
 			try {
-				behaviorsMethodsToExecute = evaluateGuards(event, behaviorGuardEvaluators);
-				executeBehaviorMethodsInParalellWithSynchroAtTheEnd(behaviorsMethodsToExecute);
+				behaviorsMethodsToExecute = evaluateGuards(event, behaviorGuardEvaluators, !isAgentAffineDispatching());
+				if (isAgentAffineDispatching()) {
+					executeSequentiallyBehaviorMethods(behaviorsMethodsToExecute);
+				} else {
+					executeBehaviorMethodsInParalellWithSynchroAtTheEnd(behaviorsMethodsToExecute);
+				}
 			} catch (RuntimeException exception) {
 				throw exception;
 			} catch (InterruptedException | ExecutionException | InvocationTargetException e) {
@@ -211,26 +549,368 @@ public class AgentInternalEventsDispatcher {
 	 * This method will return successfully after the event has been posted to all {@code BehaviorGuardEvaluator}, and regardless
 	 * of any exceptions thrown by {@code BehaviorGuardEvaluator}.
 	 *
+	 * <p>If the inbox is bounded and full, the overflow policy of this dispatcher is applied.
+	 *
 	 * @param event an event to dispatch asynchronously.
+	 * @return {@code true} if the event was accepted in the inbox; {@code false} if it was dropped.
 	 */
-	public void asyncDispatch(Event event) {
+	public boolean asyncDispatch(Event event) {
 		assert event != null;
-		this.executor.execute(() -> {
-			Iterable<BehaviorGuardEvaluator> behaviorGuardEvaluators = null;
-			synchronized (AgentInternalEventsDispatcher.this.behaviorGuardEvaluatorRegistry) {
-				behaviorGuardEvaluators = AgentInternalEventsDispatcher.this.behaviorGuardEvaluatorRegistry
-						.getBehaviorGuardEvaluators(event);
+		if (this.inbox == null) {
+			this.pendingEvents.incrementAndGet();
+			this.executor.execute(() -> dispatchPendingEvent(event));
+			return true;
+		}
+		final Event acceptedEvent = acquireInboxPlace(event);
+		if (acceptedEvent == null) {
+			return false;
+		}
+		this.inbox.add(acceptedEvent);
+		this.pendingEvents.incrementAndGet();
+		if (isAgentAffineDispatching()) {
+			scheduleAffineWorker();
+		} else {
+			this.executor.execute(this::pollAndDispatchInParallel);
+		}
+		return acceptedEvent == event;
+	}
+
+	/** Dispatch the given event that is received without inbox, or park it if the dispatching is paused.
+	 *
+	 * @param event the event to dispatch.
+	 */
+	private void dispatchPendingEvent(Event event) {
+		this.activeDispatches.incrementAndGet();
+		try {
+			if (this.paused) {
+				this.parkedEvents.add(event);
+				// The dispatching may have been resumed before the event was parked.
+				if (!this.paused) {
+					dispatchParkedEvents();
+				}
+			} else {
+				this.pendingEvents.decrementAndGet();
+				dispatchInParallel(event);
+			}
+		} finally {
+			this.activeDispatches.decrementAndGet();
+		}
+	}
+
+	/** Dispatch the events that were parked during a pause.
+	 */
+	private void dispatchParkedEvents() {
+		Event event = this.parkedEvents.poll();
+		while (event != null) {
+			final Event parkedEvent = event;
+			this.executor.execute(() -> dispatchPendingEvent(parkedEvent));
+			event = this.parkedEvents.poll();
+		}
+	}
+
+	/** Dispatch the oldest event of the inbox, unless the dispatching is paused.
+	 */
+	private void pollAndDispatchInParallel() {
+		this.activeDispatches.incrementAndGet();
+		try {
+			if (!this.paused) {
+				final Event pendingEvent = pollInbox();
+				if (pendingEvent != null) {
+					dispatchInParallel(pendingEvent);
+				}
+			}
+		} finally {
+			this.activeDispatches.decrementAndGet();
+		}
+	}
+
+	/** Reserve a place in the inbox for the given event according to the overflow policy.
+	 *
+	 * @param event the received event.
+	 * @return the event to put in the inbox, i.e. the given event or its dead event; or {@code null} if
+	 *     no event must be put in the inbox.
+	 */
+	private Event acquireInboxPlace(Event event) {
+		if (this.inboxPermits == null || this.inboxPermits.tryAcquire()) {
+			return event;
+		}
+		switch (this.overflowPolicy) {
+		case BLOCK:
+			if (DISPATCHING_THREAD.get() != null) {
+				// The thread is running event handlers. Blocking it could prevent the agents,
+				// including this agent, to consume their events: the pool may be exhausted.
+				// The event is put in the inbox beyond its capacity, up to the capacity itself.
+				if (tryOverdraft(this.inboxCapacity)) {
+					return event;
+				}
+				this.droppedEvents.incrementAndGet();
+				return null;
+			}
+			this.inboxPermits.acquireUninterruptibly();
+			return event;
+		case DROP_OLDEST:
+			while (!this.inboxPermits.tryAcquire()) {
+				final Event oldest = this.inbox.poll();
+				if (oldest != null) {
+					// The place of the oldest event is given to the received event.
+					this.pendingEvents.decrementAndGet();
+					this.droppedEvents.incrementAndGet();
+					return event;
+				}
+				// The pending events are reserved but not yet in the inbox.
+				Thread.yield();
+			}
+			return event;
+		case DEAD_EVENT:
+			this.droppedEvents.incrementAndGet();
+			// The dead events are put in the inbox beyond its capacity, up to the capacity itself.
+			if (tryOverdraft(this.inboxCapacity)) {
+				return new DeadEvent(event);
+			}
+			return null;
+		case DROP_NEWEST:
+		default:
+			this.droppedEvents.incrementAndGet();
+			return null;
+		}
+	}
+
+	/** Put an event in the full inbox without reserving a place, if the overdraft is lower than the given limit.
+	 *
+	 * @param limit the maximal overdraft.
+	 * @return {@code true} if the overdraft is accepted.
+	 */
+	private boolean tryOverdraft(int limit) {
+		int overdraft;
+		do {
+			overdraft = this.inboxOverdraft.get();
+			if (overdraft >= limit) {
+				return false;
+			}
+		} while (!this.inboxOverdraft.compareAndSet(overdraft, overdraft + 1));
+		return true;
+	}
+
+	/** Wrap the given task in order to mark the thread that is running it as a thread that is running event handlers.
+	 *
+	 * @param task the task that is running event handlers.
+	 * @return the task to give to the executor service.
+	 * @see #DISPATCHING_THREAD
+	 */
+	private static Runnable asDispatchingTask(Runnable task) {
+		return () -> {
+			final boolean marked = DISPATCHING_THREAD.get() != null;
+			if (!marked) {
+				DISPATCHING_THREAD.set(Boolean.TRUE);
+			}
+			try {
+				task.run();
+			} finally {
+				if (!marked) {
+					DISPATCHING_THREAD.remove();
+				}
+			}
+		};
+	}
+
+	/** Remove the oldest event from the inbox, and release its place.
+	 *
+	 * @return the oldest event, or {@code null} if the inbox is empty.
+	 */
+	private Event pollInbox() {
+		final Event event = this.inbox.poll();
+		if (event != null) {
+			this.pendingEvents.decrementAndGet();
+			if (this.inboxPermits != null) {
+				releaseInboxPlace();
+			}
+		}
+		return event;
+	}
+
+	/** Release the place of an event that was removed from the inbox.
+	 */
+	private void releaseInboxPlace() {
+		int overdraft;
+		do {
+			overdraft = this.inboxOverdraft.get();
+			if (overdraft <= 0) {
+				this.inboxPermits.release();
+				return;
+			}
+		} while (!this.inboxOverdraft.compareAndSet(overdraft, overdraft - 1));
+	}
+
+	/** Evaluate the guards for the given event, and run the selected behavior units in parallel.
+	 *
+	 * @param event the event to dispatch.
+	 */
+	private void dispatchInParallel(Event event) {
+		Iterable<BehaviorGuardEvaluator> behaviorGuardEvaluators = null;
+		synchronized (this.behaviorGuardEvaluatorRegistry) {
+			behaviorGuardEvaluators = this.behaviorGuardEvaluatorRegistry.getBehaviorGuardEvaluators(event);
+		}
+		if (behaviorGuardEvaluators != null) {
+			final Collection<Runnable> behaviorsMethodsToExecute;
+			try {
+				behaviorsMethodsToExecute = evaluateGuards(event, behaviorGuardEvaluators, true);
+			} catch (InvocationTargetException e) {
+				throw new RuntimeException(e);
 			}
-			if (behaviorGuardEvaluators != null) {
-				final Collection<Runnable> behaviorsMethodsToExecute;
+			executeAsynchronouslyBehaviorMethods(behaviorsMethodsToExecute);
+		}
+	}
+
+	/** Run the given synchronous dispatch on the worker thread of the agent, and wait for its end.
+	 *
+	 * <p>The dispatch is run before the pending events of the inbox, after the event that is currently
+	 * treated by the worker, if any.
+	 *
+	 * <p>A thread that is running event handlers never waits for the worker of the agent, because the
+	 * worker may need a thread of the pool, or may wait for the caller itself. If the agent has no active
+	 * worker, the calling thread becomes its worker for the time of the dispatch. Otherwise, the dispatch
+	 * is run asynchronously by the active worker.
+	 *
+	 * @param dispatch the synchronous dispatch.
+	 * @see #DISPATCHING_THREAD
+	 */
+	private void runOnAffineWorker(Runnable dispatch) {
+		if (DISPATCHING_THREAD.get() != null) {
+			if (this.affineWorkerActive.compareAndSet(false, true)) {
+				this.affineWorkerThread = Thread.currentThread();
 				try {
-					behaviorsMethodsToExecute = evaluateGuards(event, behaviorGuardEvaluators);
-				} catch (InvocationTargetException e) {
-					throw new RuntimeException(e);
+					dispatch.run();
+				} finally {
+					releaseAffineWorker();
+				}
+			} else {
+				this.affineImmediateTasks.add(() -> runSafely(dispatch));
+				scheduleAffineWorker();
+			}
+			return;
+		}
+		final FutureTask<Void> task = new FutureTask<>(dispatch, null);
+		this.affineImmediateTasks.add(task);
+		scheduleAffineWorker();
+		try {
+			task.get();
+		} catch (InterruptedException ex) {
+			// The agent was killed by one of its tasks before the end of the dispatching.
+			// See executeBehaviorMethodsInParalellWithSynchroAtTheEnd().
+			// The dispatch is abandoned: it must not be run after the return of the caller.
+			this.affineImmediateTasks.remove(task);
+			task.cancel(false);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ex) {
+			final Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/** Run the synchronous dispatches that are waiting for the worker of the agent.
+	 */
+	private void runAffineImmediateTasks() {
+		Runnable task = this.affineImmediateTasks.poll();
+		while (task != null) {
+			task.run();
+			task = this.affineImmediateTasks.poll();
+		}
+	}
+
+	/** Submit the worker of the agent to the executor service if it is not already running.
+	 */
+	private void scheduleAffineWorker() {
+		if (this.affineWorkerActive.compareAndSet(false, true)) {
+			this.executor.execute(asDispatchingTask(this::runAffineWorker));
+		}
+	}
+
+	/** Dispatch a batch of pending events on the current thread.
+	 *
+	 * <p>The worker is given back to the pool after {@link #affineBatchSize} events, in order to
+	 * be fair with the other agents. It is resubmitted if events are still pending.
+	 * When the dispatching is paused, the worker stops polling the inbox; but it still runs the
+	 * synchronous dispatches.
+	 */
+	private void runAffineWorker() {
+		this.affineWorkerThread = Thread.currentThread();
+		try {
+			runAffineImmediateTasks();
+			int count = 0;
+			Event event = this.paused ? null : pollInbox();
+			while (event != null) {
+				dispatchOnCurrentThread(event);
+				runAffineImmediateTasks();
+				++count;
+				event = count < this.affineBatchSize && !this.paused ? pollInbox() : null;
+			}
+		} finally {
+			releaseAffineWorker();
+		}
+	}
+
+	/** Give back the worker of the agent, and resubmit it if events or synchronous dispatches are pending.
+	 */
+	private void releaseAffineWorker() {
+		this.affineWorkerThread = null;
+		this.affineWorkerActive.set(false);
+		// An event may have been added after the last poll, and before the flag was reset.
+		if ((!this.paused && !this.inbox.isEmpty()) || !this.affineImmediateTasks.isEmpty()) {
+			scheduleAffineWorker();
+		}
+	}
+
+	/** Evaluate the guards and run the behavior units for the given event on the current thread.
+	 *
+	 * <p>This function never fails. Errors in the event handlers are logged by the executor service.
+	 *
+	 * @param event the event to dispatch.
+	 */
+	private void dispatchOnCurrentThread(Event event) {
+		Iterable<BehaviorGuardEvaluator> behaviorGuardEvaluators = null;
+		synchronized (this.behaviorGuardEvaluatorRegistry) {
+			behaviorGuardEvaluators = this.behaviorGuardEvaluatorRegistry.getBehaviorGuardEvaluators(event);
+		}
+		if (behaviorGuardEvaluators != null) {
+			try {
+				final Collection<Runnable> behaviorsMethodsToExecute = evaluateGuards(event, behaviorGuardEvaluators, false);
+				for (final Runnable runnable : behaviorsMethodsToExecute) {
+					runSafely(runnable);
 				}
-				executeAsynchronouslyBehaviorMethods(behaviorsMethodsToExecute);
+			} catch (Throwable exception) {
+				reportUncaughtException(exception);
 			}
-		});
+		}
+	}
+
+	/** Run the given behavior unit and report any error as an uncaught exception without stopping the caller.
+	 *
+	 * @param runnable the behavior unit to run.
+	 */
+	private static void runSafely(Runnable runnable) {
+		try {
+			runnable.run();
+		} catch (EarlyExitException e) {
+			// Ignore this exception
+		} catch (Throwable exception) {
+			reportUncaughtException(exception);
+		}
+	}
+
+	/** Give the exception to the uncaught exception handler of the current thread, as it is done by the
+	 * executor service for the tasks that are failing.
+	 *
+	 * @param exception the exception.
+	 */
+	private static void reportUncaughtException(Throwable exception) {
+		final Thread thread = Thread.currentThread();
+		final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+		if (handler != null) {
+			handler.uncaughtException(thread, exception);
+		}
 	}
 
 	/**
@@ -239,18 +919,34 @@ public class AgentInternalEventsDispatcher {
 	 *
 	 * @param event the event triggering behaviors
 	 * @param behaviorGuardEvaluators the list of class containing a {@code PerceptGuardEvaluator} method
+	 * @param parallel indicates if the guards could be evaluated in parallel.
 	 * @return the collection of couple associating a object and its collection of behavior methods that must be executed
 	 * @throws InvocationTargetException - exception when you try to execute a method by reflection and this method doesn't exist.
 	 */
-	private static Collection<Runnable> evaluateGuards(final Event event,
-			final Iterable<BehaviorGuardEvaluator> behaviorGuardEvaluators) throws InvocationTargetException {
+	private Collection<Runnable> evaluateGuards(final Event event,
+			final Iterable<BehaviorGuardEvaluator> behaviorGuardEvaluators, boolean parallel) throws InvocationTargetException {
 
 		final MultiCollection<Runnable> behaviorsMethodsToExecute = new MultiCollection<>();
 
+		final ProfilerService eventProfiler = this.profiler;
+		final boolean profile = eventProfiler != null && eventProfiler.isSampled();
+
 		try {
-			StreamSupport.stream(behaviorGuardEvaluators.spliterator(), true).forEach(evaluator -> {
-				final Collection<Runnable> behaviorsMethodsToExecutePerTarget = Lists.newLinkedList();
-				evaluator.evaluateGuard(event, behaviorsMethodsToExecutePerTarget);
+			StreamSupport.stream(behaviorGuardEvaluators.spliterator(), parallel).forEach(evaluator -> {
+				Collection<Runnable> behaviorsMethodsToExecutePerTarget;
+				if (profile) {
+					behaviorsMethodsToExecutePerTarget = eventProfiler.newBehaviorUnitCollection();
+					final long start = System.nanoTime();
+					evaluator.evaluateGuard(event, behaviorsMethodsToExecutePerTarget);
+					final Class<?> handlerType = evaluator.getTarget().getClass();
+					eventProfiler.recordGuardEvaluation(this.profiledAgentType, event.getClass(), handlerType,
+							evaluator.toString(), System.nanoTime() - start);
+					behaviorsMethodsToExecutePerTarget = profileBehaviorUnits(eventProfiler, event, handlerType,
+							behaviorsMethodsToExecutePerTarget);
+				} else {
+					behaviorsMethodsToExecutePerTarget = Lists.newLinkedList();
+					evaluator.evaluateGuard(event, behaviorsMethodsToExecutePerTarget);
+				}
 				synchronized (behaviorsMethodsToExecute) {
 					behaviorsMethodsToExecute.addCollection(behaviorsMethodsToExecutePerTarget);
 				}
@@ -266,7 +962,57 @@ public class AgentInternalEventsDispatcher {
 			throw exception;
 		}
 
-		return behaviorsMethodsToExecute;
+		return measureExecutionTimes(behaviorsMethodsToExecute);
+	}
+
+	/** Wrap the given behavior units in order to give their execution times to the profiler.
+	 *
+	 * @param eventProfiler the profiler.
+	 * @param event the dispatched event.
+	 * @param handlerType the type of the object that has selected the behavior units.
+	 * @param behaviorsMethodsToExecute the behavior units that were selected by a guard evaluator.
+	 * @return the wrapped behavior units.
+	 */
+	private Collection<Runnable> profileBehaviorUnits(ProfilerService eventProfiler, Event event, Class<?> handlerType,
+			Collection<Runnable> behaviorsMethodsToExecute) {
+		final Class<?> agentType = this.profiledAgentType;
+		final Collection<Runnable> profiled = new ArrayList<>(behaviorsMethodsToExecute.size());
+		for (final Runnable runnable : behaviorsMethodsToExecute) {
+			profiled.add(() -> {
+				final long start = System.nanoTime();
+				try {
+					runnable.run();
+				} finally {
+					eventProfiler.recordBehaviorUnit(agentType, event.getClass(), handlerType, runnable.getClass(),
+							System.nanoTime() - start);
+				}
+			});
+		}
+		return profiled;
+	}
+
+	/** Wrap the given behavior units in order to record their execution times, if the measurement is enabled.
+	 *
+	 * @param behaviorsMethodsToExecute the behavior units.
+	 * @return the given collection, or the wrapped behavior units.
+	 */
+	private Collection<Runnable> measureExecutionTimes(Collection<Runnable> behaviorsMethodsToExecute) {
+		final LatencyHistogram histogram = this.handlerExecutionTimes;
+		if (histogram == null || behaviorsMethodsToExecute.isEmpty()) {
+			return behaviorsMethodsToExecute;
+		}
+		final Collection<Runnable> measured = new ArrayList<>(behaviorsMethodsToExecute.size());
+		for (final Runnable runnable : behaviorsMethodsToExecute) {
+			measured.add(() -> {
+				final long start = System.nanoTime();
+				try {
+					runnable.run();
+				} finally {
+					histogram.record(System.nanoTime() - start);
+				}
+			});
+		}
+		return measured;
 	}
 
 	/**
@@ -288,11 +1034,12 @@ public class AgentInternalEventsDispatcher {
 		final OutputParameter<Throwable> runException = new OutputParameter<>();
 
 		for (final Runnable runnable : behaviorsMethodsToExecute) {
+			final Runnable task = asDispatchingTask(runnable);
 			this.executor.execute(new JanusRunnable() {
 				@Override
 				public void run() {
 					try {
-						runnable.run();
+						task.run();
 					} catch (EarlyExitException e) {
 						// Ignore this exception
 					} catch (RuntimeException e) {
@@ -338,6 +1085,33 @@ public class AgentInternalEventsDispatcher {
 		}
 	}
 
+	/**
+	 * Execute every single Behaviors runnable on the current thread, one after the other.
+	 *
+	 * <p>This function is used when the agent-affine dispatching is enabled. It may fail if one of the called
+	 * handlers has failed; but all the handlers are run before.
+	 *
+	 * @param behaviorsMethodsToExecute the collection of Behaviors runnable that must be executed.
+	 * @throws ExecutionException - when one of the event handler has failed during its run.
+	 */
+	private static void executeSequentiallyBehaviorMethods(Collection<Runnable> behaviorsMethodsToExecute)
+			throws ExecutionException {
+		final Collection<Throwable> errors = new ArrayList<>();
+		for (final Runnable runnable : behaviorsMethodsToExecute) {
+			try {
+				runnable.run();
+			} catch (EarlyExitException e) {
+				// Ignore this exception
+			} catch (Throwable e) {
+				errors.add(e);
+				reportUncaughtException(e);
+			}
+		}
+		if (!errors.isEmpty()) {
+			throw new ExecutionException(errors.iterator().next());
+		}
+	}
+
 	/**
 	 * Execute every single Behaviors runnable, a dedicated thread will created by the executor local to this class and be used to
 	 * execute each runnable in parallel.
@@ -348,7 +1122,16 @@ public class AgentInternalEventsDispatcher {
 	 */
 	private void executeAsynchronouslyBehaviorMethods(Collection<Runnable> behaviorsMethodsToExecute) {
 		for (final Runnable runnable : behaviorsMethodsToExecute) {
-			this.executor.execute(runnable);
+			final Runnable task = asDispatchingTask(runnable);
+			// The behavior unit is active from its submission, in order to be awaited by a pause.
+			this.activeDispatches.incrementAndGet();
+			this.executor.execute(() -> {
+				try {
+					task.run();
+				} finally {
+					this.activeDispatches.decrementAndGet();
+				}
+			});
 		}
 	}
 
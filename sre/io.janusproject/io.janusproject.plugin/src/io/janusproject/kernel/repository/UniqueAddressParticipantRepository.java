@@ -22,9 +22,14 @@
 package io.janusproject.kernel.repository;
 
 import java.io.Serializable;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.google.common.collect.ImmutableSet;
+
+import io.janusproject.services.distributeddata.DMap;
+import io.janusproject.services.distributeddata.DMapListener;
 import io.janusproject.services.distributeddata.DistributedDataStructureService;
 
 import io.sarl.lang.core.EventListener;
@@ -56,10 +61,28 @@ public final class UniqueAddressParticipantRepository<ADDRESST extends Serializa
 	 * Map linking the id of an entity to its unique address in the related space. This map must be distributed and synchronized
 	 * all over the network
 	 */
-	private final Map<UUID, ADDRESST> participants;
+	private final DMap<UUID, ADDRESST> participants;
 
 	private final String distributedParticipantMapName;
 
+	/**
+	 * Version of the participants. It is incremented each time the participants are changed, locally or remotely.
+	 */
+	private final AtomicLong participantVersion = new AtomicLong();
+
+	/**
+	 * Last snapshot of the identifiers of the participants.
+	 */
+	private volatile ParticipantSnapshot participantSnapshot;
+
+	/**
+	 * Listener that invalidates the snapshot when the participants are changed by another node.
+	 * It is registered when the first snapshot is built, and removed by {@link #destroy()}.
+	 */
+	private SnapshotInvalidator snapshotInvalidator;
+
+	private boolean destroyed;
+
 	/**
 	 * Constructs a <code>UniqueAddressParticipantRepository</code>.
 	 *
@@ -73,6 +96,27 @@ public final class UniqueAddressParticipantRepository<ADDRESST extends Serializa
 		this.participants = repositoryImplFactory.getMap(this.distributedParticipantMapName, null);
 	}
 
+	/**
+	 * Destroy this repository and release the resources that are bound to the distributed participants.
+	 */
+	public void destroy() {
+		synchronized (mutex()) {
+			this.destroyed = true;
+			if (this.snapshotInvalidator != null) {
+				this.participants.removeDMapListener(this.snapshotInvalidator);
+				this.snapshotInvalidator = null;
+			}
+			this.participantSnapshot = null;
+			invalidateSnapshot();
+		}
+	}
+
+	/** Invalidate the snapshot of the participant identifiers.
+	 */
+	private void invalidateSnapshot() {
+		this.participantVersion.incrementAndGet();
+	}
+
 	@Override
 	public Object mutex() {
 		return this.participants;
@@ -88,6 +132,7 @@ public final class UniqueAddressParticipantRepository<ADDRESST extends Serializa
 		synchronized (mutex()) {
 			addListener(address, entity);
 			this.participants.put(entity.getID(), address);
+			invalidateSnapshot();
 		}
 		return address;
 	}
@@ -111,7 +156,9 @@ public final class UniqueAddressParticipantRepository<ADDRESST extends Serializa
 	public ADDRESST unregisterParticipant(UUID entityID) {
 		synchronized (mutex()) {
 			removeListener(this.participants.get(entityID));
-			return this.participants.remove(entityID);
+			final ADDRESST address = this.participants.remove(entityID);
+			invalidateSnapshot();
+			return address;
 		}
 	}
 
@@ -161,4 +208,96 @@ public final class UniqueAddressParticipantRepository<ADDRESST extends Serializa
 		}
 	}
 
+	/**
+	 * Replies an immutable snapshot of the identifiers of the participants in this repository.
+	 *
+	 * <p>The snapshot is copied from the participants only when they have changed since the previous call.
+	 * Otherwise, the same instance is replied without locking the repository. The snapshot is not updated
+	 * when the participants change; call this function again to obtain the new participants.
+	 *
+	 * @return the identifiers.
+	 * @since 0.8
+	 */
+	public Set<UUID> getParticipantIDSnapshot() {
+		final long version = this.participantVersion.get();
+		final ParticipantSnapshot snapshot = this.participantSnapshot;
+		if (snapshot != null && snapshot.version == version) {
+			return snapshot.identifiers;
+		}
+		final Set<UUID> identifiers;
+		final boolean cacheable;
+		synchronized (mutex()) {
+			// The remote changes are observed only once a snapshot is cached; the local changes invalidate it directly.
+			if (this.snapshotInvalidator == null && !this.destroyed) {
+				this.snapshotInvalidator = new SnapshotInvalidator();
+				this.participants.addDMapListener(this.snapshotInvalidator);
+			}
+			identifiers = ImmutableSet.copyOf(this.participants.keySet());
+			cacheable = !this.destroyed;
+		}
+		if (cacheable) {
+			this.participantSnapshot = new ParticipantSnapshot(version, identifiers);
+		}
+		return identifiers;
+	}
+
+	/**
+	 * Immutable snapshot of the identifiers of the participants.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class ParticipantSnapshot {
+
+		final long version;
+
+		final Set<UUID> identifiers;
+
+		ParticipantSnapshot(long version, Set<UUID> identifiers) {
+			this.version = version;
+			this.identifiers = identifiers;
+		}
+
+	}
+
+	/**
+	 * Listener on the distributed participants that invalidates the snapshot when they are changed by another node.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private class SnapshotInvalidator implements DMapListener<UUID, ADDRESST> {
+
+		SnapshotInvalidator() {
+			//
+		}
+
+		@Override
+		public void entryAdded(UUID key, ADDRESST value) {
+			invalidateSnapshot();
+		}
+
+		@Override
+		public void entryUpdated(UUID key, ADDRESST value) {
+			invalidateSnapshot();
+		}
+
+		@Override
+		public void entryRemoved(UUID key, ADDRESST value) {
+			invalidateSnapshot();
+		}
+
+		@Override
+		public void mapCleared(boolean localClearing) {
+			invalidateSnapshot();
+		}
+
+	}
+
 }
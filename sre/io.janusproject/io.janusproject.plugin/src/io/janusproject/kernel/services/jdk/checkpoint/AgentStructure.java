@@ -0,0 +1,306 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.janusproject.kernel.services.jdk.checkpoint;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import io.janusproject.kernel.bic.BuiltinSkill;
+import io.janusproject.kernel.bic.InternalEventBusCapacity;
+import io.janusproject.kernel.bic.SchedulesSkill;
+import io.janusproject.util.ClassFinder;
+
+import io.sarl.core.Schedules;
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.Behavior;
+import io.sarl.lang.core.Capacity;
+import io.sarl.lang.core.SREutils;
+import io.sarl.lang.core.Skill;
+import io.sarl.lang.util.ClearableReference;
+
+/**
+ * Structure of an agent in a checkpoint: its type, the types of its behaviors, and the types of its skills that
+ * are not built-in skills with the capacities they are implementing.
+ *
+ * <p>The behaviors and the skills are indexed in the structure, so that they could be referenced by the values
+ * of the checkpoint.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class AgentStructure {
+
+	private final UUID id;
+
+	private final UUID parentID;
+
+	private final Class<? extends Agent> type;
+
+	private final List<Class<? extends Behavior>> behaviorTypes;
+
+	private final List<Class<? extends Skill>> skillTypes;
+
+	private final List<List<Class<? extends Capacity>>> capacities;
+
+	private Agent agent;
+
+	private final List<Behavior> behaviors = new ArrayList<>();
+
+	private final List<Skill> skills = new ArrayList<>();
+
+	private AgentStructure(UUID id, UUID parentID, Class<? extends Agent> type, List<Class<? extends Behavior>> behaviorTypes,
+			List<Class<? extends Skill>> skillTypes, List<List<Class<? extends Capacity>>> capacities) {
+		this.id = id;
+		this.parentID = parentID;
+		this.type = type;
+		this.behaviorTypes = behaviorTypes;
+		this.skillTypes = skillTypes;
+		this.capacities = capacities;
+	}
+
+	/** Create the structure of the given agent.
+	 *
+	 * @param agent the agent.
+	 * @return the structure.
+	 */
+	static AgentStructure of(Agent agent) {
+		final List<Behavior> behaviors = new ArrayList<>();
+		getEventBus(agent).getRegisteredEventListeners(Behavior.class, behaviors);
+		final List<Class<? extends Behavior>> behaviorTypes = new ArrayList<>(behaviors.size());
+		for (final Behavior behavior : behaviors) {
+			behaviorTypes.add(behavior.getClass());
+		}
+		final List<Skill> skills = new ArrayList<>();
+		final List<List<Class<? extends Capacity>>> capacities = new ArrayList<>();
+		for (final Map.Entry<Class<? extends Capacity>, ClearableReference<Skill>> entry
+				: SREutils.getSkillRepository(agent).entrySet()) {
+			final Skill skill = entry.getValue().get();
+			if (skill != null && !(skill instanceof BuiltinSkill)) {
+				int index = 0;
+				while (index < skills.size() && skills.get(index) != skill) {
+					++index;
+				}
+				if (index == skills.size()) {
+					skills.add(skill);
+					capacities.add(new ArrayList<>());
+				}
+				capacities.get(index).add(entry.getKey());
+			}
+		}
+		final List<Class<? extends Skill>> skillTypes = new ArrayList<>(skills.size());
+		for (final Skill skill : skills) {
+			skillTypes.add(skill.getClass());
+		}
+		final AgentStructure structure = new AgentStructure(agent.getID(), agent.getParentID(), agent.getClass(),
+				behaviorTypes, skillTypes, capacities);
+		structure.agent = agent;
+		structure.behaviors.addAll(behaviors);
+		structure.skills.addAll(skills);
+		return structure;
+	}
+
+	/** Read a structure.
+	 *
+	 * @param input the stream.
+	 * @return the structure.
+	 * @throws IOException if the structure cannot be read.
+	 */
+	static AgentStructure read(ObjectInput input) throws IOException {
+		final UUID id = readUUID(input);
+		final UUID parentID = readUUID(input);
+		final Class<? extends Agent> type = findClass(input.readUTF(), Agent.class);
+		final int behaviorCount = input.readInt();
+		final List<Class<? extends Behavior>> behaviorTypes = new ArrayList<>(behaviorCount);
+		for (int i = 0; i < behaviorCount; ++i) {
+			behaviorTypes.add(findClass(input.readUTF(), Behavior.class));
+		}
+		final int skillCount = input.readInt();
+		final List<Class<? extends Skill>> skillTypes = new ArrayList<>(skillCount);
+		final List<List<Class<? extends Capacity>>> capacities = new ArrayList<>(skillCount);
+		for (int i = 0; i < skillCount; ++i) {
+			skillTypes.add(findClass(input.readUTF(), Skill.class));
+			final int capacityCount = input.readInt();
+			final List<Class<? extends Capacity>> skillCapacities = new ArrayList<>(capacityCount);
+			for (int j = 0; j < capacityCount; ++j) {
+				skillCapacities.add(findClass(input.readUTF(), Capacity.class));
+			}
+			capacities.add(skillCapacities);
+		}
+		return new AgentStructure(id, parentID, type, behaviorTypes, skillTypes, capacities);
+	}
+
+	/** Write this structure.
+	 *
+	 * @param output the stream.
+	 * @throws IOException if the structure cannot be written.
+	 */
+	void write(ObjectOutput output) throws IOException {
+		writeUUID(output, this.id);
+		writeUUID(output, this.parentID);
+		output.writeUTF(this.type.getName());
+		output.writeInt(this.behaviorTypes.size());
+		for (final Class<?> behaviorType : this.behaviorTypes) {
+			output.writeUTF(behaviorType.getName());
+		}
+		output.writeInt(this.skillTypes.size());
+		for (int i = 0; i < this.skillTypes.size(); ++i) {
+			output.writeUTF(this.skillTypes.get(i).getName());
+			final List<Class<? extends Capacity>> skillCapacities = this.capacities.get(i);
+			output.writeInt(skillCapacities.size());
+			for (final Class<?> capacity : skillCapacities) {
+				output.writeUTF(capacity.getName());
+			}
+		}
+	}
+
+	/** Create the behaviors and the skills of the given restored agent.
+	 *
+	 * <p>The behaviors are registered on the event bus of the agent, without their event filters and without
+	 * firing {@code Initialize}. The skills are mapped to their capacities without being installed.
+	 *
+	 * @param restoredAgent the agent that is restored with this structure.
+	 */
+	void createTraits(Agent restoredAgent) {
+		this.agent = restoredAgent;
+		final InternalEventBusCapacity eventBus = getEventBus(restoredAgent);
+		for (final Class<? extends Behavior> behaviorType : this.behaviorTypes) {
+			final Behavior behavior = newTrait(behaviorType, restoredAgent);
+			this.behaviors.add(behavior);
+			eventBus.registerEventListener(behavior, false, null);
+		}
+		for (int i = 0; i < this.skillTypes.size(); ++i) {
+			final Skill skill = newTrait(this.skillTypes.get(i), restoredAgent);
+			this.skills.add(skill);
+			for (final Class<? extends Capacity> capacity : this.capacities.get(i)) {
+				SREutils.createSkillMapping(restoredAgent, capacity, skill);
+			}
+		}
+	}
+
+	private static <T> T newTrait(Class<T> traitType, Agent owner) {
+		try {
+			return traitType.getConstructor(Agent.class).newInstance(owner);
+		} catch (ReflectiveOperationException exception) {
+			throw new IllegalStateException(MessageFormat.format(Messages.AgentStructure_0, traitType.getName()), exception);
+		}
+	}
+
+	UUID getID() {
+		return this.id;
+	}
+
+	UUID getParentID() {
+		return this.parentID;
+	}
+
+	Class<? extends Agent> getType() {
+		return this.type;
+	}
+
+	/** Replies the agent, or {@code null} if it is not yet restored.
+	 *
+	 * @return the agent.
+	 */
+	Agent getAgent() {
+		return this.agent;
+	}
+
+	List<Behavior> getBehaviors() {
+		return Collections.unmodifiableList(this.behaviors);
+	}
+
+	List<Skill> getSkills() {
+		return Collections.unmodifiableList(this.skills);
+	}
+
+	InternalEventBusCapacity getEventBus() {
+		return getEventBus(this.agent);
+	}
+
+	SchedulesSkill getSchedulesSkill() {
+		return getSchedulesSkill(this.agent);
+	}
+
+	/** Replies the event bus of the given agent.
+	 *
+	 * @param agent the agent.
+	 * @return the event bus.
+	 */
+	static InternalEventBusCapacity getEventBus(Agent agent) {
+		return SREutils.getInternalSkill(agent, InternalEventBusCapacity.class);
+	}
+
+	/** Replies the built-in skill that schedules the tasks of the given agent.
+	 *
+	 * @param agent the agent.
+	 * @return the skill, or {@code null} if the agent has no such skill.
+	 */
+	static SchedulesSkill getSchedulesSkill(Agent agent) {
+		final ClearableReference<Skill> reference = SREutils.getSkillRepository(agent).get(Schedules.class);
+		final Skill skill = reference == null ? null : reference.get();
+		return skill instanceof SchedulesSkill ? (SchedulesSkill) skill : null;
+	}
+
+	private static <T> Class<? extends T> findClass(String name, Class<T> expectedType) throws IOException {
+		final Class<?> foundType = ClassFinder.findClass(name);
+		if (foundType == null) {
+			throw new IOException(new ClassNotFoundException(name));
+		}
+		if (!expectedType.isAssignableFrom(foundType)) {
+			throw new IOException(Messages.StandardCheckpointService_1);
+		}
+		return foundType.asSubclass(expectedType);
+	}
+
+	/** Write an identifier.
+	 *
+	 * @param output the stream.
+	 * @param id the identifier.
+	 * @throws IOException if the identifier cannot be written.
+	 */
+	static void writeUUID(ObjectOutput output, UUID id) throws IOException {
+		output.writeLong(id.getMostSignificantBits());
+		output.writeLong(id.getLeastSignificantBits());
+	}
+
+	/** Read an identifier.
+	 *
+	 * @param input the stream.
+	 * @return the identifier.
+	 * @throws IOException if the identifier cannot be read.
+	 */
+	static UUID readUUID(ObjectInput input) throws IOException {
+		return new UUID(input.readLong(), input.readLong());
+	}
+
+}
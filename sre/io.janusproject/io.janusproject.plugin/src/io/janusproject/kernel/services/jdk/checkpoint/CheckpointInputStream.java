@@ -0,0 +1,95 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.janusproject.kernel.services.jdk.checkpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.util.Map;
+import java.util.UUID;
+
+import io.janusproject.kernel.services.jdk.network.JavaBinaryEventSerializer.ClassLoaderObjectInputStream;
+
+import io.sarl.lang.core.Agent;
+
+/**
+ * Stream from which a checkpoint is read.
+ *
+ * <p>The references that are written by {@link CheckpointOutputStream} are replaced by the objects of
+ * the restored agents.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class CheckpointInputStream extends ClassLoaderObjectInputStream {
+
+	private final Map<UUID, AgentStructure> agents;
+
+	/** Constructor.
+	 *
+	 * @param input the stream from which the checkpoint is read.
+	 * @param agents the structures of the restored agents. This map is filled while reading the checkpoint.
+	 * @throws IOException if the stream cannot be read.
+	 */
+	CheckpointInputStream(InputStream input, Map<UUID, AgentStructure> agents) throws IOException {
+		super(input);
+		this.agents = agents;
+		enableResolveObject(true);
+	}
+
+	/** Replies the restored agent with the given identifier.
+	 *
+	 * @param id the identifier.
+	 * @return the agent, or {@code null} if it is not part of the checkpoint.
+	 */
+	Agent getAgent(UUID id) {
+		final AgentStructure structure = this.agents.get(id);
+		return structure == null ? null : structure.getAgent();
+	}
+
+	/** Replies the structure of the restored agent with the given identifier.
+	 *
+	 * @param id the identifier.
+	 * @return the structure.
+	 * @throws IOException if the agent is not restored.
+	 */
+	AgentStructure getAgentStructure(UUID id) throws IOException {
+		final AgentStructure structure = this.agents.get(id);
+		if (structure == null || structure.getAgent() == null) {
+			throw new InvalidObjectException(id.toString());
+		}
+		return structure;
+	}
+
+	@Override
+	protected Object resolveObject(Object obj) throws IOException {
+		if (obj instanceof ObjectReference) {
+			return ((ObjectReference) obj).resolve(this);
+		}
+		return obj;
+	}
+
+}
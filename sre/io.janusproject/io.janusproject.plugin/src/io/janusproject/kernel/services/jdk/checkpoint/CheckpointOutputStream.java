@@ -0,0 +1,126 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.janusproject.kernel.services.jdk.checkpoint;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import io.sarl.core.AgentTask;
+import io.sarl.lang.core.Behavior;
+import io.sarl.lang.core.Skill;
+
+/**
+ * Stream in which a checkpoint is written.
+ *
+ * <p>The agents, their behaviors and skills, their tasks and the closures are written as references
+ * ({@link ObjectReference}), which are resolved when the checkpoint is read by {@link CheckpointInputStream}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class CheckpointOutputStream extends ObjectOutputStream {
+
+	private final Map<Object, ObjectReference> references = new IdentityHashMap<>();
+
+	private final Map<Class<?>, StackTraceElement> creationSites = new HashMap<>();
+
+	private UUID currentAgent;
+
+	/** Constructor.
+	 *
+	 * @param output the stream in which the checkpoint is written.
+	 * @throws IOException if the stream cannot be written.
+	 */
+	CheckpointOutputStream(OutputStream output) throws IOException {
+		super(output);
+		enableReplaceObject(true);
+	}
+
+	/** Register the agent, the behaviors and the skills of the given structure as references.
+	 *
+	 * @param structure the structure of an agent.
+	 */
+	void addReferences(AgentStructure structure) {
+		final UUID id = structure.getID();
+		this.references.put(structure.getAgent(), new ObjectReference.AgentReference(id));
+		final List<Behavior> behaviors = structure.getBehaviors();
+		for (int i = 0; i < behaviors.size(); ++i) {
+			this.references.put(behaviors.get(i), new ObjectReference.BehaviorReference(id, i));
+		}
+		final List<Skill> skills = structure.getSkills();
+		for (int i = 0; i < skills.size(); ++i) {
+			this.references.put(skills.get(i), new ObjectReference.SkillReference(id, i));
+		}
+	}
+
+	/** Register the site at which the given closure was created. It permits to locate the code of the closure.
+	 *
+	 * @param closure the closure, or {@code null}.
+	 * @param site the creation site, or {@code null} if unknown.
+	 */
+	void addCreationSite(Object closure, StackTraceElement site) {
+		if (closure != null && site != null) {
+			this.creationSites.putIfAbsent(closure.getClass(), site);
+		}
+	}
+
+	/** Change the agent for which the values are written. The tasks are references to the tasks of this agent.
+	 *
+	 * @param agent the identifier of the agent.
+	 */
+	void setCurrentAgent(UUID agent) {
+		this.currentAgent = agent;
+	}
+
+	@Override
+	protected Object replaceObject(Object obj) throws IOException {
+		final ObjectReference reference = this.references.get(obj);
+		if (reference != null) {
+			return reference;
+		}
+		if (obj instanceof AgentTask) {
+			return new ObjectReference.TaskReference(this.currentAgent, ((AgentTask) obj).getName());
+		}
+		final ClosureReference restoredClosure = ClosureReference.of(obj);
+		if (restoredClosure != null) {
+			return restoredClosure;
+		}
+		if (ClosureLocator.isClosure(obj.getClass())) {
+			final ObjectReference closure = ClosureLocator.createReference(obj, this.creationSites.get(obj.getClass()));
+			if (closure != null) {
+				return closure;
+			}
+		}
+		return obj;
+	}
+
+}
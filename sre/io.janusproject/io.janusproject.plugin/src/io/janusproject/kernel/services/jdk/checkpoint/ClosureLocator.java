@@ -0,0 +1,352 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.janusproject.kernel.services.jdk.checkpoint;
+
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.janusproject.util.ClassFileReader;
+
+/**
+ * Locator of the code of the closures, i.e. of the lambda expressions that are created by the agents.
+ *
+ * <p>The type of a lambda expression is generated at run-time, so its instances cannot be serialized. The code
+ * of a lambda expression is the implementation function that is passed to the {@code LambdaMetafactory} by the
+ * {@code invokedynamic} instruction that creates the lambda. This instruction is searched in the class file of
+ * the type that declares the lambda:<ul>
+ * <li>the instructions are filtered by the types of the values captured by the lambda and by the type of the
+ * lambda;</li>
+ * <li>if several instructions are candidates, the creation site of the lambda, e.g. the function that has
+ * scheduled a task, permits to select the nearest instruction before the site in the same function.</li>
+ * </ul>
+ * A lambda that is stored in a static field, e.g. {@code AgentTask.TRUE_GUARD}, is referenced by this field.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class ClosureLocator {
+
+	private static final String LAMBDA_SEPARATOR = "$$Lambda"; //$NON-NLS-1$
+
+	private static final String METAFACTORY = "java/lang/invoke/LambdaMetafactory"; //$NON-NLS-1$
+
+	private static final int BYTE_MASK = 0xFF;
+
+	private static final int INVOKEDYNAMIC = 0xBA;
+
+	/** The lambda expressions that are declared in each type.
+	 */
+	private static final ClassValue<List<LambdaSite>> LAMBDA_SITES = new ClassValue<List<LambdaSite>>() {
+		@Override
+		protected List<LambdaSite> computeValue(Class<?> type) {
+			return read(type);
+		}
+	};
+
+	private ClosureLocator() {
+		//
+	}
+
+	/** Replies if the given type is the type of a closure that cannot be serialized as-is.
+	 *
+	 * @param type the type to test.
+	 * @return {@code true} if the type is a lambda expression, or an anonymous type that is not serializable.
+	 */
+	static boolean isClosure(Class<?> type) {
+		return isLambda(type) || (type.isAnonymousClass() && !Serializable.class.isAssignableFrom(type));
+	}
+
+	private static boolean isLambda(Class<?> type) {
+		return type.isSynthetic() && type.getName().contains(LAMBDA_SEPARATOR);
+	}
+
+	/** Create the reference to the given closure.
+	 *
+	 * @param closure the closure.
+	 * @param site the creation site of the closure, or {@code null} if unknown.
+	 * @return the reference, or {@code null} if the closure is an anonymous type that is not stored in a static field.
+	 * @throws NotSerializableException if the code of the lambda expression cannot be located.
+	 */
+	static ObjectReference createReference(Object closure, StackTraceElement site) throws NotSerializableException {
+		final Class<?> type = closure.getClass();
+		final boolean lambda = isLambda(type);
+		final Class<?> host = lambda ? getHostType(type) : type.getEnclosingClass();
+		if (host != null) {
+			final ObjectReference constant = ObjectReference.StaticFieldReference.find(host, closure);
+			if (constant != null) {
+				return constant;
+			}
+		}
+		if (!lambda) {
+			return null;
+		}
+		final NotSerializableException error = new NotSerializableException(
+				MessageFormat.format(Messages.ClosureLocator_0, type.getName()));
+		if (host == null || type.getInterfaces().length == 0) {
+			throw error;
+		}
+		final Class<?> functionalInterface = type.getInterfaces()[0];
+		final Field[] captured = getCapturedFields(type);
+		final Class<?>[] capturedTypes = new Class<?>[captured.length];
+		final Object[] capturedValues = new Object[captured.length];
+		try {
+			for (int i = 0; i < captured.length; ++i) {
+				capturedTypes[i] = captured[i].getType();
+				capturedValues[i] = captured[i].get(closure);
+			}
+		} catch (IllegalAccessException | RuntimeException exception) {
+			error.initCause(exception);
+			throw error;
+		}
+		final LambdaSite lambdaSite = select(LAMBDA_SITES.get(host), getMethodDescriptor(capturedTypes, functionalInterface),
+				host, site);
+		if (lambdaSite == null) {
+			throw error;
+		}
+		return new ClosureReference(functionalInterface.getName(), lambdaSite.implementationKind,
+				lambdaSite.implementationOwner, lambdaSite.implementationName, lambdaSite.implementationDescriptor,
+				capturedValues);
+	}
+
+	/** Replies the type that declares the given lambda expression.
+	 */
+	private static Class<?> getHostType(Class<?> type) {
+		final String name = type.getName();
+		try {
+			return Class.forName(name.substring(0, name.indexOf(LAMBDA_SEPARATOR)), false, type.getClassLoader());
+		} catch (ClassNotFoundException | LinkageError exception) {
+			return null;
+		}
+	}
+
+	/** Replies the fields in which the lambda expression stores its captured values, in the order of the capture.
+	 */
+	private static Field[] getCapturedFields(Class<?> type) {
+		final List<Field> fields = new ArrayList<>();
+		for (final Field field : type.getDeclaredFields()) {
+			if (!Modifier.isStatic(field.getModifiers())) {
+				field.setAccessible(true);
+				fields.add(field);
+			}
+		}
+		// The fields are named "arg$1", "arg$2", etc.
+		Collections.sort(fields, (first, second) -> Integer.compare(getCaptureIndex(first), getCaptureIndex(second)));
+		return fields.toArray(new Field[fields.size()]);
+	}
+
+	private static int getCaptureIndex(Field field) {
+		final String name = field.getName();
+		try {
+			return Integer.parseInt(name.substring(name.lastIndexOf('$') + 1));
+		} catch (NumberFormatException exception) {
+			return Integer.MAX_VALUE;
+		}
+	}
+
+	/** Select the lambda expression that is created by an instruction with the given descriptor.
+	 *
+	 * @return the lambda, or {@code null} if none or several lambdas with different codes are candidates.
+	 */
+	private static LambdaSite select(List<LambdaSite> sites, String descriptor, Class<?> host, StackTraceElement site) {
+		List<LambdaSite> candidates = new ArrayList<>();
+		for (final LambdaSite lambdaSite : sites) {
+			if (lambdaSite.descriptor.equals(descriptor)) {
+				candidates.add(lambdaSite);
+			}
+		}
+		if (candidates.size() > 1 && site != null && host.getName().equals(site.getClassName())) {
+			final List<LambdaSite> nearest = new ArrayList<>();
+			int nearestLine = -1;
+			for (final LambdaSite candidate : candidates) {
+				if (candidate.method.equals(site.getMethodName()) && candidate.line <= site.getLineNumber()
+						&& candidate.line >= nearestLine) {
+					if (candidate.line > nearestLine) {
+						nearest.clear();
+						nearestLine = candidate.line;
+					}
+					nearest.add(candidate);
+				}
+			}
+			if (!nearest.isEmpty()) {
+				candidates = nearest;
+			}
+		}
+		LambdaSite selected = null;
+		for (final LambdaSite candidate : candidates) {
+			if (selected == null) {
+				selected = candidate;
+			} else if (!selected.hasSameImplementation(candidate)) {
+				return null;
+			}
+		}
+		return selected;
+	}
+
+	/** Replies the descriptor of the given type in a class file.
+	 *
+	 * @param type the type.
+	 * @return the descriptor.
+	 */
+	static String getDescriptor(Class<?> type) {
+		if (type.isArray()) {
+			return type.getName().replace('.', '/');
+		}
+		if (void.class.equals(type)) {
+			return "V"; //$NON-NLS-1$
+		}
+		if (type.isPrimitive()) {
+			// The name of an array type is "[" followed by the descriptor of the type of the elements
+			return Array.newInstance(type, 0).getClass().getName().substring(1);
+		}
+		return 'L' + type.getName().replace('.', '/') + ';';
+	}
+
+	/** Replies the descriptor of a function in a class file.
+	 *
+	 * @param parameterTypes the types of the parameters.
+	 * @param returnType the type of the returned value.
+	 * @return the descriptor.
+	 */
+	static String getMethodDescriptor(Class<?>[] parameterTypes, Class<?> returnType) {
+		final StringBuilder descriptor = new StringBuilder();
+		descriptor.append('(');
+		for (final Class<?> type : parameterTypes) {
+			descriptor.append(getDescriptor(type));
+		}
+		descriptor.append(')');
+		descriptor.append(getDescriptor(returnType));
+		return descriptor.toString();
+	}
+
+	/** Read the lambda expressions that are declared in the class file of the given type.
+	 */
+	private static List<LambdaSite> read(Class<?> type) {
+		final ClassFileReader classFile = ClassFileReader.read(type);
+		if (classFile != null) {
+			try {
+				final int[][] bootstrapMethods = classFile.getBootstrapMethods();
+				final List<LambdaSite> sites = new ArrayList<>();
+				for (final ClassFileReader.Method method : classFile.getMethods()) {
+					final byte[] code = method.getCode();
+					int pc = 0;
+					while (code != null && pc < code.length) {
+						if ((code[pc] & BYTE_MASK) == INVOKEDYNAMIC) {
+							final LambdaSite site = getLambdaSite(classFile, method.getName(), method.getLine(pc),
+									ClassFileReader.readUnsignedShort(code, pc + 1), bootstrapMethods);
+							if (site != null) {
+								sites.add(site);
+							}
+						}
+						pc += ClassFileReader.getInstructionLength(code, pc);
+					}
+				}
+				return sites;
+			} catch (RuntimeException exception) {
+				// The class file is malformed.
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/** Replies the lambda expression that is created by the invokedynamic instruction with the given constant.
+	 *
+	 * @return the lambda, or {@code null} if the instruction is not a call to the lambda metafactory.
+	 */
+	private static LambdaSite getLambdaSite(ClassFileReader classFile, String method, int line, int index,
+			int[][] bootstrapMethods) {
+		final int bootstrapIndex = classFile.getFirstReference(index);
+		if (bootstrapIndex < 0 || bootstrapIndex >= bootstrapMethods.length) {
+			return null;
+		}
+		final int[] bootstrap = bootstrapMethods[bootstrapIndex];
+		// The arguments of the metafactory are: the erased type of the function, and the implementation
+		final int factory = classFile.getSecondReference(bootstrap[0]);
+		if (bootstrap.length < 3 || !METAFACTORY.equals(classFile.getClassName(classFile.getFirstReference(factory)))) {
+			return null;
+		}
+		final int implementation = bootstrap[2];
+		final int implementationReference = classFile.getSecondReference(implementation);
+		final int implementationNameAndType = classFile.getSecondReference(implementationReference);
+		return new LambdaSite(method, line, classFile.getUtf8(classFile.getSecondReference(classFile.getSecondReference(index))),
+				classFile.getFirstReference(implementation),
+				classFile.getClassName(classFile.getFirstReference(implementationReference)).replace('/', '.'),
+				classFile.getUtf8(classFile.getFirstReference(implementationNameAndType)),
+				classFile.getUtf8(classFile.getSecondReference(implementationNameAndType)));
+	}
+
+	/**
+	 * Lambda expression that is created by an invokedynamic instruction.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class LambdaSite {
+
+		final String method;
+
+		final int line;
+
+		final String descriptor;
+
+		final int implementationKind;
+
+		final String implementationOwner;
+
+		final String implementationName;
+
+		final String implementationDescriptor;
+
+		LambdaSite(String method, int line, String descriptor, int implementationKind, String implementationOwner,
+				String implementationName, String implementationDescriptor) {
+			this.method = method;
+			this.line = line;
+			this.descriptor = descriptor;
+			this.implementationKind = implementationKind;
+			this.implementationOwner = implementationOwner;
+			this.implementationName = implementationName;
+			this.implementationDescriptor = implementationDescriptor;
+		}
+
+		boolean hasSameImplementation(LambdaSite site) {
+			return this.implementationKind == site.implementationKind
+					&& this.implementationOwner.equals(site.implementationOwner)
+					&& this.implementationName.equals(site.implementationName)
+					&& this.implementationDescriptor.equals(site.implementationDescriptor);
+		}
+
+	}
+
+}
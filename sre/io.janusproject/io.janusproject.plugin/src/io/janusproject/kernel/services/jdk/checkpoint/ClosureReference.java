@@ -0,0 +1,213 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.janusproject.kernel.services.jdk.checkpoint;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+import io.janusproject.util.ClassFinder;
+
+/**
+ * Reference to a lambda expression: the function that implements the lambda, and the captured values.
+ *
+ * <p>The lambda is restored as a proxy of its functional interface that invokes the implementation function
+ * with the captured values followed by the arguments of the call. The proxy is written as the same reference
+ * when a new checkpoint is written.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class ClosureReference extends ObjectReference {
+
+	private static final long serialVersionUID = 5307934624017232166L;
+
+	/** Kind of the method handles that invoke a static function.
+	 */
+	private static final int REF_INVOKE_STATIC = 6;
+
+	/** Kind of the method handles that invoke a constructor.
+	 */
+	private static final int REF_NEW_INVOKE_SPECIAL = 8;
+
+	private final String functionalInterface;
+
+	private final int implementationKind;
+
+	private final String implementationOwner;
+
+	private final String implementationName;
+
+	private final String implementationDescriptor;
+
+	private final Object[] capturedValues;
+
+	/** Constructor.
+	 *
+	 * @param functionalInterface the name of the functional interface that is implemented by the lambda.
+	 * @param implementationKind the kind of the method handle of the implementation function.
+	 * @param implementationOwner the name of the type that declares the implementation function.
+	 * @param implementationName the name of the implementation function.
+	 * @param implementationDescriptor the descriptor of the implementation function.
+	 * @param capturedValues the values that are captured by the lambda.
+	 */
+	ClosureReference(String functionalInterface, int implementationKind, String implementationOwner,
+			String implementationName, String implementationDescriptor, Object[] capturedValues) {
+		this.functionalInterface = functionalInterface;
+		this.implementationKind = implementationKind;
+		this.implementationOwner = implementationOwner;
+		this.implementationName = implementationName;
+		this.implementationDescriptor = implementationDescriptor;
+		this.capturedValues = capturedValues;
+	}
+
+	/** Replies the reference of the given object if it is a restored lambda.
+	 *
+	 * @param object the object.
+	 * @return the reference, or {@code null} if the object is not a restored lambda.
+	 */
+	static ClosureReference of(Object object) {
+		if (Proxy.isProxyClass(object.getClass())) {
+			final InvocationHandler handler = Proxy.getInvocationHandler(object);
+			if (handler instanceof ClosureHandler) {
+				return ((ClosureHandler) handler).getReference();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	Object resolve(CheckpointInputStream stream) throws IOException {
+		final Class<?> interfaceType = ClassFinder.findClass(this.functionalInterface);
+		final Class<?> owner = ClassFinder.findClass(this.implementationOwner);
+		if (interfaceType == null || owner == null) {
+			throw new InvalidObjectException(toString());
+		}
+		final Executable implementation = findImplementation(owner);
+		if (implementation == null) {
+			throw new InvalidObjectException(toString());
+		}
+		implementation.setAccessible(true);
+		return Proxy.newProxyInstance(interfaceType.getClassLoader(), new Class<?>[] {interfaceType},
+				new ClosureHandler(this, implementation));
+	}
+
+	private Executable findImplementation(Class<?> owner) {
+		if (this.implementationKind == REF_NEW_INVOKE_SPECIAL) {
+			for (final Constructor<?> constructor : owner.getDeclaredConstructors()) {
+				if (this.implementationDescriptor.equals(
+						ClosureLocator.getMethodDescriptor(constructor.getParameterTypes(), void.class))) {
+					return constructor;
+				}
+			}
+			return null;
+		}
+		for (Class<?> type = owner; type != null; type = type.getSuperclass()) {
+			for (final Method method : type.getDeclaredMethods()) {
+				if (this.implementationName.equals(method.getName()) && this.implementationDescriptor.equals(
+						ClosureLocator.getMethodDescriptor(method.getParameterTypes(), method.getReturnType()))) {
+					return method;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return MessageFormat.format("{0}::{1}{2}", this.implementationOwner, //$NON-NLS-1$
+				this.implementationName, this.implementationDescriptor);
+	}
+
+	/**
+	 * Invocation handler of a restored lambda.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class ClosureHandler implements InvocationHandler {
+
+		private final ClosureReference reference;
+
+		private final Executable implementation;
+
+		ClosureHandler(ClosureReference reference, Executable implementation) {
+			this.reference = reference;
+			this.implementation = implementation;
+		}
+
+		ClosureReference getReference() {
+			return this.reference;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				switch (method.getName()) {
+				case "equals": //$NON-NLS-1$
+					return Boolean.valueOf(proxy == args[0]);
+				case "hashCode": //$NON-NLS-1$
+					return Integer.valueOf(System.identityHashCode(proxy));
+				default:
+					return this.reference.toString();
+				}
+			}
+			final Object[] captured = this.reference.capturedValues;
+			final Object[] arguments;
+			if (args == null || args.length == 0) {
+				arguments = captured;
+			} else {
+				arguments = Arrays.copyOf(captured, captured.length + args.length);
+				System.arraycopy(args, 0, arguments, captured.length, args.length);
+			}
+			try {
+				if (this.implementation instanceof Constructor<?>) {
+					return ((Constructor<?>) this.implementation).newInstance(arguments);
+				}
+				final Method function = (Method) this.implementation;
+				if (this.reference.implementationKind == REF_INVOKE_STATIC) {
+					return function.invoke(null, arguments);
+				}
+				// The receiver of an instance function is the first argument
+				return function.invoke(arguments[0], Arrays.copyOfRange(arguments, 1, arguments.length));
+			} catch (InvocationTargetException exception) {
+				throw exception.getCause();
+			}
+		}
+
+	}
+
+}
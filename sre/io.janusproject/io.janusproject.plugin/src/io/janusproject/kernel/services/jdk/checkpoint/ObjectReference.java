@@ -0,0 +1,246 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.janusproject.kernel.services.jdk.checkpoint;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.UUID;
+
+import io.janusproject.util.ClassFinder;
+
+/**
+ * Reference to an object that cannot be serialized, and that is written in a checkpoint in place of the object.
+ *
+ * <p>The reference is replaced by the object of the restored kernel when the checkpoint is read.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+abstract class ObjectReference implements Serializable {
+
+	private static final long serialVersionUID = 2301646813740935522L;
+
+	/** Replies the referenced object in the restored kernel.
+	 *
+	 * @param stream the stream from which the checkpoint is read.
+	 * @return the referenced object.
+	 * @throws IOException if the object cannot be found.
+	 */
+	abstract Object resolve(CheckpointInputStream stream) throws IOException;
+
+	/**
+	 * Reference to an agent.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static final class AgentReference extends ObjectReference {
+
+		private static final long serialVersionUID = -4018745196398414917L;
+
+		private final UUID agent;
+
+		AgentReference(UUID agent) {
+			this.agent = agent;
+		}
+
+		@Override
+		Object resolve(CheckpointInputStream stream) {
+			return stream.getAgent(this.agent);
+		}
+
+	}
+
+	/**
+	 * Reference to a behavior of an agent.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static final class BehaviorReference extends ObjectReference {
+
+		private static final long serialVersionUID = 6640285375318447906L;
+
+		private final UUID agent;
+
+		private final int index;
+
+		/** Constructor.
+		 *
+		 * @param agent the identifier of the owner of the behavior.
+		 * @param index the index of the behavior in the structure of its owner.
+		 */
+		BehaviorReference(UUID agent, int index) {
+			this.agent = agent;
+			this.index = index;
+		}
+
+		@Override
+		Object resolve(CheckpointInputStream stream) throws IOException {
+			return stream.getAgentStructure(this.agent).getBehaviors().get(this.index);
+		}
+
+	}
+
+	/**
+	 * Reference to a skill of an agent that is not a built-in skill.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static final class SkillReference extends ObjectReference {
+
+		private static final long serialVersionUID = -2776618520390427870L;
+
+		private final UUID agent;
+
+		private final int index;
+
+		/** Constructor.
+		 *
+		 * @param agent the identifier of the owner of the skill.
+		 * @param index the index of the skill in the structure of its owner.
+		 */
+		SkillReference(UUID agent, int index) {
+			this.agent = agent;
+			this.index = index;
+		}
+
+		@Override
+		Object resolve(CheckpointInputStream stream) throws IOException {
+			return stream.getAgentStructure(this.agent).getSkills().get(this.index);
+		}
+
+	}
+
+	/**
+	 * Reference to a task of an agent.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static final class TaskReference extends ObjectReference {
+
+		private static final long serialVersionUID = 1572366040926368231L;
+
+		private final UUID agent;
+
+		private final String name;
+
+		/** Constructor.
+		 *
+		 * @param agent the identifier of the agent that is running the task.
+		 * @param name the name of the task.
+		 */
+		TaskReference(UUID agent, String name) {
+			this.agent = agent;
+			this.name = name;
+		}
+
+		@Override
+		Object resolve(CheckpointInputStream stream) throws IOException {
+			return stream.getAgentStructure(this.agent).getSchedulesSkill().task(this.name);
+		}
+
+	}
+
+	/**
+	 * Reference to the value of a static field, e.g. a closure that is defined as a constant.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	static final class StaticFieldReference extends ObjectReference {
+
+		private static final long serialVersionUID = -7302958606453962614L;
+
+		private final String type;
+
+		private final String field;
+
+		private StaticFieldReference(String type, String field) {
+			this.type = type;
+			this.field = field;
+		}
+
+		/** Search for a static field of the given type that contains the given value.
+		 *
+		 * @param type the type that may declare the field.
+		 * @param value the value.
+		 * @return the reference to the field, or {@code null} if the value is not stored in a static field.
+		 */
+		static StaticFieldReference find(Class<?> type, Object value) {
+			try {
+				for (final Field field : type.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+						field.setAccessible(true);
+						if (field.get(null) == value) {
+							return new StaticFieldReference(type.getName(), field.getName());
+						}
+					}
+				}
+			} catch (IllegalAccessException | RuntimeException exception) {
+				// The value is not a constant
+			}
+			return null;
+		}
+
+		@Override
+		Object resolve(CheckpointInputStream stream) throws IOException {
+			final Class<?> declaringType = ClassFinder.findClass(this.type);
+			if (declaringType == null) {
+				throw new InvalidObjectException(this.type);
+			}
+			try {
+				final Field declaredField = declaringType.getDeclaredField(this.field);
+				declaredField.setAccessible(true);
+				return declaredField.get(null);
+			} catch (ReflectiveOperationException | RuntimeException exception) {
+				throw new IOException(exception);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,723 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.services.jdk.checkpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.util.concurrent.Service;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
+import io.janusproject.kernel.bic.InternalEventBusCapacity;
+import io.janusproject.kernel.bic.InternalEventBusCapacity.OwnerState;
+import io.janusproject.kernel.bic.SchedulesSkill;
+import io.janusproject.kernel.bic.TaskSchedule;
+import io.janusproject.services.AbstractDependentService;
+import io.janusproject.services.checkpoint.CheckpointService;
+import io.janusproject.services.contextspace.ContextSpaceService;
+import io.janusproject.services.spawn.SpawnService;
+import io.janusproject.services.spawn.SpawnServiceListener;
+import io.janusproject.util.ClassFinder;
+
+import io.sarl.core.InnerContextAccess;
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.AgentContext;
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.SREutils;
+import io.sarl.lang.core.Space;
+import io.sarl.lang.core.SpaceSpecification;
+import io.sarl.lang.util.SynchronizedIterable;
+import io.sarl.lang.util.SynchronizedSet;
+import io.sarl.util.OpenEventSpace;
+
+/**
+ * Implementation of the checkpoints that is based on a binary stream.
+ *
+ * <p>The checkpoint is composed of, in order: a header with the identifier of the universe context; the contexts
+ * with their spaces and the identifiers of the agents that are participating to these spaces; the structures of
+ * the agents, parents first, i.e. the types of the agents, of their behaviors and of their skills that are not
+ * built-in skills; and the values of the agents. The values of an agent are the schedules of its tasks, the events
+ * that it has received and not yet dispatched, and the fields of the agent, of its behaviors and of its skills.
+ * The static, transient and synthetic fields, and the fields that are generated by the SARL compiler (prefixed by
+ * {@code $}), are ignored.
+ *
+ * <p>The values are written with the Java serialization, so they must be serializable, or be references to the
+ * agents, their behaviors, skills and tasks, or be closures. A closure is written as the function that implements
+ * it with its captured values (see {@link ClosureLocator}).
+ *
+ * <p>The checkpoint is written while the dispatching of the events and the tasks of the agents are paused. The
+ * agents that are spawned while the checkpoint is written are not part of it.
+ *
+ * <p>The agents are restored with {@link SpawnService#restore(AgentContext, UUID, Class, Procedure1)}, so they
+ * do not receive {@code Initialize} and the other agents do not receive {@code AgentSpawned}. The behaviors are
+ * registered without their event filters, and the skills are mapped to their capacities without being installed
+ * again. The inner contexts are created by the agents, so the identifiers of their default spaces are not restored.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@Singleton
+public class StandardCheckpointService extends AbstractDependentService implements CheckpointService {
+
+	private static final int MAGIC_NUMBER = 0x4A434B50;
+
+	private static final short FORMAT_VERSION = 2;
+
+	private static final long POLLING_DELAY = 1;
+
+	private static final String SARL_CORE_PACKAGE = Agent.class.getPackage().getName() + '.';
+
+	private static final ClassValue<Field[][]> CHECKPOINTED_FIELDS = new ClassValue<Field[][]>() {
+		@Override
+		protected Field[][] computeValue(Class<?> type) {
+			final List<Field[]> levels = new ArrayList<>();
+			// The fields of the agents, behaviors and skills are declared by the types of the agent-oriented programs.
+			for (Class<?> level = type; level != null && !level.getName().startsWith(SARL_CORE_PACKAGE);
+					level = level.getSuperclass()) {
+				final List<Field> fields = new ArrayList<>();
+				for (final Field field : level.getDeclaredFields()) {
+					final int modifiers = field.getModifiers();
+					if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()
+							&& !field.getName().startsWith("$")) { //$NON-NLS-1$
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+				levels.add(fields.toArray(new Field[fields.size()]));
+			}
+			return levels.toArray(new Field[levels.size()][]);
+		}
+	};
+
+	private final ConcurrentMap<UUID, Agent> agents = new ConcurrentHashMap<>();
+
+	private final SpawnServiceListener spawnListener = new SpawnListener();
+
+	private SpawnService spawnService;
+
+	private ContextSpaceService contextService;
+
+	/**
+	 * Construct the service.
+	 */
+	public StandardCheckpointService() {
+		//
+	}
+
+	/** Change the spawning service.
+	 *
+	 * @param service the spawning service.
+	 */
+	@Inject
+	void setSpawnService(SpawnService service) {
+		this.spawnService = service;
+	}
+
+	/** Change the context and space service.
+	 *
+	 * @param service the context and space service.
+	 */
+	@Inject
+	void setContextSpaceService(ContextSpaceService service) {
+		this.contextService = service;
+	}
+
+	@Override
+	public final Class<? extends Service> getServiceType() {
+		return CheckpointService.class;
+	}
+
+	@Override
+	public Collection<Class<? extends Service>> getServiceDependencies() {
+		return Arrays.<Class<? extends Service>>asList(SpawnService.class, ContextSpaceService.class);
+	}
+
+	@Override
+	protected void doStart() {
+		this.spawnService.addSpawnServiceListener(this.spawnListener);
+		notifyStarted();
+	}
+
+	@Override
+	protected void doStop() {
+		try {
+			this.spawnService.removeSpawnServiceListener(this.spawnListener);
+			this.agents.clear();
+		} finally {
+			notifyStopped();
+		}
+	}
+
+	@Override
+	public void checkpoint(OutputStream output, long timeout, TimeUnit unit)
+			throws IOException, TimeoutException, InterruptedException {
+		final List<Agent> pausedAgents = getAgentsParentsFirst();
+		try {
+			for (final Agent agent : pausedAgents) {
+				pause(agent);
+			}
+			awaitIdle(pausedAgents, timeout, unit);
+			final List<AgentStructure> structures = new ArrayList<>(pausedAgents.size());
+			for (final Agent agent : pausedAgents) {
+				if (this.agents.containsKey(agent.getID())) {
+					structures.add(AgentStructure.of(agent));
+				}
+			}
+			write(output, structures);
+		} finally {
+			for (final Agent agent : pausedAgents) {
+				resume(agent);
+			}
+		}
+	}
+
+	/** Pause the dispatching of the events and the tasks of the given agent.
+	 *
+	 * @param agent the agent.
+	 */
+	private static void pause(Agent agent) {
+		AgentStructure.getEventBus(agent).pauseEventDispatching();
+		final SchedulesSkill schedules = AgentStructure.getSchedulesSkill(agent);
+		if (schedules != null) {
+			schedules.pause();
+		}
+	}
+
+	/** Resume the dispatching of the events and the tasks of the given agent.
+	 *
+	 * @param agent the agent.
+	 */
+	private static void resume(Agent agent) {
+		final SchedulesSkill schedules = AgentStructure.getSchedulesSkill(agent);
+		if (schedules != null) {
+			schedules.resume();
+		}
+		AgentStructure.getEventBus(agent).resumeEventDispatching();
+	}
+
+	/** Wait until no event handler and no task of the given paused agents is running. Because the agents are
+	 * paused, they cannot become busy again.
+	 *
+	 * @param pausedAgents the agents.
+	 * @param timeout the maximum time to wait.
+	 * @param unit the unit of the timeout.
+	 * @throws TimeoutException if the agents are not idle before the timeout.
+	 * @throws InterruptedException if the current thread is interrupted.
+	 */
+	private void awaitIdle(List<Agent> pausedAgents, long timeout, TimeUnit unit)
+			throws TimeoutException, InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		final List<Agent> busyAgents = new ArrayList<>(pausedAgents);
+		while (true) {
+			busyAgents.removeIf(it -> isIdle(it));
+			if (busyAgents.isEmpty()) {
+				return;
+			}
+			if (System.nanoTime() - deadline >= 0) {
+				throw new TimeoutException(MessageFormat.format(Messages.StandardCheckpointService_0,
+						Long.valueOf(unit.toMillis(timeout))));
+			}
+			Thread.sleep(POLLING_DELAY);
+		}
+	}
+
+	/** Replies if the given paused agent is idle. An agent that is initializing or destroying is not idle,
+	 * because its {@code Initialize} and {@code Destroy} handlers are not dispatched by the paused dispatcher.
+	 *
+	 * @param agent the agent.
+	 * @return {@code true} if the agent is idle.
+	 */
+	private boolean isIdle(Agent agent) {
+		final InternalEventBusCapacity eventBus = AgentStructure.getEventBus(agent);
+		final OwnerState state = eventBus.getOwnerState();
+		if (state == OwnerState.DEAD || !this.agents.containsKey(agent.getID())) {
+			return true;
+		}
+		final SchedulesSkill schedules = AgentStructure.getSchedulesSkill(agent);
+		return state == OwnerState.ALIVE && eventBus.isEventDispatchingIdle() && (schedules == null || schedules.isIdle());
+	}
+
+	/** Replies the agents in an order where each agent is after its parent agent.
+	 *
+	 * @return the agents.
+	 */
+	private List<Agent> getAgentsParentsFirst() {
+		final Map<UUID, Agent> snapshot = new LinkedHashMap<>(this.agents);
+		final List<Agent> ordered = new ArrayList<>(snapshot.size());
+		final Set<UUID> visited = new HashSet<>();
+		for (final Agent agent : snapshot.values()) {
+			addParentsFirst(agent, snapshot, ordered, visited);
+		}
+		return ordered;
+	}
+
+	private static void addParentsFirst(Agent agent, Map<UUID, Agent> snapshot, List<Agent> ordered, Set<UUID> visited) {
+		if (visited.add(agent.getID())) {
+			final Agent parent = snapshot.get(agent.getParentID());
+			if (parent != null) {
+				addParentsFirst(parent, snapshot, ordered, visited);
+			}
+			ordered.add(agent);
+		}
+	}
+
+	private void write(OutputStream output, List<AgentStructure> structures) throws IOException {
+		final CheckpointOutputStream stream = new CheckpointOutputStream(output);
+		stream.writeInt(MAGIC_NUMBER);
+		stream.writeShort(FORMAT_VERSION);
+		AgentStructure.writeUUID(stream, this.contextService.getUniverseContext().getID());
+		final Set<UUID> checkpointedAgents = new HashSet<>();
+		for (final AgentStructure structure : structures) {
+			checkpointedAgents.add(structure.getID());
+		}
+		final Collection<AgentContext> contexts = this.contextService.getContexts();
+		stream.writeInt(contexts.size());
+		for (final AgentContext context : contexts) {
+			writeContext(stream, context, checkpointedAgents);
+		}
+		stream.writeInt(structures.size());
+		final List<List<TaskSchedule>> schedules = new ArrayList<>(structures.size());
+		for (final AgentStructure structure : structures) {
+			structure.write(stream);
+			stream.addReferences(structure);
+			final SchedulesSkill skill = structure.getSchedulesSkill();
+			final List<TaskSchedule> agentSchedules = skill == null ? Collections.emptyList() : skill.getTaskSchedules();
+			for (final TaskSchedule schedule : agentSchedules) {
+				stream.addCreationSite(schedule.getGuard(), schedule.getGuardSite());
+				stream.addCreationSite(schedule.getProcedure(), schedule.getProcedureSite());
+			}
+			schedules.add(agentSchedules);
+		}
+		for (int i = 0; i < structures.size(); ++i) {
+			writeValues(stream, structures.get(i), schedules.get(i));
+		}
+		stream.flush();
+	}
+
+	private static void writeContext(ObjectOutput stream, AgentContext context, Set<UUID> checkpointedAgents)
+			throws IOException {
+		final UUID defaultSpaceID = context.getDefaultSpace().getSpaceID().getID();
+		AgentStructure.writeUUID(stream, context.getID());
+		AgentStructure.writeUUID(stream, defaultSpaceID);
+		final List<Space> spaces = new ArrayList<>();
+		final SynchronizedIterable<? extends Space> allSpaces = context.getSpaces();
+		synchronized (allSpaces.mutex()) {
+			for (final Space space : allSpaces) {
+				if (!defaultSpaceID.equals(space.getSpaceID().getID())) {
+					spaces.add(space);
+				}
+			}
+		}
+		stream.writeInt(spaces.size());
+		for (final Space space : spaces) {
+			AgentStructure.writeUUID(stream, space.getSpaceID().getID());
+			stream.writeUTF(space.getSpaceID().getSpaceSpecification().getName());
+			final List<UUID> participants = new ArrayList<>();
+			final SynchronizedSet<UUID> allParticipants = space.getParticipants();
+			synchronized (allParticipants.mutex()) {
+				for (final UUID participant : allParticipants) {
+					if (checkpointedAgents.contains(participant)) {
+						participants.add(participant);
+					}
+				}
+			}
+			stream.writeInt(participants.size());
+			for (final UUID participant : participants) {
+				AgentStructure.writeUUID(stream, participant);
+			}
+		}
+	}
+
+	private static void writeValues(CheckpointOutputStream stream, AgentStructure structure,
+			List<TaskSchedule> schedules) throws IOException {
+		stream.setCurrentAgent(structure.getID());
+		stream.writeInt(schedules.size());
+		for (final TaskSchedule schedule : schedules) {
+			stream.writeUTF(schedule.getName());
+			stream.writeUTF(schedule.getKind().name());
+			stream.writeLong(schedule.getDelay());
+			stream.writeLong(schedule.getPeriod());
+			stream.writeObject(schedule.getInitiator());
+			stream.writeObject(schedule.getGuard());
+			stream.writeObject(schedule.getProcedure());
+		}
+		stream.writeObject(new ArrayList<>(structure.getEventBus().getPendingEvents()));
+		writeFields(stream, structure.getAgent());
+		for (final Object behavior : structure.getBehaviors()) {
+			writeFields(stream, behavior);
+		}
+		for (final Object skill : structure.getSkills()) {
+			writeFields(stream, skill);
+		}
+	}
+
+	private static void writeFields(ObjectOutput stream, Object object) throws IOException {
+		final Field[][] levels = CHECKPOINTED_FIELDS.get(object.getClass());
+		int count = 0;
+		for (final Field[] fields : levels) {
+			count += fields.length;
+		}
+		stream.writeInt(count);
+		for (int level = 0; level < levels.length; ++level) {
+			for (final Field field : levels[level]) {
+				stream.writeByte(level);
+				stream.writeUTF(field.getName());
+				try {
+					stream.writeObject(field.get(object));
+				} catch (IllegalAccessException exception) {
+					throw new IOException(exception);
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<UUID> restore(InputStream input) throws IOException {
+		final Map<UUID, AgentStructure> structures = new LinkedHashMap<>();
+		final CheckpointInputStream stream = new CheckpointInputStream(input, structures);
+		if (stream.readInt() != MAGIC_NUMBER || stream.readShort() != FORMAT_VERSION) {
+			throw new IOException(Messages.StandardCheckpointService_1);
+		}
+		final UUID universe = AgentStructure.readUUID(stream);
+		final UUID currentUniverse = this.contextService.getUniverseContext().getID();
+		if (!universe.equals(currentUniverse)) {
+			throw new IOException(MessageFormat.format(Messages.StandardCheckpointService_2, universe, currentUniverse));
+		}
+		final int contextCount = stream.readInt();
+		final List<ContextState> contexts = new ArrayList<>(contextCount);
+		for (int i = 0; i < contextCount; ++i) {
+			contexts.add(readContext(stream));
+		}
+		final int agentCount = stream.readInt();
+		for (int i = 0; i < agentCount; ++i) {
+			final AgentStructure structure = AgentStructure.read(stream);
+			structures.put(structure.getID(), structure);
+		}
+
+		// The contexts that are not inner contexts are created before the agents.
+		// The inner contexts are created by their owners.
+		for (final ContextState context : contexts) {
+			if (!structures.containsKey(context.id)) {
+				restoreSpaces(this.contextService.createContext(context.id, context.defaultSpaceID), context);
+			}
+		}
+
+		final List<UUID> restoredAgents = new ArrayList<>(agentCount);
+		try {
+			for (final AgentStructure structure : structures.values()) {
+				restoreAgent(structure);
+				restoredAgents.add(structure.getID());
+			}
+			for (final AgentStructure structure : structures.values()) {
+				readValues(stream, structure);
+			}
+			for (final ContextState context : contexts) {
+				if (structures.containsKey(context.id)) {
+					final AgentContext innerContext = getContext(context.id);
+					if (innerContext != null) {
+						restoreSpaces(innerContext, context);
+					}
+				}
+			}
+			for (final ContextState context : contexts) {
+				final AgentContext agentContext = this.contextService.getContext(context.id);
+				if (agentContext != null) {
+					restoreParticipants(agentContext, context);
+				}
+			}
+		} finally {
+			for (final AgentStructure structure : structures.values()) {
+				if (structure.getAgent() != null) {
+					resume(structure.getAgent());
+				}
+			}
+		}
+		return Collections.unmodifiableList(restoredAgents);
+	}
+
+	/** Create the agent of the given structure, with its behaviors and skills. The agent is paused until the
+	 * checkpoint is completely restored.
+	 *
+	 * @param structure the structure of the agent.
+	 * @throws IOException if the agent cannot be created.
+	 */
+	private void restoreAgent(AgentStructure structure) throws IOException {
+		final AgentContext parent = getContext(structure.getParentID());
+		if (parent == null) {
+			throw new IOException(MessageFormat.format(Messages.StandardCheckpointService_3,
+					structure.getParentID(), structure.getID()));
+		}
+		try {
+			this.spawnService.restore(parent, structure.getID(), structure.getType(), it -> {
+				pause(it);
+				structure.createTraits(it);
+			});
+		} catch (Exception exception) {
+			throw new IOException(MessageFormat.format(Messages.StandardCheckpointService_4, structure.getID()), exception);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void readValues(CheckpointInputStream stream, AgentStructure structure) throws IOException {
+		try {
+			final SchedulesSkill schedules = structure.getSchedulesSkill();
+			final int scheduleCount = stream.readInt();
+			for (int i = 0; i < scheduleCount; ++i) {
+				final String name = stream.readUTF();
+				final TaskSchedule.Kind kind = TaskSchedule.Kind.valueOf(stream.readUTF());
+				final long delay = stream.readLong();
+				final long period = stream.readLong();
+				final Object initiator = stream.readObject();
+				final Function1<? super Agent, ? extends Boolean> guard =
+						(Function1<? super Agent, ? extends Boolean>) stream.readObject();
+				final Procedure1<? super Agent> procedure = (Procedure1<? super Agent>) stream.readObject();
+				if (schedules != null) {
+					schedules.restoreTask(new TaskSchedule(name, kind, delay, period, initiator, guard, procedure, null, null));
+				}
+			}
+			final List<Event> pendingEvents = (List<Event>) stream.readObject();
+			for (final Event event : pendingEvents) {
+				structure.getEventBus().asEventListener().receiveEvent(event);
+			}
+			readFields(stream, structure.getAgent(), structure.getID());
+			for (final Object behavior : structure.getBehaviors()) {
+				readFields(stream, behavior, structure.getID());
+			}
+			for (final Object skill : structure.getSkills()) {
+				readFields(stream, skill, structure.getID());
+			}
+		} catch (ClassNotFoundException | ClassCastException | IllegalArgumentException exception) {
+			throw new IOException(exception);
+		}
+	}
+
+	private static void readFields(ObjectInput stream, Object object, UUID agent) throws IOException, ClassNotFoundException {
+		final Field[][] fields = CHECKPOINTED_FIELDS.get(object.getClass());
+		final int count = stream.readInt();
+		for (int i = 0; i < count; ++i) {
+			final int level = stream.readByte();
+			final String name = stream.readUTF();
+			final Object value = stream.readObject();
+			final Field field = findField(fields, level, name);
+			if (field == null) {
+				throw new IOException(MessageFormat.format(Messages.StandardCheckpointService_5, name, agent));
+			}
+			try {
+				field.set(object, value);
+			} catch (IllegalAccessException | IllegalArgumentException exception) {
+				throw new IOException(MessageFormat.format(Messages.StandardCheckpointService_5, name, agent), exception);
+			}
+		}
+	}
+
+	private static Field findField(Field[][] fields, int level, String name) {
+		if (level >= 0 && level < fields.length) {
+			for (final Field field : fields[level]) {
+				if (field.getName().equals(name)) {
+					return field;
+				}
+			}
+		}
+		return null;
+	}
+
+	/** Replies the context with the given identifier. If the context is the inner context of an agent, it
+	 * is created by this agent.
+	 *
+	 * @param id the identifier of the context.
+	 * @return the context, or {@code null} if it cannot be found.
+	 */
+	private AgentContext getContext(UUID id) {
+		final AgentContext context = this.contextService.getContext(id);
+		if (context == null) {
+			final Agent owner = this.agents.get(id);
+			if (owner != null) {
+				return SREutils.getInternalSkill(owner, InnerContextAccess.class).getInnerContext();
+			}
+		}
+		return context;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static void restoreSpaces(AgentContext context, ContextState state) {
+		for (final SpaceState space : state.spaces) {
+			if (context.getSpace(space.id) == null) {
+				context.getOrCreateSpaceWithID((Class) space.specification, space.id);
+			}
+		}
+	}
+
+	private void restoreParticipants(AgentContext context, ContextState state) {
+		for (final SpaceState spaceState : state.spaces) {
+			final Space space = context.getSpace(spaceState.id);
+			if (space instanceof OpenEventSpace) {
+				final SynchronizedSet<UUID> participants = space.getParticipants();
+				for (final UUID participant : spaceState.participants) {
+					final Agent agent = this.agents.get(participant);
+					if (agent != null && !participants.contains(participant)) {
+						((OpenEventSpace) space).register(AgentStructure.getEventBus(agent).asEventListener());
+					}
+				}
+			}
+		}
+	}
+
+	private static ContextState readContext(ObjectInput stream) throws IOException {
+		final UUID id = AgentStructure.readUUID(stream);
+		final UUID defaultSpaceID = AgentStructure.readUUID(stream);
+		final int spaceCount = stream.readInt();
+		final List<SpaceState> spaces = new ArrayList<>(spaceCount);
+		for (int i = 0; i < spaceCount; ++i) {
+			final UUID spaceID = AgentStructure.readUUID(stream);
+			final String specificationName = stream.readUTF();
+			final Class<?> specification = ClassFinder.findClass(specificationName);
+			if (specification == null) {
+				throw new IOException(new ClassNotFoundException(specificationName));
+			}
+			if (!SpaceSpecification.class.isAssignableFrom(specification)) {
+				throw new IOException(Messages.StandardCheckpointService_1);
+			}
+			final int participantCount = stream.readInt();
+			final List<UUID> participants = new ArrayList<>(participantCount);
+			for (int j = 0; j < participantCount; ++j) {
+				participants.add(AgentStructure.readUUID(stream));
+			}
+			spaces.add(new SpaceState(spaceID, specification, participants));
+		}
+		return new ContextState(id, defaultSpaceID, spaces);
+	}
+
+	/**
+	 * Listener on the spawned, restored and destroyed agents.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private class SpawnListener implements SpawnServiceListener {
+
+		SpawnListener() {
+			//
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void agentSpawned(UUID spawningAgent, AgentContext parent, List<Agent> spawnedAgents,
+				Object[] initializationParameters) {
+			for (final Agent agent : spawnedAgents) {
+				StandardCheckpointService.this.agents.put(agent.getID(), agent);
+			}
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void agentRestored(AgentContext parent, Agent restoredAgent, Procedure1<? super Agent> stateRestorer) {
+			StandardCheckpointService.this.agents.put(restoredAgent.getID(), restoredAgent);
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void agentDestroy(Agent agent) {
+			StandardCheckpointService.this.agents.remove(agent.getID());
+		}
+
+	}
+
+	/**
+	 * State of a context in a checkpoint.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class ContextState {
+
+		final UUID id;
+
+		final UUID defaultSpaceID;
+
+		final List<SpaceState> spaces;
+
+		ContextState(UUID id, UUID defaultSpaceID, List<SpaceState> spaces) {
+			this.id = id;
+			this.defaultSpaceID = defaultSpaceID;
+			this.spaces = spaces;
+		}
+
+	}
+
+	/**
+	 * State of a space in a checkpoint.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class SpaceState {
+
+		final UUID id;
+
+		final Class<?> specification;
+
+		final List<UUID> participants;
+
+		SpaceState(UUID id, Class<?> specification, List<UUID> participants) {
+			this.id = id;
+			this.specification = specification;
+			this.participants = participants;
+		}
+
+	}
+
+}
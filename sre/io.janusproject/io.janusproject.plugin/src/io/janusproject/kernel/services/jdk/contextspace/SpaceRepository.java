@@ -37,6 +37,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.TreeMultimap;
 import com.google.inject.Injector;
 
+import io.janusproject.kernel.space.SpaceBase;
 import io.janusproject.services.contextspace.SpaceRepositoryListener;
 import io.janusproject.services.distributeddata.DMap;
 import io.janusproject.services.distributeddata.DMapListener;
@@ -230,10 +231,21 @@ public class SpaceRepository {
 			}
 		}
 		if (space != null) {
+			destroySpace(space);
 			fireSpaceRemoved(space, isLocalDestruction);
 		}
 	}
 
+	/** Release the resources of the given space that was removed from this repository.
+	 *
+	 * @param space the removed space.
+	 */
+	private static void destroySpace(Space space) {
+		if (space instanceof SpaceBase) {
+			((SpaceBase) space).destroy();
+		}
+	}
+
 	/**
 	 * Remove all the remote spaces.
 	 *
@@ -259,6 +271,7 @@ public class SpaceRepository {
 		}
 		if (removedSpaces != null) {
 			for (final Space s : removedSpaces) {
+				destroySpace(s);
 				fireSpaceRemoved(s, isLocalDestruction);
 			}
 		}
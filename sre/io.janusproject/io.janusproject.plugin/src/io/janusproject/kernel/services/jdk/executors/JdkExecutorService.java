@@ -40,6 +40,7 @@ import io.janusproject.JanusConfig;
 import io.janusproject.services.AbstractDependentService;
 import io.janusproject.services.executor.JanusCallable;
 import io.janusproject.services.executor.JanusRunnable;
+import io.janusproject.services.metrics.MetricsService;
 
 /**
  * Platform service that supports the execution resources.
@@ -64,6 +65,8 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 
 	private UncaughtExceptionHandler uncaughtExceptionHandler;
 
+	private MetricsService metrics;
+
 	/**
 	 * Construct.
 	 */
@@ -101,6 +104,17 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 		this.uncaughtExceptionHandler = handler;
 	}
 
+	/**
+	 * Change the service in which the metrics of the executors are published.
+	 *
+	 * @param service the metrics service.
+	 * @since 0.8
+	 */
+	@Inject(optional = true)
+	void setMetricsService(MetricsService service) {
+		this.metrics = service;
+	}
+
 	@Override
 	public final Class<? extends Service> getServiceType() {
 		return io.janusproject.services.executor.ExecutorService.class;
@@ -119,11 +133,20 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 					JanusConfig.KERNEL_THREAD_PURGE_DELAY_VALUE);
 			this.purgeTask = this.schedules.scheduleWithFixedDelay(new Purger(), delay, delay, TimeUnit.SECONDS);
 		}
+		if (this.metrics != null && this.exec instanceof ThreadPoolExecutor) {
+			final ThreadPoolExecutor pool = (ThreadPoolExecutor) this.exec;
+			this.metrics.registerGauge(MetricsService.EXECUTOR_QUEUE_DEPTH, () -> pool.getQueue().size());
+			this.metrics.registerGauge(MetricsService.EXECUTOR_ACTIVE_THREADS, pool::getActiveCount);
+		}
 		notifyStarted();
 	}
 
 	@Override
 	protected void doStop() {
+		if (this.metrics != null) {
+			this.metrics.unregisterGauge(MetricsService.EXECUTOR_QUEUE_DEPTH);
+			this.metrics.unregisterGauge(MetricsService.EXECUTOR_ACTIVE_THREADS);
+		}
 		if (this.purgeTask != null) {
 			this.purgeTask.cancel(true);
 			this.purgeTask = null;
@@ -32,6 +32,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.MetricsService;
 
 /**
  * A handler for rejected tasks and uncaught exceptions that logs a warning on the platform logger
@@ -48,6 +49,8 @@ public class JdkRejectedExecutionHandler implements RejectedExecutionHandler {
 
 	private final LogService logger;
 
+	private MetricsService metrics;
+
 	/** Constructor.
 	 * @param logger the logging service that must be used for output the errors.
 	 */
@@ -57,8 +60,21 @@ public class JdkRejectedExecutionHandler implements RejectedExecutionHandler {
 		this.logger = logger;
 	}
 
+	/** Change the service in which the number of rejected tasks is published.
+	 *
+	 * @param service the metrics service.
+	 * @since 0.8
+	 */
+	@Inject(optional = true)
+	void setMetricsService(MetricsService service) {
+		this.metrics = service;
+	}
+
 	@Override
 	public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+		if (this.metrics != null) {
+			this.metrics.getCounter(MetricsService.EXECUTOR_REJECTED_TASKS).increment();
+		}
 		if (!runRejectedTask(task, executor)) {
 			final LogRecord record = new LogRecord(Level.FINE,
 					MessageFormat.format(Messages.JdkRejectedExecutionHandler_0, task.toString()));
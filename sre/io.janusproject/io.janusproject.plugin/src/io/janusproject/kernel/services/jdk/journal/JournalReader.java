@@ -0,0 +1,173 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.services.jdk.journal;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
+import io.janusproject.services.journal.JournalRecord;
+import io.janusproject.services.network.EventDispatch;
+import io.janusproject.services.network.EventEnvelope;
+import io.janusproject.services.network.EventSerializer;
+
+import io.sarl.lang.core.EventListener;
+
+/**
+ * Reader of the journal that is written by {@link MappedJournalService}.
+ *
+ * <p>The records are read in the order of their logical timestamps. The replay of the journal is synchronous:
+ * it does not need the network nor the wall clock, and it delivers the events to the receivers in the same
+ * order as they were recorded.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public class JournalReader {
+
+	private final Path folder;
+
+	private final EventSerializer serializer;
+
+	/** Constructor.
+	 *
+	 * @param folder the folder that contains the segments of the journal.
+	 * @param serializer the serializer that was used for writing the journal.
+	 */
+	public JournalReader(Path folder, EventSerializer serializer) {
+		this.folder = folder;
+		this.serializer = serializer;
+	}
+
+	/** Replies the segment files of the journal, sorted by index.
+	 *
+	 * @return the segment files.
+	 * @throws IOException if the folder cannot be read.
+	 */
+	public List<Path> getSegments() throws IOException {
+		final List<Path> segments = new ArrayList<>();
+		if (Files.isDirectory(this.folder)) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.folder,
+					MappedJournalService.SEGMENT_PREFIX + "*" + MappedJournalService.SEGMENT_EXTENSION)) { //$NON-NLS-1$
+				for (final Path path : stream) {
+					segments.add(path);
+				}
+			}
+		}
+		// The indexes are zero-padded, so the lexicographic order is the order of the segments
+		Collections.sort(segments);
+		return segments;
+	}
+
+	/** Read the records of the journal.
+	 *
+	 * @param consumer the receiver of the records.
+	 * @return the number of read records.
+	 * @throws IOException if the journal cannot be read.
+	 */
+	public long read(Procedure1<? super JournalRecord> consumer) throws IOException {
+		long count = 0;
+		for (final Path segment : getSegments()) {
+			count += readSegment(segment, consumer);
+		}
+		return count;
+	}
+
+	/** Replay the journal by delivering the recorded events to the given receivers.
+	 *
+	 * <p>The events are delivered synchronously, in the order of the logical timestamps.
+	 *
+	 * @param receivers replies the listener that is replacing the agent with the given identifier, or {@code null}
+	 *     if the events received by this agent must be ignored.
+	 * @return the number of delivered events.
+	 * @throws IOException if the journal cannot be read.
+	 */
+	public long replay(Function1<? super UUID, ? extends EventListener> receivers) throws IOException {
+		final long[] count = {0};
+		read(record -> {
+			final EventListener listener = receivers.apply(record.getReceiver());
+			if (listener != null) {
+				listener.receiveEvent(record.getEvent());
+				++count[0];
+			}
+		});
+		return count[0];
+	}
+
+	private long readSegment(Path segment, Procedure1<? super JournalRecord> consumer) throws IOException {
+		final MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+		long count = 0;
+		while (buffer.remaining() >= 4) {
+			final int position = buffer.position();
+			final int size = buffer.getInt();
+			if (size <= 0) {
+				// End of the segment
+				break;
+			}
+			final JournalRecord record;
+			try {
+				if (size > buffer.remaining()) {
+					throw new BufferUnderflowException();
+				}
+				final long timestamp = buffer.getLong();
+				final UUID receiver = new UUID(buffer.getLong(), buffer.getLong());
+				final EventEnvelope envelope = new EventEnvelope(readBytes(buffer), readBytes(buffer), readBytes(buffer),
+						readBytes(buffer), readBytes(buffer));
+				final EventDispatch dispatch = this.serializer.deserialize(envelope);
+				record = new JournalRecord(timestamp, dispatch.getSpaceID(), receiver, dispatch.getEvent());
+			} catch (Exception exception) {
+				throw new IOException(MessageFormat.format(Messages.JournalReader_0, segment, Integer.valueOf(position)),
+						exception);
+			}
+			consumer.apply(record);
+			++count;
+		}
+		return count;
+	}
+
+	private static byte[] readBytes(MappedByteBuffer buffer) {
+		final byte[] data = new byte[buffer.getInt()];
+		buffer.get(data);
+		return data;
+	}
+
+}
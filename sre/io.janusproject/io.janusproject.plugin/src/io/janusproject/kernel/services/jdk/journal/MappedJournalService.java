@@ -0,0 +1,571 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.services.jdk.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Service;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.kernel.services.jdk.network.JavaBinaryEventSerializer;
+import io.janusproject.kernel.services.jdk.network.PlainTextEventEncrypter;
+import io.janusproject.services.AbstractDependentService;
+import io.janusproject.services.journal.JournalService;
+import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.MetricsService;
+import io.janusproject.services.network.EventDispatch;
+import io.janusproject.services.network.EventEnvelope;
+import io.janusproject.services.network.EventSerializer;
+
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.SpaceID;
+import io.sarl.util.Scopes;
+
+/**
+ * Implementation of the journal of the event deliveries that is based on memory-mapped segments.
+ *
+ * <p>The journal is enabled with the property {@link JanusConfig#JOURNAL_ENABLE_NAME}. The segments are written
+ * into the folder given by {@link JanusConfig#JOURNAL_FOLDER_NAME}; the segments of a previous run that are
+ * in this folder are deleted when the service is started. A new segment is mapped when the current segment
+ * is full; its size is given by {@link JanusConfig#JOURNAL_SEGMENT_SIZE_NAME}.
+ *
+ * <p>The threads that are emitting the events serialize them with the {@link EventSerializer}, so that the journal
+ * contains the events as they were at the time of their emission. An emitted event is serialized once and its
+ * serialized form is recorded for each receiver. The deliveries are then appended to a lock-free queue. A single
+ * writer thread drains this queue, gives the logical timestamps in the order of the queue, and copies the deliveries
+ * into the mapped segment. The segments are forced to the storage device on {@link #flush()} and when the service
+ * is stopped only.
+ *
+ * <p>The number of deliveries in the queue is bounded by {@link JanusConfig#JOURNAL_CAPACITY_NAME}. When the queue is
+ * full, the emitting threads wait for the writer by default. If {@link JanusConfig#JOURNAL_BLOCKING_NAME} is
+ * {@code false}, the deliveries are dropped instead, and the journal has gaps. The numbers of dropped deliveries
+ * and of waiting deliveries are replied by {@link #getDroppedDeliveryCount()} and {@link #getBlockedDeliveryCount()}, and they are published
+ * as gauges of the {@link MetricsService}.
+ *
+ * <p>Each record of a segment is composed of, in big-endian order: the size of the rest of the record
+ * (a zero size marks the end of the segment), the logical timestamp, the identifier of the receiver, and the
+ * size-prefixed content of the {@link EventEnvelope}, i.e. the context identifier, the space identifier, the scope,
+ * the custom headers and the body. The records are read by {@link JournalReader}.
+ *
+ * <p>This service is thread-safe.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@Singleton
+public class MappedJournalService extends AbstractDependentService implements JournalService {
+
+	/** Prefix of the names of the segment files.
+	 */
+	static final String SEGMENT_PREFIX = "journal-"; //$NON-NLS-1$
+
+	/** Extension of the names of the segment files.
+	 */
+	static final String SEGMENT_EXTENSION = ".log"; //$NON-NLS-1$
+
+	/** Number of bytes of a record before the content of the envelope.
+	 */
+	static final int RECORD_HEADER_SIZE = 4 + 8 + 16;
+
+	private static final String WRITER_NAME = "janus-journal"; //$NON-NLS-1$
+
+	private static final long IDLE_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final boolean enabled;
+
+	private final Path folder;
+
+	private final int segmentSize;
+
+	private final int capacity;
+
+	private final boolean blocking;
+
+	private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+
+	/** Free places in the queue of deliveries.
+	 */
+	private final Semaphore freePlaces;
+
+	private final AtomicLong droppedDeliveries = new AtomicLong();
+
+	private final AtomicLong blockedDeliveries = new AtomicLong();
+
+	private volatile boolean running;
+
+	private Thread writer;
+
+	private volatile EventSerializer serializer;
+
+	private LogService logger;
+
+	private MetricsService metrics;
+
+	// The following fields are accessed by the writer thread only.
+
+	private MappedByteBuffer segment;
+
+	private int segmentIndex;
+
+	private long timestamp;
+
+	private boolean failed;
+
+	/**
+	 * Construct the service with the configuration given by the system properties.
+	 */
+	public MappedJournalService() {
+		this(JanusConfig.getSystemPropertyAsBoolean(JanusConfig.JOURNAL_ENABLE_NAME,
+				JanusConfig.JOURNAL_ENABLE_VALUE.booleanValue()),
+				Paths.get(JanusConfig.getSystemProperty(JanusConfig.JOURNAL_FOLDER_NAME,
+				JanusConfig.JOURNAL_FOLDER_VALUE)),
+				JanusConfig.getSystemPropertyAsInteger(JanusConfig.JOURNAL_SEGMENT_SIZE_NAME,
+				JanusConfig.JOURNAL_SEGMENT_SIZE_VALUE),
+				JanusConfig.getSystemPropertyAsInteger(JanusConfig.JOURNAL_CAPACITY_NAME,
+				JanusConfig.JOURNAL_CAPACITY_VALUE),
+				JanusConfig.getSystemPropertyAsBoolean(JanusConfig.JOURNAL_BLOCKING_NAME,
+				JanusConfig.JOURNAL_BLOCKING_VALUE.booleanValue()));
+	}
+
+	/**
+	 * Construct the service with the default capacity of the queue, and with the default policy on a full queue.
+	 *
+	 * @param enabled indicates if the journal is enabled.
+	 * @param folder the folder in which the segments are written.
+	 * @param segmentSize the size of the segments in bytes.
+	 */
+	public MappedJournalService(boolean enabled, Path folder, int segmentSize) {
+		this(enabled, folder, segmentSize, JanusConfig.JOURNAL_CAPACITY_VALUE, JanusConfig.JOURNAL_BLOCKING_VALUE.booleanValue());
+	}
+
+	/**
+	 * Construct the service.
+	 *
+	 * @param enabled indicates if the journal is enabled.
+	 * @param folder the folder in which the segments are written.
+	 * @param segmentSize the size of the segments in bytes.
+	 * @param capacity the maximum number of deliveries that are waiting for being written.
+	 * @param blocking indicates if the emitting threads are waiting when the queue is full. If {@code false},
+	 *     the deliveries that cannot be queued are dropped.
+	 */
+	public MappedJournalService(boolean enabled, Path folder, int segmentSize, int capacity, boolean blocking) {
+		this.enabled = enabled;
+		this.folder = folder;
+		this.segmentSize = Math.max(RECORD_HEADER_SIZE, segmentSize);
+		this.capacity = Math.max(1, capacity);
+		this.blocking = blocking;
+		this.freePlaces = new Semaphore(this.capacity);
+	}
+
+	/** Change the logging service.
+	 *
+	 * @param service the logging service.
+	 */
+	@Inject
+	void setLogService(LogService service) {
+		this.logger = service;
+	}
+
+	/** Change the serializer of the events.
+	 *
+	 * <p>The serializer is bound by the network modules only. If it is not injected,
+	 * the events are serialized with a {@link JavaBinaryEventSerializer} without encryption.
+	 *
+	 * @param serializer the serializer.
+	 */
+	@Inject(optional = true)
+	void setEventSerializer(EventSerializer serializer) {
+		this.serializer = serializer;
+	}
+
+	/** Change the service in which the accounting of the queue is published.
+	 *
+	 * @param service the metrics service.
+	 */
+	@Inject(optional = true)
+	void setMetricsService(MetricsService service) {
+		this.metrics = service;
+	}
+
+	/** Replies the serializer that is used for writing the events into the journal.
+	 *
+	 * @return the serializer.
+	 */
+	public synchronized EventSerializer getEventSerializer() {
+		if (this.serializer == null) {
+			this.serializer = new JavaBinaryEventSerializer(new PlainTextEventEncrypter());
+		}
+		return this.serializer;
+	}
+
+	/** Replies the number of deliveries that were not recorded because the queue was full.
+	 *
+	 * @return the number of dropped deliveries.
+	 */
+	public long getDroppedDeliveryCount() {
+		return this.droppedDeliveries.get();
+	}
+
+	/** Replies the number of deliveries for which the emitting thread waited because the queue was full.
+	 *
+	 * @return the number of blocked deliveries.
+	 */
+	public long getBlockedDeliveryCount() {
+		return this.blockedDeliveries.get();
+	}
+
+	/** Replies the number of deliveries that are waiting for being written.
+	 *
+	 * @return the number of deliveries in the queue.
+	 */
+	public int getQueueDepth() {
+		// The permits are released beyond the capacity when the writer is stopped
+		return Math.max(0, this.capacity - this.freePlaces.availablePermits());
+	}
+
+	/** Replies the folder in which the segments are written.
+	 *
+	 * @return the folder.
+	 */
+	public Path getFolder() {
+		return this.folder;
+	}
+
+	/** Replies the name of the segment file with the given index.
+	 *
+	 * @param index the index of the segment.
+	 * @return the name of the file.
+	 */
+	static String getSegmentName(int index) {
+		return SEGMENT_PREFIX + Strings.padStart(Integer.toString(index), 6, '0') + SEGMENT_EXTENSION;
+	}
+
+	@Override
+	public final Class<? extends Service> getServiceType() {
+		return JournalService.class;
+	}
+
+	@Override
+	public Collection<Class<? extends Service>> getServiceDependencies() {
+		return Arrays.<Class<? extends Service>>asList(LogService.class);
+	}
+
+	@Override
+	public boolean isRecording() {
+		return this.running;
+	}
+
+	@Override
+	public EventEnvelope serialize(SpaceID spaceID, Event event) {
+		if (this.running) {
+			try {
+				return this.serializer.serialize(new EventDispatch(spaceID, event, Scopes.allParticipants()));
+			} catch (Exception exception) {
+				if (this.logger != null) {
+					this.logger.getKernelLogger().log(Level.WARNING,
+							MessageFormat.format(Messages.MappedJournalService_1, event, exception.getLocalizedMessage()),
+							exception);
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void record(SpaceID spaceID, UUID receiver, Event event) {
+		if (this.running) {
+			record(serialize(spaceID, event), receiver);
+		}
+	}
+
+	@Override
+	public void record(EventEnvelope event, UUID receiver) {
+		if (event != null && this.running && reservePlace()) {
+			this.deliveries.offer(new Delivery(event, receiver));
+		}
+	}
+
+	/** Reserve a place in the queue of the deliveries.
+	 *
+	 * @return {@code true} if a place is reserved; {@code false} if the delivery must be dropped.
+	 */
+	private boolean reservePlace() {
+		if (this.freePlaces.tryAcquire()) {
+			return true;
+		}
+		if (this.blocking) {
+			this.blockedDeliveries.incrementAndGet();
+			try {
+				this.freePlaces.acquire();
+				if (this.running) {
+					return true;
+				}
+				// The writer is stopped; wake up the next waiting thread
+				this.freePlaces.release();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (this.droppedDeliveries.getAndIncrement() == 0 && this.logger != null) {
+			this.logger.getKernelLogger().warning(MessageFormat.format(Messages.MappedJournalService_2,
+					Integer.valueOf(this.capacity)));
+		}
+		return false;
+	}
+
+	@Override
+	public void flush() {
+		final Thread thread = this.writer;
+		if (thread != null && thread.isAlive()) {
+			final Delivery barrier = new Delivery(new CountDownLatch(1));
+			this.deliveries.offer(barrier);
+			LockSupport.unpark(thread);
+			try {
+				barrier.barrier.await();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	protected void doStart() {
+		try {
+			if (this.enabled) {
+				final EventSerializer eventSerializer = getEventSerializer();
+				assert eventSerializer != null;
+				deleteSegments();
+				if (this.metrics != null) {
+					this.metrics.registerGauge(MetricsService.JOURNAL_QUEUE_DEPTH, this::getQueueDepth);
+					this.metrics.registerGauge(MetricsService.JOURNAL_DROPPED_DELIVERIES, this::getDroppedDeliveryCount);
+					this.metrics.registerGauge(MetricsService.JOURNAL_BLOCKED_DELIVERIES, this::getBlockedDeliveryCount);
+				}
+				final Thread thread = new Thread(this::runWriter, WRITER_NAME);
+				thread.setDaemon(true);
+				this.writer = thread;
+				this.running = true;
+				thread.start();
+			}
+		} catch (IOException exception) {
+			logError(exception);
+		} finally {
+			notifyStarted();
+		}
+	}
+
+	@Override
+	protected void doStop() {
+		try {
+			this.running = false;
+			final Thread thread = this.writer;
+			if (thread != null) {
+				LockSupport.unpark(thread);
+				boolean interrupted = false;
+				while (thread.isAlive()) {
+					try {
+						thread.join();
+					} catch (InterruptedException exception) {
+						interrupted = true;
+					}
+				}
+				this.writer = null;
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (this.metrics != null && this.enabled) {
+				this.metrics.unregisterGauge(MetricsService.JOURNAL_QUEUE_DEPTH);
+				this.metrics.unregisterGauge(MetricsService.JOURNAL_DROPPED_DELIVERIES);
+				this.metrics.unregisterGauge(MetricsService.JOURNAL_BLOCKED_DELIVERIES);
+			}
+		} finally {
+			notifyStopped();
+		}
+	}
+
+	private void deleteSegments() throws IOException {
+		Files.createDirectories(this.folder);
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.folder,
+				SEGMENT_PREFIX + "*" + SEGMENT_EXTENSION)) { //$NON-NLS-1$
+			for (final Path path : stream) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	/** Loop of the writer thread.
+	 */
+	private void runWriter() {
+		try {
+			Delivery delivery;
+			while ((delivery = this.deliveries.poll()) != null || this.running) {
+				if (delivery == null) {
+					LockSupport.parkNanos(this, IDLE_DELAY);
+				} else if (delivery.barrier != null) {
+					force();
+					delivery.barrier.countDown();
+				} else {
+					this.freePlaces.release();
+					if (!this.failed) {
+						write(delivery);
+					}
+				}
+			}
+		} finally {
+			force();
+			this.segment = null;
+			// Release the threads that are waiting for a flush or for a place in the queue,
+			// and that were blocked concurrently to the stop
+			Delivery delivery;
+			while ((delivery = this.deliveries.poll()) != null) {
+				if (delivery.barrier != null) {
+					delivery.barrier.countDown();
+				} else {
+					this.freePlaces.release();
+				}
+			}
+			this.freePlaces.release();
+		}
+	}
+
+	private void write(Delivery delivery) {
+		final EventEnvelope envelope = delivery.event;
+		final byte[][] fields = {
+			envelope.getContextId(), envelope.getSpaceId(), envelope.getScope(), envelope.getCustomHeaders(), envelope.getBody(),
+		};
+		int size = RECORD_HEADER_SIZE;
+		for (final byte[] field : fields) {
+			size += 4 + field.length;
+		}
+		try {
+			final MappedByteBuffer buffer = ensureCapacity(size);
+			buffer.putInt(size - 4);
+			buffer.putLong(this.timestamp++);
+			buffer.putLong(delivery.receiver.getMostSignificantBits());
+			buffer.putLong(delivery.receiver.getLeastSignificantBits());
+			for (final byte[] field : fields) {
+				buffer.putInt(field.length);
+				buffer.put(field);
+			}
+		} catch (IOException exception) {
+			// The journal cannot be written anymore; the remaining deliveries are ignored
+			this.failed = true;
+			this.running = false;
+			logError(exception);
+		}
+	}
+
+	/** Replies the segment that has enough remaining space for a record of the given size.
+	 *
+	 * @param size the size of the record.
+	 * @return the segment.
+	 * @throws IOException if a new segment cannot be mapped.
+	 */
+	private MappedByteBuffer ensureCapacity(int size) throws IOException {
+		MappedByteBuffer buffer = this.segment;
+		if (buffer == null || buffer.remaining() < size) {
+			force();
+			final Path path = this.folder.resolve(getSegmentName(this.segmentIndex++));
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				// The mapping stays valid after the channel is closed.
+				// The unused end of the segment is filled with zeros, that is the end marker.
+				buffer = channel.map(MapMode.READ_WRITE, 0, Math.max(this.segmentSize, size));
+			}
+			this.segment = buffer;
+		}
+		return buffer;
+	}
+
+	private void force() {
+		final MappedByteBuffer buffer = this.segment;
+		if (buffer != null) {
+			buffer.force();
+		}
+	}
+
+	private void logError(IOException exception) {
+		if (this.logger != null) {
+			this.logger.getKernelLogger().log(Level.SEVERE,
+					MessageFormat.format(Messages.MappedJournalService_0, this.folder, exception.getLocalizedMessage()),
+					exception);
+		}
+	}
+
+	/**
+	 * Delivery that is waiting for being written into the journal.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class Delivery {
+
+		final EventEnvelope event;
+
+		final UUID receiver;
+
+		final CountDownLatch barrier;
+
+		Delivery(EventEnvelope event, UUID receiver) {
+			this.event = event;
+			this.receiver = receiver;
+			this.barrier = null;
+		}
+
+		Delivery(CountDownLatch barrier) {
+			this.event = null;
+			this.receiver = null;
+			this.barrier = barrier;
+		}
+
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.services.jdk.metrics;
+
+import java.util.Map;
+
+import io.janusproject.services.metrics.LatencyHistogram;
+
+/**
+ * Management interface that exports the metrics of the kernel through JMX.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public interface MetricsMXBean {
+
+	/** Replies the current values of the counters.
+	 *
+	 * @return the values of the counters.
+	 */
+	Map<String, Long> getCounters();
+
+	/** Replies the current values of the gauges.
+	 *
+	 * @return the values of the gauges.
+	 */
+	Map<String, Long> getGauges();
+
+	/** Replies the snapshots of the histograms.
+	 *
+	 * @return the snapshots of the histograms.
+	 */
+	Map<String, LatencyHistogram.Snapshot> getHistograms();
+
+	/** Reset all the counters and histograms.
+	 */
+	void reset();
+
+}
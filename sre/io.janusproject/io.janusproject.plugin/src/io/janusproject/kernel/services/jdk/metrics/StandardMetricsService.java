@@ -0,0 +1,220 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.services.jdk.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.common.util.concurrent.Service;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.services.AbstractDependentService;
+import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.Counter;
+import io.janusproject.services.metrics.LatencyHistogram;
+import io.janusproject.services.metrics.MetricsService;
+
+/**
+ * Implementation of the metrics service that is based on concurrent maps of striped counters and histograms.
+ *
+ * <p>If the property {@link JanusConfig#METRICS_JMX_ENABLE_NAME} is enabled, the metrics are exported
+ * through the platform MBean server.
+ *
+ * <p>This service is thread-safe.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@Singleton
+public class StandardMetricsService extends AbstractDependentService implements MetricsService, MetricsMXBean {
+
+	/** Domain and type of the JMX name of the metrics.
+	 */
+	public static final String JMX_NAME_PREFIX = "io.janusproject:type=Metrics,id="; //$NON-NLS-1$
+
+	private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+	private LogService logger;
+
+	private ObjectName jmxName;
+
+	/**
+	 * Construct the service.
+	 */
+	public StandardMetricsService() {
+		//
+	}
+
+	/** Change the logging service.
+	 *
+	 * @param service the logging service.
+	 */
+	@Inject
+	void setLogService(LogService service) {
+		this.logger = service;
+	}
+
+	@Override
+	public final Class<? extends Service> getServiceType() {
+		return MetricsService.class;
+	}
+
+	@Override
+	public Collection<Class<? extends Service>> getServiceDependencies() {
+		return Arrays.<Class<? extends Service>>asList(LogService.class);
+	}
+
+	@Override
+	public Counter getCounter(String name) {
+		assert name != null;
+		return this.counters.computeIfAbsent(name, it -> new Counter());
+	}
+
+	@Override
+	public LatencyHistogram getHistogram(String name) {
+		assert name != null;
+		return this.histograms.computeIfAbsent(name, it -> new LatencyHistogram());
+	}
+
+	@Override
+	public void registerGauge(String name, LongSupplier gauge) {
+		assert name != null;
+		assert gauge != null;
+		this.gauges.put(name, gauge);
+	}
+
+	@Override
+	public void unregisterGauge(String name) {
+		this.gauges.remove(name);
+	}
+
+	@Override
+	public Map<String, Long> getCounterValues() {
+		return snapshot(this.counters, Counter::get);
+	}
+
+	@Override
+	public Map<String, Long> getGaugeValues() {
+		return snapshot(this.gauges, LongSupplier::getAsLong);
+	}
+
+	@Override
+	public Map<String, LatencyHistogram.Snapshot> getHistogramSnapshots() {
+		return snapshot(this.histograms, LatencyHistogram::getSnapshot);
+	}
+
+	private static <S, T> Map<String, T> snapshot(Map<String, S> metrics, Function<S, T> evaluator) {
+		final SortedMap<String, T> values = new TreeMap<>();
+		for (final Entry<String, S> entry : metrics.entrySet()) {
+			values.put(entry.getKey(), evaluator.apply(entry.getValue()));
+		}
+		return Collections.unmodifiableSortedMap(values);
+	}
+
+	@Override
+	public Map<String, Long> getCounters() {
+		return getCounterValues();
+	}
+
+	@Override
+	public Map<String, Long> getGauges() {
+		return getGaugeValues();
+	}
+
+	@Override
+	public Map<String, LatencyHistogram.Snapshot> getHistograms() {
+		return getHistogramSnapshots();
+	}
+
+	@Override
+	public void reset() {
+		for (final Counter counter : this.counters.values()) {
+			counter.reset();
+		}
+		for (final LatencyHistogram histogram : this.histograms.values()) {
+			histogram.reset();
+		}
+	}
+
+	@Override
+	protected void doStart() {
+		if (JanusConfig.getSystemPropertyAsBoolean(JanusConfig.METRICS_JMX_ENABLE_NAME,
+				JanusConfig.METRICS_JMX_ENABLE_VALUE.booleanValue())) {
+			try {
+				final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				final ObjectName name = new ObjectName(JMX_NAME_PREFIX + Integer.toHexString(System.identityHashCode(this)));
+				server.registerMBean(this, name);
+				this.jmxName = name;
+			} catch (JMException exception) {
+				logError(exception);
+			}
+		}
+		notifyStarted();
+	}
+
+	@Override
+	protected void doStop() {
+		final ObjectName name = this.jmxName;
+		this.jmxName = null;
+		if (name != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+			} catch (JMException exception) {
+				logError(exception);
+			}
+		}
+		notifyStopped();
+	}
+
+	private void logError(JMException exception) {
+		if (this.logger != null) {
+			this.logger.getKernelLogger().log(Level.WARNING,
+					MessageFormat.format(Messages.StandardMetricsService_0, exception.getLocalizedMessage()), exception);
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.services.jdk.profiler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import io.janusproject.util.ClassFileReader;
+
+/**
+ * Locations of the behavior units that are declared in a type generated by the SARL compiler.
+ *
+ * <p>The locations are extracted from the class file of the type:<ul>
+ * <li>the code blocks that are created by the guard evaluators are the lambdas that invoke the
+ * {@code $behaviorUnit$EventName$index} functions. Each lambda is identified by the line of the
+ * guard evaluator at which it is created;</li>
+ * <li>the lines of the generated Java code are mapped to the lines of the SARL code with the
+ * JSR-45 source map of the class file, if it was installed by the compiler.</li>
+ * </ul>
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+final class BehaviorUnitLocations {
+
+	/** Locations for a type without class file.
+	 */
+	static final BehaviorUnitLocations EMPTY = new BehaviorUnitLocations();
+
+	private static final String BEHAVIOR_UNIT_PREFIX = "$behaviorUnit$"; //$NON-NLS-1$
+
+	private static final String LAMBDA_PREFIX = "lambda$"; //$NON-NLS-1$
+
+	private static final String SOURCE_MAP_ATTRIBUTE = "SourceDebugExtension"; //$NON-NLS-1$
+
+	private static final String JAVA_STRATUM = "Java"; //$NON-NLS-1$
+
+	private static final int BYTE_MASK = 0xFF;
+
+	private static final int INVOKEVIRTUAL = 0xB6;
+
+	private static final int INVOKESTATIC = 0xB8;
+
+	private String sourceFile;
+
+	private final Map<Integer, String> unitsByLine = new HashMap<>();
+
+	private final Map<String, Integer> unitLines = new HashMap<>();
+
+	private final TreeMap<Integer, String> sourceMap = new TreeMap<>();
+
+	private BehaviorUnitLocations() {
+		//
+	}
+
+	/** Read the locations of the behavior units from the class file of the given type.
+	 *
+	 * @param type the type generated by the SARL compiler.
+	 * @return the locations, never {@code null}.
+	 */
+	static BehaviorUnitLocations read(Class<?> type) {
+		final ClassFileReader classFile = ClassFileReader.read(type);
+		if (classFile != null) {
+			try {
+				final BehaviorUnitLocations locations = new BehaviorUnitLocations();
+				locations.load(classFile);
+				return locations;
+			} catch (RuntimeException exception) {
+				// The class file is malformed.
+			}
+		}
+		return EMPTY;
+	}
+
+	/** Replies the name of the behavior unit that is run by the lambda created at the given line.
+	 *
+	 * @param line the line of the generated Java code at which the lambda is created.
+	 * @return the name of the behavior unit, or {@code null} if unknown.
+	 */
+	String getBehaviorUnit(int line) {
+		return this.unitsByLine.get(Integer.valueOf(line));
+	}
+
+	/** Replies the location of the given behavior unit in the source code.
+	 *
+	 * <p>The location is in the SARL code if the class file contains a source map. Otherwise,
+	 * it is in the generated Java code.
+	 *
+	 * @param unit the name of the behavior unit.
+	 * @param defaultLine the line of the generated Java code that is used if the behavior unit is unknown.
+	 * @return the location, with the format {@code file:line}, or {@code null} if unknown.
+	 */
+	String getLocation(String unit, int defaultLine) {
+		final Integer unitLine = unit == null ? null : this.unitLines.get(unit);
+		final int line = unitLine == null ? defaultLine : unitLine.intValue();
+		if (line <= 0) {
+			return null;
+		}
+		final Entry<Integer, String> source = this.sourceMap.floorEntry(Integer.valueOf(line));
+		if (source != null) {
+			return source.getValue();
+		}
+		if (this.sourceFile == null) {
+			return null;
+		}
+		return this.sourceFile + ':' + line;
+	}
+
+	private void load(ClassFileReader classFile) {
+		final Map<String, String> lambdaTargets = new HashMap<>();
+		final Map<String, int[]> lambdaLines = new HashMap<>();
+		for (final ClassFileReader.Method method : classFile.getMethods()) {
+			final String name = method.getName();
+			if (method.getCode() != null && name != null
+					&& (name.startsWith(LAMBDA_PREFIX) || name.startsWith(BEHAVIOR_UNIT_PREFIX))) {
+				final int[] lines = method.getLines();
+				if (name.startsWith(LAMBDA_PREFIX)) {
+					final String target = findInvokedBehaviorUnit(classFile, method.getCode());
+					if (target != null) {
+						lambdaTargets.put(name, target);
+					}
+					if (lines.length > 0) {
+						lambdaLines.put(name, lines);
+					}
+				} else if (lines.length > 0) {
+					this.unitLines.put(name, Integer.valueOf(lines[0]));
+				}
+			}
+		}
+		for (final Entry<String, String> lambda : lambdaTargets.entrySet()) {
+			final int[] lines = lambdaLines.get(lambda.getKey());
+			if (lines != null) {
+				for (final int line : lines) {
+					this.unitsByLine.put(Integer.valueOf(line), lambda.getValue());
+				}
+			}
+		}
+		this.sourceFile = classFile.getSourceFile();
+		final String sourceMap = classFile.getStringAttribute(SOURCE_MAP_ATTRIBUTE);
+		if (sourceMap != null) {
+			parseSourceMap(sourceMap);
+		}
+	}
+
+	/** Search for the invocation of a behavior unit in the code of a lambda.
+	 *
+	 * <p>The code of the lambdas that are generated for the behavior units is only a call to the
+	 * behavior unit. The bytes are not decoded instruction per instruction: an invocation is
+	 * accepted only if it refers to a behavior unit of the constant pool.
+	 */
+	private static String findInvokedBehaviorUnit(ClassFileReader classFile, byte[] code) {
+		for (int i = 0; i < code.length - 2; ++i) {
+			final int opcode = code[i] & BYTE_MASK;
+			if (opcode >= INVOKEVIRTUAL && opcode <= INVOKESTATIC) {
+				final String name = classFile.getMethodName(ClassFileReader.readUnsignedShort(code, i + 1));
+				if (name != null && name.startsWith(BEHAVIOR_UNIT_PREFIX)) {
+					return name;
+				}
+			}
+		}
+		return null;
+	}
+
+	/** Parse the JSR-45 source map, and keep the mapping of the first stratum that is not Java.
+	 */
+	private void parseSourceMap(String content) {
+		final String[] lines = content.split("\r?\n"); //$NON-NLS-1$
+		final Map<String, String> files = new HashMap<>();
+		boolean inStratum = false;
+		boolean inFiles = false;
+		boolean inLines = false;
+		boolean done = false;
+		// The first line of the section *L may omit the file identifier, which is 0 by default.
+		String fileId = "0"; //$NON-NLS-1$
+		String pendingFileId = null;
+		for (int i = 0; i < lines.length && !done; ++i) {
+			final String line = lines[i].trim();
+			if (line.startsWith("*S")) { //$NON-NLS-1$
+				if (inStratum && !this.sourceMap.isEmpty()) {
+					done = true;
+				} else {
+					inStratum = !JAVA_STRATUM.equals(line.substring(2).trim());
+					this.sourceMap.clear();
+					files.clear();
+				}
+				inFiles = false;
+				inLines = false;
+			} else if (line.startsWith("*F")) { //$NON-NLS-1$
+				inFiles = inStratum;
+				inLines = false;
+			} else if (line.startsWith("*L")) { //$NON-NLS-1$
+				inFiles = false;
+				inLines = inStratum;
+			} else if (line.startsWith("*")) { //$NON-NLS-1$
+				inFiles = false;
+				inLines = false;
+			} else if (inFiles) {
+				if (pendingFileId != null) {
+					// Path of the previous file; the name is enough for a report.
+					pendingFileId = null;
+				} else {
+					final boolean withPath = line.startsWith("+"); //$NON-NLS-1$
+					final String[] elements = (withPath ? line.substring(1) : line).trim().split("\\s+", 2); //$NON-NLS-1$
+					if (elements.length == 2) {
+						files.put(elements[0], elements[1]);
+						if (withPath) {
+							pendingFileId = elements[0];
+						}
+					}
+				}
+			} else if (inLines) {
+				fileId = parseLineInfo(line, fileId, files);
+			}
+		}
+	}
+
+	/** Parse a line of the section {@code *L} of a source map with the format
+	 * {@code InputStartLine[#LineFileID][,RepeatCount]:OutputStartLine[,OutputLineIncrement]}.
+	 */
+	private String parseLineInfo(String line, String previousFileId, Map<String, String> files) {
+		final int colon = line.indexOf(':');
+		if (colon <= 0) {
+			return previousFileId;
+		}
+		try {
+			String input = line.substring(0, colon);
+			String fileId = previousFileId;
+			int repeat = 1;
+			final int comma = input.indexOf(',');
+			if (comma >= 0) {
+				repeat = Integer.parseInt(input.substring(comma + 1));
+				input = input.substring(0, comma);
+			}
+			final int sharp = input.indexOf('#');
+			if (sharp >= 0) {
+				fileId = input.substring(sharp + 1);
+				input = input.substring(0, sharp);
+			}
+			final int inputStart = Integer.parseInt(input);
+			final String output = line.substring(colon + 1);
+			final int outputComma = output.indexOf(',');
+			final int outputStart = Integer.parseInt(outputComma >= 0 ? output.substring(0, outputComma) : output);
+			final int increment = outputComma >= 0 ? Integer.parseInt(output.substring(outputComma + 1)) : 1;
+			final String file = fileId == null ? null : files.get(fileId);
+			if (file != null) {
+				for (int i = 0; i < repeat; ++i) {
+					this.sourceMap.putIfAbsent(Integer.valueOf(outputStart + i * increment), file + ':' + (inputStart + i));
+				}
+			}
+			return fileId;
+		} catch (NumberFormatException exception) {
+			return previousFileId;
+		}
+	}
+
+}
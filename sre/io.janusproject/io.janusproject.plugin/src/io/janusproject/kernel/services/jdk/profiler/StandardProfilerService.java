@@ -0,0 +1,449 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.kernel.services.jdk.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Service;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.services.AbstractDependentService;
+import io.janusproject.services.logging.LogService;
+import io.janusproject.services.profiler.ProfileRecord;
+import io.janusproject.services.profiler.ProfilerReportFormat;
+import io.janusproject.services.profiler.ProfilerService;
+
+import io.sarl.lang.core.Event;
+
+/**
+ * Implementation of the profiler of the event handlers that is based on concurrent maps of striped counters.
+ *
+ * <p>The profiler is enabled with the property {@link JanusConfig#PROFILER_ENABLE_NAME}. The sampling rate
+ * is given by {@link JanusConfig#PROFILER_SAMPLING_RATE_NAME}. When the service is stopped, the report is written
+ * into the file given by {@link JanusConfig#PROFILER_OUTPUT_NAME}, or into the kernel log, with the format
+ * given by {@link JanusConfig#PROFILER_FORMAT_NAME}.
+ *
+ * <p>The code blocks that are selected by the guard evaluators are lambdas that are calling the behavior units.
+ * The first time a type of lambda is given to the profiler, the line of the guard evaluator at which it is created
+ * is recorded. At the end of the profiling, this line is used for finding in the class file the behavior unit
+ * that is called by the lambda, with the name generated by the SARL compiler, i.e.
+ * {@code $behaviorUnit$EventName$index}, and its location in the SARL code.
+ *
+ * <p>This service is thread-safe.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@Singleton
+public class StandardProfilerService extends AbstractDependentService implements ProfilerService {
+
+	private static final String GUARD_EVALUATOR_PREFIX = "$guardEvaluator$"; //$NON-NLS-1$
+
+	private static final StackTraceElement UNKNOWN_SITE = new StackTraceElement("", "", null, -1); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final String CSV_HEADER = "agent,event,handler,unit,location,kind,count,total_ns,mean_ns,max_ns"; //$NON-NLS-1$
+
+	private final boolean enabled;
+
+	private final int samplingRate;
+
+	private final ConcurrentMap<Key, Statistics> guards = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Key, Statistics> behaviorUnits = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Class<?>, StackTraceElement> sites = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Class<?>, BehaviorUnitLocations> locations = new ConcurrentHashMap<>();
+
+	private LogService logger;
+
+	/**
+	 * Construct the service with the configuration given by the system properties.
+	 */
+	public StandardProfilerService() {
+		this(JanusConfig.getSystemPropertyAsBoolean(JanusConfig.PROFILER_ENABLE_NAME,
+				JanusConfig.PROFILER_ENABLE_VALUE.booleanValue()),
+				JanusConfig.getSystemPropertyAsInteger(JanusConfig.PROFILER_SAMPLING_RATE_NAME,
+				JanusConfig.PROFILER_SAMPLING_RATE_VALUE));
+	}
+
+	/**
+	 * Construct the service.
+	 *
+	 * @param enabled indicates if the profiling is enabled.
+	 * @param samplingRate the sampling rate, i.e. one event over the given number is profiled.
+	 */
+	public StandardProfilerService(boolean enabled, int samplingRate) {
+		this.enabled = enabled;
+		this.samplingRate = Math.max(1, samplingRate);
+	}
+
+	/** Change the logging service.
+	 *
+	 * @param service the logging service.
+	 */
+	@Inject
+	void setLogService(LogService service) {
+		this.logger = service;
+	}
+
+	@Override
+	public final Class<? extends Service> getServiceType() {
+		return ProfilerService.class;
+	}
+
+	@Override
+	public Collection<Class<? extends Service>> getServiceDependencies() {
+		return Arrays.<Class<? extends Service>>asList(LogService.class);
+	}
+
+	@Override
+	public boolean isProfiling() {
+		return this.enabled;
+	}
+
+	@Override
+	public boolean isSampled() {
+		return this.enabled && (this.samplingRate <= 1 || ThreadLocalRandom.current().nextInt(this.samplingRate) == 0);
+	}
+
+	@Override
+	public void recordGuardEvaluation(Class<?> agentType, Class<? extends Event> eventType, Class<?> handlerType,
+			String guardEvaluator, long duration) {
+		final Key key = new Key(agentType, eventType, handlerType, guardEvaluator);
+		this.guards.computeIfAbsent(key, it -> new Statistics()).record(duration);
+	}
+
+	@Override
+	public Collection<Runnable> newBehaviorUnitCollection() {
+		return new SiteRecordingCollection();
+	}
+
+	@Override
+	public void recordBehaviorUnit(Class<?> agentType, Class<? extends Event> eventType, Class<?> handlerType,
+			Class<?> behaviorUnit, long duration) {
+		final Key key = new Key(agentType, eventType, handlerType, behaviorUnit);
+		this.behaviorUnits.computeIfAbsent(key, it -> new Statistics()).record(duration);
+	}
+
+	/** Record the place at which the given type of code block is created, if it is not yet known.
+	 *
+	 * @param behaviorUnit the type of the code block.
+	 */
+	void recordSite(Class<?> behaviorUnit) {
+		if (!this.sites.containsKey(behaviorUnit)) {
+			StackTraceElement site = UNKNOWN_SITE;
+			for (final StackTraceElement element : new Throwable().getStackTrace()) {
+				if (element.getMethodName().startsWith(GUARD_EVALUATOR_PREFIX)) {
+					site = element;
+					break;
+				}
+			}
+			this.sites.putIfAbsent(behaviorUnit, site);
+		}
+	}
+
+	@Override
+	public List<ProfileRecord> getProfile() {
+		final List<ProfileRecord> records = new ArrayList<>(this.guards.size() + this.behaviorUnits.size());
+		for (final Entry<Key, Statistics> entry : this.guards.entrySet()) {
+			final Key key = entry.getKey();
+			records.add(entry.getValue().toRecord(key, key.handlerType.getName(), key.unit.toString(), null, true));
+		}
+		// The behavior units are merged by name because the same lambda may be
+		// replied by different instances of the same handler type.
+		final TreeMap<String, ProfileRecord> units = new TreeMap<>();
+		for (final Entry<Key, Statistics> entry : this.behaviorUnits.entrySet()) {
+			final Key key = entry.getKey();
+			final ProfileRecord record = toBehaviorUnitRecord(key, entry.getValue());
+			units.merge(key.agentType.getName() + ';' + key.eventType.getName() + ';' + record.getHandlerType()
+					+ ';' + record.getUnit(), record, StandardProfilerService::merge);
+		}
+		records.addAll(units.values());
+		Collections.sort(records, (a, b) -> Long.compare(b.getTotalDuration(), a.getTotalDuration()));
+		return records;
+	}
+
+	private static ProfileRecord merge(ProfileRecord a, ProfileRecord b) {
+		return new ProfileRecord(a.getAgentType(), a.getEventType(), a.getHandlerType(), a.getUnit(), a.getLocation(),
+				a.isGuard(), a.getCount() + b.getCount(), a.getTotalDuration() + b.getTotalDuration(),
+				Math.max(a.getMaxDuration(), b.getMaxDuration()));
+	}
+
+	/** Build the record for the given behavior unit.
+	 *
+	 * <p>The type of the code block is mapped to the behavior unit that it calls with the line of the guard
+	 * evaluator at which the code block was created, and with the class file of the type that declares
+	 * the guard evaluator.
+	 *
+	 * @param key the key of the behavior unit.
+	 * @param statistics the statistics on the behavior unit.
+	 * @return the record.
+	 */
+	private ProfileRecord toBehaviorUnitRecord(Key key, Statistics statistics) {
+		final Class<?> codeBlockType = (Class<?>) key.unit;
+		final StackTraceElement site = this.sites.get(codeBlockType);
+		if (site != null && site != UNKNOWN_SITE) {
+			final Class<?> declaringType = findDeclaringType(key.handlerType, site.getClassName());
+			if (declaringType != null) {
+				final BehaviorUnitLocations unitLocations = this.locations.computeIfAbsent(declaringType,
+						BehaviorUnitLocations::read);
+				final String name = unitLocations.getBehaviorUnit(site.getLineNumber());
+				final String location = unitLocations.getLocation(name, site.getLineNumber());
+				return statistics.toRecord(key, declaringType.getName(), name == null ? codeBlockType.getName() : name,
+						location, false);
+			}
+		}
+		return statistics.toRecord(key, key.handlerType.getName(), codeBlockType.getName(), null, false);
+	}
+
+	/** Replies the type with the given name in the hierarchy of the given handler type.
+	 *
+	 * @param handlerType the type of the object that has selected the behavior unit.
+	 * @param name the name of the searched type.
+	 * @return the type, or {@code null} if not found.
+	 */
+	private static Class<?> findDeclaringType(Class<?> handlerType, String name) {
+		Class<?> type = handlerType;
+		while (type != null && !type.getName().equals(name)) {
+			type = type.getSuperclass();
+		}
+		return type;
+	}
+
+	@Override
+	public void writeReport(Appendable output, ProfilerReportFormat format) throws IOException {
+		final List<ProfileRecord> records = getProfile();
+		if (format == ProfilerReportFormat.FLAME_GRAPH) {
+			for (final ProfileRecord record : records) {
+				output.append(record.getAgentType()).append(';');
+				output.append(record.getEventType()).append(';');
+				output.append(record.getHandlerType()).append(';');
+				output.append(record.getUnit());
+				if (record.getLocation() != null) {
+					output.append('[').append(record.getLocation()).append(']');
+				}
+				output.append(' ');
+				output.append(Long.toString(record.getTotalDuration())).append('\n');
+			}
+		} else {
+			output.append(CSV_HEADER).append('\n');
+			for (final ProfileRecord record : records) {
+				output.append(record.getAgentType()).append(',');
+				output.append(record.getEventType()).append(',');
+				output.append(record.getHandlerType()).append(',');
+				output.append(record.getUnit()).append(',');
+				output.append(Strings.nullToEmpty(record.getLocation())).append(',');
+				output.append(record.isGuard() ? "guard" : "body").append(','); //$NON-NLS-1$ //$NON-NLS-2$
+				output.append(Long.toString(record.getCount())).append(',');
+				output.append(Long.toString(record.getTotalDuration())).append(',');
+				output.append(Long.toString(record.getMeanDuration())).append(',');
+				output.append(Long.toString(record.getMaxDuration())).append('\n');
+			}
+		}
+	}
+
+	@Override
+	protected void doStart() {
+		notifyStarted();
+	}
+
+	@Override
+	protected void doStop() {
+		try {
+			if (this.enabled && (!this.guards.isEmpty() || !this.behaviorUnits.isEmpty())) {
+				writeReportAtShutdown();
+			}
+		} finally {
+			notifyStopped();
+		}
+	}
+
+	private void writeReportAtShutdown() {
+		final ProfilerReportFormat format = JanusConfig.getSystemPropertyAsEnum(ProfilerReportFormat.class,
+				JanusConfig.PROFILER_FORMAT_NAME, JanusConfig.PROFILER_FORMAT_VALUE);
+		final String filename = JanusConfig.getSystemProperty(JanusConfig.PROFILER_OUTPUT_NAME,
+				JanusConfig.PROFILER_OUTPUT_VALUE);
+		try {
+			if (Strings.isNullOrEmpty(filename)) {
+				if (this.logger != null) {
+					final StringBuilder report = new StringBuilder();
+					writeReport(report, format);
+					this.logger.getKernelLogger().info(MessageFormat.format(Messages.StandardProfilerService_0, report));
+				}
+			} else {
+				final Path path = Paths.get(filename);
+				try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+					writeReport(writer, format);
+				}
+				if (this.logger != null) {
+					this.logger.getKernelLogger().info(MessageFormat.format(Messages.StandardProfilerService_1, path));
+				}
+			}
+		} catch (IOException exception) {
+			if (this.logger != null) {
+				this.logger.getKernelLogger().log(Level.WARNING,
+						MessageFormat.format(Messages.StandardProfilerService_2, filename, exception.getLocalizedMessage()),
+						exception);
+			}
+		}
+	}
+
+	/**
+	 * Collection of the code blocks selected by a guard evaluator, which records the place at which each type
+	 * of code block is created.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private final class SiteRecordingCollection extends ArrayList<Runnable> {
+
+		private static final long serialVersionUID = -3384316853916573584L;
+
+		SiteRecordingCollection() {
+			//
+		}
+
+		@Override
+		public boolean add(Runnable runnable) {
+			recordSite(runnable.getClass());
+			return super.add(runnable);
+		}
+
+	}
+
+	/**
+	 * Key of the profiling data.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class Key {
+
+		final Class<?> agentType;
+
+		final Class<? extends Event> eventType;
+
+		final Class<?> handlerType;
+
+		final Object unit;
+
+		private final int hash;
+
+		Key(Class<?> agentType, Class<? extends Event> eventType, Class<?> handlerType, Object unit) {
+			this.agentType = agentType;
+			this.eventType = eventType;
+			this.handlerType = handlerType;
+			this.unit = unit;
+			this.hash = Objects.hash(agentType, eventType, handlerType, unit);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj instanceof Key) {
+				final Key other = (Key) obj;
+				return this.hash == other.hash
+					&& this.agentType == other.agentType
+					&& this.eventType == other.eventType
+					&& this.handlerType == other.handlerType
+					&& Objects.equals(this.unit, other.unit);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+	}
+
+	/**
+	 * Statistics on the profiled runs.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class Statistics {
+
+		final LongAdder count = new LongAdder();
+
+		final LongAdder total = new LongAdder();
+
+		final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+		Statistics() {
+			//
+		}
+
+		void record(long duration) {
+			this.count.increment();
+			this.total.add(duration);
+			this.max.accumulate(duration);
+		}
+
+		ProfileRecord toRecord(Key key, String handlerType, String unit, String location, boolean guard) {
+			return new ProfileRecord(key.agentType.getName(), key.eventType.getName(), handlerType, unit, location, guard,
+					this.count.sum(), this.total.sum(), this.max.get());
+		}
+
+	}
+
+}
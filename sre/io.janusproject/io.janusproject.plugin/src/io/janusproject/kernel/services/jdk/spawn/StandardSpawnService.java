@@ -33,7 +33,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
 
-import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Service;
 import com.google.inject.AbstractModule;
@@ -41,12 +41,15 @@ import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 
 import io.janusproject.kernel.bic.BuiltinCapacityUtil;
+import io.janusproject.kernel.bic.InternalEventBusCapacity;
 import io.janusproject.services.AbstractDependentService;
 import io.janusproject.services.contextspace.ContextSpaceService;
 import io.janusproject.services.executor.ExecutorService;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.MetricsService;
 import io.janusproject.services.spawn.KernelAgentSpawnListener;
 import io.janusproject.services.spawn.SpawnService;
 import io.janusproject.services.spawn.SpawnServiceListener;
@@ -61,6 +64,7 @@ import io.sarl.lang.core.AgentContext;
 import io.sarl.lang.core.BuiltinCapacitiesProvider;
 import io.sarl.lang.core.EventSpace;
 import io.sarl.lang.core.SREutils;
+import io.sarl.lang.core.UnimplementedCapacityException;
 import io.sarl.lang.util.SynchronizedIterable;
 import io.sarl.lang.util.SynchronizedSet;
 import io.sarl.sarlspecification.SarlSpecificationChecker;
@@ -103,6 +107,9 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	@Inject
 	private BuiltinCapacitiesProvider builtinCapacityProvider;
 
+	@Inject(optional = true)
+	private MetricsService metrics;
+
 	/**
 	 * Constructs the service with the given (injected) injector.
 	 *
@@ -164,20 +171,7 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 				final List<Agent> agents = new ArrayList<>(nbAgents);
 				// Create the block of code for creating a single agent
 				final Runnable agentCreator = () -> {
-					final Agent agent = agentInjector.getInstance(Agent.class);
-					assert agent != null;
-					// Create the builtin capacities / skill installation will be done later in the life cycle.
-					StandardSpawnService.this.builtinCapacityProvider.builtinCapacities(agent, (capacity, skill) -> {
-						try {
-							SREutils.createSkillMapping(agent, capacity, skill);
-						} catch (Exception e) {
-							throw new Error(Messages.StandardSpawnService_5, e);
-						}
-					});
-					// Add the agent in the system
-					synchronized (this.agents) {
-						this.agents.put(agent.getID(), agent);
-					}
+					final Agent agent = createAgent(agentInjector);
 					synchronized (agents) {
 						agents.add(agent);
 					}
@@ -190,6 +184,9 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 				} else {
 					agentCreator.run();
 				}
+				if (this.metrics != null) {
+					this.metrics.getCounter(MetricsService.AGENTS_SPAWNED).add(agents.size());
+				}
 				// Fire the general spawning event
 				fireAgentSpawnedOutsideAgent(spawningAgent, parent, agentClazz, agents, params);
 				return Collections.unmodifiableList(Lists.transform(agents, it -> it.getID()));
@@ -200,6 +197,71 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 		throw new SpawnDisabledException(parent.getID(), agentClazz);
 	}
 
+	/** Create an agent with its built-in capacities, and add it in the system.
+	 *
+	 * @param agentInjector the injector that is able to create the agent instance.
+	 * @return the agent.
+	 */
+	private Agent createAgent(Injector agentInjector) {
+		final Agent agent = agentInjector.getInstance(Agent.class);
+		assert agent != null;
+		// Create the builtin capacities / skill installation will be done later in the life cycle.
+		this.builtinCapacityProvider.builtinCapacities(agent, (capacity, skill) -> {
+			try {
+				SREutils.createSkillMapping(agent, capacity, skill);
+			} catch (Exception e) {
+				throw new Error(Messages.StandardSpawnService_5, e);
+			}
+		});
+		// Add the agent in the system
+		synchronized (getAgentRepositoryMutex()) {
+			this.agents.put(agent.getID(), agent);
+		}
+		return agent;
+	}
+
+	@Override
+	public Agent restore(AgentContext parent, UUID agentID, Class<? extends Agent> agentClazz,
+			Procedure1<? super Agent> stateRestorer) {
+		if (isRunning()) {
+			try {
+				ensureSarlSpecificationVersion(agentClazz);
+				final JustInTimeAgentInjectionModule agentInjectionModule = new JustInTimeAgentInjectionModule(
+						agentClazz, parent.getID(), agentID);
+				final Agent agent = createAgent(this.injector.createChildInjector(agentInjectionModule));
+				fireAgentRestored(parent, agent, stateRestorer);
+				return agent;
+			} catch (Throwable e) {
+				throw new CannotSpawnException(agentClazz, e);
+			}
+		}
+		throw new SpawnDisabledException(parent.getID(), agentClazz);
+	}
+
+	/** Notify the listeners about the restoration of an agent.
+	 *
+	 * <p>The listeners of the agent are notified first, because they are restoring its state.
+	 * Neither the {@code Initialize} nor the {@code AgentSpawned} events are fired.
+	 *
+	 * @param context the context in which the agent was restored.
+	 * @param agent the restored agent.
+	 * @param stateRestorer the function that restores the state of the agent.
+	 */
+	protected void fireAgentRestored(AgentContext context, Agent agent, Procedure1<? super Agent> stateRestorer) {
+		final ListenerCollection<SpawnServiceListener> list;
+		synchronized (getAgentLifecycleListenerMutex()) {
+			list = this.agentLifecycleListeners.get(agent.getID());
+		}
+		if (list != null) {
+			for (final SpawnServiceListener l : list.getListeners(SpawnServiceListener.class)) {
+				l.agentRestored(context, agent, stateRestorer);
+			}
+		}
+		for (final SpawnServiceListener l : this.globalListeners.getListeners(SpawnServiceListener.class)) {
+			l.agentRestored(context, agent, null);
+		}
+	}
+
 	/** Notify the listeners about the agents' spawning.
 	 *
 	 * @param spawningAgent the spawning agent.
@@ -221,8 +283,13 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 		final Address source = new Address(defSpace.getSpaceID(),
 				spawningAgent == null ? context.getID() : spawningAgent);
 		assert source != null;
-		final AgentSpawned event = new AgentSpawned(source, agentClazz.getName(),
-				Collections2.transform(agents, it -> it.getID()));
+		// The identifiers are copied into a hashed set because each receiving agent
+		// is searching for its own identifier within the collection.
+		final ImmutableSet.Builder<UUID> identifiers = ImmutableSet.builder();
+		for (final Agent agent : agents) {
+			identifiers.add(agent.getID());
+		}
+		final AgentSpawned event = new AgentSpawned(source, agentClazz.getName(), identifiers.build());
 		defSpace.emit(
 				// No need to give an event source because it is explicitly set above.
 				null,
@@ -283,6 +350,10 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 		if (warningMessage == null) {
 			assert killAgent != null;
 
+			if (this.metrics != null) {
+				this.metrics.getCounter(MetricsService.AGENTS_KILLED).increment();
+			}
+
 			fireAgentDestroyed(killAgent);
 
 			if (isLast) {
@@ -473,6 +544,10 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 
 	@Override
 	protected void doStart() {
+		if (this.metrics != null) {
+			this.metrics.registerGauge(MetricsService.AGENTS_INBOX_DEPTH, () -> computeInboxDepth(false));
+			this.metrics.registerGauge(MetricsService.AGENTS_INBOX_MAX_DEPTH, () -> computeInboxDepth(true));
+		}
 		// Assume that when the service is starting, the kernel agent is up.
 		fireKernelAgentSpawn();
 		notifyStarted();
@@ -480,12 +555,45 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 
 	@Override
 	protected void doStop() {
+		if (this.metrics != null) {
+			this.metrics.unregisterGauge(MetricsService.AGENTS_INBOX_DEPTH);
+			this.metrics.unregisterGauge(MetricsService.AGENTS_INBOX_MAX_DEPTH);
+		}
 		synchronized (getAgentLifecycleListenerMutex()) {
 			this.agentLifecycleListeners.clear();
 		}
 		notifyStopped();
 	}
 
+	/** Compute the number of events that are waiting in the inboxes of the agents.
+	 * This function is invoked only when the value of the gauges is pulled.
+	 *
+	 * @param max indicates if the greatest depth of an inbox is replied instead of the total depth.
+	 * @return the depth.
+	 */
+	private long computeInboxDepth(boolean max) {
+		final List<Agent> agentList;
+		synchronized (getAgentRepositoryMutex()) {
+			agentList = new ArrayList<>(this.agents.values());
+		}
+		long depth = 0;
+		for (final Agent agent : agentList) {
+			final int size;
+			try {
+				size = SREutils.getInternalSkill(agent, InternalEventBusCapacity.class).getInboxSize();
+			} catch (UnimplementedCapacityException exception) {
+				// The agent is not fully spawned, or already destroyed.
+				continue;
+			}
+			if (max) {
+				depth = Math.max(depth, size);
+			} else {
+				depth += size;
+			}
+		}
+		return depth;
+	}
+
 	/**
 	 * This exception is thrown when the spawning service of agents is disabled.
 	 *
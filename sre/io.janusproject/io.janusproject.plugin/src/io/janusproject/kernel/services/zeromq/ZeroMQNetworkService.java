@@ -51,6 +51,7 @@ import io.janusproject.services.executor.ExecutorService;
 import io.janusproject.services.kerneldiscovery.KernelDiscoveryService;
 import io.janusproject.services.kerneldiscovery.KernelDiscoveryServiceListener;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.MetricsService;
 import io.janusproject.services.network.AbstractNetworkingExecutionThreadService;
 import io.janusproject.services.network.EventDispatch;
 import io.janusproject.services.network.EventEnvelope;
@@ -96,6 +97,9 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
     @Inject
     private EventSerializer serializer;
 
+    @Inject(optional = true)
+    private MetricsService metrics;
+
     private ZContext context;
 
     private Socket sendingSocket;
@@ -242,6 +246,19 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
         this.sendingSocket.sendMore(envelope.getCustomHeaders());
         this.sendingSocket.sendMore(Ints.toByteArray(envelope.getBody().length));
         this.sendingSocket.send(envelope.getBody());
+        if (this.metrics != null) {
+            this.metrics.getCounter(MetricsService.NETWORK_BYTES_OUT).add(getEnvelopeSize(envelope));
+        }
+    }
+
+    /** Replies the number of bytes that are transfered on the network for the given envelope.
+     *
+     * @param envelope the envelope.
+     * @return the number of bytes.
+     */
+    private static long getEnvelopeSize(EventEnvelope envelope) {
+        return envelope.getContextId().length + envelope.getSpaceId().length + envelope.getScope().length
+                + envelope.getCustomHeaders().length + envelope.getBody().length + 4 * Integer.BYTES;
     }
 
     /**
@@ -417,6 +434,9 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
                                 this.logger.getKernelLogger().fine(MessageFormat.format(Messages.ZeroMQNetworkService_11, new Integer(i)));
                                 final EventEnvelope ev = extractEnvelope(this.poller.getSocket(i));
                                 assert ev != null;
+                                if (this.metrics != null) {
+                                    this.metrics.getCounter(MetricsService.NETWORK_BYTES_IN).add(getEnvelopeSize(ev));
+                                }
 
                                 try {
                                     receive(ev);
@@ -22,6 +22,9 @@
 package io.janusproject.kernel.space;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import com.google.inject.Inject;
@@ -29,7 +32,11 @@ import com.google.inject.Inject;
 import io.janusproject.kernel.repository.UniqueAddressParticipantRepository;
 import io.janusproject.services.distributeddata.DistributedDataStructureService;
 import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.services.journal.JournalService;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.Counter;
+import io.janusproject.services.metrics.MetricsService;
+import io.janusproject.services.network.EventEnvelope;
 import io.janusproject.services.network.NetworkService;
 
 import io.sarl.lang.core.Address;
@@ -72,6 +79,22 @@ public abstract class AbstractEventSpace extends SpaceBase {
 	@Inject
 	private NetworkService network;
 
+	/**
+	 * Metrics service.
+	 */
+	@Inject(optional = true)
+	private MetricsService metrics;
+
+	/**
+	 * Journal of the event deliveries.
+	 */
+	@Inject(optional = true)
+	private JournalService journal;
+
+	private Counter emittedEvents;
+
+	private Counter deliveredEvents;
+
 	/**
 	 * List of participants in this space.
 	 */
@@ -97,6 +120,11 @@ public abstract class AbstractEventSpace extends SpaceBase {
 		return this.participants;
 	}
 
+	@Override
+	public void destroy() {
+		this.participants.destroy();
+	}
+
 	/**
 	 * Replies the address associated to the given participant.
 	 *
@@ -134,6 +162,10 @@ public abstract class AbstractEventSpace extends SpaceBase {
 		try {
 			final Scope<Address> scopeInstance = (scope == null) ? Scopes.<Address>allParticipants() : scope;
 			this.network.publish(scopeInstance, event);
+			final Counter counter = getEmittedEventCounter();
+			if (counter != null) {
+				counter.increment();
+			}
 			doEmit(event, scopeInstance);
 		} catch (Throwable e) {
 			this.logger.getKernelLogger().severe(MessageFormat.format(Messages.AbstractEventSpace_0, event, scope, e));
@@ -170,20 +202,90 @@ public abstract class AbstractEventSpace extends SpaceBase {
 		assert event != null;
 		final UniqueAddressParticipantRepository<Address> particips = getParticipantInternalDataStructure();
 		final SynchronizedCollection<EventListener> listeners = particips.getListeners();
+		final Counter counter = getDeliveredEventCounter();
+		final JournalService journalService = this.journal != null && this.journal.isRecording() ? this.journal : null;
+		if (journalService == null) {
+			synchronized (listeners.mutex()) {
+				for (final EventListener agent : listeners) {
+					if (scope.matches(getAddress(agent))) {
+						this.executorService.submit(new AsyncRunner(agent, event));
+						if (counter != null) {
+							counter.increment();
+						}
+					}
+				}
+			}
+			return;
+		}
+		// The receivers are collected under the lock, and the event is journaled outside it
+		final List<EventListener> receivers = new ArrayList<>();
 		synchronized (listeners.mutex()) {
 			for (final EventListener agent : listeners) {
 				if (scope.matches(getAddress(agent))) {
-					this.executorService.submit(new AsyncRunner(agent, event));
+					receivers.add(agent);
+				}
+			}
+		}
+		if (!receivers.isEmpty()) {
+			final EventEnvelope journalEvent = journalService.serialize(getSpaceID(), event);
+			for (final EventListener agent : receivers) {
+				if (journalEvent != null) {
+					journalService.record(journalEvent, agent.getID());
+				}
+				this.executorService.submit(new AsyncRunner(agent, event));
+				if (counter != null) {
+					counter.increment();
 				}
 			}
 		}
 	}
 
+	/** Replies the counter of the events that are emitted in this space.
+	 *
+	 * @return the counter, or {@code null} if the metrics are not collected.
+	 * @since 0.8
+	 */
+	protected Counter getEmittedEventCounter() {
+		Counter counter = this.emittedEvents;
+		if (counter == null && this.metrics != null) {
+			counter = this.metrics.getCounter(MetricsService.spaceEmittedEvents(getSpaceID().getSpaceSpecification()));
+			this.emittedEvents = counter;
+		}
+		return counter;
+	}
+
+	/** Replies the counter of the events that are delivered to the participants of this space.
+	 *
+	 * @return the counter, or {@code null} if the metrics are not collected.
+	 * @since 0.8
+	 */
+	protected Counter getDeliveredEventCounter() {
+		Counter counter = this.deliveredEvents;
+		if (counter == null && this.metrics != null) {
+			counter = this.metrics.getCounter(MetricsService.spaceDeliveredEvents(getSpaceID().getSpaceSpecification()));
+			this.deliveredEvents = counter;
+		}
+		return counter;
+	}
+
 	@Override
 	public SynchronizedSet<UUID> getParticipants() {
 		return Collections3.unmodifiableSynchronizedSet(getParticipantInternalDataStructure().getParticipantIDs());
 	}
 
+	/** Replies an immutable snapshot of the identifiers of the participants.
+	 *
+	 * <p>In opposite to {@link #getParticipants()}, the replied set is not a view on the participants,
+	 * and it may be iterated without synchronization. The same instance is replied as long as the
+	 * participants do not change.
+	 *
+	 * @return the identifiers of the participants.
+	 * @since 0.8
+	 */
+	public Set<UUID> getParticipantSnapshot() {
+		return getParticipantInternalDataStructure().getParticipantIDSnapshot();
+	}
+
 	@Override
 	public String toString() {
 		return getSpaceID().toString();
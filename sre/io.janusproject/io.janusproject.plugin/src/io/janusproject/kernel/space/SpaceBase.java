@@ -65,4 +65,13 @@ public abstract class SpaceBase implements Space, NetworkEventReceivingListener
         return this.id;
     }
 
+	/**
+	 * Invoked by the space repository when this space is removed, for releasing its resources.
+	 *
+	 * @since 0.8
+	 */
+	public void destroy() {
+		//
+	}
+
 }
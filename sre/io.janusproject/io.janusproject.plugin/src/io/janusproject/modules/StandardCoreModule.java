@@ -38,17 +38,25 @@ import com.google.inject.multibindings.Multibinder;
 import com.google.inject.spi.TypeEncounter;
 import com.google.inject.spi.TypeListener;
 
+import io.janusproject.kernel.services.jdk.checkpoint.StandardCheckpointService;
 import io.janusproject.kernel.services.jdk.contextspace.StandardContextSpaceService;
+import io.janusproject.kernel.services.jdk.journal.MappedJournalService;
 import io.janusproject.kernel.services.jdk.logging.StandardLogService;
+import io.janusproject.kernel.services.jdk.metrics.StandardMetricsService;
+import io.janusproject.kernel.services.jdk.profiler.StandardProfilerService;
 import io.janusproject.kernel.services.jdk.spawn.StandardSpawnService;
 import io.janusproject.modules.executors.JdkExecutorModule;
 import io.janusproject.modules.kernel.MandatoryKernelModule;
+import io.janusproject.services.checkpoint.CheckpointService;
 import io.janusproject.services.contextspace.ContextSpaceService;
 import io.janusproject.services.distributeddata.DistributedDataStructureService;
 import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.services.journal.JournalService;
 import io.janusproject.services.kerneldiscovery.KernelDiscoveryService;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.metrics.MetricsService;
 import io.janusproject.services.network.NetworkService;
+import io.janusproject.services.profiler.ProfilerService;
 import io.janusproject.services.spawn.SpawnService;
 import io.janusproject.util.LoggerCreator;
 
@@ -71,9 +79,13 @@ public class StandardCoreModule extends AbstractModule {
 		bindListener(Matchers.any(), new LoggerMemberListener());
 
 		bind(LogService.class).to(StandardLogService.class).in(Singleton.class);
+		bind(MetricsService.class).to(StandardMetricsService.class).in(Singleton.class);
+		bind(ProfilerService.class).to(StandardProfilerService.class).in(Singleton.class);
+		bind(JournalService.class).to(MappedJournalService.class).in(Singleton.class);
 
 		bind(ContextSpaceService.class).to(StandardContextSpaceService.class).in(Singleton.class);
 		bind(SpawnService.class).to(StandardSpawnService.class).in(Singleton.class);
+		bind(CheckpointService.class).to(StandardCheckpointService.class).in(Singleton.class);
 
 		install(new JdkExecutorModule());
 
@@ -87,17 +99,25 @@ public class StandardCoreModule extends AbstractModule {
 		requireBinding(ContextSpaceService.class);
 		requireBinding(Logger.class);
 		requireBinding(LogService.class);
+		requireBinding(MetricsService.class);
+		requireBinding(ProfilerService.class);
+		requireBinding(JournalService.class);
 		requireBinding(NetworkService.class);
 		requireBinding(SpawnService.class);
+		requireBinding(CheckpointService.class);
 
 		// Create a binder for: Set<Service>
 		// (This set is given to the service manager to launch the services).
 		final Multibinder<Service> serviceSetBinder = Multibinder.newSetBinder(binder(), Service.class);
 		serviceSetBinder.addBinding().to(LogService.class);
+		serviceSetBinder.addBinding().to(MetricsService.class);
+		serviceSetBinder.addBinding().to(ProfilerService.class);
+		serviceSetBinder.addBinding().to(JournalService.class);
 		serviceSetBinder.addBinding().to(ExecutorService.class);
 		serviceSetBinder.addBinding().to(ContextSpaceService.class);
 		serviceSetBinder.addBinding().to(KernelDiscoveryService.class);
 		serviceSetBinder.addBinding().to(SpawnService.class);
+		serviceSetBinder.addBinding().to(CheckpointService.class);
 		serviceSetBinder.addBinding().to(DistributedDataStructureService.class);
 	}
 
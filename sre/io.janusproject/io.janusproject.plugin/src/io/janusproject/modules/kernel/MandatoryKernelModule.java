@@ -42,6 +42,7 @@ import io.janusproject.kernel.space.OpenEventSpaceSpecificationImpl;
 import io.janusproject.kernel.space.RestrictedAccessEventSpaceSpecificationImpl;
 import io.janusproject.services.GoogleServiceManager;
 import io.janusproject.services.IServiceManager;
+import io.janusproject.services.InboxOverflowPolicy;
 import io.janusproject.services.contextspace.ContextSpaceService;
 import io.janusproject.services.executor.ExecutorService;
 
@@ -106,7 +107,16 @@ public class MandatoryKernelModule extends AbstractModule {
 	 */
 	@Provides
 	public static AgentInternalEventsDispatcher createAgentInternalEventsDispatcher(Injector injector) {
-		final AgentInternalEventsDispatcher aeb = new AgentInternalEventsDispatcher(injector.getInstance(ExecutorService.class));
+		final boolean agentAffineDispatching = JanusConfig.getSystemPropertyAsBoolean(
+				JanusConfig.AGENT_AFFINE_DISPATCHING_NAME, JanusConfig.AGENT_AFFINE_DISPATCHING_VALUE.booleanValue());
+		final int batchSize = JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.AGENT_AFFINE_DISPATCHING_BATCH_SIZE_NAME, JanusConfig.AGENT_AFFINE_DISPATCHING_BATCH_SIZE_VALUE);
+		final int inboxCapacity = JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.AGENT_INBOX_CAPACITY_NAME, JanusConfig.AGENT_INBOX_CAPACITY_VALUE);
+		final InboxOverflowPolicy overflowPolicy = JanusConfig.getSystemPropertyAsEnum(InboxOverflowPolicy.class,
+				JanusConfig.AGENT_INBOX_OVERFLOW_POLICY_NAME, JanusConfig.AGENT_INBOX_OVERFLOW_POLICY_VALUE);
+		final AgentInternalEventsDispatcher aeb = new AgentInternalEventsDispatcher(injector.getInstance(ExecutorService.class),
+				agentAffineDispatching, batchSize, inboxCapacity, overflowPolicy);
 		// to be able to inject the ExecutorService and SubscriberFindingStrategy
 		injector.injectMembers(aeb);
 		return aeb;
@@ -0,0 +1,58 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services;
+
+/**
+ * Policy that is applied by the dispatcher of the events of an agent when an event is received
+ * while the inbox of the agent is full.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public enum InboxOverflowPolicy {
+
+	/** The emitter of the event is blocked until a place is available in the inbox.
+	 * The threads that are running the event handlers of the agents are never blocked, because
+	 * they may be needed for consuming the pending events; their events are accepted beyond
+	 * the capacity of the inbox, up to the capacity itself. The other events of these threads are dropped.
+	 */
+	BLOCK,
+
+	/** The oldest pending event is removed from the inbox in order to give a place to the received event.
+	 */
+	DROP_OLDEST,
+
+	/** The received event is dropped.
+	 */
+	DROP_NEWEST,
+
+	/** The received event is dropped, and it is given to the handlers of {@link io.sarl.lang.core.DeadEvent}
+	 * that are registered in the agent. The dead event is dispatched asynchronously, as the other events.
+	 * At most as many dead events as the capacity of the inbox are pending; the other ones are not
+	 * dispatched.
+	 */
+	DEAD_EVENT;
+
+}
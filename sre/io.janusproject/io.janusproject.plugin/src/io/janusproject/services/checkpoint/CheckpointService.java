@@ -0,0 +1,75 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.checkpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.janusproject.services.DependentService;
+
+/**
+ * This service writes checkpoints of the state of the agents, and restores them into a fresh kernel.
+ *
+ * <p>A checkpoint contains the contexts and the spaces, the agents with their identifiers, behaviors and skills,
+ * the values of their fields, the schedules of their tasks, and the events they have received and not yet
+ * dispatched. When a checkpoint is restored, the agents continue from their checkpointed state: they do not
+ * receive the {@code Initialize} event, and the other agents do not receive {@code AgentSpawned}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public interface CheckpointService extends DependentService {
+
+	/** Write a checkpoint of the agents.
+	 *
+	 * <p>The dispatching of the events and the tasks of the agents are paused, and the checkpoint is written when
+	 * no event handler and no task is running. The agents are resumed after the checkpoint is written.
+	 * This function must not be invoked by an agent.
+	 *
+	 * @param output the stream in which the checkpoint is written.
+	 * @param timeout the maximum time to wait for the running handlers and tasks.
+	 * @param unit the unit of the timeout.
+	 * @throws IOException if the checkpoint cannot be written.
+	 * @throws TimeoutException if handlers or tasks are still running after the timeout.
+	 * @throws InterruptedException if the current thread is interrupted while waiting for the agents.
+	 */
+	void checkpoint(OutputStream output, long timeout, TimeUnit unit) throws IOException, TimeoutException, InterruptedException;
+
+	/** Restore a checkpoint into the kernel.
+	 *
+	 * <p>The universe context of the kernel must have the same identifier as the one of the checkpoint.
+	 *
+	 * @param input the stream from which the checkpoint is read.
+	 * @return the identifiers of the restored agents.
+	 * @throws IOException if the checkpoint cannot be restored.
+	 */
+	List<UUID> restore(InputStream input) throws IOException;
+
+}
@@ -0,0 +1,101 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.journal;
+
+import java.util.UUID;
+
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.SpaceID;
+
+/**
+ * Delivery of an event to an agent that was read from the journal.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class JournalRecord {
+
+	private final long timestamp;
+
+	private final SpaceID spaceID;
+
+	private final UUID receiver;
+
+	private final Event event;
+
+	/** Constructor.
+	 *
+	 * @param timestamp the logical timestamp of the delivery.
+	 * @param spaceID the identifier of the space in which the event was delivered.
+	 * @param receiver the identifier of the agent that has received the event.
+	 * @param event the delivered event.
+	 */
+	public JournalRecord(long timestamp, SpaceID spaceID, UUID receiver, Event event) {
+		this.timestamp = timestamp;
+		this.spaceID = spaceID;
+		this.receiver = receiver;
+		this.event = event;
+	}
+
+	/** Replies the logical timestamp of the delivery.
+	 *
+	 * <p>The logical timestamps are increasing in the order of the deliveries.
+	 *
+	 * @return the logical timestamp.
+	 */
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	/** Replies the identifier of the space in which the event was delivered.
+	 *
+	 * @return the space identifier.
+	 */
+	public SpaceID getSpaceID() {
+		return this.spaceID;
+	}
+
+	/** Replies the identifier of the agent that has received the event.
+	 *
+	 * @return the identifier of the receiver.
+	 */
+	public UUID getReceiver() {
+		return this.receiver;
+	}
+
+	/** Replies the delivered event.
+	 *
+	 * @return the event.
+	 */
+	public Event getEvent() {
+		return this.event;
+	}
+
+	@Override
+	public String toString() {
+		return this.timestamp + ";" + this.spaceID + ";" + this.receiver + ";" + this.event; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.journal;
+
+import java.util.UUID;
+
+import io.janusproject.services.DependentService;
+import io.janusproject.services.network.EventEnvelope;
+
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.SpaceID;
+
+/**
+ * This service records the events that are delivered to the agents into a journal.
+ *
+ * <p>Each delivery is recorded with the identifier of the receiving agent, the identifier of the space in which
+ * the event is delivered, and a logical timestamp. The logical timestamps give a total order of the deliveries,
+ * which is used for replaying the journal deterministically, without network and without wall clock.
+ *
+ * <p>The events are serialized by the emitting threads, when their deliveries are recorded. The journal contains
+ * the content of the events at the time of their emission, even if they are changed later.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public interface JournalService extends DependentService {
+
+	/** Replies if the events are recorded into the journal.
+	 *
+	 * @return {@code true} if the events are recorded.
+	 */
+	boolean isRecording();
+
+	/** Serialize the given event in order to record its deliveries.
+	 *
+	 * <p>This function is invoked by the thread that is emitting the event, before the event is given to
+	 * its receivers. The serialized event may be recorded for several receivers with
+	 * {@link #record(EventEnvelope, UUID)}.
+	 *
+	 * @param spaceID the identifier of the space in which the event is delivered.
+	 * @param event the delivered event.
+	 * @return the serialized event, or {@code null} if the journal is not recording or if the event cannot be serialized.
+	 */
+	EventEnvelope serialize(SpaceID spaceID, Event event);
+
+	/** Record the delivery of a serialized event to an agent.
+	 *
+	 * <p>This function is invoked by the threads that are emitting the events. The number of deliveries that are
+	 * waiting for being written is bounded. When the bound is reached, the delivery is dropped or the calling thread
+	 * waits, according to the configuration of the journal.
+	 *
+	 * @param event the serialized event, replied by {@link #serialize(SpaceID, Event)}. If it is {@code null},
+	 *     nothing is recorded.
+	 * @param receiver the identifier of the agent that receives the event.
+	 */
+	void record(EventEnvelope event, UUID receiver);
+
+	/** Record the delivery of an event to an agent.
+	 *
+	 * <p>This function serializes the event and records it with {@link #record(EventEnvelope, UUID)}.
+	 *
+	 * @param spaceID the identifier of the space in which the event is delivered.
+	 * @param receiver the identifier of the agent that receives the event.
+	 * @param event the delivered event.
+	 */
+	void record(SpaceID spaceID, UUID receiver, Event event);
+
+	/** Wait until all the deliveries that were recorded before the call to this function
+	 * are written into the journal.
+	 */
+	void flush();
+
+}
@@ -40,6 +40,9 @@ import io.janusproject.util.LoggerCreator;
 public interface LogService extends DependentService {
 
 	/** Create a logger for an agent.
+	 *
+	 * <p>The agent logger is not registered into the logging manager. It uses the handlers of
+	 * the {@link #getPlatformLogger() platform logger}, that is shared by all the agents.
 	 *
 	 * @param loggingName the name to associate to the logger, usually the identifier of the agent.
 	 * @param initialLevel the initial logging level.
@@ -47,7 +50,7 @@ public interface LogService extends DependentService {
 	 * @since 0.7
 	 */
 	default Logger createAgentLogger(String loggingName, Level initialLevel) {
-		final Logger logger = LoggerCreator.createModuleLogger(loggingName, getPlatformLogger());
+		final Logger logger = LoggerCreator.createAgentLogger(loggingName, getPlatformLogger());
 		if (initialLevel != null) {
 			logger.setLevel(initialLevel);
 		}
@@ -0,0 +1,77 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonic counter that is striped over the threads in order to support contended
+ * increments with a low overhead.
+ *
+ * <p>This counter is thread-safe.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class Counter {
+
+	private final LongAdder value = new LongAdder();
+
+	/** Increment the counter.
+	 */
+	public void increment() {
+		this.value.increment();
+	}
+
+	/** Add the given amount to the counter.
+	 *
+	 * @param amount the amount to add.
+	 */
+	public void add(long amount) {
+		this.value.add(amount);
+	}
+
+	/** Replies the current value of the counter.
+	 *
+	 * <p>The replied value is not an atomic snapshot when increments are done concurrently.
+	 *
+	 * @return the value.
+	 */
+	public long get() {
+		return this.value.sum();
+	}
+
+	/** Reset the counter to zero.
+	 */
+	public void reset() {
+		this.value.reset();
+	}
+
+	@Override
+	public String toString() {
+		return Long.toString(get());
+	}
+
+}
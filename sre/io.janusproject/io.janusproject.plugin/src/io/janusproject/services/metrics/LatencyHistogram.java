@@ -0,0 +1,280 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, in nanoseconds, with a bounded relative error.
+ *
+ * <p>The values are recorded in buckets with a logarithmic layout, in the spirit of the HDR histograms:
+ * each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets. The relative error on the
+ * replied percentiles is then lower than {@code 1/}{@value #SUB_BUCKETS}. Recording a value is lock-free
+ * and does not allocate memory.
+ *
+ * <p>This histogram is thread-safe.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class LatencyHistogram {
+
+	/** Number of linear sub-buckets per power of two.
+	 */
+	public static final int SUB_BUCKETS = 8;
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/** Record the given duration.
+	 *
+	 * @param nanos the duration in nanoseconds. Negative values are recorded as zero.
+	 */
+	public void record(long nanos) {
+		final long value = Math.max(0, nanos);
+		this.buckets.incrementAndGet(bucketIndex(value));
+		this.count.increment();
+		this.sum.add(value);
+		this.max.accumulate(value);
+	}
+
+	/** Replies the index of the bucket for the given positive value.
+	 *
+	 * @param value the value.
+	 * @return the index of the bucket.
+	 */
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		final int subBucket = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+		return (exponent + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/** Replies the greatest value that is recorded in the bucket with the given index.
+	 *
+	 * @param index the index of the bucket.
+	 * @return the upper bound of the bucket.
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int exponent = index / SUB_BUCKETS - 1;
+		final long subBucket = (index % SUB_BUCKETS) | SUB_BUCKETS;
+		return ((subBucket + 1) << exponent) - 1;
+	}
+
+	/** Replies the number of recorded values.
+	 *
+	 * @return the number of values.
+	 */
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	/** Reset the histogram.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			this.buckets.set(i, 0);
+		}
+		this.count.reset();
+		this.sum.reset();
+		this.max.reset();
+	}
+
+	/** Replies a snapshot of the histogram.
+	 *
+	 * <p>The snapshot is not atomic when values are recorded concurrently.
+	 *
+	 * @return the snapshot.
+	 */
+	public Snapshot getSnapshot() {
+		final long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			counts[i] = this.buckets.get(i);
+			total += counts[i];
+		}
+		final long maximum = this.max.get();
+		return new Snapshot(total,
+				total == 0 ? 0 : this.sum.sum() / total,
+				maximum,
+				percentile(counts, total, maximum, .5),
+				percentile(counts, total, maximum, .9),
+				percentile(counts, total, maximum, .99),
+				percentile(counts, total, maximum, .999));
+	}
+
+	private static long percentile(long[] counts, long total, long maximum, double ratio) {
+		if (total == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(total * ratio));
+		long cumul = 0;
+		for (int i = 0; i < counts.length; ++i) {
+			cumul += counts[i];
+			if (cumul >= rank) {
+				return Math.min(bucketUpperBound(i), maximum);
+			}
+		}
+		return maximum;
+	}
+
+	@Override
+	public String toString() {
+		return getSnapshot().toString();
+	}
+
+	/**
+	 * Snapshot of a latency histogram. All the durations are in nanoseconds.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static final class Snapshot {
+
+		private final long count;
+
+		private final long mean;
+
+		private final long max;
+
+		private final long p50;
+
+		private final long p90;
+
+		private final long p99;
+
+		private final long p999;
+
+		/** Constructor.
+		 *
+		 * @param count the number of values.
+		 * @param mean the mean value.
+		 * @param max the maximal value.
+		 * @param p50 the median.
+		 * @param p90 the 90th percentile.
+		 * @param p99 the 99th percentile.
+		 * @param p999 the 99.9th percentile.
+		 */
+		@ConstructorProperties({"count", "mean", "max", "p50", "p90", "p99", "p999"})
+		public Snapshot(long count, long mean, long max, long p50, long p90, long p99, long p999) {
+			this.count = count;
+			this.mean = mean;
+			this.max = max;
+			this.p50 = p50;
+			this.p90 = p90;
+			this.p99 = p99;
+			this.p999 = p999;
+		}
+
+		/** Replies the number of values.
+		 *
+		 * @return the number of values.
+		 */
+		public long getCount() {
+			return this.count;
+		}
+
+		/** Replies the mean value.
+		 *
+		 * @return the mean value.
+		 */
+		public long getMean() {
+			return this.mean;
+		}
+
+		/** Replies the maximal value.
+		 *
+		 * @return the maximal value.
+		 */
+		public long getMax() {
+			return this.max;
+		}
+
+		/** Replies the median value.
+		 *
+		 * @return the 50th percentile.
+		 */
+		public long getP50() {
+			return this.p50;
+		}
+
+		/** Replies the 90th percentile.
+		 *
+		 * @return the 90th percentile.
+		 */
+		public long getP90() {
+			return this.p90;
+		}
+
+		/** Replies the 99th percentile.
+		 *
+		 * @return the 99th percentile.
+		 */
+		public long getP99() {
+			return this.p99;
+		}
+
+		/** Replies the 99.9th percentile.
+		 *
+		 * @return the 99.9th percentile.
+		 */
+		public long getP999() {
+			return this.p999;
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + this.count //$NON-NLS-1$
+				+ "; mean=" + this.mean //$NON-NLS-1$
+				+ "; p50=" + this.p50 //$NON-NLS-1$
+				+ "; p90=" + this.p90 //$NON-NLS-1$
+				+ "; p99=" + this.p99 //$NON-NLS-1$
+				+ "; p999=" + this.p999 //$NON-NLS-1$
+				+ "; max=" + this.max; //$NON-NLS-1$
+		}
+
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.metrics;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import io.janusproject.services.DependentService;
+
+/**
+ * This service collects the runtime metrics of the kernel.
+ *
+ * <p>The metrics are identified by a name. The names of the metrics that are collected by the kernel
+ * are built with the static functions of this interface. Three types of metrics are supported:<ul>
+ * <li>{@link Counter counters} that are monotonic;</li>
+ * <li>{@link LatencyHistogram histograms} of durations;</li>
+ * <li>gauges that are evaluated on demand.</li>
+ * </ul>
+ *
+ * <p>The values of the metrics may be pulled with the functions of this service, or through JMX
+ * according to the implementation.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public interface MetricsService extends DependentService {
+
+	/** Name of the counter of the spawned agents.
+	 */
+	String AGENTS_SPAWNED = "agents.spawned"; //$NON-NLS-1$
+
+	/** Name of the counter of the killed agents.
+	 */
+	String AGENTS_KILLED = "agents.killed"; //$NON-NLS-1$
+
+	/** Name of the gauge of the number of tasks that are waiting in the queue of the executor.
+	 */
+	String EXECUTOR_QUEUE_DEPTH = "executor.queue.depth"; //$NON-NLS-1$
+
+	/** Name of the gauge of the number of threads that are running tasks.
+	 */
+	String EXECUTOR_ACTIVE_THREADS = "executor.threads.active"; //$NON-NLS-1$
+
+	/** Name of the counter of the tasks that were rejected by the executor.
+	 */
+	String EXECUTOR_REJECTED_TASKS = "executor.tasks.rejected"; //$NON-NLS-1$
+
+	/** Name of the counter of the bytes that are sent over the network.
+	 */
+	String NETWORK_BYTES_OUT = "network.bytes.out"; //$NON-NLS-1$
+
+	/** Name of the counter of the bytes that are received from the network.
+	 */
+	String NETWORK_BYTES_IN = "network.bytes.in"; //$NON-NLS-1$
+
+	/** Name of the gauge of the number of events that are waiting in the inboxes of the agents.
+	 */
+	String AGENTS_INBOX_DEPTH = "agents.inbox.depth"; //$NON-NLS-1$
+
+	/** Name of the gauge of the greatest number of events that are waiting in the inbox of a single agent.
+	 */
+	String AGENTS_INBOX_MAX_DEPTH = "agents.inbox.depth.max"; //$NON-NLS-1$
+
+	/** Name of the gauge of the number of deliveries that are waiting for being written into the journal.
+	 */
+	String JOURNAL_QUEUE_DEPTH = "journal.queue.depth"; //$NON-NLS-1$
+
+	/** Name of the gauge of the number of deliveries that were not recorded because the queue of the journal was full.
+	 */
+	String JOURNAL_DROPPED_DELIVERIES = "journal.deliveries.dropped"; //$NON-NLS-1$
+
+	/** Name of the gauge of the number of deliveries for which the emitting thread waited because the queue
+	 * of the journal was full.
+	 */
+	String JOURNAL_BLOCKED_DELIVERIES = "journal.deliveries.blocked"; //$NON-NLS-1$
+
+	/** Replies the name of the counter of the events that are emitted in the spaces of a given specification.
+	 *
+	 * <p>The counters are aggregated by space specification in order to keep the number of metrics
+	 * bounded when spaces are created and destroyed during the run.
+	 *
+	 * @param spaceSpecification the type of the specification of the space.
+	 * @return the name of the counter.
+	 */
+	static String spaceEmittedEvents(Class<?> spaceSpecification) {
+		return "space." + spaceSpecificationName(spaceSpecification) + ".events.emitted"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Replies the name of the counter of the events that are delivered to the listeners of the spaces
+	 * of a given specification.
+	 *
+	 * @param spaceSpecification the type of the specification of the space.
+	 * @return the name of the counter.
+	 */
+	static String spaceDeliveredEvents(Class<?> spaceSpecification) {
+		return "space." + spaceSpecificationName(spaceSpecification) + ".events.delivered"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Replies the name of the given space specification that is used within the names of the metrics.
+	 *
+	 * @param spaceSpecification the type of the specification of the space.
+	 * @return the name.
+	 */
+	static String spaceSpecificationName(Class<?> spaceSpecification) {
+		return spaceSpecification == null ? "unspecified" : spaceSpecification.getName(); //$NON-NLS-1$
+	}
+
+	/** Replies the name of the histogram of the execution times of the event handlers of a type of agent.
+	 *
+	 * @param agentType the type of the agent.
+	 * @return the name of the histogram.
+	 */
+	static String handlerExecutionTime(Class<?> agentType) {
+		return "handler." + agentType.getName() + ".time"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Replies the counter with the given name. The counter is created if it does not exist.
+	 *
+	 * @param name the name of the counter.
+	 * @return the counter.
+	 */
+	Counter getCounter(String name);
+
+	/** Replies the histogram with the given name. The histogram is created if it does not exist.
+	 *
+	 * @param name the name of the histogram.
+	 * @return the histogram.
+	 */
+	LatencyHistogram getHistogram(String name);
+
+	/** Register a gauge, i.e. a metric that is evaluated when its value is pulled.
+	 * If a gauge is already registered with the same name, it is replaced.
+	 *
+	 * @param name the name of the gauge.
+	 * @param gauge the provider of the value of the gauge.
+	 */
+	void registerGauge(String name, LongSupplier gauge);
+
+	/** Unregister a gauge.
+	 *
+	 * @param name the name of the gauge.
+	 */
+	void unregisterGauge(String name);
+
+	/** Replies the current values of the counters.
+	 *
+	 * @return the values of the counters, sorted by name.
+	 */
+	Map<String, Long> getCounterValues();
+
+	/** Replies the current values of the gauges.
+	 *
+	 * @return the values of the gauges, sorted by name.
+	 */
+	Map<String, Long> getGaugeValues();
+
+	/** Replies the snapshots of the histograms.
+	 *
+	 * @return the snapshots of the histograms, sorted by name.
+	 */
+	Map<String, LatencyHistogram.Snapshot> getHistogramSnapshots();
+
+	/** Reset all the counters and histograms.
+	 */
+	void reset();
+
+}
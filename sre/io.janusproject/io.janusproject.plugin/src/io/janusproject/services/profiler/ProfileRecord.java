@@ -0,0 +1,174 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.profiler;
+
+/**
+ * Profiling data for a guard evaluator or a behavior unit.
+ *
+ * <p>All the durations are in nanoseconds. They are computed on the sampled dispatches only.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class ProfileRecord {
+
+	private final String agentType;
+
+	private final String eventType;
+
+	private final String handlerType;
+
+	private final String unit;
+
+	private final String location;
+
+	private final boolean guard;
+
+	private final long count;
+
+	private final long totalDuration;
+
+	private final long maxDuration;
+
+	/** Constructor.
+	 *
+	 * @param agentType the name of the type of the agent that has received the events.
+	 * @param eventType the name of the type of the received events.
+	 * @param handlerType the name of the type that declares the event handler, i.e. the agent type or a behavior type.
+	 * @param unit the name of the generated function that corresponds to the guard evaluator or the behavior unit.
+	 * @param location the location of the unit in the source code, with the format {@code file:line}, or {@code null}.
+	 * @param guard {@code true} if the record is about a guard evaluator; {@code false} for a behavior unit.
+	 * @param count the number of sampled runs.
+	 * @param totalDuration the sum of the durations of the sampled runs.
+	 * @param maxDuration the maximal duration of a sampled run.
+	 */
+	public ProfileRecord(String agentType, String eventType, String handlerType, String unit, String location,
+			boolean guard, long count, long totalDuration, long maxDuration) {
+		this.agentType = agentType;
+		this.eventType = eventType;
+		this.handlerType = handlerType;
+		this.unit = unit;
+		this.location = location;
+		this.guard = guard;
+		this.count = count;
+		this.totalDuration = totalDuration;
+		this.maxDuration = maxDuration;
+	}
+
+	/** Replies the name of the type of the agent that has received the events.
+	 *
+	 * @return the agent type.
+	 */
+	public String getAgentType() {
+		return this.agentType;
+	}
+
+	/** Replies the name of the type of the received events.
+	 *
+	 * @return the event type.
+	 */
+	public String getEventType() {
+		return this.eventType;
+	}
+
+	/** Replies the name of the type that declares the event handler.
+	 *
+	 * @return the handler type.
+	 */
+	public String getHandlerType() {
+		return this.handlerType;
+	}
+
+	/** Replies the name of the generated function that corresponds to the guard evaluator or the behavior unit.
+	 *
+	 * <p>The names are the ones generated by the SARL compiler, e.g. {@code $guardEvaluator$MyEvent} or
+	 * {@code $behaviorUnit$MyEvent$0}.
+	 *
+	 * @return the name of the unit.
+	 * @see #getLocation()
+	 */
+	public String getUnit() {
+		return this.unit;
+	}
+
+	/** Replies the location of the unit in the source code.
+	 *
+	 * <p>The location is in the SARL code if the class file of the type that declares the unit contains
+	 * a JSR-45 source map. Otherwise, it is in the Java code that was generated by the SARL compiler.
+	 *
+	 * @return the location with the format {@code file:line}, or {@code null} if unknown.
+	 */
+	public String getLocation() {
+		return this.location;
+	}
+
+	/** Replies if this record is about a guard evaluator.
+	 *
+	 * @return {@code true} for a guard evaluator; {@code false} for a behavior unit.
+	 */
+	public boolean isGuard() {
+		return this.guard;
+	}
+
+	/** Replies the number of sampled runs.
+	 *
+	 * @return the number of runs.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/** Replies the sum of the durations of the sampled runs.
+	 *
+	 * @return the total duration.
+	 */
+	public long getTotalDuration() {
+		return this.totalDuration;
+	}
+
+	/** Replies the mean duration of the sampled runs.
+	 *
+	 * @return the mean duration.
+	 */
+	public long getMeanDuration() {
+		return this.count == 0 ? 0 : this.totalDuration / this.count;
+	}
+
+	/** Replies the maximal duration of the sampled runs.
+	 *
+	 * @return the maximal duration.
+	 */
+	public long getMaxDuration() {
+		return this.maxDuration;
+	}
+
+	@Override
+	public String toString() {
+		return this.agentType + ";" + this.eventType + ";" + this.handlerType + ";" + this.unit //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			+ (this.location == null ? "" : "[" + this.location + "]") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			+ " count=" + this.count + "; total=" + this.totalDuration + "; max=" + this.maxDuration; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.profiler;
+
+/**
+ * Formats of the report that is generated by the profiler of the event handlers.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public enum ProfilerReportFormat {
+
+	/** Comma-separated values, with one line per guard evaluator and per behavior unit.
+	 */
+	CSV,
+
+	/** Collapsed stacks, i.e. the input format of the flame-graph tools. Each line is
+	 * {@code agent;event;handler;unit duration}, where the duration is the total of
+	 * the sampled durations in nanoseconds.
+	 */
+	FLAME_GRAPH;
+
+}
@@ -0,0 +1,111 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.janusproject.services.profiler;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import io.janusproject.services.DependentService;
+
+import io.sarl.lang.core.Event;
+
+/**
+ * This service profiles the event handlers of the agents.
+ *
+ * <p>The profiler measures the time for evaluating the guards of the event handlers, and the time for running
+ * the bodies of the event handlers (the behavior units), for each type of agent, each type of event and each
+ * type that is declaring event handlers. In order to reduce the overhead, only a sample of the dispatched
+ * events may be profiled.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public interface ProfilerService extends DependentService {
+
+	/** Replies if the profiling is enabled.
+	 *
+	 * @return {@code true} if the event handlers are profiled.
+	 */
+	boolean isProfiling();
+
+	/** Replies if the next dispatched event must be profiled, according to the sampling policy.
+	 *
+	 * <p>This function is invoked once for each event that is dispatched within an agent.
+	 *
+	 * @return {@code true} if the event must be profiled.
+	 */
+	boolean isSampled();
+
+	/** Record the duration of the evaluation of the guards.
+	 *
+	 * @param agentType the type of the agent that has received the event.
+	 * @param eventType the type of the event.
+	 * @param handlerType the type of the object that contains the guard evaluator.
+	 * @param guardEvaluator the name of the guard evaluator function.
+	 * @param duration the duration of the evaluation in nanoseconds.
+	 */
+	void recordGuardEvaluation(Class<?> agentType, Class<? extends Event> eventType, Class<?> handlerType,
+			String guardEvaluator, long duration);
+
+	/** Create the collection that receives the code blocks selected by a guard evaluator when the event is profiled.
+	 *
+	 * <p>The collection records the place in the guard evaluator at which each type of code block is created.
+	 * This place identifies the behavior unit that is run by the code block.
+	 *
+	 * @return the collection of the code blocks.
+	 */
+	Collection<Runnable> newBehaviorUnitCollection();
+
+	/** Record the duration of the run of a behavior unit.
+	 *
+	 * <p>A behavior unit is identified by the type of the code block that is given by the guard evaluator.
+	 * The code blocks must be collected with {@link #newBehaviorUnitCollection()} for being mapped to the
+	 * behavior units.
+	 *
+	 * @param agentType the type of the agent that has received the event.
+	 * @param eventType the type of the event.
+	 * @param handlerType the type of the object that contains the behavior unit.
+	 * @param behaviorUnit the type of the code block that runs the behavior unit.
+	 * @param duration the duration of the run in nanoseconds.
+	 */
+	void recordBehaviorUnit(Class<?> agentType, Class<? extends Event> eventType, Class<?> handlerType,
+			Class<?> behaviorUnit, long duration);
+
+	/** Replies the collected profiling data.
+	 *
+	 * @return the profiling data, sorted by decreasing total duration.
+	 */
+	List<ProfileRecord> getProfile();
+
+	/** Write the report of the profiling.
+	 *
+	 * @param output the receiver of the report.
+	 * @param format the format of the report.
+	 * @throws IOException if the report cannot be written.
+	 */
+	void writeReport(Appendable output, ProfilerReportFormat format) throws IOException;
+
+}
@@ -24,6 +24,8 @@ package io.janusproject.services.spawn;
 import java.util.List;
 import java.util.UUID;
 
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
 import io.janusproject.services.DependentService;
 
 import io.sarl.lang.core.Agent;
@@ -54,6 +56,23 @@ public interface SpawnService extends DependentService {
 	 */
 	List<UUID> spawn(int nbAgents, UUID spawningAgent, AgentContext parent, UUID agentId, Class<? extends Agent> agentClazz, Object... params);
 
+	/**
+	 * Restore an agent from a checkpoint.
+	 *
+	 * <p>The agent is created with its built-in capacities, as a spawned agent. But it does not receive the
+	 * {@code Initialize} event, and the {@code AgentSpawned} event is not fired: the given function restores
+	 * the state of the agent when its skills are installed. The listeners are notified with
+	 * {@link SpawnServiceListener#agentRestored(AgentContext, Agent, Procedure1)}.
+	 *
+	 * @param parent the parent entity that is restoring the agent.
+	 * @param agentId the identifier of the agent to restore.
+	 * @param agentClazz the type of the agent to restore.
+	 * @param stateRestorer the function that restores the state of the agent.
+	 * @return the restored agent.
+	 * @since 0.8
+	 */
+	Agent restore(AgentContext parent, UUID agentId, Class<? extends Agent> agentClazz, Procedure1<? super Agent> stateRestorer);
+
 	/**
 	 * Kill the agent with the given identifier.
 	 *
@@ -25,6 +25,8 @@ import java.util.EventListener;
 import java.util.List;
 import java.util.UUID;
 
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
 import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.AgentContext;
 
@@ -49,6 +51,23 @@ public interface SpawnServiceListener extends EventListener {
 	 */
 	void agentSpawned(UUID spawningAgent, AgentContext parent, List<Agent> spawnedAgents, Object[] initializationParameters);
 
+	/**
+	 * Invoked when the agent is restored from a checkpoint.
+	 *
+	 * <p>A restored agent is not spawned: neither the {@code Initialize} nor the {@code AgentSpawned} events are
+	 * fired. The listeners that are attached to the agent receive the function that restores the state of the agent;
+	 * they must invoke it when the skills of the agent are installed. The other listeners are notified after.
+	 *
+	 * @param parent the context in which the agent was restored.
+	 * @param restoredAgent the restored agent.
+	 * @param stateRestorer the function that restores the state of the agent, or {@code null} if the state is
+	 *     already restored.
+	 * @since 0.8
+	 */
+	default void agentRestored(AgentContext parent, Agent restoredAgent, Procedure1<? super Agent> stateRestorer) {
+		//
+	}
+
 	/**
 	 * Invoked when the agent is destroyed.
 	 * @param agent the agent.
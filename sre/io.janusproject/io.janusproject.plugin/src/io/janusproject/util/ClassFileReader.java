@@ -0,0 +1,514 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.janusproject.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader of the class file of a type, restricted to the elements that are used by the kernel services:
+ * the constant pool, the code and the line numbers of the functions, and the attributes of the type.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class ClassFileReader {
+
+	private static final String CODE_ATTRIBUTE = "Code"; //$NON-NLS-1$
+
+	private static final String LINE_NUMBER_ATTRIBUTE = "LineNumberTable"; //$NON-NLS-1$
+
+	private static final String SOURCE_FILE_ATTRIBUTE = "SourceFile"; //$NON-NLS-1$
+
+	private static final String BOOTSTRAP_METHODS_ATTRIBUTE = "BootstrapMethods"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private static final int SHORT_SIZE = 2;
+
+	private static final int INT_SIZE = 4;
+
+	private static final int LONG_SIZE = 8;
+
+	private static final int BYTE_MASK = 0xFF;
+
+	private static final int CONSTANT_UTF8 = 1;
+
+	private static final int CONSTANT_INTEGER = 3;
+
+	private static final int CONSTANT_FLOAT = 4;
+
+	private static final int CONSTANT_LONG = 5;
+
+	private static final int CONSTANT_DOUBLE = 6;
+
+	private static final int CONSTANT_CLASS = 7;
+
+	private static final int CONSTANT_STRING = 8;
+
+	private static final int CONSTANT_FIELDREF = 9;
+
+	private static final int CONSTANT_METHODREF = 10;
+
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+
+	private static final int CONSTANT_METHOD_TYPE = 16;
+
+	private static final int CONSTANT_DYNAMIC = 17;
+
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+	private static final int CONSTANT_MODULE = 19;
+
+	private static final int CONSTANT_PACKAGE = 20;
+
+	private final int[] tags;
+
+	private final String[] utf8;
+
+	private final int[] first;
+
+	private final int[] second;
+
+	private final List<Method> methods = new ArrayList<>();
+
+	private final Map<String, byte[]> attributes = new HashMap<>();
+
+	private ClassFileReader(DataInputStream input) throws IOException {
+		// Version
+		input.skipBytes(2 * SHORT_SIZE);
+		final int count = input.readUnsignedShort();
+		this.tags = new int[count];
+		this.utf8 = new String[count];
+		this.first = new int[count];
+		this.second = new int[count];
+		readConstantPool(input);
+		// Access flags, this type, super type
+		input.skipBytes(3 * SHORT_SIZE);
+		input.skipBytes(input.readUnsignedShort() * SHORT_SIZE);
+		final int fieldCount = input.readUnsignedShort();
+		for (int i = 0; i < fieldCount; ++i) {
+			// Access flags, name, descriptor
+			input.skipBytes(3 * SHORT_SIZE);
+			final int attributeCount = input.readUnsignedShort();
+			for (int j = 0; j < attributeCount; ++j) {
+				input.skipBytes(SHORT_SIZE);
+				input.skipBytes(input.readInt());
+			}
+		}
+		final int methodCount = input.readUnsignedShort();
+		for (int i = 0; i < methodCount; ++i) {
+			input.skipBytes(SHORT_SIZE);
+			final String name = getUtf8(input.readUnsignedShort());
+			input.skipBytes(SHORT_SIZE);
+			Method method = null;
+			final int attributeCount = input.readUnsignedShort();
+			for (int j = 0; j < attributeCount; ++j) {
+				final String attributeName = getUtf8(input.readUnsignedShort());
+				final int length = input.readInt();
+				if (CODE_ATTRIBUTE.equals(attributeName)) {
+					method = readCode(input, name);
+				} else {
+					input.skipBytes(length);
+				}
+			}
+			this.methods.add(method == null ? new Method(name, null, new int[0][]) : method);
+		}
+		final int attributeCount = input.readUnsignedShort();
+		for (int i = 0; i < attributeCount; ++i) {
+			final String attributeName = getUtf8(input.readUnsignedShort());
+			final byte[] content = new byte[input.readInt()];
+			input.readFully(content);
+			if (attributeName != null) {
+				this.attributes.put(attributeName, content);
+			}
+		}
+	}
+
+	/** Read the class file of the given type.
+	 *
+	 * @param type the type.
+	 * @return the content of the class file, or {@code null} if the class file cannot be read, e.g. because
+	 *     the type was generated at run-time.
+	 */
+	public static ClassFileReader read(Class<?> type) {
+		final String resource = '/' + type.getName().replace('.', '/') + ".class"; //$NON-NLS-1$
+		try (InputStream stream = type.getResourceAsStream(resource)) {
+			if (stream != null) {
+				final DataInputStream input = new DataInputStream(stream);
+				if (input.readInt() == MAGIC) {
+					return new ClassFileReader(input);
+				}
+			}
+		} catch (IOException | RuntimeException exception) {
+			//
+		}
+		return null;
+	}
+
+	private void readConstantPool(DataInputStream input) throws IOException {
+		for (int i = 1; i < this.tags.length; ++i) {
+			final int tag = input.readUnsignedByte();
+			this.tags[i] = tag;
+			switch (tag) {
+			case CONSTANT_UTF8:
+				this.utf8[i] = input.readUTF();
+				break;
+			case CONSTANT_LONG:
+			case CONSTANT_DOUBLE:
+				input.skipBytes(LONG_SIZE);
+				// These constants take two entries
+				++i;
+				break;
+			case CONSTANT_FIELDREF:
+			case CONSTANT_METHODREF:
+			case CONSTANT_INTERFACE_METHODREF:
+			case CONSTANT_NAME_AND_TYPE:
+			case CONSTANT_DYNAMIC:
+			case CONSTANT_INVOKE_DYNAMIC:
+				this.first[i] = input.readUnsignedShort();
+				this.second[i] = input.readUnsignedShort();
+				break;
+			case CONSTANT_METHOD_HANDLE:
+				// Kind of reference, and reference index
+				this.first[i] = input.readUnsignedByte();
+				this.second[i] = input.readUnsignedShort();
+				break;
+			case CONSTANT_CLASS:
+			case CONSTANT_STRING:
+			case CONSTANT_METHOD_TYPE:
+			case CONSTANT_MODULE:
+			case CONSTANT_PACKAGE:
+				this.first[i] = input.readUnsignedShort();
+				break;
+			case CONSTANT_INTEGER:
+			case CONSTANT_FLOAT:
+				input.skipBytes(INT_SIZE);
+				break;
+			default:
+				throw new IOException();
+			}
+		}
+	}
+
+	private Method readCode(DataInputStream input, String name) throws IOException {
+		// Max stack and max locals
+		input.skipBytes(2 * SHORT_SIZE);
+		final byte[] code = new byte[input.readInt()];
+		input.readFully(code);
+		input.skipBytes(input.readUnsignedShort() * 2 * INT_SIZE);
+		int[][] lines = new int[0][];
+		final int attributeCount = input.readUnsignedShort();
+		for (int i = 0; i < attributeCount; ++i) {
+			final String attributeName = getUtf8(input.readUnsignedShort());
+			final int length = input.readInt();
+			if (LINE_NUMBER_ATTRIBUTE.equals(attributeName)) {
+				lines = new int[input.readUnsignedShort()][];
+				for (int j = 0; j < lines.length; ++j) {
+					lines[j] = new int[] {input.readUnsignedShort(), input.readUnsignedShort()};
+				}
+			} else {
+				input.skipBytes(length);
+			}
+		}
+		return new Method(name, code, lines);
+	}
+
+	/** Replies the string at the given index of the constant pool.
+	 *
+	 * @param index the index in the constant pool.
+	 * @return the string, or {@code null} if the constant is not a string.
+	 */
+	public String getUtf8(int index) {
+		return index > 0 && index < this.utf8.length ? this.utf8[index] : null;
+	}
+
+	/** Replies the first index, or the kind of a method handle, that is stored in the constant at the given index.
+	 *
+	 * @param index the index in the constant pool.
+	 * @return the first value of the constant.
+	 */
+	public int getFirstReference(int index) {
+		return this.first[index];
+	}
+
+	/** Replies the second index that is stored in the constant at the given index.
+	 *
+	 * @param index the index in the constant pool.
+	 * @return the second value of the constant.
+	 */
+	public int getSecondReference(int index) {
+		return this.second[index];
+	}
+
+	/** Replies the name of the type of the {@code CONSTANT_Class} at the given index, in its internal form.
+	 *
+	 * @param index the index in the constant pool.
+	 * @return the name of the type.
+	 */
+	public String getClassName(int index) {
+		return getUtf8(this.first[index]);
+	}
+
+	/** Replies the name of the function that is referenced by the constant at the given index.
+	 *
+	 * @param index the index in the constant pool.
+	 * @return the name, or {@code null} if the constant is not a reference to a function.
+	 */
+	public String getMethodName(int index) {
+		if (index <= 0 || index >= this.tags.length
+				|| (this.tags[index] != CONSTANT_METHODREF && this.tags[index] != CONSTANT_INTERFACE_METHODREF)) {
+			return null;
+		}
+		final int nameAndType = this.second[index];
+		if (nameAndType <= 0 || nameAndType >= this.tags.length || this.tags[nameAndType] != CONSTANT_NAME_AND_TYPE) {
+			return null;
+		}
+		return getUtf8(this.first[nameAndType]);
+	}
+
+	/** Replies the functions of the type.
+	 *
+	 * @return the functions.
+	 */
+	public List<Method> getMethods() {
+		return Collections.unmodifiableList(this.methods);
+	}
+
+	/** Replies the content of the attribute of the type with the given name.
+	 *
+	 * @param name the name of the attribute.
+	 * @return the content, or {@code null} if the type has not the attribute.
+	 */
+	public byte[] getAttribute(String name) {
+		return this.attributes.get(name);
+	}
+
+	/** Replies the name of the source file of the type.
+	 *
+	 * @return the name, or {@code null} if unknown.
+	 */
+	public String getSourceFile() {
+		final byte[] content = this.attributes.get(SOURCE_FILE_ATTRIBUTE);
+		return content == null || content.length < SHORT_SIZE ? null : getUtf8(readUnsignedShort(content, 0));
+	}
+
+	/** Replies the content of an attribute of the type that is encoded in UTF-8.
+	 *
+	 * @param name the name of the attribute.
+	 * @return the content, or {@code null} if the type has not the attribute.
+	 */
+	public String getStringAttribute(String name) {
+		final byte[] content = this.attributes.get(name);
+		return content == null ? null : new String(content, StandardCharsets.UTF_8);
+	}
+
+	/** Replies the bootstrap functions of the invokedynamic instructions.
+	 *
+	 * @return for each bootstrap function, the index of its method handle followed by the indexes of its arguments.
+	 */
+	public int[][] getBootstrapMethods() {
+		final byte[] content = this.attributes.get(BOOTSTRAP_METHODS_ATTRIBUTE);
+		if (content == null) {
+			return new int[0][];
+		}
+		final int[][] bootstrapMethods = new int[readUnsignedShort(content, 0)][];
+		int index = SHORT_SIZE;
+		for (int i = 0; i < bootstrapMethods.length; ++i) {
+			final int method = readUnsignedShort(content, index);
+			final int[] bootstrap = new int[readUnsignedShort(content, index + SHORT_SIZE) + 1];
+			index += 2 * SHORT_SIZE;
+			bootstrap[0] = method;
+			for (int j = 1; j < bootstrap.length; ++j) {
+				bootstrap[j] = readUnsignedShort(content, index);
+				index += SHORT_SIZE;
+			}
+			bootstrapMethods[i] = bootstrap;
+		}
+		return bootstrapMethods;
+	}
+
+	/** Replies the unsigned short at the given position, in big-endian order.
+	 *
+	 * @param content the bytes.
+	 * @param index the position of the first byte.
+	 * @return the value.
+	 */
+	public static int readUnsignedShort(byte[] content, int index) {
+		return ((content[index] & BYTE_MASK) << Byte.SIZE) | (content[index + 1] & BYTE_MASK);
+	}
+
+	@SuppressWarnings("checkstyle:magicnumber")
+	private static int readInt(byte[] code, int index) {
+		return ((code[index] & 0xFF) << 24) | ((code[index + 1] & 0xFF) << 16)
+				| ((code[index + 2] & 0xFF) << 8) | (code[index + 3] & 0xFF);
+	}
+
+	/** Replies the length of the instruction at the given position, in bytes.
+	 *
+	 * @param code the code of a function.
+	 * @param pc the position of the instruction.
+	 * @return the length of the instruction.
+	 */
+	@SuppressWarnings({"checkstyle:magicnumber", "checkstyle:cyclomaticcomplexity", "checkstyle:returncount"})
+	public static int getInstructionLength(byte[] code, int pc) {
+		final int opcode = code[pc] & 0xFF;
+		switch (opcode) {
+		// tableswitch
+		case 0xAA: {
+			final int base = pc + 4 - (pc & 3);
+			final int low = readInt(code, base + 4);
+			final int high = readInt(code, base + 8);
+			return base - pc + 12 + 4 * (high - low + 1);
+		}
+		// lookupswitch
+		case 0xAB: {
+			final int base = pc + 4 - (pc & 3);
+			return base - pc + 8 + 8 * readInt(code, base + 4);
+		}
+		// wide
+		case 0xC4:
+			return (code[pc + 1] & 0xFF) == 0x84 ? 6 : 4;
+		// bipush, ldc, iload to aload, istore to astore, ret, newarray
+		case 0x10:
+		case 0x12:
+		case 0x15:
+		case 0x16:
+		case 0x17:
+		case 0x18:
+		case 0x19:
+		case 0x36:
+		case 0x37:
+		case 0x38:
+		case 0x39:
+		case 0x3A:
+		case 0xA9:
+		case 0xBC:
+			return 2;
+		// multianewarray
+		case 0xC5:
+			return 4;
+		// invokeinterface, invokedynamic, goto_w, jsr_w
+		case 0xB9:
+		case 0xBA:
+		case 0xC8:
+		case 0xC9:
+			return 5;
+		default:
+			// sipush, ldc_w, ldc2_w, iinc, the jumps, the field and function accesses, new, anewarray,
+			// checkcast, instanceof, ifnull, ifnonnull
+			if (opcode == 0x11 || opcode == 0x13 || opcode == 0x14 || opcode == 0x84
+					|| (opcode >= 0x99 && opcode <= 0xA8) || (opcode >= 0xB2 && opcode <= 0xB8)
+					|| opcode == 0xBB || opcode == 0xBD || opcode == 0xC0 || opcode == 0xC1
+					|| opcode == 0xC6 || opcode == 0xC7) {
+				return 3;
+			}
+			return 1;
+		}
+	}
+
+	/**
+	 * Function that is declared in a class file.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	public static final class Method {
+
+		private final String name;
+
+		private final byte[] code;
+
+		private final int[][] lines;
+
+		Method(String name, byte[] code, int[][] lines) {
+			this.name = name;
+			this.code = code;
+			this.lines = lines;
+		}
+
+		/** Replies the name of the function.
+		 *
+		 * @return the name.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/** Replies the code of the function.
+		 *
+		 * @return the code, or {@code null} if the function is abstract or native.
+		 */
+		public byte[] getCode() {
+			return this.code;
+		}
+
+		/** Replies the lines of the function, in the order of the line number table.
+		 *
+		 * @return the lines.
+		 */
+		public int[] getLines() {
+			final int[] result = new int[this.lines.length];
+			for (int i = 0; i < result.length; ++i) {
+				result[i] = this.lines[i][1];
+			}
+			return result;
+		}
+
+		/** Replies the line of the instruction at the given position.
+		 *
+		 * @param pc the position of the instruction in the code.
+		 * @return the line, or {@code -1} if unknown.
+		 */
+		public int getLine(int pc) {
+			int start = -1;
+			int line = -1;
+			for (final int[] entry : this.lines) {
+				if (entry[0] <= pc && entry[0] >= start) {
+					start = entry[0];
+					line = entry[1];
+				}
+			}
+			return line;
+		}
+
+	}
+
+}
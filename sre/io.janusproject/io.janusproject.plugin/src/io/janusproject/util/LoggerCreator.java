@@ -24,6 +24,7 @@ package io.janusproject.util;
 import java.io.PrintStream;
 import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogManager;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
@@ -118,6 +119,30 @@ public final class LoggerCreator {
 		return logger;
 	}
 
+	/**
+	 * Create a logger with the given name for an agent.
+	 *
+	 * <p>The level of logging is influence by {@link JanusConfig#VERBOSE_LEVEL_NAME}.
+	 *
+	 * <p>On the contrary to {@link #createModuleLogger(String, Logger)}, the created logger is not
+	 * registered into the {@link LogManager}. It could be garbage collected when the agent is destroyed,
+	 * and its creation does not lock the logging manager.
+	 *
+	 * @param name
+	 *            - the name of the new logger.
+	 * @param parent
+	 *            - the parent logger.
+	 * @return the logger.
+	 * @since 0.8
+	 */
+	public static Logger createAgentLogger(String name, Logger parent) {
+		final Logger logger = new AgentLogger(name, parent);
+		logger.setUseParentHandlers(true);
+		final Level level = getLoggingLevelFromProperties();
+		logger.setLevel(level);
+		return logger;
+	}
+
 	/**
 	 * Extract the logging level from the system properties.
 	 *
@@ -384,4 +409,41 @@ public final class LoggerCreator {
 
 	}
 
+	/** Logger for an agent that is not registered into the {@link LogManager}.
+	 *
+	 * <p>The parent logger is stored in this logger. It is not declared to the logging manager,
+	 * that would keep a reference to each agent logger.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static final class AgentLogger extends Logger {
+
+		private volatile Logger parent;
+
+		/** Constructor.
+		 *
+		 * @param name the name of the logger.
+		 * @param parent the parent logger.
+		 */
+		AgentLogger(String name, Logger parent) {
+			super(name, null);
+			this.parent = parent;
+		}
+
+		@Override
+		public Logger getParent() {
+			return this.parent;
+		}
+
+		@Override
+		public void setParent(Logger parent) {
+			this.parent = parent;
+		}
+
+	}
+
 }
@@ -28,10 +28,18 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -45,7 +53,11 @@ import org.mockito.internal.verification.Times;
 
 import io.janusproject.kernel.bic.InnerContextSkill;
 import io.janusproject.kernel.bic.InternalEventBusCapacity;
+import io.janusproject.kernel.services.jdk.distributeddata.DMapView;
+import io.janusproject.kernel.space.EventSpaceImpl;
 import io.janusproject.services.contextspace.ContextSpaceService;
+import io.janusproject.services.distributeddata.DMap;
+import io.janusproject.services.distributeddata.DistributedDataStructureService;
 import io.janusproject.tests.testutils.AbstractJanusTest;
 
 import io.sarl.lang.core.Address;
@@ -148,6 +160,46 @@ public class InnerContextSkillTest extends AbstractJanusTest {
 		assertSame(this.eventListener, argument.getValue());
 	}
 
+	@Test
+	public void getInnerContext_registeredBeforePublished() throws Exception {
+		this.reflect.invoke(this.skill, "resetInnerContext");
+		Mockito.doAnswer(it -> {
+			// The context must not be visible before the agent is registered in it
+			assertFalse((Boolean) this.reflect.invoke(this.skill, "hasInnerContext"));
+			return null;
+		}).when(this.innerSpace).register(ArgumentMatchers.any(EventListener.class));
+		assertSame(this.innerContext, this.skill.getInnerContext());
+		assertTrue((Boolean) this.reflect.invoke(this.skill, "hasInnerContext"));
+	}
+
+	@Test
+	public void getInnerContext_concurrent() throws Exception {
+		// Things are already injected
+		this.reflect.invoke(this.skill, "resetInnerContext");
+		assertFalse((Boolean) this.reflect.invoke(this.skill, "hasInnerContext"));
+		//
+		final int nbThreads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+		try {
+			final List<Future<AgentContext>> results = new ArrayList<>();
+			for (int i = 0; i < nbThreads; ++i) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return this.skill.getInnerContext();
+				}));
+			}
+			start.countDown();
+			for (final Future<AgentContext> result : results) {
+				assertSame(this.innerContext, result.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(this.contextService, new Times(1)).createContext(ArgumentMatchers.any(UUID.class), ArgumentMatchers.any(UUID.class));
+		verify(this.innerSpace, new Times(1)).register(ArgumentMatchers.any(EventListener.class));
+	}
+
 	@Test
 	public void uninstall_Post() throws Exception {
 		// Things are already injected
@@ -216,6 +268,115 @@ public class InnerContextSkillTest extends AbstractJanusTest {
 		assertTrue(list.contains(otherAgent));
 	}
 
+	@Test
+	public void getMemberAgents_snapshot() {
+		final HashSet<UUID> participants = new HashSet<>(Arrays.asList(this.agentId));
+		when(this.innerSpace.getParticipants())
+				.thenReturn(Collections3.synchronizedSet(participants, this));
+		SynchronizedIterable<UUID> set = this.skill.getMemberAgents();
+		assertNotNull(set);
+		assertFalse(set.iterator().hasNext());
+		//
+		UUID otherAgent = UUID.randomUUID();
+		participants.add(otherAgent);
+		// The previous snapshot is not changed
+		assertFalse(set.iterator().hasNext());
+		Iterator<UUID> iterator = this.skill.getMemberAgents().iterator();
+		assertTrue(iterator.hasNext());
+		assertSame(otherAgent, iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void getMemberAgents_concurrentJoins() throws Exception {
+		final DistributedDataStructureService service = Mockito.mock(DistributedDataStructureService.class);
+		final DMap<Object, Object> map = new DMapView<>(UUID.randomUUID().toString(), new HashMap<>());
+		when(service.getMap(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(map);
+		when(service.getMap(ArgumentMatchers.any())).thenReturn(map);
+		final EventSpaceImpl space = new EventSpaceImpl(this.innerSpaceID, service);
+		when(this.innerContext.getDefaultSpace()).thenReturn(space);
+		when(this.eventListener.getID()).thenReturn(this.agentId);
+		this.reflect.invoke(this.skill, "resetInnerContext");
+		this.skill.getInnerContext();
+		//
+		final int nbWriters = 4;
+		final int nbReaders = 4;
+		final int nbMembersPerWriter = 500;
+		final Set<UUID> expected = new HashSet<>();
+		final List<List<EventListener>> members = new ArrayList<>();
+		for (int i = 0; i < nbWriters; ++i) {
+			final List<EventListener> listeners = new ArrayList<>();
+			for (int j = 0; j < nbMembersPerWriter; ++j) {
+				final UUID id = UUID.randomUUID();
+				expected.add(id);
+				listeners.add(new EventListener() {
+					@Override
+					public UUID getID() {
+						return id;
+					}
+					@Override
+					public void receiveEvent(Event event) {
+						//
+					}
+				});
+			}
+			members.add(listeners);
+		}
+		//
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final ExecutorService executor = Executors.newFixedThreadPool(nbWriters + nbReaders);
+		try {
+			final List<Future<?>> writers = new ArrayList<>();
+			for (final List<EventListener> listeners : members) {
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (final EventListener listener : listeners) {
+						space.register(listener);
+					}
+					return null;
+				}));
+			}
+			final List<Future<?>> readers = new ArrayList<>();
+			for (int i = 0; i < nbReaders; ++i) {
+				readers.add(executor.submit(() -> {
+					start.await();
+					int previous = 0;
+					while (writing.get()) {
+						int count = 0;
+						for (final UUID id : this.skill.getMemberAgents()) {
+							assertFalse(this.agentId.equals(id));
+							++count;
+						}
+						// The members are only joining, so no member should be lost
+						assertTrue(count >= previous);
+						assertTrue(this.skill.getMemberAgentCount() >= count);
+						previous = count;
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (final Future<?> writer : writers) {
+				writer.get(30, TimeUnit.SECONDS);
+			}
+			writing.set(false);
+			for (final Future<?> reader : readers) {
+				reader.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		//
+		final Set<UUID> actual = new HashSet<>();
+		for (final UUID id : this.skill.getMemberAgents()) {
+			actual.add(id);
+		}
+		assertEquals(expected, actual);
+		assertEquals(nbWriters * nbMembersPerWriter, this.skill.getMemberAgentCount());
+		assertTrue(this.skill.hasMemberAgent());
+	}
+
 	@Test(expected = NullPointerException.class)
 	public void isInnerDefaultSpaceSpace_null() {
 		this.skill.isInnerDefaultSpace((Space) null);
@@ -313,6 +313,7 @@ public class InternalEventBusSkillTest extends AbstractJanusTest {
 
 	@Test
 	public void selfEvent_other_initialized() {
+		Mockito.when(this.eventBus.asyncDispatch(Mockito.any())).thenReturn(true);
 		Initialize initEvent = new Initialize(UUID.randomUUID());
 		this.skill.selfEvent(initEvent);
 		//
@@ -67,6 +67,7 @@ import io.sarl.lang.annotation.SarlSpecification;
 import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.Behavior;
 import io.sarl.lang.core.BuiltinCapacitiesProvider;
+import io.sarl.lang.core.Capacities;
 import io.sarl.lang.core.Skill.UninstallationStage;
 import io.sarl.tests.api.Nullable;
 
@@ -159,6 +160,26 @@ public class SchedulesSkillTest {
 			assertFalse(Strings.isEmpty(task5.getName()));
 		}
 
+		@Test
+		public void bindCaller() {
+			Behavior caller = Mockito.mock(Behavior.class);
+			Schedules bound = this.skill.bindCaller(Schedules.class, caller);
+			assertNotNull(bound);
+			assertNotSame(this.skill, bound);
+			AgentTask task = bound.task("thename"); //$NON-NLS-1$
+			assertSame(caller, task.getInitiator());
+			assertSame(task, this.skill.task("thename")); //$NON-NLS-1$
+			assertNull(Capacities.getCaller());
+			//
+			AgentTask task2 = bound.in(5, Mockito.mock(Procedure1.class));
+			assertSame(caller, task2.getInitiator());
+		}
+
+		@Test
+		public void bindCaller_otherCapacity() {
+			assertNull(this.skill.bindCaller(Behaviors.class, Mockito.mock(Behavior.class)));
+		}
+
 		@Test
 		public void inLongProcedure1() {
 			Procedure1 procedure = Mockito.mock(Procedure1.class);
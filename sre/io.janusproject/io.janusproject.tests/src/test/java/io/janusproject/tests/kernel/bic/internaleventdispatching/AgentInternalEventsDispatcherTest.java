@@ -22,11 +22,14 @@ package io.janusproject.tests.kernel.bic.internaleventdispatching;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -42,6 +45,7 @@ import org.mockito.Mockito;
 
 import io.janusproject.kernel.bic.internaleventdispatching.AgentInternalEventsDispatcher;
 import io.janusproject.kernel.services.jdk.executors.JdkExecutorService;
+import io.janusproject.services.InboxOverflowPolicy;
 import io.janusproject.services.executor.ExecutorService;
 
 import io.sarl.lang.annotation.PerceptGuardEvaluator;
@@ -60,6 +64,8 @@ import io.sarl.tests.api.Nullable;
 @SuiteClasses({
 		AgentInternalEventsDispatcherTest.StandardTests.class,
 		AgentInternalEventsDispatcherTest.RuntimeTests.class,
+		AgentInternalEventsDispatcherTest.AgentAffineTests.class,
+		AgentInternalEventsDispatcherTest.BoundedInboxTests.class,
 })
 @SuppressWarnings("all")
 public class AgentInternalEventsDispatcherTest {
@@ -687,4 +693,512 @@ public class AgentInternalEventsDispatcherTest {
 
 	}
 
+	public static class AgentAffineTests extends AbstractSarlTest {
+
+		@Nullable
+		private AgentInternalEventsDispatcher dispatcher;
+
+		@Mock
+		private ExecutorService executorService;
+
+		@Before
+		public void setUp() {
+			Mockito.doAnswer((it) -> {
+				((Runnable) it.getArgument(0)).run();
+				return null;
+			}).when(this.executorService).execute(Mockito.any(Runnable.class));
+			this.dispatcher = new AgentInternalEventsDispatcher(this.executorService, true, 2);
+		}
+
+		@Test
+		public void isAgentAffineDispatching() {
+			assertTrue(this.dispatcher.isAgentAffineDispatching());
+			assertFalse(new AgentInternalEventsDispatcher(this.executorService).isAgentAffineDispatching());
+		}
+
+		@Test
+		public void asyncDispatch_noRegister() {
+			this.dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true));
+			Mockito.verify(this.executorService, Mockito.only()).execute(Mockito.any(Runnable.class));
+		}
+
+		@Test
+		public void asyncDispatch_register_validGuard() {
+			RuntimeTests.MyAgent agent = new RuntimeTests.MyAgent();
+			this.dispatcher.register(agent, null, null);
+			RuntimeTests.MyEvent event = new RuntimeTests.MyEvent(true);
+			this.dispatcher.asyncDispatch(event);
+			// The behavior units are run by the worker of the agent, not by dedicated tasks.
+			Mockito.verify(this.executorService, Mockito.only()).execute(Mockito.any(Runnable.class));
+			assertContains(agent.events, event);
+			assertContains(agent.myEvents, event);
+		}
+
+		@Test
+		public void asyncDispatch_register_invalidGuard() {
+			RuntimeTests.MyAgent agent = new RuntimeTests.MyAgent();
+			this.dispatcher.register(agent, null, null);
+			RuntimeTests.MyEvent event = new RuntimeTests.MyEvent(false);
+			this.dispatcher.asyncDispatch(event);
+			Mockito.verify(this.executorService, Mockito.only()).execute(Mockito.any(Runnable.class));
+			assertContains(agent.events, event);
+			assertTrue(agent.myEvents.isEmpty());
+		}
+
+		@Test
+		public void asyncDispatch_order() {
+			List<Runnable> pendingTasks = new ArrayList<>();
+			Mockito.doAnswer((it) -> {
+				pendingTasks.add(it.getArgument(0));
+				return null;
+			}).when(this.executorService).execute(Mockito.any(Runnable.class));
+			RuntimeTests.MyAgent agent = new RuntimeTests.MyAgent();
+			this.dispatcher.register(agent, null, null);
+			RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event3 = new RuntimeTests.MyEvent(true);
+			this.dispatcher.asyncDispatch(event1);
+			this.dispatcher.asyncDispatch(event2);
+			this.dispatcher.asyncDispatch(event3);
+			// Only one worker is submitted while the agent is busy.
+			assertEquals(1, pendingTasks.size());
+			pendingTasks.remove(0).run();
+			// The batch size is reached, the worker is resubmitted for the remaining event.
+			assertEquals(1, pendingTasks.size());
+			assertEquals(Arrays.asList(event1, event2), agent.myEvents);
+			pendingTasks.remove(0).run();
+			assertEquals(0, pendingTasks.size());
+			assertEquals(Arrays.asList(event1, event2, event3), agent.myEvents);
+		}
+
+		@Test
+		public void immediateDispatch() {
+			RuntimeTests.MyAgent agent = new RuntimeTests.MyAgent();
+			this.dispatcher.register(agent, null, null);
+			RuntimeTests.MyEvent event = new RuntimeTests.MyEvent(true);
+			this.dispatcher.immediateDispatch(event);
+			// The event is dispatched by the worker of the agent.
+			Mockito.verify(this.executorService, Mockito.only()).execute(Mockito.any(Runnable.class));
+			assertContains(agent.events, event);
+			assertContains(agent.myEvents, event);
+		}
+
+		@Test
+		public void immediateDispatchTo() {
+			RuntimeTests.MyAgent agent = new RuntimeTests.MyAgent();
+			this.dispatcher.register(agent, null, null);
+			RuntimeTests.MyEvent event = new RuntimeTests.MyEvent(true);
+			this.dispatcher.immediateDispatchTo(agent, event);
+			Mockito.verify(this.executorService, Mockito.only()).execute(Mockito.any(Runnable.class));
+			assertContains(agent.events, event);
+			assertContains(agent.myEvents, event);
+		}
+
+		@Test
+		public void immediateDispatch_afterCurrentEvent() throws Exception {
+			java.util.concurrent.ExecutorService pool = Executors.newFixedThreadPool(2);
+			try {
+				Mockito.doAnswer((it) -> {
+					pool.execute(it.getArgument(0));
+					return null;
+				}).when(this.executorService).execute(Mockito.any(Runnable.class));
+				CountDownLatch handlerStarted = new CountDownLatch(1);
+				CountDownLatch handlerReleased = new CountDownLatch(1);
+				BlockingAgent agent = new BlockingAgent(handlerStarted, handlerReleased);
+				this.dispatcher.register(agent, null, null);
+				RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+				RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(false);
+				this.dispatcher.asyncDispatch(event1);
+				assertTrue(handlerStarted.await(5, TimeUnit.SECONDS));
+				Thread caller = new Thread(() -> this.dispatcher.immediateDispatch(event2));
+				caller.start();
+				caller.join(100);
+				// The synchronous dispatch waits for the end of the handler that is running.
+				assertTrue(caller.isAlive());
+				handlerReleased.countDown();
+				caller.join(5000);
+				assertFalse(caller.isAlive());
+				assertEquals(Arrays.asList(event1, event2), agent.events);
+				// All the handlers were run by the worker threads of the pool.
+				assertFalse(agent.threads.contains(caller));
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+
+		@Test(timeout = 10000)
+		public void immediateDispatch_fromHandler_idleWorker() {
+			// No thread of the pool is available for the worker of the target agent.
+			ExecutorService exhaustedExecutor = Mockito.mock(ExecutorService.class);
+			AgentInternalEventsDispatcher target = new AgentInternalEventsDispatcher(exhaustedExecutor, true, 2);
+			RuntimeTests.MyAgent agent = new RuntimeTests.MyAgent();
+			target.register(agent, null, null);
+			RuntimeTests.MyEvent event = new RuntimeTests.MyEvent(true);
+			List<Event> eventsAfterDispatch = new ArrayList<>();
+			CallingAgent caller = new CallingAgent(() -> {
+				target.immediateDispatch(event);
+				eventsAfterDispatch.addAll(agent.myEvents);
+			});
+			this.dispatcher.register(caller, null, null);
+			this.dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true));
+			// The handler has dispatched the event itself, synchronously.
+			assertEquals(Arrays.asList(event), eventsAfterDispatch);
+			Mockito.verifyZeroInteractions(exhaustedExecutor);
+		}
+
+		@Test(timeout = 10000)
+		public void immediateDispatch_fromHandler_busyWorker() throws Exception {
+			java.util.concurrent.ExecutorService pool = Executors.newFixedThreadPool(1);
+			try {
+				ExecutorService targetExecutor = Mockito.mock(ExecutorService.class);
+				Mockito.doAnswer((it) -> {
+					pool.execute(it.getArgument(0));
+					return null;
+				}).when(targetExecutor).execute(Mockito.any(Runnable.class));
+				AgentInternalEventsDispatcher target = new AgentInternalEventsDispatcher(targetExecutor, true, 2);
+				CountDownLatch handlerStarted = new CountDownLatch(1);
+				CountDownLatch handlerReleased = new CountDownLatch(1);
+				BlockingAgent agent = new BlockingAgent(handlerStarted, handlerReleased);
+				target.register(agent, null, null);
+				RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+				RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(false);
+				target.asyncDispatch(event1);
+				assertTrue(handlerStarted.await(5, TimeUnit.SECONDS));
+				CallingAgent caller = new CallingAgent(() -> target.immediateDispatch(event2));
+				this.dispatcher.register(caller, null, null);
+				// The handler does not wait for the busy worker of the target agent.
+				this.dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true));
+				assertEquals(Arrays.asList(event1), agent.events);
+				handlerReleased.countDown();
+				pool.shutdown();
+				assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+				assertEquals(Arrays.asList(event1, event2), agent.events);
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+
+		@Test(timeout = 10000)
+		public void immediateDispatch_interrupted() throws Exception {
+			java.util.concurrent.ExecutorService pool = Executors.newFixedThreadPool(1);
+			try {
+				Mockito.doAnswer((it) -> {
+					pool.execute(it.getArgument(0));
+					return null;
+				}).when(this.executorService).execute(Mockito.any(Runnable.class));
+				CountDownLatch handlerStarted = new CountDownLatch(1);
+				CountDownLatch handlerReleased = new CountDownLatch(1);
+				BlockingAgent agent = new BlockingAgent(handlerStarted, handlerReleased);
+				this.dispatcher.register(agent, null, null);
+				RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+				RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(false);
+				this.dispatcher.asyncDispatch(event1);
+				assertTrue(handlerStarted.await(5, TimeUnit.SECONDS));
+				List<Boolean> interrupted = new ArrayList<>();
+				Thread caller = new Thread(() -> {
+					this.dispatcher.immediateDispatch(event2);
+					interrupted.add(Thread.currentThread().isInterrupted());
+				});
+				caller.start();
+				caller.join(100);
+				assertTrue(caller.isAlive());
+				caller.interrupt();
+				caller.join(5000);
+				assertFalse(caller.isAlive());
+				// The interruption flag is restored for the caller.
+				assertEquals(Arrays.asList(Boolean.TRUE), interrupted);
+				handlerReleased.countDown();
+				pool.shutdown();
+				assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+				// The abandoned dispatch is not run after the return of the caller.
+				assertEquals(Arrays.asList(event1), agent.events);
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+
+		public static class CallingAgent extends Agent {
+
+			private final Runnable action;
+
+			public CallingAgent(Runnable action) {
+				super(null, UUID.randomUUID(), UUID.randomUUID());
+				this.action = action;
+			}
+
+			@PerceptGuardEvaluator
+			private void $perception$guard$evaluator1(RuntimeTests.MyEvent event, Collection<Runnable> runners) {
+				runners.add(() -> this.action.run());
+			}
+
+		}
+
+		public static class BlockingAgent extends Agent {
+
+			public final List<Event> events = new ArrayList<>();
+
+			public final List<Thread> threads = new ArrayList<>();
+
+			private final CountDownLatch started;
+
+			private final CountDownLatch released;
+
+			public BlockingAgent(CountDownLatch started, CountDownLatch released) {
+				super(null, UUID.randomUUID(), UUID.randomUUID());
+				this.started = started;
+				this.released = released;
+			}
+
+			@PerceptGuardEvaluator
+			private void $perception$guard$evaluator1(RuntimeTests.MyEvent event, Collection<Runnable> runners) {
+				runners.add(() -> $perception$guard$callback1(event, event));
+			}
+
+			private void $perception$guard$callback1(RuntimeTests.MyEvent occurrence, RuntimeTests.MyEvent it) {
+				this.events.add(it);
+				this.threads.add(Thread.currentThread());
+				if (it.valid) {
+					this.started.countDown();
+					try {
+						this.released.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException exception) {
+						throw new RuntimeException(exception);
+					}
+				}
+			}
+
+		}
+
+	}
+
+	public static class BoundedInboxTests extends AbstractSarlTest {
+
+		@Mock
+		private ExecutorService executorService;
+
+		@Nullable
+		private List<Runnable> pendingTasks;
+
+		@Nullable
+		private RuntimeTests.MyAgent agent;
+
+		@Before
+		public void setUp() {
+			this.pendingTasks = new ArrayList<>();
+			Mockito.doAnswer((it) -> {
+				this.pendingTasks.add(it.getArgument(0));
+				return null;
+			}).when(this.executorService).execute(Mockito.any(Runnable.class));
+			this.agent = new RuntimeTests.MyAgent();
+		}
+
+		private AgentInternalEventsDispatcher createDispatcher(boolean affine, InboxOverflowPolicy policy) {
+			AgentInternalEventsDispatcher dispatcher = new AgentInternalEventsDispatcher(this.executorService, affine, 10, 2, policy);
+			dispatcher.register(this.agent, null, null);
+			return dispatcher;
+		}
+
+		private void runPendingTasks() {
+			while (!this.pendingTasks.isEmpty()) {
+				this.pendingTasks.remove(0).run();
+			}
+		}
+
+		@Test
+		public void unbounded_inboxSize() {
+			AgentInternalEventsDispatcher dispatcher = new AgentInternalEventsDispatcher(this.executorService);
+			assertEquals(0, dispatcher.getInboxCapacity());
+			assertTrue(dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true)));
+			assertTrue(dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true)));
+			assertTrue(dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true)));
+			assertEquals(3, dispatcher.getInboxSize());
+			runPendingTasks();
+			assertEquals(0, dispatcher.getInboxSize());
+			assertEquals(0, dispatcher.getDroppedEventCount());
+		}
+
+		@Test
+		public void dropNewest_parallel() {
+			AgentInternalEventsDispatcher dispatcher = createDispatcher(false, InboxOverflowPolicy.DROP_NEWEST);
+			RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event3 = new RuntimeTests.MyEvent(true);
+			assertTrue(dispatcher.asyncDispatch(event1));
+			assertTrue(dispatcher.asyncDispatch(event2));
+			assertFalse(dispatcher.asyncDispatch(event3));
+			assertEquals(2, dispatcher.getInboxSize());
+			assertEquals(1, dispatcher.getDroppedEventCount());
+			runPendingTasks();
+			assertEquals(0, dispatcher.getInboxSize());
+			assertEquals(Arrays.asList(event1, event2), this.agent.myEvents);
+		}
+
+		@Test
+		public void dropNewest_affine() {
+			AgentInternalEventsDispatcher dispatcher = createDispatcher(true, InboxOverflowPolicy.DROP_NEWEST);
+			RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event3 = new RuntimeTests.MyEvent(true);
+			assertTrue(dispatcher.asyncDispatch(event1));
+			assertTrue(dispatcher.asyncDispatch(event2));
+			assertFalse(dispatcher.asyncDispatch(event3));
+			assertEquals(1, dispatcher.getDroppedEventCount());
+			runPendingTasks();
+			assertEquals(0, dispatcher.getInboxSize());
+			assertEquals(Arrays.asList(event1, event2), this.agent.myEvents);
+			// Places are available again
+			assertTrue(dispatcher.asyncDispatch(event3));
+		}
+
+		@Test
+		public void dropOldest_parallel() {
+			AgentInternalEventsDispatcher dispatcher = createDispatcher(false, InboxOverflowPolicy.DROP_OLDEST);
+			RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event3 = new RuntimeTests.MyEvent(true);
+			assertTrue(dispatcher.asyncDispatch(event1));
+			assertTrue(dispatcher.asyncDispatch(event2));
+			assertTrue(dispatcher.asyncDispatch(event3));
+			assertEquals(2, dispatcher.getInboxSize());
+			assertEquals(1, dispatcher.getDroppedEventCount());
+			runPendingTasks();
+			assertEquals(0, dispatcher.getInboxSize());
+			assertEquals(Arrays.asList(event2, event3), this.agent.myEvents);
+		}
+
+		@Test
+		public void dropOldest_affine() {
+			AgentInternalEventsDispatcher dispatcher = createDispatcher(true, InboxOverflowPolicy.DROP_OLDEST);
+			RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event3 = new RuntimeTests.MyEvent(true);
+			assertTrue(dispatcher.asyncDispatch(event1));
+			assertTrue(dispatcher.asyncDispatch(event2));
+			assertTrue(dispatcher.asyncDispatch(event3));
+			assertEquals(1, dispatcher.getDroppedEventCount());
+			runPendingTasks();
+			assertEquals(Arrays.asList(event2, event3), this.agent.myEvents);
+		}
+
+		private void assertDeadEvent(boolean affine) {
+			AgentInternalEventsDispatcher dispatcher = createDispatcher(affine, InboxOverflowPolicy.DEAD_EVENT);
+			RuntimeTests.MyEvent event1 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event2 = new RuntimeTests.MyEvent(true);
+			RuntimeTests.MyEvent event3 = new RuntimeTests.MyEvent(true);
+			assertTrue(dispatcher.asyncDispatch(event1));
+			assertTrue(dispatcher.asyncDispatch(event2));
+			assertFalse(dispatcher.asyncDispatch(event3));
+			assertEquals(1, dispatcher.getDroppedEventCount());
+			// The dead event is not given to the agent on the emitter's thread.
+			assertTrue(this.agent.events.isEmpty());
+			assertEquals(3, dispatcher.getInboxSize());
+			runPendingTasks();
+			assertEquals(0, dispatcher.getInboxSize());
+			assertEquals(3, this.agent.events.size());
+			assertTrue(this.agent.events.get(2) instanceof io.sarl.lang.core.DeadEvent);
+			assertSame(event3, ((io.sarl.lang.core.DeadEvent) this.agent.events.get(2)).getEvent());
+			assertEquals(Arrays.asList(event1, event2), this.agent.myEvents);
+		}
+
+		@Test
+		public void deadEvent_parallel() {
+			assertDeadEvent(false);
+		}
+
+		@Test
+		public void deadEvent_affine() {
+			assertDeadEvent(true);
+		}
+
+		@Test
+		public void deadEvent_boundedOverdraft() {
+			AgentInternalEventsDispatcher dispatcher = createDispatcher(true, InboxOverflowPolicy.DEAD_EVENT);
+			for (int i = 0; i < 10; ++i) {
+				dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true));
+			}
+			assertEquals(8, dispatcher.getDroppedEventCount());
+			// Two places in the inbox, and at most two dead events beyond them.
+			assertEquals(4, dispatcher.getInboxSize());
+		}
+
+		private void assertBlockFromHandler(boolean affine) {
+			AgentInternalEventsDispatcher dispatcher = new AgentInternalEventsDispatcher(this.executorService, affine, 10, 1,
+					InboxOverflowPolicy.BLOCK);
+			EmittingAgent emitter = new EmittingAgent(dispatcher, 2);
+			dispatcher.register(emitter, null, null);
+			assertTrue(dispatcher.asyncDispatch(new RuntimeTests.MyEvent(true)));
+			// The handler emits two events into the inbox of capacity 1 without being blocked.
+			runPendingTasks();
+			assertEquals(0, dispatcher.getDroppedEventCount());
+			assertEquals(0, dispatcher.getInboxSize());
+			assertEquals(3, emitter.events.size());
+			// The places of the inbox are available again.
+			assertTrue(dispatcher.asyncDispatch(new RuntimeTests.MyEvent(false)));
+		}
+
+		@Test(timeout = 10000)
+		public void block_fromHandler_parallel() {
+			assertBlockFromHandler(false);
+		}
+
+		@Test(timeout = 10000)
+		public void block_fromHandler_affine() {
+			assertBlockFromHandler(true);
+		}
+
+		@Test(timeout = 10000)
+		public void block_fromHandler_boundedOverdraft() {
+			ExecutorService emitterExecutor = Mockito.mock(ExecutorService.class);
+			Mockito.doAnswer((it) -> {
+				((Runnable) it.getArgument(0)).run();
+				return null;
+			}).when(emitterExecutor).execute(Mockito.any(Runnable.class));
+			// The receiver is slow: its tasks are not run while the emitter floods it.
+			AgentInternalEventsDispatcher receiver = createDispatcher(true, InboxOverflowPolicy.BLOCK);
+			AgentInternalEventsDispatcher emitterDispatcher = new AgentInternalEventsDispatcher(emitterExecutor, true, 10);
+			EmittingAgent emitter = new EmittingAgent(receiver, 100);
+			emitterDispatcher.register(emitter, null, null);
+			assertTrue(emitterDispatcher.asyncDispatch(new RuntimeTests.MyEvent(true)));
+			// Two places in the inbox, and at most two events beyond them.
+			assertEquals(4, receiver.getInboxSize());
+			assertEquals(96, receiver.getDroppedEventCount());
+			runPendingTasks();
+			assertEquals(0, receiver.getInboxSize());
+			assertEquals(4, this.agent.events.size());
+			// The places of the inbox are available again.
+			assertTrue(receiver.asyncDispatch(new RuntimeTests.MyEvent(false)));
+		}
+
+		public static class EmittingAgent extends Agent {
+
+			public final List<Event> events = new ArrayList<>();
+
+			private final AgentInternalEventsDispatcher dispatcher;
+
+			private final int count;
+
+			public EmittingAgent(AgentInternalEventsDispatcher dispatcher, int count) {
+				super(null, UUID.randomUUID(), UUID.randomUUID());
+				this.dispatcher = dispatcher;
+				this.count = count;
+			}
+
+			@PerceptGuardEvaluator
+			private void $perception$guard$evaluator1(RuntimeTests.MyEvent event, Collection<Runnable> runners) {
+				runners.add(() -> $perception$guard$callback1(event, event));
+			}
+
+			private void $perception$guard$callback1(RuntimeTests.MyEvent occurrence, RuntimeTests.MyEvent it) {
+				this.events.add(it);
+				if (it.valid) {
+					for (int i = 0; i < this.count; ++i) {
+						this.dispatcher.asyncDispatch(new RuntimeTests.MyEvent(false));
+					}
+				}
+			}
+
+		}
+
+	}
+
 }
@@ -19,21 +19,27 @@
  */
 package io.janusproject.tests.kernel.repository;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Set;
 import java.util.UUID;
 
 import io.janusproject.kernel.repository.UniqueAddressParticipantRepository;
 import io.janusproject.kernel.services.jdk.distributeddata.DMapView;
 import io.janusproject.services.distributeddata.DMap;
+import io.janusproject.services.distributeddata.DMapListener;
 import io.janusproject.services.distributeddata.DistributedDataStructureService;
 import io.janusproject.tests.testutils.AbstractJanusTest;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import io.sarl.lang.core.EventListener;
@@ -57,6 +63,9 @@ public class UniqueAddressParticipantRepositoryTest extends AbstractJanusTest {
 	@Nullable
 	private DistributedDataStructureService service;
 
+	@Nullable
+	private DMap<Object, Object> map;
+
 	@Nullable
 	private UUID id1;
 
@@ -74,6 +83,7 @@ public class UniqueAddressParticipantRepositoryTest extends AbstractJanusTest {
 		this.distributedName = getClass().getName() + UUID.randomUUID().toString();
 		this.service = Mockito.mock(DistributedDataStructureService.class);
 		DMap<Object, Object> mapMock = new DMapView<>(UUID.randomUUID().toString(), new HashMap<>());
+		this.map = mapMock;
 		Mockito.when(this.service.getMap(this.distributedName, null)).thenReturn(mapMock);
 		Mockito.when(this.service.getMap(this.distributedName)).thenReturn(mapMock);
 		this.repository = new UniqueAddressParticipantRepository<>(this.distributedName, this.service);
@@ -163,4 +173,64 @@ public class UniqueAddressParticipantRepositoryTest extends AbstractJanusTest {
 		assertTrue(adrs.contains(this.id2));
 	}
 
+	@Test
+	public void getParticipantIDSnapshot() {
+		assertTrue(this.repository.getParticipantIDSnapshot().isEmpty());
+		this.repository.registerParticipant("a", this.listener1); //$NON-NLS-1$
+		this.repository.registerParticipant("b", this.listener2); //$NON-NLS-1$
+		Set<UUID> snapshot = this.repository.getParticipantIDSnapshot();
+		assertEquals(2, snapshot.size());
+		assertTrue(snapshot.contains(this.id1));
+		assertTrue(snapshot.contains(this.id2));
+		assertSame(snapshot, this.repository.getParticipantIDSnapshot());
+	}
+
+	@Test
+	public void getParticipantIDSnapshot_unregister() {
+		this.repository.registerParticipant("a", this.listener1); //$NON-NLS-1$
+		this.repository.registerParticipant("b", this.listener2); //$NON-NLS-1$
+		Set<UUID> snapshot = this.repository.getParticipantIDSnapshot();
+		this.repository.unregisterParticipant(this.listener1);
+		// The previous snapshot is not changed
+		assertEquals(2, snapshot.size());
+		Set<UUID> snapshot2 = this.repository.getParticipantIDSnapshot();
+		assertNotSame(snapshot, snapshot2);
+		assertEquals(1, snapshot2.size());
+		assertFalse(snapshot2.contains(this.id1));
+		assertTrue(snapshot2.contains(this.id2));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getParticipantIDSnapshot_immutable() {
+		this.repository.registerParticipant("a", this.listener1); //$NON-NLS-1$
+		this.repository.getParticipantIDSnapshot().remove(this.id1);
+	}
+
+	@Test
+	public void getParticipantIDSnapshot_remoteChange() {
+		this.repository.registerParticipant("a", this.listener1); //$NON-NLS-1$
+		Set<UUID> snapshot = this.repository.getParticipantIDSnapshot();
+		// Simulate a participant that is registered by another node
+		this.map.put(this.id2, "b"); //$NON-NLS-1$
+		Set<UUID> snapshot2 = this.repository.getParticipantIDSnapshot();
+		assertNotSame(snapshot, snapshot2);
+		assertEquals(2, snapshot2.size());
+		assertTrue(snapshot2.contains(this.id2));
+	}
+
+	@Test
+	public void destroy() {
+		DMap<UUID, String> mapMock = Mockito.mock(DMap.class);
+		Mockito.when(this.service.getMap("x", null)).thenReturn((DMap) mapMock); //$NON-NLS-1$
+		UniqueAddressParticipantRepository<String> repository = new UniqueAddressParticipantRepository<>("x", this.service); //$NON-NLS-1$
+		Mockito.verify(mapMock, Mockito.never()).addDMapListener(Mockito.any());
+		repository.getParticipantIDSnapshot();
+		ArgumentCaptor<DMapListener> listener = ArgumentCaptor.forClass(DMapListener.class);
+		Mockito.verify(mapMock).addDMapListener(listener.capture());
+		repository.destroy();
+		Mockito.verify(mapMock).removeDMapListener(listener.getValue());
+		repository.getParticipantIDSnapshot();
+		Mockito.verify(mapMock).addDMapListener(Mockito.any());
+	}
+
 }
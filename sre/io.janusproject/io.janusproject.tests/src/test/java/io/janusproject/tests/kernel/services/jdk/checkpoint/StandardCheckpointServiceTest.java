@@ -0,0 +1,266 @@
+/*
+ * $Id$
+ * 
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ * 
+ * Copyright (C) 2014-2015 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.tests.kernel.services.jdk.checkpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import com.google.inject.util.Modules;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.janusproject.Boot;
+import io.janusproject.kernel.Kernel;
+import io.janusproject.services.checkpoint.CheckpointService;
+import io.janusproject.services.spawn.SpawnService;
+import io.janusproject.tests.testutils.AbstractJanusRunTest;
+import io.janusproject.tests.testutils.NoLogTestingModule;
+
+import io.sarl.core.AgentSpawned;
+import io.sarl.core.Behaviors;
+import io.sarl.core.Initialize;
+import io.sarl.core.Schedules;
+import io.sarl.lang.SARLVersion;
+import io.sarl.lang.annotation.PerceptGuardEvaluator;
+import io.sarl.lang.annotation.SarlSpecification;
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.Behavior;
+import io.sarl.lang.core.BuiltinCapacitiesProvider;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class StandardCheckpointServiceTest extends AbstractJanusRunTest {
+
+	private static final int PERIOD = 50;
+
+	private static final int MIN_TICKS = 3;
+
+	/** Number of Initialize events received by the agents.
+	 */
+	static final AtomicInteger INITIALIZED = new AtomicInteger();
+
+	/** Number of Initialize events received by the behaviors.
+	 */
+	static final AtomicInteger BEHAVIOR_INITIALIZED = new AtomicInteger();
+
+	/** Number of AgentSpawned events received by the agents.
+	 */
+	static final AtomicInteger SPAWNED = new AtomicInteger();
+
+	/** Ticks of the agents that are run by the first kernel, per agent: the value of the agent's counter,
+	 * and the value of the behavior's counter.
+	 */
+	static final Map<UUID, List<int[]>> ORIGINAL_TICKS = new ConcurrentHashMap<>();
+
+	/** Ticks of the agents that are restored in the second kernel.
+	 */
+	static final Map<UUID, List<int[]>> RESTORED_TICKS = new ConcurrentHashMap<>();
+
+	static volatile boolean restored;
+
+	@Before
+	public void setUp() {
+		INITIALIZED.set(0);
+		BEHAVIOR_INITIALIZED.set(0);
+		SPAWNED.set(0);
+		ORIGINAL_TICKS.clear();
+		RESTORED_TICKS.clear();
+		restored = false;
+	}
+
+	private static int size(Map<UUID, List<int[]>> ticks, UUID id) {
+		final List<int[]> list = ticks.get(id);
+		if (list == null) {
+			return 0;
+		}
+		synchronized (list) {
+			return list.size();
+		}
+	}
+
+	private static List<int[]> get(Map<UUID, List<int[]>> ticks, UUID id) {
+		final List<int[]> list = ticks.get(id);
+		synchronized (list) {
+			return new ArrayList<>(list);
+		}
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws Exception {
+		final long end = System.currentTimeMillis() + STANDARD_TIMEOUT * 1000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > end) {
+				throw new TimeoutException();
+			}
+			Thread.sleep(PERIOD / 2);
+		}
+	}
+
+	private void killAll(Collection<UUID> agents) throws Exception {
+		final SpawnService spawnService = this.janusKernel.getService(SpawnService.class);
+		for (final UUID id : agents) {
+			spawnService.killAgent(id);
+		}
+		waitForTheKernel(STANDARD_TIMEOUT);
+	}
+
+	@Test
+	public void restore() throws Exception {
+		setupTheJanusKernel(TickingAgent.class, false, true, getDefaultJanusModule());
+		final UUID id1 = Boot.getBootAgentIdentifier();
+		final UUID id2 = this.janusKernel.spawn(TickingAgent.class, getAgentInitializationParameters());
+		final List<UUID> ids = Arrays.asList(id1, id2);
+		waitFor(() -> size(ORIGINAL_TICKS, id1) >= MIN_TICKS && size(ORIGINAL_TICKS, id2) >= MIN_TICKS);
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		this.janusKernel.getService(CheckpointService.class).checkpoint(output, STANDARD_TIMEOUT, TimeUnit.SECONDS);
+		killAll(ids);
+		assertEquals(2, INITIALIZED.get());
+		assertEquals(2, BEHAVIOR_INITIALIZED.get());
+		final int spawned = SPAWNED.get();
+
+		// Restore the agents in a fresh kernel with the same universe
+		restored = true;
+		this.janusKernel = Boot.startWithoutAgent(Modules.override(getDefaultJanusModule()).with(new NoLogTestingModule()));
+		final List<UUID> restoredIds = this.janusKernel.getService(CheckpointService.class).restore(
+				new ByteArrayInputStream(output.toByteArray()));
+		assertEquals(ids, restoredIds);
+		waitFor(() -> size(RESTORED_TICKS, id1) >= MIN_TICKS && size(RESTORED_TICKS, id2) >= MIN_TICKS);
+		killAll(ids);
+
+		// Neither Initialize nor AgentSpawned is fired for the restored agents and behaviors
+		assertEquals(2, INITIALIZED.get());
+		assertEquals(2, BEHAVIOR_INITIALIZED.get());
+		assertEquals(spawned, SPAWNED.get());
+
+		for (final UUID id : ids) {
+			final List<int[]> original = get(ORIGINAL_TICKS, id);
+			final List<int[]> ticks = get(RESTORED_TICKS, id);
+			// The scheduled task continues from the checkpointed counters
+			final int first = ticks.get(0)[0];
+			assertTrue(first > MIN_TICKS);
+			assertTrue(first <= original.get(original.size() - 1)[0] + 1);
+			for (int i = 0; i < ticks.size(); ++i) {
+				assertEquals(first + i, ticks.get(i)[0]);
+				// The agent refers to its restored behavior
+				assertEquals(ticks.get(i)[0], ticks.get(i)[1]);
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void restore_invalidStream() throws Exception {
+		this.janusKernel = Boot.startWithoutAgent(Modules.override(getDefaultJanusModule()).with(new NoLogTestingModule()));
+		try {
+			this.janusKernel.getService(CheckpointService.class).restore(
+					new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+		} finally {
+			final UUID id = this.janusKernel.spawn(TickingAgent.class, getAgentInitializationParameters());
+			killAll(Arrays.asList(id));
+		}
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class TickingBehavior extends Behavior {
+
+		private int ticks;
+
+		public TickingBehavior(Agent owner) {
+			super(owner);
+		}
+
+		int tick() {
+			return ++this.ticks;
+		}
+
+		@PerceptGuardEvaluator
+		private void onInitializeGuard(Initialize event, Collection<Runnable> handlers) {
+			BEHAVIOR_INITIALIZED.incrementAndGet();
+		}
+
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class TickingAgent extends TestingAgent {
+
+		private final TickingBehavior behavior = new TickingBehavior(this);
+
+		private int ticks;
+
+		public TickingAgent(BuiltinCapacitiesProvider provider, UUID parentID, UUID agentID) {
+			super(provider, parentID, agentID);
+		}
+
+		@Override
+		protected boolean runAgentTest() {
+			INITIALIZED.incrementAndGet();
+			getSkill(Behaviors.class).registerBehavior(this.behavior);
+			getSkill(Schedules.class).every(PERIOD, (it) -> tick());
+			return false;
+		}
+
+		private void tick() {
+			final int[] values = {++this.ticks, this.behavior.tick()};
+			final List<int[]> list = (restored ? RESTORED_TICKS : ORIGINAL_TICKS).computeIfAbsent(getID(),
+					(it) -> new ArrayList<>());
+			synchronized (list) {
+				list.add(values);
+			}
+		}
+
+		@PerceptGuardEvaluator
+		private void onAgentSpawnedGuard(AgentSpawned event, Collection<Runnable> handlers) {
+			SPAWNED.incrementAndGet();
+		}
+
+	}
+
+}
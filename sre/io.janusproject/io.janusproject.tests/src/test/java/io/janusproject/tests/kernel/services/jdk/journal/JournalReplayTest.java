@@ -0,0 +1,278 @@
+/*
+ * $Id$
+ * 
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ * 
+ * Copyright (C) 2014-2015 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.tests.kernel.services.jdk.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+import org.arakhne.afc.vmutil.ClassLoaderFinder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.janusproject.kernel.services.jdk.journal.JournalReader;
+import io.janusproject.kernel.services.jdk.journal.MappedJournalService;
+import io.janusproject.modules.StandardJanusPlatformModule;
+import io.janusproject.tests.testutils.AbstractJanusRunTest;
+
+import io.sarl.core.DefaultContextInteractions;
+import io.sarl.core.Lifecycle;
+import io.sarl.lang.SARLVersion;
+import io.sarl.lang.annotation.PerceptGuardEvaluator;
+import io.sarl.lang.annotation.SarlSpecification;
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.EventListener;
+
+/** Record the deliveries of the events that are exchanged by agents running in a Janus kernel,
+ * and replay the journal.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JournalReplayTest extends AbstractJanusRunTest {
+
+	private static final int NB_AGENTS = 5;
+
+	private static final int NB_EVENTS = 20;
+
+	private Path folder;
+
+	private MappedJournalService journal;
+
+	@Before
+	public void setUp() throws IOException {
+		ClassLoaderFinder.setPreferredClassLoader(getClass().getClassLoader());
+		this.folder = Files.createTempDirectory("janus-journal");
+		this.journal = new MappedJournalService(true, this.folder, 1024 * 1024);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		ClassLoaderFinder.popPreferredClassLoader();
+		try (Stream<Path> files = Files.list(this.folder)) {
+			files.forEach(it -> it.toFile().delete());
+		}
+		Files.deleteIfExists(this.folder);
+	}
+
+	@Override
+	protected Module getDefaultJanusModule() {
+		return Modules.override(super.getDefaultJanusModule()).with(
+				binder -> binder.bind(MappedJournalService.class).toInstance(this.journal));
+	}
+
+	@Test
+	public void replay() throws Exception {
+		runJanus(RootAgent.class, false, true, STANDARD_TIMEOUT);
+		this.journal.stopAsync().awaitTerminated();
+		assertEquals(0, this.journal.getDroppedDeliveryCount());
+		// The spawner and the spawned agents
+		assertNumberOfResults(NB_AGENTS + 1);
+
+		// Replay the journal on listeners that are replacing the agents
+		final Map<UUID, ReplayListener> listeners = new HashMap<>();
+		for (final Object result : getResults()) {
+			final Deliveries deliveries = (Deliveries) result;
+			listeners.put(deliveries.agent, new ReplayListener(deliveries.agent));
+		}
+		new JournalReader(this.folder, this.journal.getEventSerializer()).replay(it -> listeners.get(it));
+
+		// The order of the deliveries to an agent is not the order of the execution of its event handlers,
+		// that are run in parallel. The content of the deliveries is compared.
+		for (final Object result : getResults()) {
+			final Deliveries live = (Deliveries) result;
+			final List<String> replayed = listeners.get(live.agent).deliveries;
+			assertEquals(NB_AGENTS * NB_EVENTS, replayed.size());
+			Collections.sort(replayed);
+			assertEquals(live.deliveries, replayed);
+		}
+	}
+
+	private static String describe(StateEvent event) {
+		return event.getSource().getUUID() + ":" + event.value; //$NON-NLS-1$
+	}
+
+	/** Deliveries of the state events to an agent.
+	 */
+	private static class Deliveries {
+
+		final UUID agent;
+
+		final List<String> deliveries;
+
+		Deliveries(UUID agent, List<String> deliveries) {
+			this.agent = agent;
+			this.deliveries = new ArrayList<>(deliveries);
+			Collections.sort(this.deliveries);
+		}
+
+	}
+
+	/** Listener that is replacing an agent during the replay.
+	 */
+	private static class ReplayListener implements EventListener {
+
+		private final UUID id;
+
+		final List<String> deliveries = new ArrayList<>();
+
+		ReplayListener(UUID id) {
+			this.id = id;
+		}
+
+		@Override
+		public UUID getID() {
+			return this.id;
+		}
+
+		@Override
+		public void receiveEvent(Event event) {
+			// The other events, e.g. Initialize or MemberJoined, are also replayed
+			if (event instanceof StateEvent) {
+				this.deliveries.add(describe((StateEvent) event));
+			}
+		}
+
+	}
+
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class ReadyEvent extends Event {
+	}
+
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class GoEvent extends Event {
+	}
+
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class StateEvent extends Event {
+
+		public final int value;
+
+		public StateEvent(int value) {
+			this.value = value;
+		}
+
+	}
+
+	/** Agent that is collecting the state events, and that is killed when all of them are received.
+	 */
+	public abstract static class CollectingAgent extends TestingAgent {
+
+		private final List<String> deliveries = new ArrayList<>();
+
+		public CollectingAgent(UUID parentID, UUID agentID) {
+			super(parentID, agentID);
+		}
+
+		@PerceptGuardEvaluator
+		private void $guardEvaluator$StateEvent(StateEvent occurrence, Collection<Runnable> ___SARLlocal_runnableCollection) {
+			assert occurrence != null;
+			assert ___SARLlocal_runnableCollection != null;
+			___SARLlocal_runnableCollection.add(() -> onStateEvent(occurrence));
+		}
+
+		private void onStateEvent(StateEvent occurrence) {
+			synchronized (this.deliveries) {
+				this.deliveries.add(describe(occurrence));
+				if (this.deliveries.size() == NB_AGENTS * NB_EVENTS) {
+					addResult(new Deliveries(getID(), this.deliveries));
+					getSkill(Lifecycle.class).killMe();
+				}
+			}
+		}
+
+	}
+
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class RootAgent extends CollectingAgent {
+
+		private int ready;
+
+		public RootAgent(UUID parentID, UUID agentID) {
+			super(parentID, agentID);
+		}
+
+		@Override
+		protected boolean runAgentTest() {
+			getSkill(Lifecycle.class).spawn(NB_AGENTS, StateAgent.class, getAgentInitializationParameters());
+			return false;
+		}
+
+		@PerceptGuardEvaluator
+		private void $guardEvaluator$ReadyEvent(ReadyEvent occurrence, Collection<Runnable> ___SARLlocal_runnableCollection) {
+			assert occurrence != null;
+			assert ___SARLlocal_runnableCollection != null;
+			___SARLlocal_runnableCollection.add(() -> onReadyEvent(occurrence));
+		}
+
+		private synchronized void onReadyEvent(ReadyEvent occurrence) {
+			++this.ready;
+			if (this.ready == NB_AGENTS) {
+				// All the agents are participants of the default space
+				getSkill(DefaultContextInteractions.class).emit(new GoEvent());
+			}
+		}
+
+	}
+
+	@SarlSpecification(SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING)
+	public static class StateAgent extends CollectingAgent {
+
+		public StateAgent(UUID parentID, UUID agentID) {
+			super(parentID, agentID);
+		}
+
+		@Override
+		protected boolean runAgentTest() {
+			getSkill(DefaultContextInteractions.class).emit(new ReadyEvent());
+			return false;
+		}
+
+		@PerceptGuardEvaluator
+		private void $guardEvaluator$GoEvent(GoEvent occurrence, Collection<Runnable> ___SARLlocal_runnableCollection) {
+			assert occurrence != null;
+			assert ___SARLlocal_runnableCollection != null;
+			___SARLlocal_runnableCollection.add(() -> onGoEvent(occurrence));
+		}
+
+		private void onGoEvent(GoEvent occurrence) {
+			final DefaultContextInteractions interactions = getSkill(DefaultContextInteractions.class);
+			for (int i = 0; i < NB_EVENTS; ++i) {
+				interactions.emit(new StateEvent(i));
+			}
+		}
+
+	}
+
+}
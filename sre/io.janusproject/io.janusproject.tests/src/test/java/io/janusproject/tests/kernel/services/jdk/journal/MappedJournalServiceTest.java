@@ -0,0 +1,348 @@
+/*
+ * $Id$
+ * 
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ * 
+ * Copyright (C) 2014-2015 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.tests.kernel.services.jdk.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.arakhne.afc.vmutil.ClassLoaderFinder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.janusproject.kernel.services.jdk.journal.JournalReader;
+import io.janusproject.kernel.services.jdk.journal.MappedJournalService;
+import io.janusproject.services.journal.JournalRecord;
+import io.janusproject.services.network.EventEnvelope;
+import io.janusproject.tests.testutils.AbstractServiceTest;
+import io.janusproject.tests.testutils.StartServiceForTest;
+
+import io.sarl.lang.core.Address;
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.EventListener;
+import io.sarl.lang.core.SpaceID;
+import io.sarl.util.OpenEventSpaceSpecification;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@StartServiceForTest
+public final class MappedJournalServiceTest extends AbstractServiceTest<MappedJournalService> {
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	private Path folder;
+
+	private SpaceID spaceID;
+
+	@Override
+	public MappedJournalService newService() {
+		try {
+			this.folder = Files.createTempDirectory("janus-journal");
+		} catch (IOException exception) {
+			throw new RuntimeException(exception);
+		}
+		return new MappedJournalService(true, this.folder, SEGMENT_SIZE);
+	}
+
+	@Before
+	public void setUp() {
+		ClassLoaderFinder.setPreferredClassLoader(getClass().getClassLoader());
+		this.spaceID = new SpaceID(UUID.randomUUID(), UUID.randomUUID(), OpenEventSpaceSpecification.class);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		ClassLoaderFinder.popPreferredClassLoader();
+		this.service.stopAsync().awaitTerminated();
+		try (Stream<Path> files = Files.list(this.folder)) {
+			files.forEach(it -> it.toFile().delete());
+		}
+		Files.deleteIfExists(this.folder);
+	}
+
+	private JournalReader newReader() {
+		return new JournalReader(this.folder, this.service.getEventSerializer());
+	}
+
+	private StateEvent newEvent(UUID sender, int value) {
+		final StateEvent event = new StateEvent(value);
+		event.setSource(new Address(this.spaceID, sender));
+		return event;
+	}
+
+	@Test
+	public void isRecording() {
+		assertTrue(this.service.isRecording());
+		assertFalse(new MappedJournalService(false, this.folder, SEGMENT_SIZE).isRecording());
+	}
+
+	@Test
+	public void record() throws Exception {
+		final UUID receiver = UUID.randomUUID();
+		final UUID sender = UUID.randomUUID();
+		for (int i = 0; i < 200; ++i) {
+			this.service.record(this.spaceID, receiver, newEvent(sender, i));
+		}
+		this.service.stopAsync().awaitTerminated();
+
+		final JournalReader reader = newReader();
+		// The records do not fit into a single segment
+		assertTrue(reader.getSegments().size() > 1);
+		final List<JournalRecord> records = new ArrayList<>();
+		assertEquals(200, reader.read(it -> records.add(it)));
+		for (int i = 0; i < 200; ++i) {
+			final JournalRecord record = records.get(i);
+			assertEquals(i, record.getTimestamp());
+			assertEquals(this.spaceID, record.getSpaceID());
+			assertEquals(receiver, record.getReceiver());
+			assertEquals(i, ((StateEvent) record.getEvent()).value);
+			assertEquals(sender, record.getEvent().getSource().getUUID());
+		}
+	}
+
+	@Test
+	public void record_sameEvent() throws Exception {
+		final List<UUID> receivers = new ArrayList<>();
+		final EventEnvelope event = this.service.serialize(this.spaceID, newEvent(UUID.randomUUID(), 5));
+		for (int i = 0; i < 3; ++i) {
+			final UUID receiver = UUID.randomUUID();
+			receivers.add(receiver);
+			this.service.record(event, receiver);
+		}
+		this.service.stopAsync().awaitTerminated();
+
+		final List<JournalRecord> records = new ArrayList<>();
+		assertEquals(3, newReader().read(it -> records.add(it)));
+		for (int i = 0; i < 3; ++i) {
+			assertEquals(i, records.get(i).getTimestamp());
+			assertEquals(receivers.get(i), records.get(i).getReceiver());
+			assertEquals(5, ((StateEvent) records.get(i).getEvent()).value);
+		}
+	}
+
+	@Test
+	public void record_changedAfterEmission() throws Exception {
+		final UUID receiver = UUID.randomUUID();
+		final MutableEvent event = new MutableEvent();
+		event.setSource(new Address(this.spaceID, UUID.randomUUID()));
+		event.value = 1;
+		this.service.record(this.spaceID, receiver, event);
+		// The emitter reuses its event
+		event.value = 2;
+		this.service.record(this.spaceID, receiver, event);
+		event.value = 3;
+		this.service.stopAsync().awaitTerminated();
+
+		final List<JournalRecord> records = new ArrayList<>();
+		assertEquals(2, newReader().read(it -> records.add(it)));
+		assertEquals(1, ((MutableEvent) records.get(0).getEvent()).value);
+		assertEquals(2, ((MutableEvent) records.get(1).getEvent()).value);
+	}
+
+	@Test
+	public void record_null() throws Exception {
+		this.service.record(null, UUID.randomUUID());
+		this.service.stopAsync().awaitTerminated();
+		assertEquals(0, newReader().read(it -> { }));
+	}
+
+	@Test
+	public void serialize_notRecording() throws Exception {
+		this.service.stopAsync().awaitTerminated();
+		assertNull(this.service.serialize(this.spaceID, newEvent(UUID.randomUUID(), 1)));
+	}
+
+	@Test
+	public void record_fullQueue_drop() throws Exception {
+		final long total = recordFromThreads(new MappedJournalService(true, this.folder, SEGMENT_SIZE * 256, 1, false));
+		final long written = newReader().read(it -> { });
+		// Each delivery is written or dropped
+		assertEquals(total, written + this.service.getDroppedDeliveryCount());
+		assertEquals(0, this.service.getBlockedDeliveryCount());
+	}
+
+	@Test
+	public void record_fullQueue_block() throws Exception {
+		final long total = recordFromThreads(new MappedJournalService(true, this.folder, SEGMENT_SIZE * 256, 1, true));
+		assertEquals(total, newReader().read(it -> { }));
+		assertEquals(0, this.service.getDroppedDeliveryCount());
+	}
+
+	/** Replace the tested service by the given one, and record deliveries from several threads until the service is stopped.
+	 *
+	 * @param service the new service.
+	 * @return the number of recorded deliveries.
+	 */
+	private long recordFromThreads(MappedJournalService service) throws Exception {
+		this.service.stopAsync().awaitTerminated();
+		this.service = service;
+		this.service.startAsync().awaitRunning();
+		final int threads = 4;
+		final int deliveries = 2000;
+		final EventEnvelope event = this.service.serialize(this.spaceID, newEvent(UUID.randomUUID(), 1));
+		final List<Thread> emitters = new ArrayList<>();
+		for (int i = 0; i < threads; ++i) {
+			emitters.add(new Thread(() -> {
+				for (int j = 0; j < deliveries; ++j) {
+					this.service.record(event, UUID.randomUUID());
+				}
+			}));
+		}
+		for (final Thread thread : emitters) {
+			thread.start();
+		}
+		for (final Thread thread : emitters) {
+			thread.join();
+		}
+		this.service.stopAsync().awaitTerminated();
+		return threads * deliveries;
+	}
+
+	@Test
+	public void flush() throws Exception {
+		final UUID receiver = UUID.randomUUID();
+		this.service.record(this.spaceID, receiver, newEvent(UUID.randomUUID(), 1));
+		this.service.record(this.spaceID, receiver, newEvent(UUID.randomUUID(), 2));
+		this.service.flush();
+		assertTrue(this.service.isRecording());
+		assertEquals(2, newReader().read(it -> { }));
+	}
+
+	@Test
+	public void replay() throws Exception {
+		final int agents = 4;
+		final int events = 250;
+		final Map<UUID, StateListener> liveAgents = new HashMap<>();
+		final List<Thread> threads = new ArrayList<>();
+		final CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < agents; ++i) {
+			final StateListener agent = new StateListener(UUID.randomUUID());
+			liveAgents.put(agent.getID(), agent);
+			threads.add(new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException exception) {
+					throw new RuntimeException(exception);
+				}
+				for (int j = 0; j < events; ++j) {
+					final StateEvent event = newEvent(agent.getID(), j * 7 + 3);
+					this.service.record(this.spaceID, agent.getID(), event);
+					agent.receiveEvent(event);
+				}
+			}));
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		start.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		this.service.stopAsync().awaitTerminated();
+
+		final Map<UUID, StateListener> replayedAgents = new HashMap<>();
+		for (final UUID id : liveAgents.keySet()) {
+			replayedAgents.put(id, new StateListener(id));
+		}
+		assertEquals(agents * events, newReader().replay(it -> replayedAgents.get(it)));
+		for (final StateListener agent : liveAgents.values()) {
+			final StateListener replayed = replayedAgents.get(agent.getID());
+			assertEquals(events, replayed.count);
+			assertEquals(agent.count, replayed.count);
+			assertEquals(agent.state, replayed.state);
+		}
+	}
+
+	@Test
+	public void replay_unknownReceiver() throws Exception {
+		final StateListener agent = new StateListener(UUID.randomUUID());
+		this.service.record(this.spaceID, agent.getID(), newEvent(agent.getID(), 1));
+		this.service.record(this.spaceID, UUID.randomUUID(), newEvent(agent.getID(), 2));
+		this.service.stopAsync().awaitTerminated();
+		assertEquals(1, newReader().replay(it -> agent.getID().equals(it) ? agent : null));
+		assertEquals(1, agent.count);
+	}
+
+	/** Event with a value.
+	 */
+	public static class StateEvent extends Event {
+
+		public final int value;
+
+		public StateEvent(int value) {
+			this.value = value;
+		}
+
+	}
+
+	/** Event that may be changed after its emission.
+	 */
+	public static class MutableEvent extends Event {
+
+		public int value;
+
+	}
+
+	/** Listener with a state that depends on the order of the received events.
+	 */
+	private static class StateListener implements EventListener {
+
+		private final UUID id;
+
+		long state = 17;
+
+		int count;
+
+		StateListener(UUID id) {
+			this.id = id;
+		}
+
+		@Override
+		public UUID getID() {
+			return this.id;
+		}
+
+		@Override
+		public void receiveEvent(Event event) {
+			this.state = this.state * 31 + ((StateEvent) event).value;
+			++this.count;
+		}
+
+	}
+
+}
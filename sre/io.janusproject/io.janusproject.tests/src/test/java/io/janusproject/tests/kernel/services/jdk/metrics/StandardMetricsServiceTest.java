@@ -0,0 +1,108 @@
+/*
+ * $Id$
+ * 
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ * 
+ * Copyright (C) 2014-2015 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.tests.kernel.services.jdk.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.janusproject.kernel.services.jdk.metrics.StandardMetricsService;
+import io.janusproject.services.metrics.LatencyHistogram;
+import io.janusproject.services.metrics.MetricsService;
+import io.janusproject.tests.testutils.AbstractServiceTest;
+import io.janusproject.tests.testutils.StartServiceForTest;
+
+import io.sarl.util.OpenEventSpaceSpecification;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@StartServiceForTest
+public final class StandardMetricsServiceTest extends AbstractServiceTest<StandardMetricsService> {
+
+	@Override
+	public StandardMetricsService newService() {
+		return new StandardMetricsService();
+	}
+
+	@Test
+	public void getCounter() {
+		assertSame(this.service.getCounter(MetricsService.AGENTS_SPAWNED),
+				this.service.getCounter(MetricsService.AGENTS_SPAWNED));
+		this.service.getCounter(MetricsService.AGENTS_SPAWNED).add(3);
+		this.service.getCounter(MetricsService.AGENTS_KILLED).increment();
+		final Map<String, Long> values = this.service.getCounterValues();
+		assertEquals(2, values.size());
+		assertEquals(Long.valueOf(3), values.get(MetricsService.AGENTS_SPAWNED));
+		assertEquals(Long.valueOf(1), values.get(MetricsService.AGENTS_KILLED));
+	}
+
+	@Test
+	public void registerGauge() {
+		final long[] value = new long[] {5};
+		this.service.registerGauge(MetricsService.EXECUTOR_QUEUE_DEPTH, () -> value[0]);
+		assertEquals(Long.valueOf(5), this.service.getGaugeValues().get(MetricsService.EXECUTOR_QUEUE_DEPTH));
+		value[0] = 8;
+		assertEquals(Long.valueOf(8), this.service.getGaugeValues().get(MetricsService.EXECUTOR_QUEUE_DEPTH));
+		this.service.unregisterGauge(MetricsService.EXECUTOR_QUEUE_DEPTH);
+		assertTrue(this.service.getGaugeValues().isEmpty());
+	}
+
+	@Test
+	public void getHistogram() {
+		final String name = MetricsService.handlerExecutionTime(Object.class);
+		final LatencyHistogram histogram = this.service.getHistogram(name);
+		assertSame(histogram, this.service.getHistogram(name));
+		histogram.record(100);
+		histogram.record(300);
+		final LatencyHistogram.Snapshot snapshot = this.service.getHistogramSnapshots().get(name);
+		assertEquals(2, snapshot.getCount());
+		assertEquals(200, snapshot.getMean());
+		assertEquals(300, snapshot.getMax());
+	}
+
+	@Test
+	public void reset() {
+		final String name = MetricsService.spaceEmittedEvents(OpenEventSpaceSpecification.class);
+		this.service.getCounter(name).add(10);
+		this.service.getHistogram(name).record(10);
+		this.service.reset();
+		assertEquals(Long.valueOf(0), this.service.getCounterValues().get(name));
+		assertEquals(0, this.service.getHistogram(name).getCount());
+	}
+
+	@Test
+	public void spaceEventCounters() {
+		assertEquals(MetricsService.spaceEmittedEvents(OpenEventSpaceSpecification.class),
+				MetricsService.spaceEmittedEvents(OpenEventSpaceSpecification.class));
+		assertEquals("space.io.sarl.util.OpenEventSpaceSpecification.events.delivered", //$NON-NLS-1$
+				MetricsService.spaceDeliveredEvents(OpenEventSpaceSpecification.class));
+		assertEquals("space.unspecified.events.emitted", MetricsService.spaceEmittedEvents(null)); //$NON-NLS-1$
+	}
+
+}
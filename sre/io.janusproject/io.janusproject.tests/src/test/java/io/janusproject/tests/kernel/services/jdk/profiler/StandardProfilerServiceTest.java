@@ -0,0 +1,165 @@
+/*
+ * $Id$
+ * 
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ * 
+ * Copyright (C) 2014-2015 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.tests.kernel.services.jdk.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.janusproject.kernel.services.jdk.profiler.StandardProfilerService;
+import io.janusproject.services.profiler.ProfileRecord;
+import io.janusproject.services.profiler.ProfilerReportFormat;
+import io.janusproject.tests.testutils.AbstractServiceTest;
+import io.janusproject.tests.testutils.StartServiceForTest;
+
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.Event;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@StartServiceForTest
+public final class StandardProfilerServiceTest extends AbstractServiceTest<StandardProfilerService> {
+
+	@Override
+	public StandardProfilerService newService() {
+		return new StandardProfilerService(true, 1);
+	}
+
+	@Test
+	public void isProfiling() {
+		assertTrue(this.service.isProfiling());
+		assertTrue(this.service.isSampled());
+		assertFalse(new StandardProfilerService(false, 1).isSampled());
+	}
+
+	@Test
+	public void recordGuardEvaluation() {
+		this.service.recordGuardEvaluation(Agent.class, Event.class, Handler.class, "$guardEvaluator$Event", 10);
+		this.service.recordGuardEvaluation(Agent.class, Event.class, Handler.class, "$guardEvaluator$Event", 30);
+		final List<ProfileRecord> profile = this.service.getProfile();
+		assertEquals(1, profile.size());
+		final ProfileRecord record = profile.get(0);
+		assertTrue(record.isGuard());
+		assertEquals(Agent.class.getName(), record.getAgentType());
+		assertEquals(Event.class.getName(), record.getEventType());
+		assertEquals(Handler.class.getName(), record.getHandlerType());
+		assertEquals("$guardEvaluator$Event", record.getUnit());
+		assertEquals(2, record.getCount());
+		assertEquals(40, record.getTotalDuration());
+		assertEquals(20, record.getMeanDuration());
+		assertEquals(30, record.getMaxDuration());
+	}
+
+	@Test
+	public void recordBehaviorUnit() {
+		final Handler handler = new Handler();
+		final Collection<Runnable> collection = this.service.newBehaviorUnitCollection();
+		handler.$guardEvaluator$Event(null, collection, true);
+		final List<Runnable> units = new ArrayList<>(collection);
+		assertEquals(2, units.size());
+		this.service.recordBehaviorUnit(Agent.class, Event.class, Handler.class, units.get(0).getClass(), 100);
+		this.service.recordBehaviorUnit(Agent.class, Event.class, Handler.class, units.get(1).getClass(), 5);
+		this.service.recordBehaviorUnit(Agent.class, Event.class, Handler.class, units.get(1).getClass(), 5);
+		final List<ProfileRecord> profile = this.service.getProfile();
+		assertEquals(2, profile.size());
+		assertEquals("$behaviorUnit$Event$0", profile.get(0).getUnit());
+		assertEquals(100, profile.get(0).getTotalDuration());
+		assertFalse(profile.get(0).isGuard());
+		assertEquals(Handler.class.getName(), profile.get(0).getHandlerType());
+		assertTrue(profile.get(0).getLocation().startsWith("StandardProfilerServiceTest.java:"));
+		assertEquals("$behaviorUnit$Event$1", profile.get(1).getUnit());
+		assertEquals(2, profile.get(1).getCount());
+	}
+
+	@Test
+	public void recordBehaviorUnit_falseGuard() {
+		final Handler handler = new Handler();
+		final Collection<Runnable> collection = this.service.newBehaviorUnitCollection();
+		handler.$guardEvaluator$Event(null, collection, false);
+		assertEquals(1, collection.size());
+		this.service.recordBehaviorUnit(Agent.class, Event.class, Handler.class, collection.iterator().next().getClass(), 10);
+		final List<ProfileRecord> profile = this.service.getProfile();
+		assertEquals(1, profile.size());
+		assertEquals("$behaviorUnit$Event$1", profile.get(0).getUnit());
+	}
+
+	@Test
+	public void recordBehaviorUnit_unknownSite() {
+		final Runnable unit = () -> { };
+		this.service.recordBehaviorUnit(Agent.class, Event.class, Handler.class, unit.getClass(), 10);
+		final List<ProfileRecord> profile = this.service.getProfile();
+		assertEquals(1, profile.size());
+		assertEquals(unit.getClass().getName(), profile.get(0).getUnit());
+		assertNull(profile.get(0).getLocation());
+	}
+
+	@Test
+	public void writeReport_csv() throws Exception {
+		this.service.recordGuardEvaluation(Agent.class, Event.class, Handler.class, "$guardEvaluator$Event", 10);
+		final StringBuilder report = new StringBuilder();
+		this.service.writeReport(report, ProfilerReportFormat.CSV);
+		assertEquals("agent,event,handler,unit,location,kind,count,total_ns,mean_ns,max_ns\n"
+				+ Agent.class.getName() + "," + Event.class.getName() + "," + Handler.class.getName()
+				+ ",$guardEvaluator$Event,,guard,1,10,10,10\n", report.toString());
+	}
+
+	@Test
+	public void writeReport_flameGraph() throws Exception {
+		this.service.recordGuardEvaluation(Agent.class, Event.class, Handler.class, "$guardEvaluator$Event", 10);
+		final StringBuilder report = new StringBuilder();
+		this.service.writeReport(report, ProfilerReportFormat.FLAME_GRAPH);
+		assertEquals(Agent.class.getName() + ";" + Event.class.getName() + ";" + Handler.class.getName()
+				+ ";$guardEvaluator$Event 10\n", report.toString());
+	}
+
+	/** Mimic the code that is generated by the SARL compiler for the behavior units.
+	 */
+	public static class Handler {
+
+		private void $behaviorUnit$Event$0(Event occurrence) {
+			//
+		}
+
+		private void $behaviorUnit$Event$1(Event occurrence) {
+			//
+		}
+
+		void $guardEvaluator$Event(Event occurrence, Collection<Runnable> ___SARLlocal_runnableCollection, boolean guard) {
+			if (guard) {
+				___SARLlocal_runnableCollection.add(() -> $behaviorUnit$Event$0(occurrence));
+			}
+			___SARLlocal_runnableCollection.add(() -> $behaviorUnit$Event$1(occurrence));
+		}
+
+	}
+
+}
@@ -247,6 +247,19 @@ public class StandardSpawnServiceTest extends AbstractDependentServiceTest<Stand
 		assertContainsCollection(((AgentSpawned) argument5.getValue()).agentIdentifiers, agentIds);
 	}
 
+	@Test
+	public void spawn_1agent_identifierSet() throws Exception {
+		List<UUID> agentIds = this.service.spawn(1, this.parentID, this.agentContext,
+				null, Agent.class, "a", "b"); //$NON-NLS-1$//$NON-NLS-2$
+		ArgumentCaptor<UUID> argument0 = ArgumentCaptor.forClass(UUID.class);
+		ArgumentCaptor<Event> argument1 = ArgumentCaptor.forClass(Event.class);
+		Mockito.verify(this.defaultSpace, new Times(1)).emit(argument0.capture(), argument1.capture());
+		AgentSpawned event = (AgentSpawned) argument1.getValue();
+		assertTrue(event.agentIdentifiers instanceof Set);
+		assertTrue(event.agentIdentifiers.contains(agentIds.get(0)));
+		assertEquals(agentIds.get(0), event.agentID);
+	}
+
 	@AvoidServiceStartForTest
 	@Test
 	public void canKillAgent_oneagentinsideinnercontext() throws Exception {
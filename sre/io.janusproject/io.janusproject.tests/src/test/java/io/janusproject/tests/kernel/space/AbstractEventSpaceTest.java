@@ -495,4 +495,15 @@ public class AbstractEventSpaceTest extends AbstractJanusTest {
 		}
 	}
 
+	@Test
+	public void emitUUIDEventScope_noSource() throws Exception {
+		UUID id = UUID.randomUUID();
+		Event event = Mockito.mock(Event.class);
+		Mockito.doCallRealMethod().when(event).setSource(Mockito.any());
+		Mockito.doCallRealMethod().when(event).getSource();
+		this.space.emit(id, event, null);
+
+		assertEquals(new Address(this.spaceId, id), event.getSource());
+	}
+
 }
@@ -0,0 +1,96 @@
+/*
+ * $Id$
+ * 
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ * 
+ * Copyright (C) 2014-2015 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.tests.services.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.janusproject.services.metrics.LatencyHistogram;
+import io.janusproject.tests.testutils.AbstractJanusTest;
+
+import io.sarl.tests.api.Nullable;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class LatencyHistogramTest extends AbstractJanusTest {
+
+	@Nullable
+	private LatencyHistogram histogram;
+
+	@Before
+	public void setUp() {
+		this.histogram = new LatencyHistogram();
+	}
+
+	@Test
+	public void getSnapshot_empty() {
+		final LatencyHistogram.Snapshot snapshot = this.histogram.getSnapshot();
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getMean());
+		assertEquals(0, snapshot.getMax());
+		assertEquals(0, snapshot.getP99());
+	}
+
+	@Test
+	public void getSnapshot_smallValues() {
+		for (int i = 1; i <= 4; ++i) {
+			this.histogram.record(i);
+		}
+		final LatencyHistogram.Snapshot snapshot = this.histogram.getSnapshot();
+		assertEquals(4, snapshot.getCount());
+		assertEquals(2, snapshot.getP50());
+		assertEquals(4, snapshot.getP99());
+		assertEquals(4, snapshot.getMax());
+	}
+
+	@Test
+	public void getSnapshot_relativeError() {
+		for (int i = 1; i <= 1000; ++i) {
+			this.histogram.record(i * 1000L);
+		}
+		final LatencyHistogram.Snapshot snapshot = this.histogram.getSnapshot();
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(1000000, snapshot.getMax());
+		assertEpsilon(500000, snapshot.getP50());
+		assertEpsilon(900000, snapshot.getP90());
+		assertEpsilon(990000, snapshot.getP99());
+	}
+
+	private static void assertEpsilon(long expected, long actual) {
+		final double error = Math.abs(actual - expected) / (double) expected;
+		assertTrue("Expected " + expected + " but was " + actual, error <= 1. / LatencyHistogram.SUB_BUCKETS);
+	}
+
+	@Test
+	public void record_negative() {
+		this.histogram.record(-5);
+		assertEquals(1, this.histogram.getCount());
+		assertEquals(0, this.histogram.getSnapshot().getMax());
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * $Id$
+ * 
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ * 
+ * Copyright (C) 2014-2015 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.tests.util;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+
+import io.janusproject.tests.testutils.AbstractJanusTest;
+import io.janusproject.util.ClassFileReader;
+import org.junit.Test;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings({ "javadoc", "static-method" })
+public class ClassFileReaderTest extends AbstractJanusTest {
+
+	private static ClassFileReader.Method getMethod(ClassFileReader classFile, String name) {
+		for (final ClassFileReader.Method method : classFile.getMethods()) {
+			if (name.equals(method.getName())) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void read_generatedType() {
+		final Object proxy = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Runnable.class},
+				(instance, method, args) -> null);
+		assertNull(ClassFileReader.read(proxy.getClass()));
+	}
+
+	@Test
+	public void getSourceFile() {
+		final ClassFileReader classFile = ClassFileReader.read(getClass());
+		assertNotNull(classFile);
+		assertEquals("ClassFileReaderTest.java", classFile.getSourceFile()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void getMethods() {
+		final ClassFileReader classFile = ClassFileReader.read(getClass());
+		final ClassFileReader.Method method = getMethod(classFile, "getMethods"); //$NON-NLS-1$
+		assertNotNull(method);
+		assertNotNull(method.getCode());
+		assertTrue(method.getLines().length > 0);
+		assertEquals(method.getLines()[0], method.getLine(0));
+	}
+
+	@Test
+	public void getInstructionLength() {
+		final ClassFileReader classFile = ClassFileReader.read(getClass());
+		final byte[] code = getMethod(classFile, "getMethod").getCode(); //$NON-NLS-1$
+		int pc = 0;
+		while (pc < code.length) {
+			pc += ClassFileReader.getInstructionLength(code, pc);
+		}
+		assertEquals(code.length, pc);
+	}
+
+	@Test
+	public void getBootstrapMethods() {
+		final ClassFileReader classFile = ClassFileReader.read(getClass());
+		// The lambda of read_generatedType is created by an invokedynamic instruction
+		assertTrue(classFile.getBootstrapMethods().length > 0);
+	}
+
+	@Test
+	public void getMethodName() {
+		final ClassFileReader classFile = ClassFileReader.read(getClass());
+		final byte[] code = getMethod(classFile, "getMethodName").getCode(); //$NON-NLS-1$
+		boolean found = false;
+		int pc = 0;
+		while (pc < code.length) {
+			// invokestatic
+			if ((code[pc] & 0xFF) == 0xB8
+					&& "read".equals(classFile.getMethodName(ClassFileReader.readUnsignedShort(code, pc + 1)))) { //$NON-NLS-1$
+				found = true;
+			}
+			pc += ClassFileReader.getInstructionLength(code, pc);
+		}
+		assertTrue(found);
+	}
+
+}
@@ -20,10 +20,16 @@
 package io.janusproject.tests.util;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 import io.janusproject.JanusConfig;
@@ -158,4 +164,53 @@ public class LoggerCreatorTest extends AbstractJanusTest {
 		assertEquals(expectedLevel, logger.getLevel());
 	}
 
+	@Test
+	public void createModuleLogger() {
+		Logger parent = LoggerCreator.createPlatformLogger();
+		String name = UUID.randomUUID().toString();
+		Logger logger = LoggerCreator.createModuleLogger(name, parent);
+		assertSame(parent, logger.getParent());
+		assertSame(logger, LogManager.getLogManager().getLogger(name));
+	}
+
+	@Test
+	public void createAgentLogger_notRegistered() {
+		Logger parent = LoggerCreator.createPlatformLogger();
+		String name = UUID.randomUUID().toString();
+		Logger logger = LoggerCreator.createAgentLogger(name, parent);
+		assertEquals(name, logger.getName());
+		assertSame(parent, logger.getParent());
+		assertNull(LogManager.getLogManager().getLogger(name));
+	}
+
+	@Test
+	public void createAgentLogger_parentHandlers() {
+		Logger parent = LoggerCreator.createPlatformLogger();
+		for (Handler handler : parent.getHandlers()) {
+			parent.removeHandler(handler);
+		}
+		List<LogRecord> records = new ArrayList<>();
+		parent.addHandler(new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				records.add(record);
+			}
+			@Override
+			public void flush() {
+				//
+			}
+			@Override
+			public void close() {
+				//
+			}
+		});
+		String name = UUID.randomUUID().toString();
+		Logger logger = LoggerCreator.createAgentLogger(name, parent);
+		logger.setLevel(Level.ALL);
+		logger.info("hello"); //$NON-NLS-1$
+		assertEquals(1, records.size());
+		assertEquals("hello", records.get(0).getMessage()); //$NON-NLS-1$
+		assertEquals(name, records.get(0).getLoggerName());
+	}
+
 }
@@ -0,0 +1,158 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.sarl.lang.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Injector;
+import org.apache.log4j.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sarl.lang.SARLStandaloneSetup;
+import io.sarl.lang.compiler.batch.SarlBatchCompiler;
+
+/**
+ * Benchmark of the SARL batch compiler on synthetic projects of different sizes.
+ *
+ * <p>Each invocation compiles the full corpus from scratch. If the system property
+ * {@value #REPORT_FOLDER_PROPERTY} is set, the compiler writes its profiling report,
+ * with the durations of the compilation phases, into the given folder for each invocation.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class BatchCompilerBenchmark {
+
+	/** Name of the system property that contains the folder in which the profiling reports are written.
+	 */
+	public static final String REPORT_FOLDER_PROPERTY = "io.sarl.lang.benchmarks.reports";
+
+	/** Number of SARL files in the compiled project.
+	 */
+	@Param({"100", "1000", "10000"})
+	public int files;
+
+	private File root;
+
+	private Injector injector;
+
+	private int invocation;
+
+	/** Generate the corpus and initialize the injector of the compiler.
+	 *
+	 * @throws IOException if the corpus cannot be generated.
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		this.root = Files.createTempDirectory("sarlbench").toFile();
+		final SarlProjectGenerator generator = new SarlProjectGenerator();
+		generator.setFiles(this.files);
+		generator.generate(getSourceFolder(this.root));
+		this.injector = SARLStandaloneSetup.doSetup();
+		this.invocation = 0;
+	}
+
+	/** Delete the corpus.
+	 *
+	 * @throws IOException if the corpus cannot be deleted.
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		SarlProjectGenerator.delete(this.root);
+	}
+
+	/** Compile the corpus.
+	 *
+	 * @return the success state of the compilation.
+	 * @throws IOException if the output folders cannot be cleaned.
+	 */
+	@Benchmark
+	public boolean compile() throws IOException {
+		final SarlBatchCompiler compiler = createCompiler(this.injector, this.root);
+		final String reportFolder = System.getProperty(REPORT_FOLDER_PROPERTY);
+		if (reportFolder != null && !reportFolder.isEmpty()) {
+			++this.invocation;
+			compiler.setProfilingReportFile(new File(reportFolder,
+					"compile-" + this.files + "-" + this.invocation + ".json")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		return compiler.compile();
+	}
+
+	/** Replies the folder that contains the SARL sources of the corpus.
+	 *
+	 * @param root the root folder of the corpus.
+	 * @return the source folder.
+	 */
+	static File getSourceFolder(File root) {
+		return new File(root, "src"); //$NON-NLS-1$
+	}
+
+	/** Create a batch compiler that is configured for compiling the corpus from scratch.
+	 * The output folders of a previous compilation are deleted.
+	 *
+	 * @param injector the injector of the SARL compiler.
+	 * @param root the root folder of the corpus.
+	 * @return the compiler.
+	 * @throws IOException if the output folders cannot be cleaned.
+	 */
+	static SarlBatchCompiler createCompiler(Injector injector, File root) throws IOException {
+		final File output = new File(root, "src-gen"); //$NON-NLS-1$
+		final File temp = new File(root, "build"); //$NON-NLS-1$
+		SarlProjectGenerator.delete(output);
+		SarlProjectGenerator.delete(temp);
+		final SarlBatchCompiler compiler = injector.getInstance(SarlBatchCompiler.class);
+		compiler.getLogger().setLevel(Level.ERROR);
+		compiler.setBasePath(root.getAbsolutePath());
+		compiler.setSourcePath(getSourceFolder(root).getAbsolutePath());
+		compiler.setOutputPath(output);
+		compiler.setTempDirectory(temp);
+		compiler.setClassPath(System.getProperty("java.class.path")); //$NON-NLS-1$
+		compiler.setWriteTraceFiles(false);
+		compiler.setWriteStorageFiles(false);
+		return compiler;
+	}
+
+}
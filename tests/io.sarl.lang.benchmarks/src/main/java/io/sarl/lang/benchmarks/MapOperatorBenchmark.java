@@ -0,0 +1,160 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.sarl.lang.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sarl.lang.scoping.batch.SARLMapExtensions;
+import io.sarl.lang.scoping.batch.SARLPersistentMapExtensions;
+
+/**
+ * Benchmark of the map operators that are used by the SARL programs for updating the state of the agents,
+ * e.g. {@code state = state + (key -> value)} within a loop.
+ *
+ * <p>The operators of {@link SARLMapExtensions}, which create views on their operands, are compared to
+ * the ones of {@link SARLPersistentMapExtensions}, which create persistent maps.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapOperatorBenchmark {
+
+	/** Implementation of the operators: {@code view} for {@link SARLMapExtensions},
+	 * and {@code persistent} for {@link SARLPersistentMapExtensions}.
+	 */
+	@Param({"view", "persistent"})
+	public String operators;
+
+	/** Number of entries in the initial state.
+	 */
+	@Param({"10", "1000"})
+	public int entries;
+
+	/** Number of updates of the state in a loop.
+	 */
+	@Param({"10", "100", "1000"})
+	public int updates;
+
+	private Map<String, Integer> initialState;
+
+	private String[] keys;
+
+	private boolean persistent;
+
+	/** Create the initial state of the agent.
+	 */
+	@Setup
+	public void setUp() {
+		this.persistent = "persistent".equals(this.operators); //$NON-NLS-1$
+		this.initialState = new HashMap<>();
+		for (int i = 0; i < this.entries; ++i) {
+			this.initialState.put(key(i), Integer.valueOf(i));
+		}
+		this.keys = new String[this.updates];
+		for (int i = 0; i < this.updates; ++i) {
+			// Half of the updates are replacing an entry of the initial state.
+			this.keys[i] = (i % 2 == 0) ? key(i % this.entries) : key(this.entries + i);
+		}
+	}
+
+	private static String key(int index) {
+		return "attr" + index; //$NON-NLS-1$
+	}
+
+	private Map<String, Integer> plus(Map<String, Integer> state, String key, Integer value) {
+		final Pair<String, Integer> entry = new Pair<>(key, value);
+		if (this.persistent) {
+			return SARLPersistentMapExtensions.operator_plus(state, entry);
+		}
+		return SARLMapExtensions.operator_plus(state, entry);
+	}
+
+	private Map<String, Integer> minus(Map<String, Integer> state, String key) {
+		if (this.persistent) {
+			return SARLPersistentMapExtensions.operator_minus(state, key);
+		}
+		return SARLMapExtensions.operator_minus(state, key);
+	}
+
+	/** Update the state in a loop, and read the updated attribute after each update.
+	 *
+	 * @return the sum of the read values.
+	 */
+	@Benchmark
+	public long updateAndRead() {
+		Map<String, Integer> state = this.initialState;
+		long sum = 0;
+		for (int i = 0; i < this.updates; ++i) {
+			final String key = this.keys[i];
+			state = plus(state, key, Integer.valueOf(i));
+			sum += state.get(key).intValue();
+		}
+		return sum + state.size();
+	}
+
+	/** Add and remove attributes of the state in a loop, and iterate on the final state.
+	 *
+	 * @return the sum of the values of the final state.
+	 */
+	@Benchmark
+	public long addRemoveAndIterate() {
+		Map<String, Integer> state = this.initialState;
+		for (int i = 0; i < this.updates; ++i) {
+			final String key = this.keys[i];
+			state = plus(state, key, Integer.valueOf(i));
+			if (i % 4 == 3) {
+				state = minus(state, this.keys[i - 1]);
+			}
+		}
+		long sum = 0;
+		for (final Integer value : state.values()) {
+			sum += value.intValue();
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.sarl.lang.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Provider;
+
+import com.google.inject.Injector;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+
+import io.sarl.lang.SARLStandaloneSetup;
+import io.sarl.lang.compiler.batch.SarlBatchCompiler;
+
+/**
+ * Measurement of the memory footprint of the resource set that is filled by the SARL batch compiler
+ * on synthetic projects of different sizes.
+ *
+ * <p>The footprint is the difference between the used heap memory when the resource set is
+ * still referenced after the compilation, and the used heap memory when it is released.
+ * The results are written in the JSON format of JMH (in bytes, with the mode {@code footprint})
+ * in order to be compared with the same tools as the timings.
+ *
+ * <p>The arguments are the output JSON file, followed by the numbers of files to compile.
+ * By default, the projects contain 100, 1,000 and 10,000 files.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public final class ResourceSetFootprint {
+
+	private static final int[] DEFAULT_SIZES = {100, 1000, 10000};
+
+	private static final int GC_PASSES = 5;
+
+	private static final long GC_PAUSE = 100;
+
+	private ResourceSetFootprint() {
+		//
+	}
+
+	/** Measure the memory footprint of the resource set for a project with the given number of files.
+	 *
+	 * @param injector the injector of the SARL compiler.
+	 * @param files the number of files in the project.
+	 * @return the footprint in bytes.
+	 * @throws IOException if the corpus cannot be generated.
+	 * @throws InterruptedException if the measurement is interrupted.
+	 */
+	public static long measure(Injector injector, int files) throws IOException, InterruptedException {
+		final File root = Files.createTempDirectory("sarlbench").toFile(); //$NON-NLS-1$
+		try {
+			final SarlProjectGenerator generator = new SarlProjectGenerator();
+			generator.setFiles(files);
+			generator.generate(BatchCompilerBenchmark.getSourceFolder(root));
+			final CapturingProvider provider = new CapturingProvider(injector.getProvider(ResourceSet.class));
+			SarlBatchCompiler compiler = BatchCompilerBenchmark.createCompiler(injector, root);
+			compiler.setResourceSetProvider(provider);
+			compiler.compile();
+			compiler = null;
+			final long retained = usedHeap();
+			provider.release();
+			final long released = usedHeap();
+			return Math.max(0, retained - released);
+		} finally {
+			SarlProjectGenerator.delete(root);
+		}
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		final Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < GC_PASSES; ++i) {
+			System.gc();
+			Thread.sleep(GC_PAUSE);
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	/** Run the measurements.
+	 *
+	 * @param args the output file and the numbers of files.
+	 * @throws Exception if the measurement cannot be done.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("usage: ResourceSetFootprint <output.json> [files...]"); //$NON-NLS-1$
+			System.exit(255);
+			return;
+		}
+		final int[] sizes;
+		if (args.length > 1) {
+			sizes = new int[args.length - 1];
+			for (int i = 1; i < args.length; ++i) {
+				sizes[i - 1] = Integer.parseInt(args[i]);
+			}
+		} else {
+			sizes = DEFAULT_SIZES;
+		}
+		final Injector injector = SARLStandaloneSetup.doSetup();
+		final List<String> results = new ArrayList<>();
+		for (final int size : sizes) {
+			final long footprint = measure(injector, size);
+			System.out.println(size + " files: " + footprint + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
+			results.add("  {\"benchmark\": \"" + ResourceSetFootprint.class.getName() //$NON-NLS-1$
+					+ ".resourceSet\", \"mode\": \"footprint\", \"params\": {\"files\": \"" + size //$NON-NLS-1$
+					+ "\"}, \"primaryMetric\": {\"score\": " + footprint //$NON-NLS-1$
+					+ ", \"scoreUnit\": \"B\"}}"); //$NON-NLS-1$
+		}
+		try (PrintWriter writer = new PrintWriter(new File(args[0]), StandardCharsets.UTF_8.name())) {
+			writer.println("["); //$NON-NLS-1$
+			writer.println(String.join(",\n", results)); //$NON-NLS-1$
+			writer.println("]"); //$NON-NLS-1$
+		}
+	}
+
+	/** Provider of resource sets that keeps a reference to the last provided resource set.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 0.8
+	 */
+	private static class CapturingProvider implements Provider<ResourceSet> {
+
+		private final Provider<ResourceSet> delegate;
+
+		private ResourceSet resourceSet;
+
+		CapturingProvider(Provider<ResourceSet> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public ResourceSet get() {
+			this.resourceSet = this.delegate.get();
+			return this.resourceSet;
+		}
+
+		/** Release the reference to the resource set.
+		 */
+		public void release() {
+			this.resourceSet = null;
+		}
+
+	}
+
+}
@@ -0,0 +1,457 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.sarl.lang.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Generator of synthetic SARL projects that are used as corpus by the compiler benchmarks.
+ *
+ * <p>The generated files are distributed among events, capacities, skills, behaviors and agents.
+ * The behaviors and the agents use capacities and handle events that may be defined in other packages.
+ * The number of these cross-references and the number of statements within the generated blocks
+ * of code are configurable. The generation is deterministic for a given seed in order to obtain
+ * benchmark results that are comparable from one commit to another.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+public class SarlProjectGenerator {
+
+	/** Name of the root package of the generated types.
+	 */
+	public static final String ROOT_PACKAGE = "io.sarl.lang.benchmarks.corpus";
+
+	/** Default number of cross-references per behavior and agent.
+	 */
+	public static final int DEFAULT_CROSS_REFERENCES = 3;
+
+	/** Default number of statements per generated block of code.
+	 */
+	public static final int DEFAULT_EXPRESSION_DENSITY = 5;
+
+	/** Default number of files per package.
+	 */
+	public static final int DEFAULT_FILES_PER_PACKAGE = 100;
+
+	/** Default seed of the random generator.
+	 */
+	public static final long DEFAULT_SEED = 0x5A7L;
+
+	private static final String FILE_EXTENSION = ".sarl";
+
+	private static final int KIND_COUNT = 5;
+
+	private static final int EVENT = 0;
+
+	private static final int CAPACITY = 1;
+
+	private static final int SKILL = 2;
+
+	private static final int BEHAVIOR = 3;
+
+	private static final int AGENT = 4;
+
+	private static final String[] TYPE_PREFIXES = {"E", "C", "S", "B", "A"};
+
+	private static final String[] OPERATORS = {"+", "-", "*"};
+
+	private static final int ACTIONS_PER_CAPACITY = 2;
+
+	private int files = 100;
+
+	private int crossReferences = DEFAULT_CROSS_REFERENCES;
+
+	private int expressionDensity = DEFAULT_EXPRESSION_DENSITY;
+
+	private int filesPerPackage = DEFAULT_FILES_PER_PACKAGE;
+
+	private long seed = DEFAULT_SEED;
+
+	/** Replies the number of files to generate.
+	 *
+	 * @return the number of files.
+	 */
+	public int getFiles() {
+		return this.files;
+	}
+
+	/** Change the number of files to generate.
+	 *
+	 * @param files the number of files.
+	 */
+	public void setFiles(int files) {
+		this.files = Math.max(0, files);
+	}
+
+	/** Replies the number of references to other types from each behavior and agent.
+	 *
+	 * @return the number of cross-references.
+	 */
+	public int getCrossReferences() {
+		return this.crossReferences;
+	}
+
+	/** Change the number of references to other types from each behavior and agent.
+	 *
+	 * @param references the number of cross-references.
+	 */
+	public void setCrossReferences(int references) {
+		this.crossReferences = Math.max(0, references);
+	}
+
+	/** Replies the number of statements within each generated block of code.
+	 *
+	 * @return the expression density.
+	 */
+	public int getExpressionDensity() {
+		return this.expressionDensity;
+	}
+
+	/** Change the number of statements within each generated block of code.
+	 *
+	 * @param density the expression density.
+	 */
+	public void setExpressionDensity(int density) {
+		this.expressionDensity = Math.max(1, density);
+	}
+
+	/** Replies the maximum number of files in a package.
+	 *
+	 * @return the number of files per package.
+	 */
+	public int getFilesPerPackage() {
+		return this.filesPerPackage;
+	}
+
+	/** Change the maximum number of files in a package.
+	 *
+	 * @param files the number of files per package.
+	 */
+	public void setFilesPerPackage(int files) {
+		this.filesPerPackage = Math.max(1, files);
+	}
+
+	/** Replies the seed of the random generator.
+	 *
+	 * @return the seed.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/** Change the seed of the random generator.
+	 *
+	 * @param seed the seed.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/** Generate the SARL files into the given folder.
+	 *
+	 * @param folder the root folder of the sources.
+	 * @return the generated files.
+	 * @throws IOException if a file cannot be written.
+	 */
+	public List<File> generate(File folder) throws IOException {
+		final Random random = new Random(this.seed);
+		final List<File> generated = new ArrayList<>(this.files);
+		for (int i = 0; i < this.files; ++i) {
+			final int kind = i % KIND_COUNT;
+			final int number = i / KIND_COUNT;
+			final String content;
+			switch (kind) {
+			case EVENT:
+				content = generateEvent(number);
+				break;
+			case CAPACITY:
+				content = generateCapacity(number);
+				break;
+			case SKILL:
+				content = generateSkill(number, random);
+				break;
+			case BEHAVIOR:
+				content = generateBehavior(number, random);
+				break;
+			default:
+				content = generateAgent(number, random);
+				break;
+			}
+			final File packageFolder = new File(folder, getPackageName(i).replace('.', File.separatorChar));
+			packageFolder.mkdirs();
+			final File file = new File(packageFolder, TYPE_PREFIXES[kind] + number + FILE_EXTENSION);
+			Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+			generated.add(file);
+		}
+		return generated;
+	}
+
+	private String getPackageName(int fileIndex) {
+		return ROOT_PACKAGE + ".p" + (fileIndex / this.filesPerPackage);
+	}
+
+	private String getQualifiedName(int kind, int number) {
+		return getPackageName(number * KIND_COUNT + kind) + "." + TYPE_PREFIXES[kind] + number;
+	}
+
+	private int count(int kind) {
+		return Math.max(0, (this.files - kind + KIND_COUNT - 1) / KIND_COUNT);
+	}
+
+	private static String getActionName(int capacity, int action) {
+		return "c" + capacity + "action" + action;
+	}
+
+	private StringBuilder header(int kind, int number, Set<String> imports) {
+		final StringBuilder content = new StringBuilder();
+		content.append("package ").append(getPackageName(number * KIND_COUNT + kind)).append("\n\n");
+		for (final String imported : imports) {
+			content.append("import ").append(imported).append("\n");
+		}
+		if (!imports.isEmpty()) {
+			content.append("\n");
+		}
+		return content;
+	}
+
+	private String generateEvent(int number) {
+		final StringBuilder content = header(EVENT, number, new TreeSet<>());
+		content.append("event E").append(number).append(" {\n");
+		content.append("\tvar value : int\n");
+		content.append("}\n");
+		return content.toString();
+	}
+
+	private String generateCapacity(int number) {
+		final StringBuilder content = header(CAPACITY, number, new TreeSet<>());
+		content.append("capacity C").append(number).append(" {\n");
+		for (int i = 0; i < ACTIONS_PER_CAPACITY; ++i) {
+			content.append("\tdef ").append(getActionName(number, i)).append("(value : int) : int\n");
+		}
+		content.append("}\n");
+		return content.toString();
+	}
+
+	private String generateSkill(int number, Random random) {
+		final Set<String> imports = new TreeSet<>();
+		imports.add(getQualifiedName(CAPACITY, number));
+		final int event = pick(random, count(EVENT));
+		if (event >= 0) {
+			imports.add(getQualifiedName(EVENT, event));
+		}
+		final StringBuilder content = header(SKILL, number, imports);
+		content.append("skill S").append(number).append(" implements C").append(number).append(" {\n\n");
+		content.append("\tvar counter : int\n");
+		for (int i = 0; i < ACTIONS_PER_CAPACITY; ++i) {
+			content.append("\n\tdef ").append(getActionName(number, i)).append("(value : int) : int {\n");
+			content.append("\t\tthis.counter = this.counter + 1\n");
+			if (event >= 0) {
+				content.append("\t\tval evt = new E").append(event).append("\n");
+				content.append("\t\tevt.value = value\n");
+				generateBlock(content, random, "evt.value", false);
+			} else {
+				generateBlock(content, random, "value", false);
+			}
+			content.append("\t}\n");
+		}
+		content.append("\n}\n");
+		return content.toString();
+	}
+
+	private String generateBehavior(int number, Random random) {
+		final int[] capacities = pickAll(random, Math.min(count(CAPACITY), count(SKILL)));
+		final int[] events = pickAll(random, count(EVENT));
+		final Set<String> imports = new TreeSet<>();
+		addImports(imports, CAPACITY, capacities);
+		addImports(imports, EVENT, events);
+		final StringBuilder content = header(BEHAVIOR, number, imports);
+		content.append("behavior B").append(number).append(" {\n\n");
+		content.append("\tvar last : int\n");
+		generateUses(content, capacities);
+		generateHandlers(content, random, capacities, events);
+		content.append("\n\tdef compute(value : int) : int {\n");
+		generateBlock(content, random, "value", false);
+		content.append("\t}\n\n}\n");
+		return content.toString();
+	}
+
+	private String generateAgent(int number, Random random) {
+		final int[] capacities = pickAll(random, Math.min(count(CAPACITY), count(SKILL)));
+		final int[] events = pickAll(random, count(EVENT));
+		final Set<String> imports = new TreeSet<>();
+		addImports(imports, CAPACITY, capacities);
+		addImports(imports, SKILL, capacities);
+		addImports(imports, EVENT, events);
+		final StringBuilder content = header(AGENT, number, imports);
+		content.append("agent A").append(number).append(" {\n\n");
+		content.append("\tvar last : int\n");
+		generateUses(content, capacities);
+		content.append("\n\tdef installSkills {\n");
+		for (final int capacity : capacities) {
+			content.append("\t\tsetSkill(new S").append(capacity).append(")\n");
+		}
+		content.append("\t}\n");
+		generateHandlers(content, random, capacities, events);
+		content.append("\n}\n");
+		return content.toString();
+	}
+
+	private void addImports(Set<String> imports, int kind, int[] numbers) {
+		for (final int number : numbers) {
+			imports.add(getQualifiedName(kind, number));
+		}
+	}
+
+	private static void generateUses(StringBuilder content, int[] capacities) {
+		if (capacities.length > 0) {
+			content.append("\n\tuses ");
+			for (int i = 0; i < capacities.length; ++i) {
+				if (i > 0) {
+					content.append(", ");
+				}
+				content.append("C").append(capacities[i]);
+			}
+			content.append("\n");
+		}
+	}
+
+	private void generateHandlers(StringBuilder content, Random random, int[] capacities, int[] events) {
+		for (final int event : events) {
+			content.append("\n\ton E").append(event).append(" [occurrence.value >= 0] {\n");
+			content.append("\t\tvar input = occurrence.value\n");
+			for (final int capacity : capacities) {
+				content.append("\t\tinput = ").append(getActionName(capacity, random.nextInt(ACTIONS_PER_CAPACITY)))
+					.append("(input)\n");
+			}
+			generateBlock(content, random, "input", true);
+			content.append("\t}\n");
+		}
+	}
+
+	/** Generate a block of code that starts from the given value. The last computed value is returned, or
+	 * stored into the field {@code last} if the block is the body of an event handler.
+	 */
+	private void generateBlock(StringBuilder content, Random random, String input, boolean isHandler) {
+		String previous = input;
+		for (int i = 0; i < this.expressionDensity; ++i) {
+			final String variable = "v" + i;
+			switch (random.nextInt(3)) {
+			case 0:
+				content.append("\t\tval ").append(variable).append(" = ").append(previous)
+					.append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)]).append(' ')
+					.append(random.nextInt(100) + 1).append("\n");
+				break;
+			case 1:
+				content.append("\t\tval ").append(variable).append(" = if (").append(previous).append(" % 2 == 0) ")
+					.append(previous).append(" / 2 else ").append(previous).append(" * 3 + 1\n");
+				break;
+			default:
+				content.append("\t\tvar ").append(variable).append(" = ").append(previous).append("\n");
+				content.append("\t\tfor (i : 1 .. ").append(random.nextInt(5) + 1).append(") {\n");
+				content.append("\t\t\t").append(variable).append(" = ").append(variable).append(" + i\n");
+				content.append("\t\t}\n");
+				break;
+			}
+			previous = variable;
+		}
+		if (isHandler) {
+			content.append("\t\tthis.last = ").append(previous).append("\n");
+		} else {
+			content.append("\t\treturn ").append(previous).append("\n");
+		}
+	}
+
+	private static int pick(Random random, int bound) {
+		return bound > 0 ? random.nextInt(bound) : -1;
+	}
+
+	private int[] pickAll(Random random, int bound) {
+		if (bound <= 0) {
+			return new int[0];
+		}
+		final Set<Integer> numbers = new TreeSet<>();
+		final int expected = Math.min(this.crossReferences, bound);
+		while (numbers.size() < expected) {
+			numbers.add(random.nextInt(bound));
+		}
+		return numbers.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/** Delete the given folder and its content.
+	 *
+	 * @param folder the folder to delete.
+	 * @throws IOException if the folder cannot be deleted.
+	 */
+	public static void delete(File folder) throws IOException {
+		final Path root = folder.toPath();
+		if (Files.exists(root)) {
+			try (Stream<Path> paths = Files.walk(root)) {
+				paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+	}
+
+	/** Generate a corpus from the command line.
+	 *
+	 * <p>The arguments are: the output folder, the number of files, the number of cross-references,
+	 * and the expression density. Only the output folder is mandatory.
+	 *
+	 * @param args the command line arguments.
+	 * @throws IOException if a file cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("usage: SarlProjectGenerator <folder> [files] [cross-references] [expression-density]"); //$NON-NLS-1$
+			System.exit(255);
+			return;
+		}
+		final SarlProjectGenerator generator = new SarlProjectGenerator();
+		if (args.length > 1) {
+			generator.setFiles(Integer.parseInt(args[1]));
+		}
+		if (args.length > 2) {
+			generator.setCrossReferences(Integer.parseInt(args[2]));
+		}
+		if (args.length > 3) {
+			generator.setExpressionDensity(Integer.parseInt(args[3]));
+		}
+		final List<File> files = generator.generate(new File(args[0]));
+		System.out.println(files.size() + " files generated into " + args[0]); //$NON-NLS-1$
+	}
+
+}
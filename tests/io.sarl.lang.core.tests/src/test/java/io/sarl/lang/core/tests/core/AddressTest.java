@@ -16,10 +16,15 @@
 package io.sarl.lang.core.tests.core;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.UUID;
 
 import org.junit.Before;
@@ -147,4 +152,31 @@ public class AddressTest extends AbstractSarlTest {
 				this.adr.compareTo(newAdr));
 	}
 
+	/**
+	 */
+	@Test
+	public void compareTo_same() {
+		assertEquals(0, this.adr.compareTo(this.adr));
+	}
+
+	/**
+	 */
+	@Test
+	public void hashCode_serialization() throws Exception {
+		Address adr1 = new Address(new SpaceID(UUID.randomUUID(), UUID.randomUUID(), null), this.agentID);
+		int hash = adr1.hashCode();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+			oos.writeObject(adr1);
+		}
+		Address adr2;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+			adr2 = (Address) ois.readObject();
+		}
+		assertNotSame(adr1, adr2);
+		assertEquals(adr1, adr2);
+		assertEquals(hash, adr2.hashCode());
+		assertEquals(adr1.getSpaceID().hashCode(), adr2.getSpaceID().hashCode());
+	}
+
 }
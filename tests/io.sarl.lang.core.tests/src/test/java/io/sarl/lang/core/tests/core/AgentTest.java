@@ -213,6 +213,21 @@ public class AgentTest extends AbstractSarlTest {
 		assertNoSkill(Skill2.class);
 	}
 
+	@Test
+	public void setSkill_withoutCapacity_sameSkillType() {
+		final AgentMock agent2 = new AgentMock(this.id);
+		final Skill s4 = new Skill4();
+		final Skill s5 = new Skill4();
+
+		this.agent.setSkill_Fake(s4);
+		agent2.setSkill_Fake(s5);
+
+		assertSkill(Capacity1.class, s4);
+		assertSkill(Capacity2.class, s4);
+		assertSame(s5, agent2.$getSkill(Capacity1.class).get());
+		assertSame(s5, agent2.$getSkill(Capacity2.class).get());
+	}
+
 	@Test
 	public void clearSkill_multipleCapacityImplementation() {
 		assertNoSkill(Capacity1.class);
@@ -0,0 +1,184 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sarl.lang.core.tests.core;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import io.sarl.lang.core.AgentTrait;
+import io.sarl.lang.core.CallerAwareSkill;
+import io.sarl.lang.core.Capacities;
+import io.sarl.lang.core.Capacity;
+import io.sarl.lang.core.Skill;
+import io.sarl.tests.api.AbstractSarlTest;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 0.8
+ */
+@SuppressWarnings("all")
+public class CapacitiesTest extends AbstractSarlTest {
+
+	private AgentTrait caller;
+
+	@Before
+	public void setUp() {
+		this.caller = Mockito.mock(AgentTrait.class);
+	}
+
+	@Test
+	public void createSkillDelegator_wrapper() throws Exception {
+		final MySkill skill = new MySkill();
+		final MyCapacity delegator = Capacities.createSkillDelegator(skill, MyCapacity.class, this.caller);
+		assertNotSame(skill, delegator);
+		assertSame(this.caller, delegator.myfunction());
+		assertNull(Capacities.getCaller());
+	}
+
+	@Test
+	public void createSkillDelegator_wrapper_cached() throws Exception {
+		final MySkill skill = new MySkill();
+		final MyCapacity delegator1 = Capacities.createSkillDelegator(skill, MyCapacity.class, this.caller);
+		final AgentTrait caller2 = Mockito.mock(AgentTrait.class);
+		final MyCapacity delegator2 = Capacities.createSkillDelegator(skill, MyCapacity.class, caller2);
+		assertNotSame(delegator1, delegator2);
+		assertSame(this.caller, delegator1.myfunction());
+		assertSame(caller2, delegator2.myfunction());
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void createSkillDelegator_noWrapper() throws Exception {
+		Capacities.createSkillDelegator(new MySkill2(), MyCapacity2.class, this.caller);
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void createSkillDelegator_noWrapper_cached() throws Exception {
+		try {
+			Capacities.createSkillDelegator(new MySkill2(), MyCapacity2.class, this.caller);
+		} catch (ClassNotFoundException exception) {
+			//
+		}
+		Capacities.createSkillDelegator(new MySkill2(), MyCapacity2.class, this.caller);
+	}
+
+	@Test
+	public void createSkillDelegatorIfPossible_wrapper() {
+		final MySkill skill = new MySkill();
+		final MyCapacity delegator = Capacities.createSkillDelegatorIfPossible(skill, MyCapacity.class, this.caller);
+		assertNotSame(skill, delegator);
+		assertSame(this.caller, delegator.myfunction());
+	}
+
+	@Test
+	public void createSkillDelegatorIfPossible_noWrapper() {
+		final MySkill2 skill = new MySkill2();
+		final MyCapacity2 delegator = Capacities.createSkillDelegatorIfPossible(skill, MyCapacity2.class, this.caller);
+		assertSame(skill, delegator);
+	}
+
+	@Test
+	public void createSkillDelegator_callerAware() throws Exception {
+		final MySkill3 skill = new MySkill3();
+		final MyCapacity delegator = Capacities.createSkillDelegator(skill, MyCapacity.class, this.caller);
+		assertNotSame(skill, delegator);
+		assertNotSame(MyCapacity.ContextAwareCapacityWrapper.class, delegator.getClass());
+		assertSame(this.caller, delegator.myfunction());
+		assertNull(Capacities.getCaller());
+	}
+
+	@Test
+	public void createSkillDelegator_callerAware_notBound() throws Exception {
+		final MySkill3 skill = new MySkill3();
+		final MyCapacity2 delegator = Capacities.createSkillDelegatorIfPossible(skill, MyCapacity2.class, this.caller);
+		assertSame(skill, delegator);
+	}
+
+	public static interface MyCapacity extends Capacity {
+
+		AgentTrait myfunction();
+
+		public static class ContextAwareCapacityWrapper<C extends MyCapacity> extends Capacity.ContextAwareCapacityWrapper<C> implements MyCapacity {
+
+			public ContextAwareCapacityWrapper(C capacity, AgentTrait caller) {
+				super(capacity, caller);
+			}
+
+			@Override
+			public AgentTrait myfunction() {
+				try {
+					ensureCallerInLocalThread();
+					return this.capacity.myfunction();
+				} finally {
+					resetCallerInLocalThread();
+				}
+			}
+
+		}
+
+	}
+
+	public static class MySkill extends Skill implements MyCapacity {
+
+		@Override
+		public AgentTrait myfunction() {
+			return Capacities.getCaller();
+		}
+
+	}
+
+	public static interface MyCapacity2 extends Capacity {
+		//
+	}
+
+	public static class MySkill2 extends Skill implements MyCapacity2 {
+		//
+	}
+
+	public static class MySkill3 extends Skill implements MyCapacity, MyCapacity2, CallerAwareSkill {
+
+		@Override
+		public AgentTrait myfunction() {
+			return null;
+		}
+
+		public AgentTrait myfunction(AgentTrait caller) {
+			return caller;
+		}
+
+		@Override
+		public <C extends Capacity> C bindCaller(Class<C> capacity, AgentTrait caller) {
+			if (capacity == MyCapacity.class) {
+				return capacity.cast((MyCapacity) () -> myfunction(caller));
+			}
+			return null;
+		}
+
+	}
+
+}
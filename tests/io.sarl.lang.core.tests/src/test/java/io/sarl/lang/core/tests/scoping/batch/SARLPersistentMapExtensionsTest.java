@@ -0,0 +1,287 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sarl.lang.core.tests.scoping.batch;
+
+import static io.sarl.lang.scoping.batch.SARLPersistentMapExtensions.operator_add;
+import static io.sarl.lang.scoping.batch.SARLPersistentMapExtensions.operator_minus;
+import static io.sarl.lang.scoping.batch.SARLPersistentMapExtensions.operator_plus;
+import static io.sarl.lang.scoping.batch.SARLPersistentMapExtensions.union;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+import com.google.common.collect.testing.MapTestSuiteBuilder;
+import com.google.common.collect.testing.TestStringMapGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.MapFeature;
+import junit.framework.TestSuite;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+import io.sarl.lang.scoping.batch.PersistentHashMap;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@RunWith(Suite.class)
+@SuiteClasses({
+	SARLPersistentMapExtensionsTest.ManualTest.class,
+	SARLPersistentMapExtensionsTest.GuavaTest.class,
+})
+public class SARLPersistentMapExtensionsTest {
+
+	public static class GuavaTest {
+		public static TestSuite suite() {
+			return MapTestSuiteBuilder
+					// The create method is called with an array of elements
+					// that should populate the collection.
+					.using(new TestStringMapGenerator() {
+						@Override
+						protected Map<String, String> create(Entry<String, String>[] source) {
+							PersistentHashMap<String, String> map = PersistentHashMap.empty();
+							for (final Entry<String, String> entry : source) {
+								map = map.plus(entry.getKey(), entry.getValue());
+							}
+							return map;
+						}
+					}).named("Guava-based PersistentHashMap tests")
+					.withFeatures(
+							MapFeature.ALLOWS_NULL_KEYS,
+							MapFeature.ALLOWS_NULL_VALUES,
+							MapFeature.ALLOWS_ANY_NULL_QUERIES,
+							CollectionFeature.ALLOWS_NULL_QUERIES,
+							CollectionFeature.SERIALIZABLE,
+							CollectionSize.ANY)
+					.createTestSuite();
+		}
+	}
+
+	public static class ManualTest {
+
+		private Map<String, String> map;
+		private String key1;
+		private String key2;
+		private String value1;
+		private String value2;
+
+		@Before
+		public void setUp() {
+			this.map = new HashMap<String, String>();
+			this.key1 = "k1"; //$NON-NLS-1$
+			this.key2 = "k2"; //$NON-NLS-1$
+			this.value1 = UUID.randomUUID().toString();
+			this.value2 = UUID.randomUUID().toString();
+			this.map.put(this.key1, this.value1);
+			this.map.put(this.key2, this.value2);
+		}
+
+		@After
+		public void tearDown() {
+			this.key1 = this.value1 = null;
+			this.key2 = this.value2 = null;
+			this.map = null;
+		}
+
+		@Test
+		public void operator_add_MapPair() {
+			String v = UUID.randomUUID().toString();
+			String o = operator_add(this.map, new Pair<String, String>("k2", v));
+			assertEquals(this.value2, o);
+			assertEquals(2, this.map.size());
+			assertEquals(v, this.map.get("k2"));
+		}
+
+		@Test
+		public void operator_plus_MapPair_0() {
+			String v = UUID.randomUUID().toString();
+			Map<String, String> o = operator_plus(this.map, new Pair<String, String>("k3", v));
+			assertTrue(o instanceof PersistentHashMap);
+			assertEquals(2, this.map.size());
+			assertEquals(3, o.size());
+			assertEquals(this.value1, o.get("k1"));
+			assertEquals(this.value2, o.get("k2"));
+			assertEquals(v, o.get("k3"));
+		}
+
+		@Test
+		public void operator_plus_MapPair_1() {
+			String v = UUID.randomUUID().toString();
+			Map<String, String> o = operator_plus(this.map, new Pair<String, String>("k2", v));
+			assertEquals(2, o.size());
+			assertEquals(this.value1, o.get("k1"));
+			assertEquals(v, o.get("k2"));
+			assertEquals(this.value2, this.map.get("k2"));
+		}
+
+		@Test
+		public void operator_plus_MapPair_snapshot() {
+			Map<String, String> o = operator_plus(this.map, new Pair<String, String>("k3", "v3"));
+			this.map.put("k4", "v4");
+			this.map.remove("k1");
+			assertEquals(3, o.size());
+			assertEquals(this.value1, o.get("k1"));
+			assertNull(o.get("k4"));
+		}
+
+		@Test
+		public void operator_plus_MapPair_chain() {
+			Map<String, String> o = this.map;
+			for (int i = 0; i < 1000; ++i) {
+				o = operator_plus(o, new Pair<String, String>("key" + i, "value" + i));
+			}
+			assertEquals(1002, o.size());
+			for (int i = 0; i < 1000; ++i) {
+				assertEquals("value" + i, o.get("key" + i));
+			}
+			for (int i = 0; i < 1000; i += 2) {
+				o = operator_minus(o, "key" + i);
+			}
+			assertEquals(502, o.size());
+			assertNull(o.get("key0"));
+			assertEquals("value1", o.get("key1"));
+		}
+
+		@Test
+		public void operator_plus_MapMap() {
+			Map<String, String> tmp = new HashMap<String, String>();
+			tmp.put("k2", "v2");
+			tmp.put("k3", "v3");
+			Map<String, String> o = operator_plus(this.map, tmp);
+			assertEquals(3, o.size());
+			assertEquals(this.value1, o.get("k1"));
+			assertEquals("v2", o.get("k2"));
+			assertEquals("v3", o.get("k3"));
+		}
+
+		@Test
+		public void operator_minus_MapPair_0() {
+			Map<String, String> o = operator_minus(this.map, new Pair<String, String>("k2", UUID.randomUUID().toString()));
+			assertEquals(2, o.size());
+			assertEquals(this.value2, o.get("k2"));
+		}
+
+		@Test
+		public void operator_minus_MapPair_1() {
+			Map<String, String> o = operator_minus(this.map, new Pair<String, String>("k2", new String(this.value2)));
+			assertEquals(1, o.size());
+			assertEquals(this.value1, o.get("k1"));
+			assertFalse(o.containsKey("k2"));
+		}
+
+		@Test
+		public void operator_minus_MapK() {
+			Map<String, String> o = operator_minus(this.map, "k1");
+			assertEquals(1, o.size());
+			assertFalse(o.containsKey("k1"));
+			assertEquals(this.value2, o.get("k2"));
+			assertEquals(2, this.map.size());
+		}
+
+		@Test
+		public void operator_minus_MapMap() {
+			Map<String, String> tmp = new HashMap<String, String>();
+			tmp.put("k1", UUID.randomUUID().toString());
+			tmp.put("k2", this.value2);
+			Map<String, String> o = operator_minus(this.map, tmp);
+			assertEquals(1, o.size());
+			assertEquals(this.value1, o.get("k1"));
+		}
+
+		@Test
+		public void operator_minus_MapIterable() {
+			Map<String, String> o = operator_minus(this.map, Arrays.asList("k1", "k3"));
+			assertEquals(1, o.size());
+			assertEquals(this.value2, o.get("k2"));
+		}
+
+		@Test
+		public void union_MapMap() {
+			Map<String, String> tmp = new HashMap<String, String>();
+			tmp.put("k1", "v1");
+			Map<String, String> o = union(this.map, tmp);
+			assertEquals(2, o.size());
+			assertEquals("v1", o.get("k1"));
+			assertEquals(this.value2, o.get("k2"));
+		}
+
+		@Test
+		public void plus_sameEntry() {
+			PersistentHashMap<String, String> o = PersistentHashMap.copyOf(this.map);
+			assertSame(o, PersistentHashMap.copyOf(o));
+			assertSame(o, o.plus(this.key1, this.value1));
+			assertSame(o, o.minus("k3"));
+		}
+
+		@Test
+		public void hashCollisions() {
+			PersistentHashMap<CollidingKey, Integer> o = PersistentHashMap.empty();
+			for (int i = 0; i < 100; ++i) {
+				o = o.plus(new CollidingKey(i), i);
+			}
+			assertEquals(100, o.size());
+			for (int i = 0; i < 100; ++i) {
+				assertEquals(Integer.valueOf(i), o.get(new CollidingKey(i)));
+			}
+			for (int i = 0; i < 100; i += 2) {
+				o = o.minus(new CollidingKey(i));
+			}
+			assertEquals(50, o.size());
+			assertNull(o.get(new CollidingKey(0)));
+			assertEquals(Integer.valueOf(1), o.get(new CollidingKey(1)));
+		}
+
+	}
+
+	private static class CollidingKey {
+
+		private final int id;
+
+		CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.id % 3;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+		}
+
+	}
+
+}
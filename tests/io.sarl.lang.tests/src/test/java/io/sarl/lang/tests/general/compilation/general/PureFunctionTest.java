@@ -543,6 +543,144 @@ public class PureFunctionTest {
 			this.compiler.assertCompilesTo(source, expectedC1);
 		}
 
+		@Test
+		public void callChain() throws Exception {
+			String source = multilineString(
+					"class C1 {",
+					"	var f : int",
+					"	def fct1 : int { fct2 }",
+					"	def fct2 : int { fct3 }",
+					"	def fct3 : int { fct4 }",
+					"	def fct4 : int { f + 1 }",
+					"	def fct5 : void { fct6 }",
+					"	def fct6 : void { fct7 }",
+					"	def fct7 : void { f = 1 }",
+					"}",
+					"");
+			final String expectedC1 = multilineString(
+					"import io.sarl.lang.annotation.SarlElementType;",
+					"import io.sarl.lang.annotation.SarlSpecification;",
+					"import io.sarl.lang.annotation.SyntheticMember;",
+					"import org.eclipse.xtext.xbase.lib.Pure;",
+					"",
+					"@SarlSpecification(\"" + SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING + "\")",
+					"@SarlElementType(" + SarlPackage.SARL_CLASS + ")",
+					"@SuppressWarnings(\"all\")",
+					"public class C1 {",
+					"  private int f;",
+					"  ",
+					"  @Pure",
+					"  public int fct1() {",
+					"    return this.fct2();",
+					"  }",
+					"  ",
+					"  @Pure",
+					"  public int fct2() {",
+					"    return this.fct3();",
+					"  }",
+					"  ",
+					"  @Pure",
+					"  public int fct3() {",
+					"    return this.fct4();",
+					"  }",
+					"  ",
+					"  @Pure",
+					"  public int fct4() {",
+					"    return (this.f + 1);",
+					"  }",
+					"  ",
+					"  public void fct5() {",
+					"    this.fct6();",
+					"  }",
+					"  ",
+					"  public void fct6() {",
+					"    this.fct7();",
+					"  }",
+					"  ",
+					"  public void fct7() {",
+					"    this.f = 1;",
+					"  }",
+					"  ",
+					"  @Override",
+					"  @Pure",
+					"  @SyntheticMember",
+					"  public boolean equals(final Object obj) {",
+					"    if (this == obj)",
+					"      return true;",
+					"    if (obj == null)",
+					"      return false;",
+					"    if (getClass() != obj.getClass())",
+					"      return false;",
+					"    C1 other = (C1) obj;",
+					"    if (other.f != this.f)",
+					"      return false;",
+					"    return super.equals(obj);",
+					"  }",
+					"  ",
+					"  @Override",
+					"  @Pure",
+					"  @SyntheticMember",
+					"  public int hashCode() {",
+					"    int result = super.hashCode();",
+					"    final int prime = 31;",
+					"    result = prime * result + this.f;",
+					"    return result;",
+					"  }",
+					"  ",
+					"  @SyntheticMember",
+					"  public C1() {",
+					"    super();",
+					"  }",
+					"}",
+					""
+					);
+			this.compiler.assertCompilesTo(source, expectedC1);
+		}
+
+		@Test
+		public void recursiveGroup() throws Exception {
+			String source = multilineString(
+					"class C1 {",
+					"	def fct1(a : int) : int { fct2(a) }",
+					"	def fct2(a : int) : int { fct3(a) }",
+					"	def fct3(a : int) : int { fct1(a) }",
+					"}",
+					"");
+			final String expectedC1 = multilineString(
+					"import io.sarl.lang.annotation.SarlElementType;",
+					"import io.sarl.lang.annotation.SarlSpecification;",
+					"import io.sarl.lang.annotation.SyntheticMember;",
+					"import org.eclipse.xtext.xbase.lib.Pure;",
+					"",
+					"@SarlSpecification(\"" + SARLVersion.SPECIFICATION_RELEASE_VERSION_STRING + "\")",
+					"@SarlElementType(" + SarlPackage.SARL_CLASS + ")",
+					"@SuppressWarnings(\"all\")",
+					"public class C1 {",
+					"  @Pure",
+					"  public int fct1(final int a) {",
+					"    return this.fct2(a);",
+					"  }",
+					"  ",
+					"  @Pure",
+					"  public int fct2(final int a) {",
+					"    return this.fct3(a);",
+					"  }",
+					"  ",
+					"  @Pure",
+					"  public int fct3(final int a) {",
+					"    return this.fct1(a);",
+					"  }",
+					"  ",
+					"  @SyntheticMember",
+					"  public C1() {",
+					"    super();",
+					"  }",
+					"}",
+					""
+					);
+			this.compiler.assertCompilesTo(source, expectedC1);
+		}
+
 	}
 
-}
\ No newline at end of file
+}
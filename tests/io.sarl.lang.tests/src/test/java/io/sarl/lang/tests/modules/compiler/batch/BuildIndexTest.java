@@ -0,0 +1,187 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sarl.lang.tests.modules.compiler.batch;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.sarl.lang.compiler.batch.BuildIndex;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class BuildIndexTest {
+
+	private BuildIndex index;
+
+	@Before
+	public void setUp() {
+		this.index = new BuildIndex("config");
+		this.index.put("a.sarl", entry("h1", names("p.a"), names(), names("p/A.java")));
+		this.index.put("b.sarl", entry("h2", names("p.b"), names("p.a"), names("p/B.java")));
+		this.index.put("c.sarl", entry("h3", names("p.c"), names("p.b"), names("p/C.java")));
+		this.index.put("d.sarl", entry("h4", names("p.d"), names(), names("p/D.java")));
+	}
+
+	private static Set<String> names(String... names) {
+		return new TreeSet<>(Arrays.asList(names));
+	}
+
+	private static BuildIndex.Entry entry(String hash, Set<String> exported, Set<String> imported, Set<String> generated) {
+		BuildIndex.Entry entry = new BuildIndex.Entry();
+		entry.setHash(hash);
+		entry.getExportedNames().addAll(exported);
+		entry.getImportedNames().addAll(imported);
+		entry.getGeneratedFiles().addAll(generated);
+		return entry;
+	}
+
+	private static Map<String, String> hashes(String... pairs) {
+		Map<String, String> hashes = new HashMap<>();
+		for (int i = 0; i < pairs.length; i += 2) {
+			hashes.put(pairs[i], pairs[i + 1]);
+		}
+		return hashes;
+	}
+
+	@Test
+	public void getAffectedFiles_noChange() {
+		Set<String> affected = this.index.getAffectedFiles(
+				hashes("a.sarl", "h1", "b.sarl", "h2", "c.sarl", "h3", "d.sarl", "h4"),
+				Collections.emptyMap());
+		assertTrue(affected.isEmpty());
+	}
+
+	@Test
+	public void getAffectedFiles_transitiveDependents() {
+		Set<String> affected = this.index.getAffectedFiles(
+				hashes("a.sarl", "h1bis", "b.sarl", "h2", "c.sarl", "h3", "d.sarl", "h4"),
+				Collections.emptyMap());
+		assertEquals(names("a.sarl", "b.sarl", "c.sarl"), affected);
+	}
+
+	@Test
+	public void getAffectedFiles_leaf() {
+		Set<String> affected = this.index.getAffectedFiles(
+				hashes("a.sarl", "h1", "b.sarl", "h2", "c.sarl", "h3bis", "d.sarl", "h4"),
+				Collections.emptyMap());
+		assertEquals(names("c.sarl"), affected);
+	}
+
+	@Test
+	public void getAffectedFiles_newFile() {
+		Map<String, Set<String>> exported = new HashMap<>();
+		exported.put("e.sarl", names("p.e"));
+		this.index.get("d.sarl").getImportedNames().add("p.e");
+		Set<String> affected = this.index.getAffectedFiles(
+				hashes("a.sarl", "h1", "b.sarl", "h2", "c.sarl", "h3", "d.sarl", "h4", "e.sarl", "h5"),
+				exported);
+		assertEquals(names("d.sarl", "e.sarl"), affected);
+	}
+
+	@Test
+	public void getAffectedFiles_removedFile() {
+		Set<String> affected = this.index.getAffectedFiles(
+				hashes("a.sarl", "h1", "c.sarl", "h3", "d.sarl", "h4"),
+				Collections.emptyMap());
+		assertEquals(names("c.sarl"), affected);
+	}
+
+	@Test
+	public void getAffectedFiles_nullHash() {
+		Set<String> affected = this.index.getAffectedFiles(
+				hashes("a.sarl", "h1", "b.sarl", "h2", "c.sarl", "h3", "d.sarl", null),
+				Collections.emptyMap());
+		assertEquals(names("d.sarl"), affected);
+	}
+
+	@Test
+	public void getAffectedFiles_unknownHash() {
+		this.index.get("d.sarl").setHash(null);
+		Set<String> affected = this.index.getAffectedFiles(
+				hashes("a.sarl", "h1", "b.sarl", "h2", "c.sarl", "h3", "d.sarl", BuildIndex.UNKNOWN_HASH),
+				Collections.emptyMap());
+		assertEquals(names("d.sarl"), affected);
+	}
+
+	@Test
+	public void readWrite_unknownHash() throws Exception {
+		this.index.get("d.sarl").setHash(null);
+		File file = File.createTempFile("sarl", ".index");
+		try {
+			this.index.write(file);
+			BuildIndex index = BuildIndex.read(file);
+			assertEquals(BuildIndex.UNKNOWN_HASH, index.get("d.sarl").getHash());
+			assertEquals("h1", index.get("a.sarl").getHash());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void readWrite() throws Exception {
+		File file = File.createTempFile("sarl", ".index");
+		try {
+			this.index.write(file);
+			BuildIndex index = BuildIndex.read(file);
+			assertNotNull(index);
+			assertEquals("config", index.getConfigurationKey());
+			assertEquals(this.index.getFiles(), index.getFiles());
+			for (String key : this.index.getFiles()) {
+				BuildIndex.Entry expected = this.index.get(key);
+				BuildIndex.Entry actual = index.get(key);
+				assertEquals(expected.getHash(), actual.getHash());
+				assertEquals(expected.getExportedNames(), actual.getExportedNames());
+				assertEquals(expected.getImportedNames(), actual.getImportedNames());
+				assertEquals(expected.getGeneratedFiles(), actual.getGeneratedFiles());
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void read_missingFile() throws Exception {
+		assertNull(BuildIndex.read(new File("/this/file/does/not/exist.index")));
+	}
+
+	@Test
+	public void hash() {
+		assertEquals(BuildIndex.hash("abc".getBytes()), BuildIndex.hash("abc".getBytes()));
+		assertNotEquals(BuildIndex.hash("abc".getBytes()), BuildIndex.hash("abd".getBytes()));
+		assertEquals(64, BuildIndex.hash("abc".getBytes()).length());
+	}
+
+}
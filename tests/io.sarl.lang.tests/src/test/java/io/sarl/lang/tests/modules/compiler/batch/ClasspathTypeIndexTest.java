@@ -0,0 +1,133 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sarl.lang.tests.modules.compiler.batch;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.arakhne.afc.vmutil.FileSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.sarl.lang.compiler.batch.ClasspathTypeIndex;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class ClasspathTypeIndexTest {
+
+	private File folder;
+
+	private File jarFile;
+
+	private File indexFolder;
+
+	@Before
+	public void setUp() throws Exception {
+		this.folder = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		this.jarFile = new File(this.folder, "test.jar");
+		this.indexFolder = new File(this.folder, "index");
+		try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(this.jarFile))) {
+			for (final String name : Arrays.asList(
+					"p/q/B.class", "p/q/A.class", "p/q/A$Inner.class", "p/Z.class",
+					"p/q/resource.txt", "META-INF/versions/9/p/q/C.class")) {
+				output.putNextEntry(new ZipEntry(name));
+				output.write(name.getBytes());
+				output.closeEntry();
+			}
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileSystem.delete(this.folder);
+	}
+
+	@Test
+	public void get() throws Exception {
+		ClasspathTypeIndex index = ClasspathTypeIndex.get(this.jarFile, this.indexFolder);
+		assertEquals(4, index.size());
+		assertTrue(new File(this.indexFolder, ClasspathTypeIndex.hash(this.jarFile) + ClasspathTypeIndex.INDEX_FILE_EXTENSION).isFile());
+		assertSame(index, ClasspathTypeIndex.get(this.jarFile, this.indexFolder));
+	}
+
+	@Test
+	public void hashCache() throws Exception {
+		final String hash = ClasspathTypeIndex.hash(this.jarFile, this.indexFolder);
+		assertEquals(ClasspathTypeIndex.hash(this.jarFile), hash);
+		final File cacheFile = new File(this.indexFolder, ClasspathTypeIndex.HASH_CACHE_FILENAME);
+		assertTrue(cacheFile.isFile());
+		assertTrue(new String(Files.readAllBytes(cacheFile.toPath()), StandardCharsets.UTF_8).startsWith(hash + " "));
+	}
+
+	@Test
+	public void hashCache_notReadingJarFile() throws Exception {
+		final File otherJarFile = new File(this.folder, "other.jar");
+		Files.copy(this.jarFile.toPath(), otherJarFile.toPath());
+		final String stamp = otherJarFile.getAbsolutePath() + File.pathSeparator + otherJarFile.length()
+			+ File.pathSeparator + otherJarFile.lastModified();
+		this.indexFolder.mkdirs();
+		Files.write(new File(this.indexFolder, ClasspathTypeIndex.HASH_CACHE_FILENAME).toPath(),
+				("0123 " + stamp + "\n").getBytes(StandardCharsets.UTF_8));
+		assertEquals("0123", ClasspathTypeIndex.hash(otherJarFile, this.indexFolder));
+	}
+
+	@Test
+	public void contains() throws Exception {
+		ClasspathTypeIndex index = ClasspathTypeIndex.get(this.jarFile, this.indexFolder);
+		assertTrue(index.contains("p.q.A"));
+		assertTrue(index.contains("p.q.A$Inner"));
+		assertTrue(index.contains("p.q.B"));
+		assertTrue(index.contains("p.Z"));
+		assertFalse(index.contains("p.q.C"));
+		assertFalse(index.contains("p.q.A.Inner"));
+		assertFalse(index.contains("p.q"));
+		assertFalse(index.contains("p.q.resource"));
+		assertFalse(index.contains(""));
+	}
+
+	@Test
+	public void getTypes() throws Exception {
+		ClasspathTypeIndex index = ClasspathTypeIndex.get(this.jarFile, this.indexFolder);
+		assertEquals(Arrays.asList("p.Z", "p.q.A", "p.q.A$Inner", "p.q.B"), index.getTypes());
+	}
+
+	@Test
+	public void writeRead() throws Exception {
+		File indexFile = new File(this.folder, "other" + ClasspathTypeIndex.INDEX_FILE_EXTENSION);
+		ClasspathTypeIndex.write(this.jarFile, indexFile);
+		ClasspathTypeIndex index = ClasspathTypeIndex.read(indexFile);
+		assertEquals(Arrays.asList("p.Z", "p.q.A", "p.q.A$Inner", "p.q.B"), index.getTypes());
+	}
+
+}
@@ -20,14 +20,38 @@
  */
 package io.sarl.lang.tests.modules.compiler.batch;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.tools.JavaCompiler;
 
+import com.google.common.io.Files;
+import com.google.inject.Injector;
 import org.apache.log4j.Level;
+import org.arakhne.afc.vmutil.FileSystem;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.common.types.JvmOperation;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.validation.Issue;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.junit.Test;
 
 import io.sarl.lang.compiler.batch.SarlBatchCompiler;
+import io.sarl.lang.compiler.batch.SnippetCompilationSession;
+import io.sarl.lang.compiler.batch.SnippetCompilationSession.CompiledSnippet;
 
 
 /**
@@ -41,6 +65,9 @@ public class SarlBatchCompilerTest extends AbstractBatchCompilerTest {
 
 	@Inject
 	private Provider<SarlBatchCompiler> compilerProvider;
+
+	@Inject
+	private Injector injector;
 	
 	@Override
 	public void runBatchCompiler(File basePath, File sourcePath, File sarlcOutputFolder, File javacOutputFolder, File tempFolder) throws Exception {
@@ -57,4 +84,429 @@ public class SarlBatchCompilerTest extends AbstractBatchCompilerTest {
 		}
 	}
 
+	private List<String> runIncrementalCompiler(File sourcePath, File outputFolder, File tempFolder) throws Exception {
+		final List<String> compiled = new ArrayList<>();
+		SarlBatchCompiler compiler = this.compilerProvider.get();
+		compiler.setBasePath(sourcePath.getParentFile().getAbsolutePath());
+		compiler.setSourcePath(sourcePath.getAbsolutePath());
+		compiler.setOutputPath(outputFolder);
+		compiler.setTempDirectory(tempFolder);
+		compiler.setGenerateInlineAnnotation(false);
+		compiler.setIncrementalCompilation(true);
+		compiler.getLogger().setLevel(Level.ERROR);
+		compiler.addCompiledResourceReceiver(it -> compiled.add(it.getURI().lastSegment()));
+		if (!compiler.compile()) {
+			throw new RuntimeException("Compilation error");
+		}
+		return compiled;
+	}
+
+	@Test
+	public void testIncrementalCompilation() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			sourceDirectory.mkdirs();
+			File outputDirectory = new File(tempDirectory, "src-gen");
+			outputDirectory.mkdirs();
+			File buildDirectory = new File(tempDirectory, "build");
+			buildDirectory.mkdirs();
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event1\n".getBytes(),
+					new File(sourceDirectory, "event1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nagent Agent1 {\n on Event1 { }\n}\n".getBytes(),
+					new File(sourceDirectory, "agent1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nagent Agent2 { }\n".getBytes(),
+					new File(sourceDirectory, "agent2.sarl"));
+
+			List<String> compiled = runIncrementalCompiler(sourceDirectory, outputDirectory, buildDirectory);
+			assertEquals(3, compiled.size());
+
+			compiled = runIncrementalCompiler(sourceDirectory, outputDirectory, buildDirectory);
+			assertTrue(compiled.isEmpty());
+
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event1 {\n var x : int\n}\n".getBytes(),
+					new File(sourceDirectory, "event1.sarl"));
+			compiled = runIncrementalCompiler(sourceDirectory, outputDirectory, buildDirectory);
+			assertEquals(2, compiled.size());
+			assertTrue(compiled.contains("event1.sarl"));
+			assertTrue(compiled.contains("agent1.sarl"));
+
+			new File(sourceDirectory, "agent2.sarl").delete();
+			compiled = runIncrementalCompiler(sourceDirectory, outputDirectory, buildDirectory);
+			assertTrue(compiled.isEmpty());
+			assertFalse(makeFolder(outputDirectory, "io", "sarl", "lang", "tests", "compiler", "batch", "Agent2.java").exists());
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testIncrementalCompilation_freshTempDirectory() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			sourceDirectory.mkdirs();
+			File outputDirectory = new File(tempDirectory, "src-gen");
+			outputDirectory.mkdirs();
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event1\n".getBytes(),
+					new File(sourceDirectory, "event1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nagent Agent1 {\n on Event1 { }\n}\n".getBytes(),
+					new File(sourceDirectory, "agent1.sarl"));
+
+			List<String> compiled = runIncrementalCompiler(sourceDirectory, outputDirectory, new File(tempDirectory, "build1"));
+			assertEquals(2, compiled.size());
+			assertTrue(new File(tempDirectory, ".sarl-build.index").isFile());
+
+			compiled = runIncrementalCompiler(sourceDirectory, outputDirectory, new File(tempDirectory, "build2"));
+			assertTrue(compiled.isEmpty());
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void getBuildIndexFile() throws Exception {
+		SarlBatchCompiler compiler = this.compilerProvider.get();
+		File outputDirectory = new File(new File("project"), "src-gen");
+		compiler.setOutputPath(outputDirectory);
+		assertEquals(new File(outputDirectory.getAbsoluteFile().getParentFile(), ".sarl-build.index"),
+				compiler.getBuildIndexFile());
+		File indexFile = new File("index");
+		compiler.setBuildIndexFile(indexFile);
+		assertEquals(indexFile, compiler.getBuildIndexFile());
+	}
+
+	private Map<String, byte[]> runCompiler(File sourcePath, File outputFolder, File tempFolder, boolean parallel,
+			boolean inMemoryStubs, boolean lowMemory) throws Exception {
+		return runCompiler(this.compilerProvider.get(), sourcePath, outputFolder, tempFolder, parallel, inMemoryStubs, lowMemory);
+	}
+
+	private Map<String, byte[]> runCompiler(SarlBatchCompiler compiler, File sourcePath, File outputFolder, File tempFolder,
+			boolean parallel, boolean inMemoryStubs, boolean lowMemory) throws Exception {
+		compiler.setBasePath(sourcePath.getParentFile().getAbsolutePath());
+		compiler.setSourcePath(sourcePath.getAbsolutePath());
+		compiler.setOutputPath(outputFolder);
+		compiler.setTempDirectory(tempFolder);
+		compiler.setGenerateInlineAnnotation(false);
+		compiler.setParallelCompilation(parallel);
+		compiler.setInMemoryStubCompilation(inMemoryStubs);
+		compiler.setLowMemoryCompilation(lowMemory);
+		compiler.getLogger().setLevel(Level.ERROR);
+		if (!compiler.compile()) {
+			throw new RuntimeException("Compilation error");
+		}
+		final Map<String, byte[]> files = new TreeMap<>();
+		readFiles(outputFolder, "", files);
+		return files;
+	}
+
+	private static void readFiles(File folder, String prefix, Map<String, byte[]> files) throws Exception {
+		for (final File file : folder.listFiles()) {
+			if (file.isDirectory()) {
+				readFiles(file, prefix + file.getName() + "/", files);
+			} else {
+				files.put(prefix + file.getName(), Files.toByteArray(file));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelCompilation() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			sourceDirectory.mkdirs();
+			for (int i = 0; i < 8; ++i) {
+				Files.write(("package io.sarl.lang.tests.compiler.batch\n"
+						+ "event Event" + i + "\n"
+						+ "agent Agent" + i + " {\n"
+						+ " def fct(a : int = 4, b : String = \"x\") : int { a + b.length }\n"
+						+ " on Event" + i + " { fct }\n"
+						+ "}\n").getBytes(), new File(sourceDirectory, "file" + i + ".sarl"));
+			}
+			File sequentialOutput = new File(tempDirectory, "src-gen-1");
+			sequentialOutput.mkdirs();
+			File parallelOutput = new File(tempDirectory, "src-gen-2");
+			parallelOutput.mkdirs();
+
+			Map<String, byte[]> sequentialFiles = runCompiler(sourceDirectory, sequentialOutput, new File(tempDirectory, "build1"), false, false, false);
+			Map<String, byte[]> parallelFiles = runCompiler(sourceDirectory, parallelOutput, new File(tempDirectory, "build2"), true, false, false);
+
+			assertEquals(sequentialFiles.keySet(), parallelFiles.keySet());
+			assertEquals(16L, sequentialFiles.keySet().stream().filter(it -> it.endsWith(".java")).count());
+			for (final String name : sequentialFiles.keySet()) {
+				assertTrue(name, Arrays.equals(sequentialFiles.get(name), parallelFiles.get(name)));
+			}
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testParallelCompilation_crossReferences() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			sourceDirectory.mkdirs();
+			Files.write(("package io.sarl.lang.tests.compiler.batch\n"
+					+ "capacity Cap0 {\n def compute(a : int) : int\n}\n").getBytes(),
+					new File(sourceDirectory, "cap0.sarl"));
+			Files.write(("package io.sarl.lang.tests.compiler.batch\n"
+					+ "event Event0 {\n var value : int\n}\n").getBytes(),
+					new File(sourceDirectory, "event0.sarl"));
+			for (int i = 0; i < 8; ++i) {
+				Files.write(("package io.sarl.lang.tests.compiler.batch\n"
+						+ "capacity Cap" + (i + 1) + " extends Cap" + i + " {\n def compute" + (i + 1) + " : int\n}\n"
+						+ "skill Skill" + (i + 1) + " implements Cap" + (i + 1) + " {\n"
+						+ " def compute(a : int) = a + " + i + "\n"
+						+ " def compute" + (i + 1) + " = compute(" + i + ")\n"
+						+ "}\n"
+						+ "event Event" + (i + 1) + " extends Event" + i + "\n"
+						+ "agent Agent" + (i + 1) + (i == 0 ? "" : " extends Agent" + i) + " {\n"
+						+ " uses Cap" + (i + 1) + "\n"
+						+ " def install" + (i + 1) + " { setSkill(new Skill" + (i + 1) + ") }\n"
+						+ " on Event" + (i + 1) + " { compute" + (i + 1) + " + compute(occurrence.value) }\n"
+						+ "}\n").getBytes(), new File(sourceDirectory, "file" + i + ".sarl"));
+			}
+			File sequentialOutput = new File(tempDirectory, "src-gen-1");
+			sequentialOutput.mkdirs();
+			File parallelOutput = new File(tempDirectory, "src-gen-2");
+			parallelOutput.mkdirs();
+
+			Map<String, byte[]> sequentialFiles = runCompiler(sourceDirectory, sequentialOutput, new File(tempDirectory, "build1"), false, false, false);
+			for (int run = 0; run < 4; ++run) {
+				FileSystem.delete(parallelOutput);
+				parallelOutput.mkdirs();
+				Map<String, byte[]> parallelFiles = runCompiler(sourceDirectory, parallelOutput, new File(tempDirectory, "build" + (run + 2)), true, false, false);
+				assertEquals(sequentialFiles.keySet(), parallelFiles.keySet());
+				for (final String name : sequentialFiles.keySet()) {
+					assertTrue(name, Arrays.equals(sequentialFiles.get(name), parallelFiles.get(name)));
+				}
+			}
+			assertEquals(34L, sequentialFiles.keySet().stream().filter(it -> it.endsWith(".java")).count());
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testInMemoryStubCompilation() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			File packageDirectory = makeFolder(sourceDirectory, "io", "sarl", "lang", "tests", "compiler", "batch");
+			packageDirectory.mkdirs();
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event1 {\n var helper : JavaHelper\n}\n".getBytes(),
+					new File(sourceDirectory, "event1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nagent Agent1 {\n on Event1 { occurrence.helper.toString }\n}\n".getBytes(),
+					new File(sourceDirectory, "agent1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch;\npublic class JavaHelper {\n public Event1 event;\n}\n".getBytes(),
+					new File(packageDirectory, "JavaHelper.java"));
+			File diskOutput = new File(tempDirectory, "src-gen-1");
+			diskOutput.mkdirs();
+			File memoryOutput = new File(tempDirectory, "src-gen-2");
+			memoryOutput.mkdirs();
+			File memoryBuild = new File(tempDirectory, "build2");
+			memoryBuild.mkdirs();
+
+			Map<String, byte[]> diskFiles = runCompiler(sourceDirectory, diskOutput, new File(tempDirectory, "build1"), false, false, false);
+			Map<String, byte[]> memoryFiles = runCompiler(sourceDirectory, memoryOutput, memoryBuild, false, true, false);
+
+			assertEquals(diskFiles.keySet(), memoryFiles.keySet());
+			assertEquals(2L, diskFiles.keySet().stream().filter(it -> it.endsWith(".java")).count());
+			for (final String name : diskFiles.keySet()) {
+				assertTrue(name, Arrays.equals(diskFiles.get(name), memoryFiles.get(name)));
+			}
+			final Map<String, byte[]> buildFiles = new TreeMap<>();
+			readFiles(memoryBuild, "", buildFiles);
+			assertTrue(buildFiles.keySet().toString(), buildFiles.keySet().stream().noneMatch(it -> it.endsWith(".java") || it.endsWith(".class")));
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testInMemoryStubCompilation_fallbackOnDisk() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event1\n".getBytes(),
+					new File(sourceDirectory, "event1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nagent Agent1 {\n on Event1 { occurrence.toString }\n}\n".getBytes(),
+					new File(sourceDirectory, "agent1.sarl"));
+			File diskOutput = new File(tempDirectory, "src-gen-1");
+			diskOutput.mkdirs();
+			File memoryOutput = new File(tempDirectory, "src-gen-2");
+			memoryOutput.mkdirs();
+
+			// No Java compiler for the in-memory compilation
+			SarlBatchCompiler compiler = new SarlBatchCompiler() {
+				@Override
+				protected JavaCompiler createJavaCompiler() {
+					return null;
+				}
+			};
+			this.injector.injectMembers(compiler);
+
+			Map<String, byte[]> diskFiles = runCompiler(sourceDirectory, diskOutput, new File(tempDirectory, "build1"), false, false, false);
+			Map<String, byte[]> memoryFiles = runCompiler(compiler, sourceDirectory, memoryOutput, new File(tempDirectory, "build2"),
+					false, true, false);
+
+			assertEquals(diskFiles.keySet(), memoryFiles.keySet());
+			for (final String name : diskFiles.keySet()) {
+				assertTrue(name, Arrays.equals(diskFiles.get(name), memoryFiles.get(name)));
+			}
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testLowMemoryCompilation() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			sourceDirectory.mkdirs();
+			Files.write("package io.sarl.lang.tests.compiler.batch\ncapacity Cap1 {\n def fct(a : int) : int\n}\n".getBytes(),
+					new File(sourceDirectory, "cap1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nskill Skill1 implements Cap1 {\n def fct(a : int) : int { a + 1 }\n}\n".getBytes(),
+					new File(sourceDirectory, "skill1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event1 {\n var value : int\n}\n".getBytes(),
+					new File(sourceDirectory, "event1.sarl"));
+			Files.write(("package io.sarl.lang.tests.compiler.batch\nagent Agent1 {\n uses Cap1\n"
+					+ " def install { setSkill(new Skill1) }\n on Event1 { fct(occurrence.value) }\n}\n").getBytes(),
+					new File(sourceDirectory, "agent1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event2\n".getBytes(),
+					new File(sourceDirectory, "event2.sarl"));
+			File standardOutput = new File(tempDirectory, "src-gen-1");
+			standardOutput.mkdirs();
+			File lowMemoryOutput = new File(tempDirectory, "src-gen-2");
+			lowMemoryOutput.mkdirs();
+
+			Map<String, byte[]> standardFiles = runCompiler(sourceDirectory, standardOutput, new File(tempDirectory, "build1"), false, false, false);
+			Map<String, byte[]> lowMemoryFiles = runCompiler(sourceDirectory, lowMemoryOutput, new File(tempDirectory, "build2"), false, false, true);
+
+			assertEquals(standardFiles.keySet(), lowMemoryFiles.keySet());
+			assertEquals(5L, standardFiles.keySet().stream().filter(it -> it.endsWith(".java")).count());
+			for (final String name : standardFiles.keySet()) {
+				assertTrue(name, Arrays.equals(standardFiles.get(name), lowMemoryFiles.get(name)));
+			}
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testProfilingReport() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			File sourceDirectory = new File(tempDirectory, "src");
+			sourceDirectory.mkdirs();
+			Files.write("package io.sarl.lang.tests.compiler.batch\nevent Event1\n".getBytes(),
+					new File(sourceDirectory, "event1.sarl"));
+			Files.write("package io.sarl.lang.tests.compiler.batch\nagent Agent1 {\n on Event1 { }\n}\n".getBytes(),
+					new File(sourceDirectory, "agent1.sarl"));
+			File outputDirectory = new File(tempDirectory, "src-gen");
+			outputDirectory.mkdirs();
+			File reportFile = new File(tempDirectory, "report.json");
+
+			SarlBatchCompiler compiler = this.compilerProvider.get();
+			compiler.setBasePath(tempDirectory.getAbsolutePath());
+			compiler.setSourcePath(sourceDirectory.getAbsolutePath());
+			compiler.setOutputPath(outputDirectory);
+			compiler.setTempDirectory(new File(tempDirectory, "build"));
+			compiler.setGenerateInlineAnnotation(false);
+			compiler.setProfilingReportFile(reportFile);
+			compiler.getLogger().setLevel(Level.ERROR);
+			assertTrue(compiler.compile());
+
+			assertTrue(reportFile.isFile());
+			final String report = Files.toString(reportFile, StandardCharsets.UTF_8);
+			for (final String phase : Arrays.asList("parsing", "stubGeneration", "stubCompilation",
+					"jvmModelInference", "validation", "generation")) {
+				assertTrue(phase, report.contains("{\"name\": \"" + phase + "\""));
+			}
+			assertTrue(report.contains("event1.sarl"));
+			assertTrue(report.contains("agent1.sarl"));
+			assertTrue(report.contains("\"slowestResources\": ["));
+			assertTrue(report.contains("{\"check\": \"SARLValidator."));
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testSnippetSession() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			SarlBatchCompiler compiler = this.compilerProvider.get();
+			compiler.setBasePath(tempDirectory.getAbsolutePath());
+			compiler.setSourcePath(new File(tempDirectory, "src").getAbsolutePath());
+			compiler.setOutputPath(new File(tempDirectory, "src-gen"));
+			compiler.setGenerateInlineAnnotation(false);
+			compiler.getLogger().setLevel(Level.OFF);
+			try (SnippetCompilationSession session = compiler.openSnippetSession()) {
+				CompiledSnippet snippet1 = session.compile(10, "package io.sarl.lang.tests.compiler.batch\nevent Event1\n");
+				assertFalse(snippet1.hasError());
+				assertTrue(snippet1.getGeneratedFiles().keySet().toString(),
+						snippet1.getGeneratedFiles().keySet().stream().anyMatch(it -> it.endsWith("io/sarl/lang/tests/compiler/batch/Event1.java")));
+
+				List<CompiledSnippet> snippets = session.compileAll(Arrays.asList(
+						Pair.of(20, "package io.sarl.lang.tests.compiler.batch\nevent Event1\n"),
+						Pair.of(30, "package io.sarl.lang.tests.compiler.batch\nagent Agent1 {\n on UnknownEvent { }\n}\n")));
+				assertEquals(2, snippets.size());
+				assertFalse(snippets.get(0).hasError());
+				CompiledSnippet snippet3 = snippets.get(1);
+				assertTrue(snippet3.hasError());
+				assertTrue(snippet3.getGeneratedFiles().isEmpty());
+				Issue issue = snippet3.getIssues().get(0);
+				assertEquals(33, snippet3.getLineNumber(issue));
+			}
+			assertFalse(new File(tempDirectory, "src-gen").exists());
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	@Test
+	public void testSnippetSession_sharedTypes() throws Exception {
+		File tempDirectory = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		try {
+			SarlBatchCompiler compiler = this.compilerProvider.get();
+			compiler.setBasePath(tempDirectory.getAbsolutePath());
+			compiler.setSourcePath(new File(tempDirectory, "src").getAbsolutePath());
+			compiler.setOutputPath(new File(tempDirectory, "src-gen"));
+			compiler.setGenerateInlineAnnotation(false);
+			compiler.getLogger().setLevel(Level.OFF);
+			try (SnippetCompilationSession session = compiler.openSnippetSession()) {
+				final String code = "package io.sarl.lang.tests.compiler.batch\nclass C1 {\n def fct : java.util.List<String> { null }\n}\n";
+				CompiledSnippet snippet1 = session.compile(code);
+				CompiledSnippet snippet2 = session.compile(code);
+				assertFalse(snippet1.hasError());
+				assertFalse(snippet2.hasError());
+				JvmType type1 = getReturnType(snippet1);
+				JvmType type2 = getReturnType(snippet2);
+				assertEquals("java.util.List", type1.getIdentifier());
+				assertFalse(type1.eIsProxy());
+				assertSame(type1, type2);
+				assertNotSame(snippet1.getResource().getResourceSet(), type1.eResource().getResourceSet());
+				assertTrue(snippet1.getResource().getResourceSet().getResources().stream()
+						.noneMatch(it -> "java".equals(it.getURI().scheme())));
+			}
+		} finally {
+			FileSystem.delete(tempDirectory);
+		}
+	}
+
+	private static JvmType getReturnType(CompiledSnippet snippet) {
+		final Iterator<EObject> iterator = snippet.getResource().getAllContents();
+		while (iterator.hasNext()) {
+			final EObject object = iterator.next();
+			if (object instanceof JvmOperation && "fct".equals(((JvmOperation) object).getSimpleName())) {
+				return ((JvmOperation) object).getReturnType().getType();
+			}
+		}
+		return null;
+	}
+
 }
@@ -0,0 +1,182 @@
+/*
+ * $Id$
+ *
+ * SARL is an general-purpose agent programming language.
+ * More details on http://www.sarl.io
+ *
+ * Copyright (C) 2014-2018 the original authors or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sarl.lang.tests.modules.compiler.batch;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Properties;
+
+import javax.inject.Inject;
+
+import com.google.inject.Injector;
+import org.arakhne.afc.vmutil.FileSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.sarl.lang.SARLVersion;
+import io.sarl.lang.compiler.batch.SarlcDaemon;
+import io.sarl.lang.compiler.batch.SarlcDaemonClient;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class SarlcDaemonTest extends AbstractBatchCompilerTest {
+
+	private static final long TIMEOUT = 30000;
+
+	@Inject
+	private Injector injector;
+
+	private File daemonFolder;
+
+	private File daemonFile;
+
+	private Thread daemonThread;
+
+	@Before
+	public void startDaemon() throws Exception {
+		this.daemonFolder = FileSystem.createTempDirectory("sarltests_" + getClass().getSimpleName()+ "_", "tmp");
+		this.daemonFile = new File(this.daemonFolder, SarlcDaemon.DAEMON_FILENAME);
+		final SarlcDaemon daemon = new SarlcDaemon(this.injector, this.daemonFile);
+		this.daemonThread = new Thread(() -> {
+			try {
+				daemon.run();
+			} catch (Exception exception) {
+				throw new RuntimeException(exception);
+			}
+		});
+		this.daemonThread.setDaemon(true);
+		this.daemonThread.start();
+		final long timeout = System.currentTimeMillis() + TIMEOUT;
+		while (!this.daemonFile.isFile() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(100);
+		}
+		assertTrue(this.daemonFile.isFile());
+	}
+
+	@After
+	public void stopDaemon() throws Exception {
+		try {
+			assertTrue(SarlcDaemonClient.stopDaemon(this.daemonFile));
+			this.daemonThread.join(TIMEOUT);
+			assertTrue(!this.daemonFile.exists());
+		} finally {
+			FileSystem.delete(this.daemonFolder);
+		}
+	}
+
+	@Test
+	public void daemonFileName() {
+		assertTrue(SarlcDaemon.DAEMON_FILENAME.contains(SARLVersion.SARL_RELEASE_VERSION));
+		assertTrue(SarlcDaemon.getDefaultDaemonFile().getName().contains(SARLVersion.SARL_RELEASE_VERSION));
+	}
+
+	@Test
+	public void daemonFilePermissions() throws Exception {
+		final Path path = this.daemonFile.toPath();
+		assumeTrue(path.getFileSystem().supportedFileAttributeViews().contains("posix"));
+		assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+				Files.getPosixFilePermissions(path));
+	}
+
+	@Test
+	public void handshake_invalidVersion() throws Exception {
+		final Properties properties = new Properties();
+		try (InputStream stream = new FileInputStream(this.daemonFile)) {
+			properties.load(stream);
+		}
+		assertTrue(SARLVersion.SARL_RELEASE_VERSION.equals(properties.getProperty("version")));
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(properties.getProperty("port")))) {
+			final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+			output.writeUTF(properties.getProperty("token"));
+			output.writeUTF("0.0.0");
+			output.writeUTF("stop");
+			output.flush();
+			final DataInputStream input = new DataInputStream(socket.getInputStream());
+			assertTrue(input.readBoolean());
+			input.readUTF();
+			assertFalse(input.readBoolean());
+			assertNotEquals(0, input.readInt());
+		}
+		// The daemon is still running and it is stopped by stopDaemon()
+	}
+
+	@Test
+	public void handshake_invalidToken() throws Exception {
+		final Properties properties = new Properties();
+		try (InputStream stream = new FileInputStream(this.daemonFile)) {
+			properties.load(stream);
+		}
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(properties.getProperty("port")))) {
+			final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+			output.writeUTF(properties.getProperty("token") + "x");
+			output.writeUTF(SARLVersion.SARL_RELEASE_VERSION);
+			output.writeUTF("stop");
+			output.flush();
+			final DataInputStream input = new DataInputStream(socket.getInputStream());
+			assertTrue(input.readBoolean());
+			input.readUTF();
+			assertFalse(input.readBoolean());
+			assertNotEquals(0, input.readInt());
+		}
+	}
+
+	@Override
+	public void runBatchCompiler(File basePath, File sourcePath, File sarlcOutputFolder, File javacOutputFolder, File tempFolder) throws Exception {
+		final List<String> output = new ArrayList<>();
+		// Compile two times in order to use the warm compiler.
+		for (int i = 0; i < 2; ++i) {
+			final int exitCode = SarlcDaemonClient.compile(this.daemonFile, new String[] {
+					"--quiet",
+					"--dir", sarlcOutputFolder.getAbsolutePath(),
+					"--tempdir", tempFolder.getAbsolutePath(),
+					"--javac", Boolean.FALSE.toString(),
+					"-inlines", Boolean.FALSE.toString(),
+					sourcePath.getAbsolutePath(),
+			}, output::add);
+			if (exitCode != 0) {
+				throw new RuntimeException("Compilation error: " + output);
+			}
+		}
+	}
+
+}